@@ -0,0 +1,133 @@
+package com.clusterat.live.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes long-running background jobs (file imports, recategorization, duplicate backfill) on a
+ * small dedicated pool, so they never occupy the request-serving threads of {@link JdbcExecutor}.
+ * The pool has background-jobs.threads threads, each with its own Hikari connection on top of the
+ * jdbc.scheduler.threads used by requests (spring.datasource.hikari.maximum-pool-size covers both).
+ * At most background-jobs.max-running jobs run at a time; further jobs are rejected, not queued.
+ * The work queue itself is unbounded: the running jobs bound it through their own parallelism.
+ * Jobs that walk a table by primary key use {@link #forEachRange} to process it in id ranges.
+ */
+@Slf4j
+@Component
+public class BackgroundJobExecutor {
+    /**
+     * Ids per batch in {@link #forEachRange}: each batch reads its rows through the primary key.
+     */
+    public static final long BATCH_ID_SPAN = 5000;
+
+    private final ThreadPoolExecutor executor;
+    private final Scheduler scheduler;
+    private final Semaphore slots;
+    private final int threads;
+    private final int maxRunning;
+
+    @Autowired
+    public BackgroundJobExecutor(MeterRegistry meterRegistry,
+                                 @Value("${background-jobs.threads:4}") int threads,
+                                 @Value("${background-jobs.max-running:2}") int maxRunning) {
+        this.threads = Math.max(1, threads);
+        this.maxRunning = Math.max(1, maxRunning);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(this.threads, this.threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.scheduler = Schedulers.fromExecutorService(
+                ExecutorServiceMetrics.monitor(meterRegistry, executor, "background-jobs"), "background-jobs");
+        this.slots = new Semaphore(this.maxRunning);
+
+        log.info("Background job executor initialized with {} threads and at most {} running jobs",
+                this.threads, this.maxRunning);
+    }
+
+    /**
+     * Reserves a slot for a new job; release it with {@link #releaseSlot()} when the job ends.
+     * @throws IllegalStateException when background-jobs.max-running jobs are already running
+     */
+    public void acquireSlot() {
+        if (!slots.tryAcquire()) {
+            throw new IllegalStateException("Too many background jobs running (max " + maxRunning + "), try again later");
+        }
+    }
+
+    public void releaseSlot() {
+        slots.release();
+    }
+
+    /**
+     * Fails fast before expensive preparation (e.g. spooling an upload) when no slot is free.
+     * The slot is only reserved later, by {@link #acquireSlot()}.
+     * @throws IllegalStateException when background-jobs.max-running jobs are already running
+     */
+    public void checkCapacity() {
+        if (slots.availablePermits() == 0) {
+            throw new IllegalStateException("Too many background jobs running (max " + maxRunning + "), try again later");
+        }
+    }
+
+    /**
+     * Runs a blocking call on a background job thread.
+     */
+    public <T> Mono<T> mono(Callable<T> task) {
+        return Mono.fromCallable(task).subscribeOn(scheduler);
+    }
+
+    /**
+     * Number of {@link #BATCH_ID_SPAN} batches covering the ids in [minId, maxId].
+     */
+    public static long batchCount(long minId, long maxId) {
+        return (maxId - minId) / BATCH_ID_SPAN + 1;
+    }
+
+    /**
+     * Runs the task on background job threads for each [fromId, fromId + BATCH_ID_SPAN) range covering
+     * [minId, maxId], at most parallelism ranges at a time (capped by the number of background threads).
+     * @return the task results, in completion order
+     */
+    public <T> Flux<T> forEachRange(long minId, long maxId, int parallelism, RangeTask<T> task) {
+        int concurrency = Math.max(1, Math.min(parallelism, threads));
+        return Flux.range(0, (int) batchCount(minId, maxId))
+                .flatMap(batch -> {
+                    long fromId = minId + batch * BATCH_ID_SPAN;
+                    return mono(() -> task.run(fromId, fromId + BATCH_ID_SPAN));
+                }, concurrency);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.dispose();
+        executor.shutdown();
+    }
+
+    /**
+     * Blocking work over the ids in [fromId, toId).
+     */
+    @FunctionalInterface
+    public interface RangeTask<T> {
+        T run(long fromId, long toId) throws Exception;
+    }
+}
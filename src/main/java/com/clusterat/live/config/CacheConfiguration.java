@@ -22,6 +22,7 @@ public class CacheConfiguration {
     @Bean
     public CacheManager cacheManager() {
         CaffeineCacheManager cacheManager = new CaffeineCacheManager("searxng_searches");
+        cacheManager.setAsyncCacheMode(true);                   // Required for @Cacheable on Mono results
 
         cacheManager.setCaffeine(Caffeine.newBuilder()
                 .maximumSize(100)                           // Maximum of 100 entries in cache
@@ -0,0 +1,54 @@
+package com.clusterat.live.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Detects Spring Data repository calls made on non-blocking threads (Netty event loop,
+ * Reactor parallel). Each one is logged and timed as jdbc.event_loop.blocking, tagged
+ * with the repository method, so endpoints that bypass {@link JdbcExecutor} show up in metrics.
+ */
+@Slf4j
+@Aspect
+@Component
+public class EventLoopBlockingMonitor {
+    private final MeterRegistry meterRegistry;
+
+    public EventLoopBlockingMonitor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object monitorRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!Schedulers.isInNonBlockingThread()) {
+            return joinPoint.proceed();
+        }
+
+        String operation = repositoryName(joinPoint) + "." + joinPoint.getSignature().getName();
+        log.warn("Blocking repository call {} on non-blocking thread {}", operation, Thread.currentThread().getName());
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            sample.stop(Timer.builder("jdbc.event_loop.blocking")
+                    .description("Repository calls that blocked a non-blocking thread")
+                    .tag("operation", operation)
+                    .register(meterRegistry));
+        }
+    }
+
+    private String repositoryName(ProceedingJoinPoint joinPoint) {
+        Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(joinPoint.getThis());
+        return interfaces.length > 0
+                ? interfaces[0].getSimpleName()
+                : joinPoint.getSignature().getDeclaringType().getSimpleName();
+    }
+}
@@ -0,0 +1,106 @@
+package com.clusterat.live.config;
+
+import com.clusterat.live.dto.KeysetPageDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Executes blocking JDBC/JPA work off the Netty event loop.
+ * The pool has one thread per Hikari connection reserved for request work (jdbc.scheduler.threads; the
+ * rest of spring.datasource.hikari.maximum-pool-size belongs to {@link BackgroundJobExecutor}),
+ * so threads never wait for a connection, and a bounded queue (jdbc.scheduler.queue-capacity)
+ * sheds load with 503 instead of piling up requests when the database is slow.
+ */
+@Slf4j
+@Component
+public class JdbcExecutor {
+    private final ThreadPoolExecutor executor;
+    private final Scheduler scheduler;
+    private final Timer queueWaitTimer;
+
+    @Autowired
+    public JdbcExecutor(MeterRegistry meterRegistry,
+                        @Value("${jdbc.scheduler.threads:10}") int poolSize,
+                        @Value("${jdbc.scheduler.queue-capacity:500}") int queueCapacity) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "jdbc-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.scheduler = Schedulers.fromExecutorService(
+                ExecutorServiceMetrics.monitor(meterRegistry, executor, "jdbc"), "jdbc");
+        this.queueWaitTimer = Timer.builder("jdbc.scheduler.queue.wait")
+                .description("Time a blocking database task waited for a JDBC thread")
+                .register(meterRegistry);
+
+        log.info("JDBC scheduler initialized with {} threads and queue capacity {}", poolSize, queueCapacity);
+    }
+
+    /**
+     * Runs a blocking call on the JDBC scheduler.
+     */
+    public <T> Mono<T> mono(Callable<T> task) {
+        return Mono.defer(() -> {
+            long submittedAt = System.nanoTime();
+            return Mono.fromCallable(() -> {
+                queueWaitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return task.call();
+            }).subscribeOn(scheduler);
+        }).onErrorMap(RejectedExecutionException.class,
+                e -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Database is busy, try again later", e));
+    }
+
+    /**
+     * Runs a blocking call returning a collection on the JDBC scheduler and emits its elements.
+     */
+    public <T> Flux<T> flux(Callable<? extends Iterable<T>> task) {
+        return mono(task).flatMapIterable(items -> items);
+    }
+
+    /**
+     * Streams every row of a keyset paginated listing, one bounded page query at a time,
+     * so exports never hold more than a single page in memory.
+     * @param pageLoader loads the page after the given cursor (null for the first page)
+     */
+    public <T> Flux<T> pages(Function<String, KeysetPageDTO<T>> pageLoader, String after) {
+        return mono(() -> pageLoader.apply(after))
+                .expand(page -> page.isHasMore()
+                        ? mono(() -> pageLoader.apply(page.getNextCursor()))
+                        : Mono.empty())
+                .concatMapIterable(KeysetPageDTO::getItems);
+    }
+
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.dispose();
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,97 @@
+package com.clusterat.live.config;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Option;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.util.StringUtils;
+
+import java.util.Map;
+
+/**
+ * R2DBC Configuration for the reactive read path.
+ * JPA keeps the writes; high-traffic list endpoints stream rows through R2DBC.
+ * When spring.r2dbc.url is not set, the connection is derived from spring.datasource.*
+ * so both drivers always point at the same database.
+ */
+@Slf4j
+@Configuration
+public class R2dbcConfiguration {
+    /**
+     * pgJDBC URL parameters whose r2dbc-postgresql option has a different name.
+     */
+    private static final Map<String, String> JDBC_PARAMETERS = Map.of(
+            "currentSchema", "schema",
+            "sslmode", "sslMode");
+
+    @Bean
+    public ConnectionFactory connectionFactory(
+            @Value("${spring.r2dbc.url:}") String r2dbcUrl,
+            @Value("${spring.datasource.url:}") String jdbcUrl,
+            @Value("${spring.datasource.username:}") String username,
+            @Value("${spring.datasource.password:}") String password,
+            @Value("${spring.r2dbc.pool.max-size:20}") int maxPoolSize) {
+        log.info("R2DBC connection pool configured with max size {}", maxPoolSize);
+        return ConnectionFactories.get(connectionOptions(r2dbcUrl, jdbcUrl, username, password, maxPoolSize));
+    }
+
+    /**
+     * Pooled connection options from spring.r2dbc.url, or from the JDBC URL with the driver prefix and the
+     * pgJDBC-only parameter names (currentSchema, sslmode) translated.
+     */
+    static ConnectionFactoryOptions connectionOptions(String r2dbcUrl, String jdbcUrl, String username,
+                                                      String password, int maxPoolSize) {
+        String url = StringUtils.hasText(r2dbcUrl) ? r2dbcUrl : jdbcUrl.replaceFirst("^jdbc:", "r2dbc:");
+        if (!StringUtils.hasText(url)) {
+            throw new IllegalStateException("Configure spring.r2dbc.url or spring.datasource.url");
+        }
+
+        ConnectionFactoryOptions parsed = ConnectionFactoryOptions.parse(url);
+        ConnectionFactoryOptions.Builder options = parsed.mutate();
+        Object driver = parsed.getRequiredValue(ConnectionFactoryOptions.DRIVER);
+        if (!"pool".equals(driver)) {
+            options.option(ConnectionFactoryOptions.DRIVER, "pool")
+                    .option(ConnectionFactoryOptions.PROTOCOL, driver.toString());
+        }
+        if (!StringUtils.hasText(r2dbcUrl)) {
+            JDBC_PARAMETERS.forEach((jdbcName, r2dbcName) -> {
+                Object value = parsed.getValue(Option.valueOf(jdbcName));
+                if (value != null) {
+                    options.option(Option.valueOf(r2dbcName), value);
+                }
+            });
+        }
+        options.option(Option.valueOf("maxSize"), maxPoolSize);
+        if (StringUtils.hasText(username)) {
+            options.option(ConnectionFactoryOptions.USER, username);
+        }
+        if (StringUtils.hasText(password)) {
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+        return options.build();
+    }
+
+    /**
+     * JPA stays the default transaction manager for the existing @Transactional services.
+     */
+    @Bean
+    @Primary
+    public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+
+    @Bean
+    public ReactiveTransactionManager reactiveTransactionManager(ConnectionFactory connectionFactory) {
+        return new R2dbcTransactionManager(connectionFactory);
+    }
+}
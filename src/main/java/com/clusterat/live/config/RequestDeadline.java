@@ -0,0 +1,42 @@
+package com.clusterat.live.config;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Per-request deadline carried in the Reactor context.
+ * The deadline is an absolute epoch-millis instant so it shrinks naturally
+ * as the request moves through nested calls and retries.
+ */
+public final class RequestDeadline {
+    public static final String CONTEXT_KEY = "clusterat.request.deadline";
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+
+    private RequestDeadline() {
+    }
+
+    /**
+     * Returns a context modifier that sets a deadline {@code timeout} from now,
+     * keeping any earlier deadline already present in the context.
+     */
+    public static Function<Context, Context> within(Duration timeout) {
+        return context -> {
+            long deadline = System.currentTimeMillis() + timeout.toMillis();
+            Optional<Long> existing = context.getOrEmpty(CONTEXT_KEY);
+            return context.put(CONTEXT_KEY, existing.map(current -> Math.min(current, deadline)).orElse(deadline));
+        };
+    }
+
+    /**
+     * Time left until the deadline, or empty if no deadline was set.
+     * A deadline in the past yields {@link Duration#ZERO}.
+     */
+    public static Optional<Duration> remaining(ContextView context) {
+        return context.<Long>getOrEmpty(CONTEXT_KEY)
+                .map(deadline -> Duration.ofMillis(Math.max(0, deadline - System.currentTimeMillis())));
+    }
+}
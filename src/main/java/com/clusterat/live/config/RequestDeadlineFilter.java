@@ -0,0 +1,47 @@
+package com.clusterat.live.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Reads the optional X-Request-Timeout-Ms header and propagates it as a
+ * deadline in the Reactor context, so downstream calls (e.g. SearXNG) can
+ * shrink their own timeouts to fit the caller's budget.
+ */
+@Slf4j
+@Component
+public class RequestDeadlineFilter implements WebFilter {
+
+    @Override
+    @SuppressWarnings("all")
+    public Mono<Void> filter(@Nullable ServerWebExchange exchange, @Nullable WebFilterChain chain) {
+        if (exchange == null || chain == null) {
+            return Mono.empty();
+        }
+
+        String header = exchange.getRequest().getHeaders().getFirst(RequestDeadline.TIMEOUT_HEADER);
+        if (header == null || header.isBlank()) {
+            return chain.filter(exchange);
+        }
+
+        try {
+            long timeoutMs = Long.parseLong(header.trim());
+            if (timeoutMs <= 0) {
+                log.debug("Ignoring non-positive {} header: {}", RequestDeadline.TIMEOUT_HEADER, header);
+                return chain.filter(exchange);
+            }
+            return chain.filter(exchange)
+                    .contextWrite(RequestDeadline.within(Duration.ofMillis(timeoutMs)));
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring invalid {} header: {}", RequestDeadline.TIMEOUT_HEADER, header);
+            return chain.filter(exchange);
+        }
+    }
+}
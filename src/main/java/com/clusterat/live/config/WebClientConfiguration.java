@@ -0,0 +1,34 @@
+package com.clusterat.live.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * Non-blocking HTTP client used by reactive services (SearXNG).
+ * Response timeouts are applied per call by the services themselves.
+ */
+@Configuration
+public class WebClientConfiguration {
+
+    @Value("${searxng.timeout.connect-ms:5000}")
+    private int connectTimeoutMs;
+
+    @Value("${searxng.max-response-size-bytes:20971520}")
+    private int maxResponseSizeBytes;
+
+    @Bean
+    public WebClient webClient(WebClient.Builder builder) {
+        HttpClient httpClient = HttpClient.create()
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs);
+
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(maxResponseSizeBytes))
+                .build();
+    }
+}
@@ -1,5 +1,6 @@
 package com.clusterat.live.controller;
 
+import com.clusterat.live.config.JdbcExecutor;
 import com.clusterat.live.model.BrightdataReceivedDataModel;
 import com.clusterat.live.service.BrightdataWebhookService;
 import lombok.extern.slf4j.Slf4j;
@@ -7,6 +8,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
 import java.util.List;
@@ -17,10 +19,12 @@ import java.util.Map;
 @RequestMapping("/v1/webhooks/brightdata")
 public class BrightdataWebhookController {
     private final BrightdataWebhookService brightdataWebhookService;
+    private final JdbcExecutor jdbcExecutor;
 
     @Autowired
-    public BrightdataWebhookController(BrightdataWebhookService brightdataWebhookService) {
+    public BrightdataWebhookController(BrightdataWebhookService brightdataWebhookService, JdbcExecutor jdbcExecutor) {
         this.brightdataWebhookService = brightdataWebhookService;
+        this.jdbcExecutor = jdbcExecutor;
     }
 
     /**
@@ -31,26 +35,28 @@ public class BrightdataWebhookController {
      * @return Response with saved record ID
      */
     @PostMapping("/receive")
-    public ResponseEntity<Map<String, Object>> receiveWebhookData(@RequestBody Object webhookData) {
-        try {
-            log.info("Brightdata webhook received");
-            BrightdataReceivedDataModel savedData = brightdataWebhookService.receiveWebhookData(webhookData);
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Data received and saved successfully");
-            response.put("id", savedData.getId());
-            response.put("dateReceived", savedData.getDateReceived());
-
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
-        } catch (Exception e) {
-            log.error("Error processing Brightdata webhook", e);
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("success", false);
-            errorResponse.put("message", "Error processing webhook: " + e.getMessage());
-
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
-        }
+    public Mono<ResponseEntity<Map<String, Object>>> receiveWebhookData(@RequestBody Object webhookData) {
+        return jdbcExecutor.mono(() -> {
+            try {
+                log.info("Brightdata webhook received");
+                BrightdataReceivedDataModel savedData = brightdataWebhookService.receiveWebhookData(webhookData);
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("message", "Data received and saved successfully");
+                response.put("id", savedData.getId());
+                response.put("dateReceived", savedData.getDateReceived());
+
+                return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            } catch (Exception e) {
+                log.error("Error processing Brightdata webhook", e);
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("success", false);
+                errorResponse.put("message", "Error processing webhook: " + e.getMessage());
+
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+            }
+        });
     }
 
     /**
@@ -62,25 +68,27 @@ public class BrightdataWebhookController {
      * @return List of unprocessed data
      */
     @GetMapping("/unprocessed")
-    public ResponseEntity<Map<String, Object>> getUnprocessedData() {
-        try {
-            log.info("Fetching unprocessed Brightdata data");
-            List<BrightdataReceivedDataModel> unprocessedData = brightdataWebhookService.getUnprocessedData();
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("count", unprocessedData.size());
-            response.put("data", unprocessedData);
-
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            log.error("Error fetching unprocessed data", e);
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("success", false);
-            errorResponse.put("message", "Error fetching data: " + e.getMessage());
-
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
-        }
+    public Mono<ResponseEntity<Map<String, Object>>> getUnprocessedData() {
+        return jdbcExecutor.mono(() -> {
+            try {
+                log.info("Fetching unprocessed Brightdata data");
+                List<BrightdataReceivedDataModel> unprocessedData = brightdataWebhookService.getUnprocessedData();
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("count", unprocessedData.size());
+                response.put("data", unprocessedData);
+
+                return ResponseEntity.ok(response);
+            } catch (Exception e) {
+                log.error("Error fetching unprocessed data", e);
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("success", false);
+                errorResponse.put("message", "Error fetching data: " + e.getMessage());
+
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+            }
+        });
     }
 
     /**
@@ -93,25 +101,27 @@ public class BrightdataWebhookController {
      * @return Response with success or error
      */
     @PutMapping("/{id}/mark-processed")
-    public ResponseEntity<Map<String, Object>> markAsProcessed(@PathVariable Long id) {
-        try {
-            log.info("Marking data as processed. ID: {}", id);
-            brightdataWebhookService.markAsProcessed(id);
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Data marked as processed");
-            response.put("id", id);
-
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            log.error("Error marking data as processed", e);
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("success", false);
-            errorResponse.put("message", "Error marking as processed: " + e.getMessage());
-
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
-        }
+    public Mono<ResponseEntity<Map<String, Object>>> markAsProcessed(@PathVariable Long id) {
+        return jdbcExecutor.mono(() -> {
+            try {
+                log.info("Marking data as processed. ID: {}", id);
+                brightdataWebhookService.markAsProcessed(id);
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("message", "Data marked as processed");
+                response.put("id", id);
+
+                return ResponseEntity.ok(response);
+            } catch (Exception e) {
+                log.error("Error marking data as processed", e);
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("success", false);
+                errorResponse.put("message", "Error marking as processed: " + e.getMessage());
+
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+            }
+        });
     }
 
     /**
@@ -1,17 +1,43 @@
 package com.clusterat.live.controller;
 
+import com.clusterat.live.config.JdbcExecutor;
 import com.clusterat.live.dto.AnalysisResponseDTO;
+import com.clusterat.live.dto.CategorizationRuleDTO;
+import com.clusterat.live.dto.ExpenseCategoryDTO;
 import com.clusterat.live.dto.FinancialAnalysisDTO;
+import com.clusterat.live.dto.FinancialImportJobDTO;
+import com.clusterat.live.dto.FinancialPartitionDTO;
+import com.clusterat.live.dto.OcrExtractionResultDTO;
 import com.clusterat.live.dto.OcrPreProcessingDTO;
+import com.clusterat.live.dto.PartitionArchiveResultDTO;
+import com.clusterat.live.dto.RecategorizationJobDTO;
+import com.clusterat.live.dto.SummaryConsistencyDTO;
+import com.clusterat.live.service.CategorizationRuleService;
+import com.clusterat.live.service.ExpenseCategoryService;
 import com.clusterat.live.service.FinancialAnalysisDataService;
 import com.clusterat.live.service.FinancialAnalysisService;
+import com.clusterat.live.service.FinancialImportService;
+import com.clusterat.live.service.FinancialPartitionService;
+import com.clusterat.live.service.FinancialSummaryConsistencyService;
+import com.clusterat.live.service.FinancialSummaryService;
 import com.clusterat.live.service.OcrPreProcessingService;
+import com.clusterat.live.service.OcrTransactionExtractionService;
+import com.clusterat.live.service.RecategorizationService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.multipart.FilePart;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,289 +48,953 @@ public class FinancialAnalysisController {
     private final FinancialAnalysisService financialAnalysisService;
     private final FinancialAnalysisDataService financialAnalysisDataService;
     private final OcrPreProcessingService ocrPreProcessingService;
+    private final FinancialImportService financialImportService;
+    private final FinancialSummaryService financialSummaryService;
+    private final FinancialSummaryConsistencyService financialSummaryConsistencyService;
+    private final ExpenseCategoryService expenseCategoryService;
+    private final OcrTransactionExtractionService ocrTransactionExtractionService;
+    private final CategorizationRuleService categorizationRuleService;
+    private final RecategorizationService recategorizationService;
+    private final FinancialPartitionService financialPartitionService;
+    private final JdbcExecutor jdbcExecutor;
 
     @Autowired
     public FinancialAnalysisController(
             FinancialAnalysisService financialAnalysisService,
             FinancialAnalysisDataService financialAnalysisDataService,
-            OcrPreProcessingService ocrPreProcessingService) {
+            OcrPreProcessingService ocrPreProcessingService,
+            FinancialImportService financialImportService,
+            FinancialSummaryService financialSummaryService,
+            FinancialSummaryConsistencyService financialSummaryConsistencyService,
+            ExpenseCategoryService expenseCategoryService,
+            OcrTransactionExtractionService ocrTransactionExtractionService,
+            CategorizationRuleService categorizationRuleService,
+            RecategorizationService recategorizationService,
+            FinancialPartitionService financialPartitionService,
+            JdbcExecutor jdbcExecutor) {
         this.financialAnalysisService = financialAnalysisService;
         this.financialAnalysisDataService = financialAnalysisDataService;
         this.ocrPreProcessingService = ocrPreProcessingService;
+        this.financialImportService = financialImportService;
+        this.financialSummaryService = financialSummaryService;
+        this.financialSummaryConsistencyService = financialSummaryConsistencyService;
+        this.expenseCategoryService = expenseCategoryService;
+        this.ocrTransactionExtractionService = ocrTransactionExtractionService;
+        this.categorizationRuleService = categorizationRuleService;
+        this.recategorizationService = recategorizationService;
+        this.financialPartitionService = financialPartitionService;
+        this.jdbcExecutor = jdbcExecutor;
     }
 
     @GetMapping("/ocr-data")
-    public ResponseEntity<AnalysisResponseDTO> getOcrPreProcessingData() {
-        log.info("GET request to fetch OCR pre-processing data");
-        try {
-            List<OcrPreProcessingDTO> data = financialAnalysisDataService.getAllOcrPreProcessingData();
-            return ResponseEntity.ok(AnalysisResponseDTO.builder()
-                    .success(true)
-                    .message("OCR pre-processing data retrieved successfully")
-                    .data(data)
-                    .build());
-        } catch (Exception e) {
-            log.error("Error fetching OCR pre-processing data", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message("Error fetching OCR pre-processing data")
-                            .build());
-        }
+    public Mono<ResponseEntity<AnalysisResponseDTO>> getOcrPreProcessingData(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String order,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        log.info("GET request to fetch OCR pre-processing data page");
+        return financialAnalysisDataService.getAllOcrPreProcessingData(after, limit, sort, order, includeTotal)
+                .map(data -> ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("OCR pre-processing data retrieved successfully")
+                        .data(data)
+                        .build()))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest()
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(e.getMessage())
+                                .build())))
+                .onErrorResume(e -> {
+                    log.error("Error fetching OCR pre-processing data", e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(AnalysisResponseDTO.builder()
+                                    .success(false)
+                                    .message("Error fetching OCR pre-processing data")
+                                    .build()));
+                });
+    }
+
+    @GetMapping(value = "/ocr-data/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<OcrPreProcessingDTO> streamOcrPreProcessingData(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String order) {
+        log.info("GET request to stream OCR pre-processing data");
+        return financialAnalysisDataService.streamOcrPreProcessingData(after, sort, order)
+                .onErrorMap(IllegalArgumentException.class,
+                        e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e));
     }
 
     @GetMapping("/ocr-data/{id}")
-    public ResponseEntity<AnalysisResponseDTO> getOcrPreProcessingDataById(@PathVariable String id) {
-        log.info("GET request to fetch OCR pre-processing data by id: {}", id);
-        try {
-            Optional<OcrPreProcessingDTO> data = financialAnalysisDataService.getOcrPreProcessingById(id);
-            return data.map(ocrPreProcessingDTO -> ResponseEntity.ok(AnalysisResponseDTO.builder()
-                    .success(true)
-                    .message("OCR pre-processing data retrieved successfully")
-                    .data(ocrPreProcessingDTO)
-                    .build())).orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message("OCR pre-processing data not found")
-                            .build()));
-        } catch (Exception e) {
-            log.error("Error fetching OCR pre-processing data by id: {}", id, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message("Error fetching OCR pre-processing data")
-                            .build());
-        }
+    public Mono<ResponseEntity<AnalysisResponseDTO>> getOcrPreProcessingDataById(@PathVariable String id) {
+        return jdbcExecutor.mono(() -> {
+            log.info("GET request to fetch OCR pre-processing data by id: {}", id);
+            try {
+                Optional<OcrPreProcessingDTO> data = financialAnalysisDataService.getOcrPreProcessingById(id);
+                return data.map(ocrPreProcessingDTO -> ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("OCR pre-processing data retrieved successfully")
+                        .data(ocrPreProcessingDTO)
+                        .build())).orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("OCR pre-processing data not found")
+                                .build()));
+            } catch (Exception e) {
+                log.error("Error fetching OCR pre-processing data by id: {}", id, e);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("Error fetching OCR pre-processing data")
+                                .build());
+            }
+        });
+    }
+
+    /**
+     * Re-runs the OCR-to-transactions extraction for a document whose OCR is completed.
+     * Rows from a previous extraction of the same document are replaced.
+     */
+    @PostMapping("/ocr-data/{documentId}/transactions")
+    public Mono<ResponseEntity<AnalysisResponseDTO>> extractOcrTransactions(@PathVariable String documentId) {
+        return jdbcExecutor.mono(() -> {
+            log.info("POST request to extract transactions from OCR data of document: {}", documentId);
+            try {
+                OcrExtractionResultDTO result = ocrTransactionExtractionService.extractForDocument(documentId);
+                return ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message(String.format("Extracted %d transactions", result.getTransactionsExtracted()))
+                        .data(result)
+                        .build());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest()
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(e.getMessage())
+                                .build());
+            } catch (IllegalStateException e) {
+                log.error("Error extracting transactions from OCR data of document: {}", documentId, e);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(e.getMessage())
+                                .build());
+            } catch (RuntimeException e) {
+                log.warn("OCR pre-processing data not found for document: {}", documentId);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("OCR pre-processing data not found")
+                                .build());
+            }
+        });
     }
 
     @GetMapping
-    public ResponseEntity<AnalysisResponseDTO> getAllAnalysis() {
-        log.info("GET request to fetch all financial analysis records");
-        try {
-            List<FinancialAnalysisDTO> data = financialAnalysisService.getAllAnalysis();
-            return ResponseEntity.ok(AnalysisResponseDTO.builder()
-                    .success(true)
-                    .message("Financial analysis records retrieved successfully")
-                    .data(data)
-                    .build());
-        } catch (Exception e) {
-            log.error("Error fetching financial analysis records", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message("Error fetching financial analysis records")
-                            .build());
-        }
+    public Mono<ResponseEntity<AnalysisResponseDTO>> getAllAnalysis(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String order,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        log.info("GET request to fetch financial analysis page");
+        return financialAnalysisService.getAnalysisPage(after, limit, sort, order, includeTotal)
+                .map(page -> ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Financial analysis records retrieved successfully")
+                        .data(page)
+                        .build()))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest()
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(e.getMessage())
+                                .build())))
+                .onErrorResume(e -> {
+                    log.error("Error fetching financial analysis records", e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(AnalysisResponseDTO.builder()
+                                    .success(false)
+                                    .message("Error fetching financial analysis records")
+                                    .build()));
+                });
     }
 
-    @GetMapping("/{analysisId}")
-    public ResponseEntity<AnalysisResponseDTO> getAnalysisById(@PathVariable Long analysisId) {
-        log.info("GET request to fetch financial analysis by id: {}", analysisId);
-        try {
-            Optional<FinancialAnalysisDTO> data = financialAnalysisService.getAnalysisById(analysisId);
-            if (data.isPresent()) {
+    /**
+     * Records filtered by metadata, served by the GIN index on the jsonb column.
+     * contains takes a JSON object (e.g. {"source":"ocr","page":2}); key alone requires the top-level key,
+     * key with value requires it to hold that string. Filters are combined with AND; paging works as in GET /.
+     */
+    @GetMapping("/metadata")
+    public Mono<ResponseEntity<AnalysisResponseDTO>> getAnalysisByMetadata(
+            @RequestParam(required = false) String contains,
+            @RequestParam(required = false) String key,
+            @RequestParam(required = false) String value,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String order) {
+        log.info("GET request to fetch financial analysis by metadata");
+        return financialAnalysisService.getAnalysisPageByMetadata(contains, key, value, after, limit, sort, order)
+                .map(page -> ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Financial analysis records retrieved successfully")
+                        .data(page)
+                        .build()))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest()
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(e.getMessage())
+                                .build())))
+                .onErrorResume(e -> {
+                    log.error("Error fetching financial analysis records by metadata", e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(AnalysisResponseDTO.builder()
+                                    .success(false)
+                                    .message("Error fetching financial analysis records")
+                                    .build()));
+                });
+    }
+
+    /**
+     * Records with transaction_date in [from, to] (UTC dates, both inclusive). Only the monthly partitions
+     * covering the period are scanned; paging works as in GET /.
+     */
+    @GetMapping("/range")
+    public Mono<ResponseEntity<AnalysisResponseDTO>> getAnalysisInRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String order) {
+        log.info("GET request to fetch financial analysis from {} to {}", from, to);
+        return financialAnalysisService.getAnalysisPageInRange(from, to, after, limit, sort, order)
+                .map(page -> ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Financial analysis records retrieved successfully")
+                        .data(page)
+                        .build()))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest()
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(e.getMessage())
+                                .build())))
+                .onErrorResume(e -> {
+                    log.error("Error fetching financial analysis records from {} to {}", from, to, e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(AnalysisResponseDTO.builder()
+                                    .success(false)
+                                    .message("Error fetching financial analysis records")
+                                    .build()));
+                });
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<FinancialAnalysisDTO> streamAllAnalysis(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String order) {
+        log.info("GET request to stream financial analysis");
+        return financialAnalysisService.streamAllAnalysis(after, sort, order)
+                .onErrorMap(IllegalArgumentException.class,
+                        e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e));
+    }
+
+    /**
+     * Totals per category; each total includes its subcategories (parent_category_id rollup).
+     */
+    @GetMapping("/summary/categories")
+    public Mono<ResponseEntity<AnalysisResponseDTO>> getCategorySummary(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("GET request to summarize financial analysis by category");
+        return summaryResponse(financialSummaryService.getCategorySummary(from, to), "Category summary");
+    }
+
+    /**
+     * Income, expense and net per month, with rolling averages over the last {@code window} months.
+     */
+    @GetMapping("/summary/monthly")
+    public Mono<ResponseEntity<AnalysisResponseDTO>> getMonthlySummary(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer window) {
+        log.info("GET request to summarize financial analysis by month");
+        return summaryResponse(financialSummaryService.getMonthlySummary(from, to, window), "Monthly summary");
+    }
+
+    @GetMapping("/summary/types")
+    public Mono<ResponseEntity<AnalysisResponseDTO>> getAnalysisTypeSummary(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("GET request to summarize financial analysis by analysis type");
+        return summaryResponse(financialSummaryService.getAnalysisTypeSummary(from, to), "Analysis type summary");
+    }
+
+    @GetMapping("/summary/income-expense")
+    public Mono<ResponseEntity<AnalysisResponseDTO>> getIncomeExpenseSummary(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("GET request to summarize financial analysis income versus expense");
+        return summaryResponse(financialSummaryService.getIncomeExpenseSummary(from, to), "Income versus expense summary");
+    }
+
+    /**
+     * Compares the trigger-maintained monthly summary with a full recomputation; rebuilds it when repair=true.
+     */
+    @PostMapping("/summary/consistency-check")
+    public Mono<ResponseEntity<AnalysisResponseDTO>> checkSummaryConsistency(
+            @RequestParam(defaultValue = "false") boolean repair) {
+        return jdbcExecutor.mono(() -> {
+            log.info("POST request to check financial summary consistency (repair: {})", repair);
+            try {
+                SummaryConsistencyDTO result = financialSummaryConsistencyService.checkConsistency(repair);
+                return ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message(result.getDriftedKeys() == 0
+                                ? "Financial summary is consistent"
+                                : String.format("Financial summary differs on %d keys", result.getDriftedKeys()))
+                        .data(result)
+                        .build());
+            } catch (Exception e) {
+                log.error("Error checking financial summary consistency", e);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("Error checking financial summary consistency")
+                                .build());
+            }
+        });
+    }
+
+    /**
+     * Monthly partitions of financial_analysis plus the default partition, with size and row estimates.
+     */
+    @GetMapping("/partitions")
+    public Mono<ResponseEntity<AnalysisResponseDTO>> getPartitions() {
+        return jdbcExecutor.mono(() -> {
+            log.info("GET request to list financial analysis partitions");
+            try {
+                List<FinancialPartitionDTO> partitions = financialPartitionService.getPartitions();
+                return ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Found " + partitions.size() + " partitions")
+                        .data(partitions)
+                        .build());
+            } catch (Exception e) {
+                log.error("Error listing financial analysis partitions", e);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("Error listing financial analysis partitions")
+                                .build());
+            }
+        });
+    }
+
+    /**
+     * Detaches the partition of a past month (yyyy-MM) into live.financial_analysis_archive_yyyy_MM.
+     * The rows leave the listings and the monthly summary but stay in the archive table.
+     */
+    @PostMapping("/partitions/{month}/archive")
+    public Mono<ResponseEntity<AnalysisResponseDTO>> archivePartition(
+            @PathVariable @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        return jdbcExecutor.mono(() -> {
+            log.info("POST request to archive financial analysis partition for {}", month);
+            try {
+                PartitionArchiveResultDTO result = financialPartitionService.archivePartition(month);
                 return ResponseEntity.ok(AnalysisResponseDTO.builder()
                         .success(true)
-                        .message("Financial analysis retrieved successfully")
-                        .data(data.get())
+                        .message(String.format("Archived %d transactions into %s",
+                                result.getArchivedRows(), result.getArchiveTable()))
+                        .data(result)
                         .build());
-            } else {
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest()
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(e.getMessage())
+                                .build());
+            } catch (DataAccessException e) {
+                log.error("Error archiving financial analysis partition for {}", month, e);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("Error archiving financial analysis partition")
+                                .build());
+            } catch (RuntimeException e) {
+                log.warn("Financial analysis partition not found: {}", month);
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(AnalysisResponseDTO.builder()
                                 .success(false)
-                                .message("Financial analysis not found")
+                                .message(e.getMessage())
                                 .build());
             }
-        } catch (Exception e) {
-            log.error("Error fetching financial analysis by id: {}", analysisId, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message("Error fetching financial analysis")
+        });
+    }
+
+    @GetMapping("/{analysisId}")
+    public Mono<ResponseEntity<AnalysisResponseDTO>> getAnalysisById(@PathVariable Long analysisId) {
+        return jdbcExecutor.mono(() -> {
+            log.info("GET request to fetch financial analysis by id: {}", analysisId);
+            try {
+                Optional<FinancialAnalysisDTO> data = financialAnalysisService.getAnalysisById(analysisId);
+                if (data.isPresent()) {
+                    return ResponseEntity.ok(AnalysisResponseDTO.builder()
+                            .success(true)
+                            .message("Financial analysis retrieved successfully")
+                            .data(data.get())
                             .build());
-        }
+                } else {
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .body(AnalysisResponseDTO.builder()
+                                    .success(false)
+                                    .message("Financial analysis not found")
+                                    .build());
+                }
+            } catch (Exception e) {
+                log.error("Error fetching financial analysis by id: {}", analysisId, e);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("Error fetching financial analysis")
+                                .build());
+            }
+        });
     }
 
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<AnalysisResponseDTO> getAnalysisByCategory(@PathVariable Integer categoryId) {
+    public Mono<ResponseEntity<AnalysisResponseDTO>> getAnalysisByCategory(@PathVariable Integer categoryId) {
         log.info("GET request to fetch financial analysis by category: {}", categoryId);
-        try {
-            List<FinancialAnalysisDTO> data = financialAnalysisService.getAnalysisByCategory(categoryId);
-            return ResponseEntity.ok(AnalysisResponseDTO.builder()
-                    .success(true)
-                    .message("Financial analysis records retrieved successfully")
-                    .data(data)
-                    .build());
-        } catch (Exception e) {
-            log.error("Error fetching financial analysis by category: {}", categoryId, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message("Error fetching financial analysis by category")
-                            .build());
-        }
+        return financialAnalysisService.streamAnalysisByCategory(categoryId)
+                .collectList()
+                .map(data -> ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Financial analysis records retrieved successfully")
+                        .data(data)
+                        .build()))
+                .onErrorResume(e -> {
+                    log.error("Error fetching financial analysis by category: {}", categoryId, e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(AnalysisResponseDTO.builder()
+                                    .success(false)
+                                    .message("Error fetching financial analysis by category")
+                                    .build()));
+                });
     }
 
     @GetMapping("/type/{analysisType}")
-    public ResponseEntity<AnalysisResponseDTO> getAnalysisByType(@PathVariable String analysisType) {
+    public Mono<ResponseEntity<AnalysisResponseDTO>> getAnalysisByType(@PathVariable String analysisType) {
         log.info("GET request to fetch financial analysis by type: {}", analysisType);
-        try {
-            List<FinancialAnalysisDTO> data = financialAnalysisService.getAnalysisByType(analysisType);
-            return ResponseEntity.ok(AnalysisResponseDTO.builder()
-                    .success(true)
-                    .message("Financial analysis records retrieved successfully")
-                    .data(data)
-                    .build());
-        } catch (Exception e) {
-            log.error("Error fetching financial analysis by type: {}", analysisType, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message("Error fetching financial analysis by type")
-                            .build());
-        }
+        return financialAnalysisService.streamAnalysisByType(analysisType)
+                .collectList()
+                .map(data -> ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Financial analysis records retrieved successfully")
+                        .data(data)
+                        .build()))
+                .onErrorResume(e -> {
+                    log.error("Error fetching financial analysis by type: {}", analysisType, e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(AnalysisResponseDTO.builder()
+                                    .success(false)
+                                    .message("Error fetching financial analysis by type")
+                                    .build()));
+                });
     }
 
     @PostMapping
-    public ResponseEntity<AnalysisResponseDTO> saveAnalysis(@RequestBody FinancialAnalysisDTO analysisDTO) {
-        log.info("POST request to save financial analysis: {}", analysisDTO);
-        try {
-            if (analysisDTO.getAmount() == null || analysisDTO.getCategoryId() == null ||
-                analysisDTO.getTransactionDate() == null) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+    public Mono<ResponseEntity<AnalysisResponseDTO>> saveAnalysis(@RequestBody FinancialAnalysisDTO analysisDTO) {
+        return jdbcExecutor.mono(() -> {
+            log.info("POST request to save financial analysis: {}", analysisDTO);
+            try {
+                if (analysisDTO.getAmount() == null || analysisDTO.getCategoryId() == null ||
+                    analysisDTO.getTransactionDate() == null) {
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                            .body(AnalysisResponseDTO.builder()
+                                    .success(false)
+                                    .message("Missing required fields: amount, categoryId, and transactionDate are mandatory")
+                                    .build());
+                }
+
+                FinancialAnalysisDTO saved = financialAnalysisService.saveAnalysis(analysisDTO);
+                return ResponseEntity.status(HttpStatus.CREATED)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(true)
+                                .message("Financial analysis saved successfully")
+                                .data(saved)
+                                .build());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest()
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(e.getMessage())
+                                .build());
+            } catch (Exception e) {
+                log.error("Error saving financial analysis", e);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                         .body(AnalysisResponseDTO.builder()
                                 .success(false)
-                                .message("Missing required fields: amount, categoryId, and transactionDate are mandatory")
+                                .message("Error saving financial analysis: " + e.getMessage())
                                 .build());
             }
-
-            FinancialAnalysisDTO saved = financialAnalysisService.saveAnalysis(analysisDTO);
-            return ResponseEntity.status(HttpStatus.CREATED)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(true)
-                            .message("Financial analysis saved successfully")
-                            .data(saved)
-                            .build());
-        } catch (Exception e) {
-            log.error("Error saving financial analysis", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message("Error saving financial analysis: " + e.getMessage())
-                            .build());
-        }
+        });
     }
 
+    /**
+     * Records without categoryId are categorized by the categorization rules, which also fill a missing
+     * analysisType. Records already stored (same date, amount, description and source id), repeated in the
+     * payload or matched by no rule are skipped; the first ones are listed in errors as "record N: reason".
+     */
     @PostMapping("/bulk")
-    public ResponseEntity<AnalysisResponseDTO> saveAnalysisBulk(@RequestBody List<FinancialAnalysisDTO> analysisDTOs) {
-        log.info("POST request to save {} financial analysis records", analysisDTOs.size());
-        try {
-            for (FinancialAnalysisDTO dto : analysisDTOs) {
-                if (dto.getAmount() == null || dto.getCategoryId() == null || dto.getTransactionDate() == null) {
-                    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                            .body(AnalysisResponseDTO.builder()
-                                    .success(false)
-                                    .message("Missing required fields in one or more records: amount, categoryId, and transactionDate are mandatory")
-                                    .build());
+    public Mono<ResponseEntity<AnalysisResponseDTO>> saveAnalysisBulk(@RequestBody List<FinancialAnalysisDTO> analysisDTOs) {
+        return jdbcExecutor.mono(() -> {
+            log.info("POST request to save {} financial analysis records", analysisDTOs.size());
+            try {
+                for (FinancialAnalysisDTO dto : analysisDTOs) {
+                    if (dto.getAmount() == null || dto.getTransactionDate() == null) {
+                        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                                .body(AnalysisResponseDTO.builder()
+                                        .success(false)
+                                        .message("Missing required fields in one or more records: amount and transactionDate are mandatory")
+                                        .build());
+                    }
                 }
+
+                FinancialAnalysisService.BulkSaveResult result = financialAnalysisService.saveAnalysisBulk(analysisDTOs);
+                return ResponseEntity.status(HttpStatus.CREATED)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(true)
+                                .message(String.format("Saved %d out of %d financial analysis records, skipped %d",
+                                        result.saved().size(), analysisDTOs.size(), result.skippedCount()))
+                                .data(result.saved())
+                                .errors(result.skipped().isEmpty() ? null : result.skipped())
+                                .build());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest()
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(e.getMessage())
+                                .build());
+            } catch (Exception e) {
+                log.error("Error saving financial analysis records", e);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("Error saving financial analysis records: " + e.getMessage())
+                                .build());
             }
+        });
+    }
 
-            List<FinancialAnalysisDTO> saved = financialAnalysisService.saveAnalysisBulk(analysisDTOs);
-            return ResponseEntity.status(HttpStatus.CREATED)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(true)
-                            .message(String.format("Successfully saved %d financial analysis records", saved.size()))
-                            .data(saved)
-                            .build());
-        } catch (Exception e) {
-            log.error("Error saving financial analysis records", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+    /**
+     * Expense categories served from the in-memory registry (no database round-trip).
+     */
+    @GetMapping("/categories")
+    public ResponseEntity<AnalysisResponseDTO> getCategories() {
+        List<ExpenseCategoryDTO> categories = expenseCategoryService.getAllCategories();
+        return ResponseEntity.ok(AnalysisResponseDTO.builder()
+                .success(true)
+                .message(String.format("Found %d expense categories", categories.size()))
+                .data(categories)
+                .build());
+    }
+
+    @PostMapping("/categories")
+    public Mono<ResponseEntity<AnalysisResponseDTO>> createCategory(@RequestBody ExpenseCategoryDTO categoryDTO) {
+        return jdbcExecutor.mono(() -> {
+            log.info("POST request to create expense category: {}", categoryDTO);
+            try {
+                ExpenseCategoryDTO created = expenseCategoryService.createCategory(categoryDTO);
+                return ResponseEntity.status(HttpStatus.CREATED)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(true)
+                                .message("Expense category created successfully")
+                                .data(created)
+                                .build());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest()
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(e.getMessage())
+                                .build());
+            } catch (Exception e) {
+                log.error("Error creating expense category", e);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("Error creating expense category: " + e.getMessage())
+                                .build());
+            }
+        });
+    }
+
+    @PutMapping("/categories/{categoryId}")
+    public Mono<ResponseEntity<AnalysisResponseDTO>> updateCategory(
+            @PathVariable Integer categoryId,
+            @RequestBody ExpenseCategoryDTO categoryDTO) {
+        return jdbcExecutor.mono(() -> {
+            log.info("PUT request to update expense category with id: {}", categoryId);
+            try {
+                ExpenseCategoryDTO updated = expenseCategoryService.updateCategory(categoryId, categoryDTO);
+                return ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Expense category updated successfully")
+                        .data(updated)
+                        .build());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest()
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(e.getMessage())
+                                .build());
+            } catch (RuntimeException e) {
+                log.warn("Expense category not found: {}", categoryId);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("Expense category not found")
+                                .build());
+            }
+        });
+    }
+
+    @DeleteMapping("/categories/{categoryId}")
+    public Mono<ResponseEntity<AnalysisResponseDTO>> deleteCategory(@PathVariable Integer categoryId) {
+        return jdbcExecutor.mono(() -> {
+            log.info("DELETE request to delete expense category with id: {}", categoryId);
+            try {
+                expenseCategoryService.deleteCategory(categoryId);
+                return ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Expense category deleted successfully")
+                        .build());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(e.getMessage())
+                                .build());
+            } catch (RuntimeException e) {
+                log.warn("Expense category not found: {}", categoryId);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("Expense category not found")
+                                .build());
+            }
+        });
+    }
+
+    /**
+     * Starts an asynchronous CSV or NDJSON import loaded through COPY FROM STDIN.
+     * Poll GET /import/{jobId} for progress; invalid rows and duplicates of stored transactions are skipped and reported there.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public Mono<ResponseEntity<AnalysisResponseDTO>> importAnalysis(
+            @RequestPart("file") Mono<FilePart> filePartMono,
+            @RequestParam(required = false) String format) {
+        log.info("POST request to import financial analysis records (format: {})", format);
+        return filePartMono
+                .flatMap(filePart -> financialImportService.startImport(filePart, format))
+                .map(job -> ResponseEntity.status(HttpStatus.ACCEPTED)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(true)
+                                .message("Import started")
+                                .data(job)
+                                .build()))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest()
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(e.getMessage())
+                                .build())))
+                .onErrorResume(IllegalStateException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(e.getMessage())
+                                .build())))
+                .onErrorResume(e -> {
+                    log.error("Error starting financial analysis import", e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(AnalysisResponseDTO.builder()
+                                    .success(false)
+                                    .message("Error starting financial analysis import")
+                                    .build()));
+                });
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<AnalysisResponseDTO> getImportJob(@PathVariable String jobId) {
+        Optional<FinancialImportJobDTO> job = financialImportService.getImportJob(jobId);
+        if (job.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(AnalysisResponseDTO.builder()
                             .success(false)
-                            .message("Error saving financial analysis records: " + e.getMessage())
+                            .message("Import job not found: " + jobId)
                             .build());
         }
+        return ResponseEntity.ok(AnalysisResponseDTO.builder()
+                .success(true)
+                .message("Import job " + job.get().getStatus())
+                .data(job.get())
+                .build());
     }
 
-    @PutMapping("/{analysisId}")
-    public ResponseEntity<AnalysisResponseDTO> updateAnalysis(
-            @PathVariable Long analysisId,
-            @RequestBody FinancialAnalysisDTO analysisDTO) {
-        log.info("PUT request to update financial analysis with id: {}", analysisId);
-        try {
-            FinancialAnalysisDTO updated = financialAnalysisService.updateAnalysis(analysisId, analysisDTO);
+    @GetMapping("/categorization-rules")
+    public Mono<ResponseEntity<AnalysisResponseDTO>> getCategorizationRules() {
+        return jdbcExecutor.mono(() -> {
+            List<CategorizationRuleDTO> rules = categorizationRuleService.getAllRules();
             return ResponseEntity.ok(AnalysisResponseDTO.builder()
                     .success(true)
-                    .message("Financial analysis updated successfully")
-                    .data(updated)
+                    .message(String.format("Found %d categorization rules", rules.size()))
+                    .data(rules)
                     .build());
-        } catch (RuntimeException e) {
-            log.warn("Financial analysis not found: {}", analysisId);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+        });
+    }
+
+    /**
+     * Rules take effect immediately: every write recompiles the in-memory matcher.
+     */
+    @PostMapping("/categorization-rules")
+    public Mono<ResponseEntity<AnalysisResponseDTO>> createCategorizationRule(@RequestBody CategorizationRuleDTO ruleDTO) {
+        return jdbcExecutor.mono(() -> {
+            log.info("POST request to create categorization rule: {}", ruleDTO);
+            try {
+                CategorizationRuleDTO created = categorizationRuleService.createRule(ruleDTO);
+                return ResponseEntity.status(HttpStatus.CREATED)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(true)
+                                .message("Categorization rule created successfully")
+                                .data(created)
+                                .build());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest()
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(e.getMessage())
+                                .build());
+            } catch (Exception e) {
+                log.error("Error creating categorization rule", e);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("Error creating categorization rule: " + e.getMessage())
+                                .build());
+            }
+        });
+    }
+
+    @PutMapping("/categorization-rules/{ruleId}")
+    public Mono<ResponseEntity<AnalysisResponseDTO>> updateCategorizationRule(
+            @PathVariable Integer ruleId,
+            @RequestBody CategorizationRuleDTO ruleDTO) {
+        return jdbcExecutor.mono(() -> {
+            log.info("PUT request to update categorization rule with id: {}", ruleId);
+            try {
+                CategorizationRuleDTO updated = categorizationRuleService.updateRule(ruleId, ruleDTO);
+                return ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Categorization rule updated successfully")
+                        .data(updated)
+                        .build());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest()
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(e.getMessage())
+                                .build());
+            } catch (RuntimeException e) {
+                log.warn("Categorization rule not found: {}", ruleId);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("Categorization rule not found")
+                                .build());
+            }
+        });
+    }
+
+    @DeleteMapping("/categorization-rules/{ruleId}")
+    public Mono<ResponseEntity<AnalysisResponseDTO>> deleteCategorizationRule(@PathVariable Integer ruleId) {
+        return jdbcExecutor.mono(() -> {
+            log.info("DELETE request to delete categorization rule with id: {}", ruleId);
+            try {
+                categorizationRuleService.deleteRule(ruleId);
+                return ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Categorization rule deleted successfully")
+                        .build());
+            } catch (RuntimeException e) {
+                log.warn("Categorization rule not found: {}", ruleId);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("Categorization rule not found")
+                                .build());
+            }
+        });
+    }
+
+    /**
+     * Re-applies the categorization rules to stored transactions (optionally only those in categoryId)
+     * as a background job. Poll GET /recategorize/{jobId} for progress.
+     */
+    @PostMapping("/recategorize")
+    public ResponseEntity<AnalysisResponseDTO> recategorize(@RequestParam(required = false) Integer categoryId) {
+        log.info("POST request to recategorize financial analysis records (category: {})", categoryId);
+        try {
+            RecategorizationJobDTO job = recategorizationService.startRecategorization(categoryId);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(AnalysisResponseDTO.builder()
+                            .success(true)
+                            .message("Recategorization started")
+                            .data(job)
+                            .build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
                     .body(AnalysisResponseDTO.builder()
                             .success(false)
-                            .message("Financial analysis not found")
+                            .message(e.getMessage())
                             .build());
-        } catch (Exception e) {
-            log.error("Error updating financial analysis with id: {}", analysisId, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
                     .body(AnalysisResponseDTO.builder()
                             .success(false)
-                            .message("Error updating financial analysis: " + e.getMessage())
+                            .message(e.getMessage())
                             .build());
         }
     }
 
-    @DeleteMapping("/{analysisId}")
-    public ResponseEntity<AnalysisResponseDTO> deleteAnalysis(@PathVariable Long analysisId) {
-        log.info("DELETE request to delete financial analysis with id: {}", analysisId);
-        try {
-            financialAnalysisService.deleteAnalysis(analysisId);
-            return ResponseEntity.ok(AnalysisResponseDTO.builder()
-                    .success(true)
-                    .message("Financial analysis deleted successfully")
-                    .build());
-        } catch (RuntimeException e) {
-            log.warn("Financial analysis not found: {}", analysisId);
+    @GetMapping("/recategorize/{jobId}")
+    public ResponseEntity<AnalysisResponseDTO> getRecategorizationJob(@PathVariable String jobId) {
+        Optional<RecategorizationJobDTO> job = recategorizationService.getRecategorizationJob(jobId);
+        if (job.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(AnalysisResponseDTO.builder()
                             .success(false)
-                            .message("Financial analysis not found")
-                            .build());
-        } catch (Exception e) {
-            log.error("Error deleting financial analysis with id: {}", analysisId, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message("Error deleting financial analysis: " + e.getMessage())
+                            .message("Recategorization job not found: " + jobId)
                             .build());
         }
+        return ResponseEntity.ok(AnalysisResponseDTO.builder()
+                .success(true)
+                .message("Recategorization job " + job.get().getStatus())
+                .data(job.get())
+                .build());
+    }
+
+    @PutMapping("/{analysisId}")
+    public Mono<ResponseEntity<AnalysisResponseDTO>> updateAnalysis(
+            @PathVariable Long analysisId,
+            @RequestBody FinancialAnalysisDTO analysisDTO) {
+        return jdbcExecutor.mono(() -> {
+            log.info("PUT request to update financial analysis with id: {}", analysisId);
+            try {
+                FinancialAnalysisDTO updated = financialAnalysisService.updateAnalysis(analysisId, analysisDTO);
+                return ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Financial analysis updated successfully")
+                        .data(updated)
+                        .build());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest()
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(e.getMessage())
+                                .build());
+            } catch (RuntimeException e) {
+                log.warn("Financial analysis not found: {}", analysisId);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("Financial analysis not found")
+                                .build());
+            } catch (Exception e) {
+                log.error("Error updating financial analysis with id: {}", analysisId, e);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("Error updating financial analysis: " + e.getMessage())
+                                .build());
+            }
+        });
+    }
+
+    @DeleteMapping("/{analysisId}")
+    public Mono<ResponseEntity<AnalysisResponseDTO>> deleteAnalysis(@PathVariable Long analysisId) {
+        return jdbcExecutor.mono(() -> {
+            log.info("DELETE request to delete financial analysis with id: {}", analysisId);
+            try {
+                financialAnalysisService.deleteAnalysis(analysisId);
+                return ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Financial analysis deleted successfully")
+                        .build());
+            } catch (RuntimeException e) {
+                log.warn("Financial analysis not found: {}", analysisId);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("Financial analysis not found")
+                                .build());
+            } catch (Exception e) {
+                log.error("Error deleting financial analysis with id: {}", analysisId, e);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("Error deleting financial analysis: " + e.getMessage())
+                                .build());
+            }
+        });
     }
 
     @DeleteMapping("/ocr-pre-processing/{ocrId}")
-    public ResponseEntity<OcrPreProcessingDTO> deleteOCRPreProcessedData(@PathVariable String ocrId) {
-        log.info("DELETE request to delete OCR pre-processing data with id or document_id: {}", ocrId);
-        try {
-            ocrPreProcessingService.deleteOcrPreProcessing(ocrId);
-            return ResponseEntity.ok(OcrPreProcessingDTO.builder()
-                    .success(true)
-                    .message("OCR pre-processing data deleted successfully")
-                    .build());
-        } catch (RuntimeException e) {
-            log.warn("OCR pre-processing data not found: {}", ocrId);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(OcrPreProcessingDTO.builder()
-                            .success(false)
-                            .message("OCR pre-processing data not found")
-                            .build());
-        } catch (Exception e) {
-            log.error("Error deleting OCR pre-processing data with id or document_id: {}", ocrId, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(OcrPreProcessingDTO.builder()
-                            .success(false)
-                            .message("Error deleting OCR pre-processing data: " + e.getMessage())
-                            .build());
-        }
+    public Mono<ResponseEntity<OcrPreProcessingDTO>> deleteOCRPreProcessedData(@PathVariable String ocrId) {
+        return jdbcExecutor.mono(() -> {
+            log.info("DELETE request to delete OCR pre-processing data with id or document_id: {}", ocrId);
+            try {
+                ocrPreProcessingService.deleteOcrPreProcessing(ocrId);
+                return ResponseEntity.ok(OcrPreProcessingDTO.builder()
+                        .success(true)
+                        .message("OCR pre-processing data deleted successfully")
+                        .build());
+            } catch (RuntimeException e) {
+                log.warn("OCR pre-processing data not found: {}", ocrId);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(OcrPreProcessingDTO.builder()
+                                .success(false)
+                                .message("OCR pre-processing data not found")
+                                .build());
+            } catch (Exception e) {
+                log.error("Error deleting OCR pre-processing data with id or document_id: {}", ocrId, e);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(OcrPreProcessingDTO.builder()
+                                .success(false)
+                                .message("Error deleting OCR pre-processing data: " + e.getMessage())
+                                .build());
+            }
+        });
     }
-}
 
+    private Mono<ResponseEntity<AnalysisResponseDTO>> summaryResponse(Mono<?> summary, String name) {
+        return summary
+                .map(data -> ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message(name + " retrieved successfully")
+                        .data(data)
+                        .build()))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest()
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(e.getMessage())
+                                .build())))
+                .onErrorResume(e -> {
+                    log.error("Error computing {}", name, e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(AnalysisResponseDTO.builder()
+                                    .success(false)
+                                    .message("Error computing " + name.toLowerCase())
+                                    .build()));
+                });
+    }
+}
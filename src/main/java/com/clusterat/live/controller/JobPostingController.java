@@ -1,14 +1,31 @@
 package com.clusterat.live.controller;
 
+import com.clusterat.live.config.JdbcExecutor;
 import com.clusterat.live.dto.AnalysisResponseDTO;
+import com.clusterat.live.dto.DuplicateBackfillJobDTO;
 import com.clusterat.live.dto.JobPostingDTO;
+import com.clusterat.live.dto.JobPostingIndexResultDTO;
+import com.clusterat.live.dto.SalaryNormalizationResultDTO;
+import com.clusterat.live.dto.SalaryPercentilesDTO;
+import com.clusterat.live.dto.UpsertResultDTO;
+import com.clusterat.live.repository.JobPostingFilter;
+import com.clusterat.live.service.JobPostingDeduplicationService;
+import com.clusterat.live.service.JobPostingSalaryService;
+import com.clusterat.live.service.JobPostingSearchIndex;
 import com.clusterat.live.service.JobPostingService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,283 +34,603 @@ import java.util.Optional;
 @RequestMapping("/v1/job-postings")
 public class JobPostingController {
     private final JobPostingService jobPostingService;
+    private final JobPostingSalaryService jobPostingSalaryService;
+    private final JobPostingDeduplicationService jobPostingDeduplicationService;
+    private final JdbcExecutor jdbcExecutor;
 
     @Autowired
-    public JobPostingController(JobPostingService jobPostingService) {
+    public JobPostingController(JobPostingService jobPostingService, JobPostingSalaryService jobPostingSalaryService,
+                                JobPostingDeduplicationService jobPostingDeduplicationService,
+                                JdbcExecutor jdbcExecutor) {
         this.jobPostingService = jobPostingService;
+        this.jobPostingSalaryService = jobPostingSalaryService;
+        this.jobPostingDeduplicationService = jobPostingDeduplicationService;
+        this.jdbcExecutor = jdbcExecutor;
     }
 
+    /**
+     * Keyset page of job postings. collapseDuplicates=true returns only the canonical posting of each
+     * near-duplicate group.
+     */
     @GetMapping
-    public ResponseEntity<AnalysisResponseDTO> getAllJobPostings() {
-        log.info("GET request to fetch all job postings");
-        try {
-            List<JobPostingDTO> jobPostings = jobPostingService.getAllJobPostings();
-            return ResponseEntity.ok(AnalysisResponseDTO.builder()
-                    .success(true)
-                    .message("Job postings retrieved successfully")
-                    .data(jobPostings)
-                    .build());
-        } catch (Exception e) {
-            log.error("Error fetching job postings", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message("Error fetching job postings")
-                            .build());
-        }
+    public Mono<ResponseEntity<AnalysisResponseDTO>> getAllJobPostings(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String order,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestParam(defaultValue = "false") boolean collapseDuplicates) {
+        log.info("GET request to fetch job postings page");
+        return jobPostingService.getJobPostingsPage(after, limit, sort, order, includeTotal, collapseDuplicates)
+                .map(page -> ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Job postings retrieved successfully")
+                        .data(page)
+                        .build()))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest()
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(e.getMessage())
+                                .build())))
+                .onErrorResume(e -> {
+                    log.error("Error fetching job postings", e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(AnalysisResponseDTO.builder()
+                                    .success(false)
+                                    .message("Error fetching job postings")
+                                    .build()));
+                });
+    }
+
+    /**
+     * Combinable filter: every given parameter narrows the result (AND). company, location, seniority
+     * and employmentType accept several values (repeated or comma separated).
+     */
+    @GetMapping("/filter")
+    public Mono<ResponseEntity<AnalysisResponseDTO>> filterJobPostings(
+            @RequestParam(required = false) List<String> company,
+            @RequestParam(required = false) List<String> location,
+            @RequestParam(required = false) List<String> seniority,
+            @RequestParam(required = false) List<String> employmentType,
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) BigDecimal salaryFrom,
+            @RequestParam(required = false) BigDecimal salaryTo,
+            @RequestParam(required = false) String salaryCurrency,
+            @RequestParam(required = false) BigDecimal annualSalaryFrom,
+            @RequestParam(required = false) BigDecimal annualSalaryTo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate postedAfter,
+            @RequestParam(required = false) Boolean easyApply,
+            @RequestParam(required = false) Integer minApplicants,
+            @RequestParam(required = false) Integer maxApplicants,
+            @RequestParam(defaultValue = "false") boolean collapseDuplicates,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String order,
+            @RequestParam(defaultValue = "true") boolean includeFacets,
+            @RequestParam(required = false) Integer facetLimit) {
+        log.info("GET request to filter job postings");
+        JobPostingFilter filter = JobPostingFilter.builder()
+                .companies(company)
+                .locations(location)
+                .seniorityLevels(seniority)
+                .employmentTypes(employmentType)
+                .title(title)
+                .salaryFrom(salaryFrom)
+                .salaryTo(salaryTo)
+                .salaryCurrency(salaryCurrency)
+                .annualSalaryFrom(annualSalaryFrom)
+                .annualSalaryTo(annualSalaryTo)
+                .postedAfter(postedAfter)
+                .easyApply(easyApply)
+                .minApplicants(minApplicants)
+                .maxApplicants(maxApplicants)
+                .collapseDuplicates(collapseDuplicates)
+                .build();
+        return jobPostingService.filterJobPostings(filter, after, limit, sort, order, includeFacets, facetLimit)
+                .map(result -> ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Job postings retrieved successfully")
+                        .data(result)
+                        .build()))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest()
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(e.getMessage())
+                                .build())))
+                .onErrorResume(e -> {
+                    log.error("Error filtering job postings", e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(AnalysisResponseDTO.builder()
+                                    .success(false)
+                                    .message("Error filtering job postings")
+                                    .build()));
+                });
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<JobPostingDTO> streamAllJobPostings(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String order) {
+        log.info("GET request to stream job postings");
+        return jobPostingService.streamAllJobPostings(after, sort, order)
+                .onErrorMap(IllegalArgumentException.class,
+                        e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<AnalysisResponseDTO> getJobPostingById(@PathVariable Long id) {
-        log.info("GET request to fetch job posting by id: {}", id);
-        try {
-            Optional<JobPostingDTO> jobPosting = jobPostingService.getJobPostingById(id);
-            return jobPosting.map(dto -> ResponseEntity.ok(AnalysisResponseDTO.builder()
-                    .success(true)
-                    .message("Job posting retrieved successfully")
-                    .data(dto)
-                    .build())).orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message("Job posting not found")
-                            .build()));
-        } catch (Exception e) {
-            log.error("Error fetching job posting by id: {}", id, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message("Error fetching job posting")
-                            .build());
-        }
+    public Mono<ResponseEntity<AnalysisResponseDTO>> getJobPostingById(@PathVariable Long id) {
+        return jdbcExecutor.mono(() -> {
+            log.info("GET request to fetch job posting by id: {}", id);
+            try {
+                Optional<JobPostingDTO> jobPosting = jobPostingService.getJobPostingById(id);
+                return jobPosting.map(dto -> ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Job posting retrieved successfully")
+                        .data(dto)
+                        .build())).orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("Job posting not found")
+                                .build()));
+            } catch (Exception e) {
+                log.error("Error fetching job posting by id: {}", id, e);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("Error fetching job posting")
+                                .build());
+            }
+        });
+    }
+
+    /**
+     * Other postings in the same near-duplicate group as the given one (empty when it has none).
+     */
+    @GetMapping("/{id}/duplicates")
+    public Mono<ResponseEntity<AnalysisResponseDTO>> getJobPostingDuplicates(@PathVariable Long id) {
+        return jdbcExecutor.mono(() -> {
+            log.info("GET request to fetch near duplicates of job posting: {}", id);
+            try {
+                Optional<List<JobPostingDTO>> duplicates = jobPostingService.getDuplicates(id);
+                return duplicates.map(list -> ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Duplicates retrieved successfully")
+                        .data(list)
+                        .build())).orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("Job posting not found")
+                                .build()));
+            } catch (Exception e) {
+                log.error("Error fetching near duplicates of job posting: {}", id, e);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("Error fetching duplicates")
+                                .build());
+            }
+        });
     }
 
     @GetMapping("/posting/{jobPostingId}")
-    public ResponseEntity<AnalysisResponseDTO> getJobPostingByJobPostingId(@PathVariable String jobPostingId) {
-        log.info("GET request to fetch job posting by jobPostingId: {}", jobPostingId);
-        try {
-            Optional<JobPostingDTO> jobPosting = jobPostingService.getJobPostingByJobPostingId(jobPostingId);
-            return jobPosting.map(dto -> ResponseEntity.ok(AnalysisResponseDTO.builder()
-                    .success(true)
-                    .message("Job posting retrieved successfully")
-                    .data(dto)
-                    .build())).orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message("Job posting not found")
-                            .build()));
-        } catch (Exception e) {
-            log.error("Error fetching job posting by jobPostingId: {}", jobPostingId, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message("Error fetching job posting")
-                            .build());
-        }
+    public Mono<ResponseEntity<AnalysisResponseDTO>> getJobPostingByJobPostingId(@PathVariable String jobPostingId) {
+        return jdbcExecutor.mono(() -> {
+            log.info("GET request to fetch job posting by jobPostingId: {}", jobPostingId);
+            try {
+                Optional<JobPostingDTO> jobPosting = jobPostingService.getJobPostingByJobPostingId(jobPostingId);
+                return jobPosting.map(dto -> ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Job posting retrieved successfully")
+                        .data(dto)
+                        .build())).orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("Job posting not found")
+                                .build()));
+            } catch (Exception e) {
+                log.error("Error fetching job posting by jobPostingId: {}", jobPostingId, e);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("Error fetching job posting")
+                                .build());
+            }
+        });
     }
 
     @GetMapping("/company/{companyName}")
-    public ResponseEntity<AnalysisResponseDTO> getJobPostingsByCompany(@PathVariable String companyName) {
+    public Mono<ResponseEntity<AnalysisResponseDTO>> getJobPostingsByCompany(@PathVariable String companyName) {
         log.info("GET request to fetch job postings by company: {}", companyName);
-        try {
-            List<JobPostingDTO> jobPostings = jobPostingService.getJobPostingsByCompany(companyName);
-            return ResponseEntity.ok(AnalysisResponseDTO.builder()
-                    .success(true)
-                    .message("Job postings retrieved successfully")
-                    .data(jobPostings)
-                    .build());
-        } catch (Exception e) {
-            log.error("Error fetching job postings by company: {}", companyName, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message("Error fetching job postings")
-                            .build());
-        }
+        return jobPostingService.streamJobPostingsByCompany(companyName)
+                .collectList()
+                .map(jobPostings -> ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Job postings retrieved successfully")
+                        .data(jobPostings)
+                        .build()))
+                .onErrorResume(e -> {
+                    log.error("Error fetching job postings by company: {}", companyName, e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(AnalysisResponseDTO.builder()
+                                    .success(false)
+                                    .message("Error fetching job postings")
+                                    .build()));
+                });
     }
 
     @GetMapping("/location/{jobLocation}")
-    public ResponseEntity<AnalysisResponseDTO> getJobPostingsByLocation(@PathVariable String jobLocation) {
+    public Mono<ResponseEntity<AnalysisResponseDTO>> getJobPostingsByLocation(@PathVariable String jobLocation) {
         log.info("GET request to fetch job postings by location: {}", jobLocation);
-        try {
-            List<JobPostingDTO> jobPostings = jobPostingService.getJobPostingsByLocation(jobLocation);
-            return ResponseEntity.ok(AnalysisResponseDTO.builder()
-                    .success(true)
-                    .message("Job postings retrieved successfully")
-                    .data(jobPostings)
-                    .build());
-        } catch (Exception e) {
-            log.error("Error fetching job postings by location: {}", jobLocation, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message("Error fetching job postings")
-                            .build());
-        }
+        return jobPostingService.streamJobPostingsByLocation(jobLocation)
+                .collectList()
+                .map(jobPostings -> ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Job postings retrieved successfully")
+                        .data(jobPostings)
+                        .build()))
+                .onErrorResume(e -> {
+                    log.error("Error fetching job postings by location: {}", jobLocation, e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(AnalysisResponseDTO.builder()
+                                    .success(false)
+                                    .message("Error fetching job postings")
+                                    .build()));
+                });
     }
 
     @GetMapping("/seniority/{seniorityLevel}")
-    public ResponseEntity<AnalysisResponseDTO> getJobPostingsBySeniority(@PathVariable String seniorityLevel) {
+    public Mono<ResponseEntity<AnalysisResponseDTO>> getJobPostingsBySeniority(@PathVariable String seniorityLevel) {
         log.info("GET request to fetch job postings by seniority: {}", seniorityLevel);
-        try {
-            List<JobPostingDTO> jobPostings = jobPostingService.getJobPostingsBySeniority(seniorityLevel);
-            return ResponseEntity.ok(AnalysisResponseDTO.builder()
-                    .success(true)
-                    .message("Job postings retrieved successfully")
-                    .data(jobPostings)
-                    .build());
-        } catch (Exception e) {
-            log.error("Error fetching job postings by seniority: {}", seniorityLevel, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message("Error fetching job postings")
-                            .build());
-        }
+        return jobPostingService.streamJobPostingsBySeniority(seniorityLevel)
+                .collectList()
+                .map(jobPostings -> ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Job postings retrieved successfully")
+                        .data(jobPostings)
+                        .build()))
+                .onErrorResume(e -> {
+                    log.error("Error fetching job postings by seniority: {}", seniorityLevel, e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(AnalysisResponseDTO.builder()
+                                    .success(false)
+                                    .message("Error fetching job postings")
+                                    .build()));
+                });
     }
 
     @GetMapping("/employment-type/{employmentType}")
-    public ResponseEntity<AnalysisResponseDTO> getJobPostingsByEmploymentType(@PathVariable String employmentType) {
+    public Mono<ResponseEntity<AnalysisResponseDTO>> getJobPostingsByEmploymentType(@PathVariable String employmentType) {
         log.info("GET request to fetch job postings by employment type: {}", employmentType);
-        try {
-            List<JobPostingDTO> jobPostings = jobPostingService.getJobPostingsByEmploymentType(employmentType);
-            return ResponseEntity.ok(AnalysisResponseDTO.builder()
-                    .success(true)
-                    .message("Job postings retrieved successfully")
-                    .data(jobPostings)
-                    .build());
-        } catch (Exception e) {
-            log.error("Error fetching job postings by employment type: {}", employmentType, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message("Error fetching job postings")
-                            .build());
-        }
+        return jobPostingService.streamJobPostingsByEmploymentType(employmentType)
+                .collectList()
+                .map(jobPostings -> ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Job postings retrieved successfully")
+                        .data(jobPostings)
+                        .build()))
+                .onErrorResume(e -> {
+                    log.error("Error fetching job postings by employment type: {}", employmentType, e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(AnalysisResponseDTO.builder()
+                                    .success(false)
+                                    .message("Error fetching job postings")
+                                    .build()));
+                });
     }
 
     @GetMapping("/search")
-    public ResponseEntity<AnalysisResponseDTO> searchJobPostingsByTitle(@RequestParam String title) {
+    public Mono<ResponseEntity<AnalysisResponseDTO>> searchJobPostingsByTitle(@RequestParam String title) {
         log.info("GET request to search job postings by title: {}", title);
+        return jobPostingService.searchJobPostingsByTitle(title)
+                .collectList()
+                .map(jobPostings -> ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Job postings retrieved successfully")
+                        .data(jobPostings)
+                        .build()))
+                .onErrorResume(e -> {
+                    log.error("Error searching job postings by title: {}", title, e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(AnalysisResponseDTO.builder()
+                                    .success(false)
+                                    .message("Error searching job postings")
+                                    .build()));
+                });
+    }
+
+    /**
+     * Approximate annualized salary percentiles (base currency) per title, location or seniority,
+     * answered from in-memory t-digest sketches.
+     */
+    @GetMapping("/salaries/percentiles")
+    public ResponseEntity<AnalysisResponseDTO> getSalaryPercentiles(
+            @RequestParam(required = false) String groupBy,
+            @RequestParam(required = false) String value,
+            @RequestParam(required = false) String percentiles,
+            @RequestParam(required = false) Integer minCount,
+            @RequestParam(required = false) Integer limit) {
+        log.info("GET request to fetch salary percentiles by {}", groupBy);
         try {
-            List<JobPostingDTO> jobPostings = jobPostingService.searchJobPostingsByTitle(title);
+            List<SalaryPercentilesDTO> result = jobPostingSalaryService.getPercentiles(groupBy, value, percentiles,
+                    minCount, limit);
             return ResponseEntity.ok(AnalysisResponseDTO.builder()
                     .success(true)
-                    .message("Job postings retrieved successfully")
-                    .data(jobPostings)
+                    .message("Salary percentiles retrieved successfully")
+                    .data(result)
                     .build());
-        } catch (Exception e) {
-            log.error("Error searching job postings by title: {}", title, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(AnalysisResponseDTO.builder()
+                            .success(false)
+                            .message(e.getMessage())
+                            .build());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
                     .body(AnalysisResponseDTO.builder()
                             .success(false)
-                            .message("Error searching job postings")
+                            .message(e.getMessage())
                             .build());
         }
     }
 
-    @PostMapping
-    public ResponseEntity<AnalysisResponseDTO> createJobPosting(@RequestBody JobPostingDTO jobPostingDTO) {
-        log.info("POST request to create job posting");
+    /**
+     * Recomputes the annualized salaries of stored postings, e.g. after changing the FX table.
+     * all=false only touches postings not yet normalized to the current base currency and adds them to
+     * the salary statistics; all=true rebuilds the statistics afterwards.
+     */
+    @PostMapping("/salaries/normalize")
+    public Mono<ResponseEntity<AnalysisResponseDTO>> normalizeSalaries(@RequestParam(defaultValue = "true") boolean all) {
+        return jdbcExecutor.mono(() -> {
+            log.info("POST request to normalize job posting salaries (all: {})", all);
+            try {
+                SalaryNormalizationResultDTO result = jobPostingSalaryService.normalizeSalaries(all);
+                return ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Salaries normalized successfully")
+                        .data(result)
+                        .build());
+            } catch (Exception e) {
+                log.error("Error normalizing job posting salaries", e);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("Error normalizing salaries")
+                                .build());
+            }
+        });
+    }
+
+    /**
+     * Recomputes the MinHash signatures and near-duplicate groups of all stored postings as a background
+     * job. Poll GET /duplicates/backfill/{jobId} for progress.
+     */
+    @PostMapping("/duplicates/backfill")
+    public ResponseEntity<AnalysisResponseDTO> backfillDuplicates() {
+        log.info("POST request to backfill job posting duplicates");
         try {
-            JobPostingDTO created = jobPostingService.createJobPosting(jobPostingDTO);
-            return ResponseEntity.status(HttpStatus.CREATED)
+            DuplicateBackfillJobDTO job = jobPostingDeduplicationService.startBackfill();
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
                     .body(AnalysisResponseDTO.builder()
                             .success(true)
-                            .message("Job posting created successfully")
-                            .data(created)
+                            .message("Duplicate backfill started")
+                            .data(job)
                             .build());
         } catch (IllegalArgumentException e) {
-            log.error("Validation error creating job posting", e);
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+            return ResponseEntity.badRequest()
                     .body(AnalysisResponseDTO.builder()
                             .success(false)
                             .message(e.getMessage())
                             .build());
-        } catch (Exception e) {
-            log.error("Error creating job posting", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
                     .body(AnalysisResponseDTO.builder()
                             .success(false)
-                            .message("Error creating job posting")
+                            .message(e.getMessage())
                             .build());
         }
     }
 
-    @PostMapping("/bulk")
-    public ResponseEntity<AnalysisResponseDTO> createJobPostings(@RequestBody List<JobPostingDTO> jobPostingDTOs) {
-        log.info("POST request to create {} job postings", jobPostingDTOs.size());
-        try {
-            List<JobPostingDTO> created = jobPostingService.createJobPostings(jobPostingDTOs);
-            return ResponseEntity.status(HttpStatus.CREATED)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(true)
-                            .message(String.format("Created %d out of %d job postings",
-                                    created.size(), jobPostingDTOs.size()))
-                            .data(created)
-                            .build());
-        } catch (Exception e) {
-            log.error("Error creating job postings", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+    @GetMapping("/duplicates/backfill/{jobId}")
+    public ResponseEntity<AnalysisResponseDTO> getDuplicateBackfillJob(@PathVariable String jobId) {
+        Optional<DuplicateBackfillJobDTO> job = jobPostingDeduplicationService.getBackfillJob(jobId);
+        if (job.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(AnalysisResponseDTO.builder()
                             .success(false)
-                            .message("Error creating job postings")
+                            .message("Duplicate backfill job not found: " + jobId)
                             .build());
         }
+        return ResponseEntity.ok(AnalysisResponseDTO.builder()
+                .success(true)
+                .message("Duplicate backfill job " + job.get().getStatus())
+                .data(job.get())
+                .build());
     }
 
-    @PutMapping("/{id}")
-    public ResponseEntity<AnalysisResponseDTO> updateJobPosting(
-            @PathVariable Long id,
-            @RequestBody JobPostingDTO jobPostingDTO) {
-        log.info("PUT request to update job posting with id: {}", id);
+    @GetMapping("/index")
+    public ResponseEntity<AnalysisResponseDTO> searchJobPostingIndex(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) String seniority,
+            @RequestParam(required = false) String employmentType,
+            @RequestParam(required = false) String company,
+            @RequestParam(required = false) Integer limit) {
+        log.info("GET request to search the job posting index: q={}, location={}, seniority={}, employmentType={}, company={}",
+                q, location, seniority, employmentType, company);
+        // In-memory lookup, no database round trip, so it runs on the request thread
         try {
-            JobPostingDTO updated = jobPostingService.updateJobPosting(id, jobPostingDTO);
+            JobPostingIndexResultDTO result = jobPostingService.searchIndex(
+                    new JobPostingSearchIndex.Query(q, location, seniority, employmentType, company), limit);
             return ResponseEntity.ok(AnalysisResponseDTO.builder()
                     .success(true)
-                    .message("Job posting updated successfully")
-                    .data(updated)
+                    .message("Job postings retrieved successfully")
+                    .data(result)
                     .build());
         } catch (IllegalArgumentException e) {
-            log.error("Validation error updating job posting", e);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+            return ResponseEntity.badRequest()
                     .body(AnalysisResponseDTO.builder()
                             .success(false)
                             .message(e.getMessage())
                             .build());
-        } catch (Exception e) {
-            log.error("Error updating job posting with id: {}", id, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
                     .body(AnalysisResponseDTO.builder()
                             .success(false)
-                            .message("Error updating job posting")
+                            .message(e.getMessage())
                             .build());
         }
     }
 
+    @PostMapping
+    public Mono<ResponseEntity<AnalysisResponseDTO>> createJobPosting(@RequestBody JobPostingDTO jobPostingDTO) {
+        return jdbcExecutor.mono(() -> {
+            log.info("POST request to create job posting");
+            try {
+                JobPostingDTO created = jobPostingService.createJobPosting(jobPostingDTO);
+                return ResponseEntity.status(HttpStatus.CREATED)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(true)
+                                .message("Job posting created successfully")
+                                .data(created)
+                                .build());
+            } catch (IllegalArgumentException e) {
+                log.error("Validation error creating job posting", e);
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(e.getMessage())
+                                .build());
+            } catch (Exception e) {
+                log.error("Error creating job posting", e);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("Error creating job posting")
+                                .build());
+            }
+        });
+    }
+
+    @PostMapping("/bulk")
+    public Mono<ResponseEntity<AnalysisResponseDTO>> createJobPostings(@RequestBody List<JobPostingDTO> jobPostingDTOs) {
+        return jdbcExecutor.mono(() -> {
+            log.info("POST request to create {} job postings", jobPostingDTOs.size());
+            try {
+                List<JobPostingDTO> created = jobPostingService.createJobPostings(jobPostingDTOs);
+                return ResponseEntity.status(HttpStatus.CREATED)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(true)
+                                .message(String.format("Created %d out of %d job postings",
+                                        created.size(), jobPostingDTOs.size()))
+                                .data(created)
+                                .build());
+            } catch (Exception e) {
+                log.error("Error creating job postings", e);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("Error creating job postings")
+                                .build());
+            }
+        });
+    }
+
+    /**
+     * Upsert ingestion for scrapers: inserts new job postings and, in update_if_newer mode,
+     * overwrites stored ones whose scraped_at is older than the payload's.
+     */
+    @PostMapping("/upsert")
+    public Mono<ResponseEntity<AnalysisResponseDTO>> upsertJobPostings(
+            @RequestBody List<JobPostingDTO> jobPostingDTOs,
+            @RequestParam(defaultValue = "update_if_newer") String mode) {
+        return jdbcExecutor.mono(() -> {
+            log.info("POST request to upsert {} job postings (mode: {})", jobPostingDTOs.size(), mode);
+            try {
+                UpsertResultDTO result = jobPostingService.upsertJobPostings(jobPostingDTOs, mode);
+                return ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message(String.format("Upserted %d job postings: %d inserted, %d updated, %d unchanged, %d duplicates in payload",
+                                result.getReceived(), result.getInserted(), result.getUpdated(), result.getUnchanged(),
+                                result.getDuplicatesInPayload()))
+                        .data(result)
+                        .build());
+            } catch (IllegalArgumentException e) {
+                log.warn("Validation error upserting job postings: {}", e.getMessage());
+                return ResponseEntity.badRequest()
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(e.getMessage())
+                                .build());
+            } catch (Exception e) {
+                log.error("Error upserting job postings", e);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("Error upserting job postings")
+                                .build());
+            }
+        });
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<AnalysisResponseDTO>> updateJobPosting(
+            @PathVariable Long id,
+            @RequestBody JobPostingDTO jobPostingDTO) {
+        return jdbcExecutor.mono(() -> {
+            log.info("PUT request to update job posting with id: {}", id);
+            try {
+                JobPostingDTO updated = jobPostingService.updateJobPosting(id, jobPostingDTO);
+                return ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Job posting updated successfully")
+                        .data(updated)
+                        .build());
+            } catch (IllegalArgumentException e) {
+                log.error("Validation error updating job posting", e);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(e.getMessage())
+                                .build());
+            } catch (Exception e) {
+                log.error("Error updating job posting with id: {}", id, e);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("Error updating job posting")
+                                .build());
+            }
+        });
+    }
+
     @DeleteMapping("/{id}")
-    public ResponseEntity<AnalysisResponseDTO> deleteJobPosting(@PathVariable Long id) {
-        log.info("DELETE request to delete job posting with id: {}", id);
-        try {
-            jobPostingService.deleteJobPosting(id);
-            return ResponseEntity.ok(AnalysisResponseDTO.builder()
-                    .success(true)
-                    .message("Job posting deleted successfully")
-                    .build());
-        } catch (IllegalArgumentException e) {
-            log.error("Validation error deleting job posting", e);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message(e.getMessage())
-                            .build());
-        } catch (Exception e) {
-            log.error("Error deleting job posting with id: {}", id, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message("Error deleting job posting")
-                            .build());
-        }
+    public Mono<ResponseEntity<AnalysisResponseDTO>> deleteJobPosting(@PathVariable Long id) {
+        return jdbcExecutor.mono(() -> {
+            log.info("DELETE request to delete job posting with id: {}", id);
+            try {
+                jobPostingService.deleteJobPosting(id);
+                return ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Job posting deleted successfully")
+                        .build());
+            } catch (IllegalArgumentException e) {
+                log.error("Validation error deleting job posting", e);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(e.getMessage())
+                                .build());
+            } catch (Exception e) {
+                log.error("Error deleting job posting with id: {}", id, e);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("Error deleting job posting")
+                                .build());
+            }
+        });
     }
 }
 
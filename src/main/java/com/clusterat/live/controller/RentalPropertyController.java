@@ -1,13 +1,19 @@
 package com.clusterat.live.controller;
 
+import com.clusterat.live.config.JdbcExecutor;
 import com.clusterat.live.dto.AnalysisResponseDTO;
 import com.clusterat.live.dto.RentalPropertyDTO;
+import com.clusterat.live.dto.UpsertResultDTO;
 import com.clusterat.live.service.RentalPropertyService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -18,241 +24,310 @@ import java.util.Optional;
 @RequestMapping("/v1/rental-properties")
 public class RentalPropertyController {
     private final RentalPropertyService rentalPropertyService;
+    private final JdbcExecutor jdbcExecutor;
 
     @Autowired
-    public RentalPropertyController(RentalPropertyService rentalPropertyService) {
+    public RentalPropertyController(RentalPropertyService rentalPropertyService, JdbcExecutor jdbcExecutor) {
         this.rentalPropertyService = rentalPropertyService;
+        this.jdbcExecutor = jdbcExecutor;
     }
 
     @GetMapping
-    public ResponseEntity<AnalysisResponseDTO> getAllProperties() {
-        log.info("GET request to fetch all rental properties");
-        try {
-            List<RentalPropertyDTO> properties = rentalPropertyService.getAllProperties();
-            return ResponseEntity.ok(AnalysisResponseDTO.builder()
-                    .success(true)
-                    .message("Rental properties retrieved successfully")
-                    .data(properties)
-                    .build());
-        } catch (Exception e) {
-            log.error("Error fetching rental properties", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message("Error fetching rental properties")
-                            .build());
-        }
+    public Mono<ResponseEntity<AnalysisResponseDTO>> getAllProperties(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String order,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        log.info("GET request to fetch rental properties page");
+        return rentalPropertyService.getPropertiesPage(after, limit, sort, order, includeTotal)
+                .map(page -> ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Rental properties retrieved successfully")
+                        .data(page)
+                        .build()))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest()
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(e.getMessage())
+                                .build())))
+                .onErrorResume(e -> {
+                    log.error("Error fetching rental properties", e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(AnalysisResponseDTO.builder()
+                                    .success(false)
+                                    .message("Error fetching rental properties")
+                                    .build()));
+                });
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<RentalPropertyDTO> streamAllProperties(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String order) {
+        log.info("GET request to stream rental properties");
+        return rentalPropertyService.streamAllProperties(after, sort, order)
+                .onErrorMap(IllegalArgumentException.class,
+                        e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<AnalysisResponseDTO> getPropertyById(@PathVariable Long id) {
-        log.info("GET request to fetch rental property by id: {}", id);
-        try {
-            Optional<RentalPropertyDTO> property = rentalPropertyService.getPropertyById(id);
-            return property.map(dto -> ResponseEntity.ok(AnalysisResponseDTO.builder()
-                    .success(true)
-                    .message("Rental property retrieved successfully")
-                    .data(dto)
-                    .build())).orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message("Rental property not found")
-                            .build()));
-        } catch (Exception e) {
-            log.error("Error fetching rental property by id: {}", id, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message("Error fetching rental property")
-                            .build());
-        }
+    public Mono<ResponseEntity<AnalysisResponseDTO>> getPropertyById(@PathVariable Long id) {
+        return jdbcExecutor.mono(() -> {
+            log.info("GET request to fetch rental property by id: {}", id);
+            try {
+                Optional<RentalPropertyDTO> property = rentalPropertyService.getPropertyById(id);
+                return property.map(dto -> ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Rental property retrieved successfully")
+                        .data(dto)
+                        .build())).orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("Rental property not found")
+                                .build()));
+            } catch (Exception e) {
+                log.error("Error fetching rental property by id: {}", id, e);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("Error fetching rental property")
+                                .build());
+            }
+        });
     }
 
     @GetMapping("/neighborhood/{neighborhood}")
-    public ResponseEntity<AnalysisResponseDTO> getPropertiesByNeighborhood(@PathVariable String neighborhood) {
+    public Mono<ResponseEntity<AnalysisResponseDTO>> getPropertiesByNeighborhood(@PathVariable String neighborhood) {
         log.info("GET request to fetch rental properties by neighborhood: {}", neighborhood);
-        try {
-            List<RentalPropertyDTO> properties = rentalPropertyService.getPropertiesByNeighborhood(neighborhood);
-            return ResponseEntity.ok(AnalysisResponseDTO.builder()
-                    .success(true)
-                    .message("Rental properties retrieved successfully")
-                    .data(properties)
-                    .build());
-        } catch (Exception e) {
-            log.error("Error fetching rental properties by neighborhood: {}", neighborhood, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message("Error fetching rental properties")
-                            .build());
-        }
+        return rentalPropertyService.streamPropertiesByNeighborhood(neighborhood)
+                .collectList()
+                .map(properties -> ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Rental properties retrieved successfully")
+                        .data(properties)
+                        .build()))
+                .onErrorResume(e -> {
+                    log.error("Error fetching rental properties by neighborhood: {}", neighborhood, e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(AnalysisResponseDTO.builder()
+                                    .success(false)
+                                    .message("Error fetching rental properties")
+                                    .build()));
+                });
     }
 
     @GetMapping("/city/{city}")
-    public ResponseEntity<AnalysisResponseDTO> getPropertiesByCity(@PathVariable String city) {
+    public Mono<ResponseEntity<AnalysisResponseDTO>> getPropertiesByCity(@PathVariable String city) {
         log.info("GET request to fetch rental properties by city: {}", city);
-        try {
-            List<RentalPropertyDTO> properties = rentalPropertyService.getPropertiesByCity(city);
-            return ResponseEntity.ok(AnalysisResponseDTO.builder()
-                    .success(true)
-                    .message("Rental properties retrieved successfully")
-                    .data(properties)
-                    .build());
-        } catch (Exception e) {
-            log.error("Error fetching rental properties by city: {}", city, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message("Error fetching rental properties")
-                            .build());
-        }
+        return rentalPropertyService.streamPropertiesByCity(city)
+                .collectList()
+                .map(properties -> ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Rental properties retrieved successfully")
+                        .data(properties)
+                        .build()))
+                .onErrorResume(e -> {
+                    log.error("Error fetching rental properties by city: {}", city, e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(AnalysisResponseDTO.builder()
+                                    .success(false)
+                                    .message("Error fetching rental properties")
+                                    .build()));
+                });
     }
 
     @GetMapping("/type/{propertyType}")
-    public ResponseEntity<AnalysisResponseDTO> getPropertiesByType(@PathVariable String propertyType) {
+    public Mono<ResponseEntity<AnalysisResponseDTO>> getPropertiesByType(@PathVariable String propertyType) {
         log.info("GET request to fetch rental properties by type: {}", propertyType);
-        try {
-            List<RentalPropertyDTO> properties = rentalPropertyService.getPropertiesByType(propertyType);
-            return ResponseEntity.ok(AnalysisResponseDTO.builder()
-                    .success(true)
-                    .message("Rental properties retrieved successfully")
-                    .data(properties)
-                    .build());
-        } catch (Exception e) {
-            log.error("Error fetching rental properties by type: {}", propertyType, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message("Error fetching rental properties")
-                            .build());
-        }
+        return rentalPropertyService.streamPropertiesByType(propertyType)
+                .collectList()
+                .map(properties -> ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Rental properties retrieved successfully")
+                        .data(properties)
+                        .build()))
+                .onErrorResume(e -> {
+                    log.error("Error fetching rental properties by type: {}", propertyType, e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(AnalysisResponseDTO.builder()
+                                    .success(false)
+                                    .message("Error fetching rental properties")
+                                    .build()));
+                });
     }
 
     @GetMapping("/price-range")
-    public ResponseEntity<AnalysisResponseDTO> getPropertiesByPriceRange(
+    public Mono<ResponseEntity<AnalysisResponseDTO>> getPropertiesByPriceRange(
             @RequestParam BigDecimal minCost,
             @RequestParam BigDecimal maxCost) {
         log.info("GET request to fetch rental properties by price range: {} - {}", minCost, maxCost);
-        try {
-            List<RentalPropertyDTO> properties = rentalPropertyService.getPropertiesByPriceRange(minCost, maxCost);
-            return ResponseEntity.ok(AnalysisResponseDTO.builder()
-                    .success(true)
-                    .message("Rental properties retrieved successfully")
-                    .data(properties)
-                    .build());
-        } catch (Exception e) {
-            log.error("Error fetching rental properties by price range", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message("Error fetching rental properties")
-                            .build());
-        }
+        return rentalPropertyService.streamPropertiesByPriceRange(minCost, maxCost)
+                .collectList()
+                .map(properties -> ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Rental properties retrieved successfully")
+                        .data(properties)
+                        .build()))
+                .onErrorResume(e -> {
+                    log.error("Error fetching rental properties by price range", e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(AnalysisResponseDTO.builder()
+                                    .success(false)
+                                    .message("Error fetching rental properties")
+                                    .build()));
+                });
     }
 
     @PostMapping
-    public ResponseEntity<AnalysisResponseDTO> createProperty(@RequestBody RentalPropertyDTO propertyDTO) {
-        log.info("POST request to create rental property");
-        try {
-            RentalPropertyDTO created = rentalPropertyService.createProperty(propertyDTO);
-            return ResponseEntity.status(HttpStatus.CREATED)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(true)
-                            .message("Rental property created successfully")
-                            .data(created)
-                            .build());
-        } catch (IllegalArgumentException e) {
-            log.error("Validation error creating rental property", e);
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message(e.getMessage())
-                            .build());
-        } catch (Exception e) {
-            log.error("Error creating rental property", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message("Error creating rental property")
-                            .build());
-        }
+    public Mono<ResponseEntity<AnalysisResponseDTO>> createProperty(@RequestBody RentalPropertyDTO propertyDTO) {
+        return jdbcExecutor.mono(() -> {
+            log.info("POST request to create rental property");
+            try {
+                RentalPropertyDTO created = rentalPropertyService.createProperty(propertyDTO);
+                return ResponseEntity.status(HttpStatus.CREATED)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(true)
+                                .message("Rental property created successfully")
+                                .data(created)
+                                .build());
+            } catch (IllegalArgumentException e) {
+                log.error("Validation error creating rental property", e);
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(e.getMessage())
+                                .build());
+            } catch (Exception e) {
+                log.error("Error creating rental property", e);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("Error creating rental property")
+                                .build());
+            }
+        });
     }
 
     @PostMapping("/bulk")
-    public ResponseEntity<AnalysisResponseDTO> createProperties(@RequestBody List<RentalPropertyDTO> propertyDTOs) {
-        log.info("POST request to create {} rental properties", propertyDTOs.size());
-        try {
-            List<RentalPropertyDTO> created = rentalPropertyService.createProperties(propertyDTOs);
-            return ResponseEntity.status(HttpStatus.CREATED)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(true)
-                            .message(String.format("Created %d out of %d rental properties",
-                                    created.size(), propertyDTOs.size()))
-                            .data(created)
-                            .build());
-        } catch (Exception e) {
-            log.error("Error creating rental properties", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message("Error creating rental properties")
-                            .build());
-        }
+    public Mono<ResponseEntity<AnalysisResponseDTO>> createProperties(@RequestBody List<RentalPropertyDTO> propertyDTOs) {
+        return jdbcExecutor.mono(() -> {
+            log.info("POST request to create {} rental properties", propertyDTOs.size());
+            try {
+                List<RentalPropertyDTO> created = rentalPropertyService.createProperties(propertyDTOs);
+                return ResponseEntity.status(HttpStatus.CREATED)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(true)
+                                .message(String.format("Created %d out of %d rental properties",
+                                        created.size(), propertyDTOs.size()))
+                                .data(created)
+                                .build());
+            } catch (Exception e) {
+                log.error("Error creating rental properties", e);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("Error creating rental properties")
+                                .build());
+            }
+        });
+    }
+
+    /**
+     * Upsert ingestion for scrapers: inserts new rental properties and, in update_if_newer mode,
+     * overwrites stored ones whose scraped_at is older than the payload's.
+     */
+    @PostMapping("/upsert")
+    public Mono<ResponseEntity<AnalysisResponseDTO>> upsertProperties(
+            @RequestBody List<RentalPropertyDTO> propertyDTOs,
+            @RequestParam(defaultValue = "update_if_newer") String mode) {
+        return jdbcExecutor.mono(() -> {
+            log.info("POST request to upsert {} rental properties (mode: {})", propertyDTOs.size(), mode);
+            try {
+                UpsertResultDTO result = rentalPropertyService.upsertProperties(propertyDTOs, mode);
+                return ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message(String.format("Upserted %d rental properties: %d inserted, %d updated, %d unchanged, %d duplicates in payload",
+                                result.getReceived(), result.getInserted(), result.getUpdated(), result.getUnchanged(),
+                                result.getDuplicatesInPayload()))
+                        .data(result)
+                        .build());
+            } catch (IllegalArgumentException e) {
+                log.warn("Validation error upserting rental properties: {}", e.getMessage());
+                return ResponseEntity.badRequest()
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(e.getMessage())
+                                .build());
+            } catch (Exception e) {
+                log.error("Error upserting rental properties", e);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("Error upserting rental properties")
+                                .build());
+            }
+        });
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<AnalysisResponseDTO> updateProperty(
+    public Mono<ResponseEntity<AnalysisResponseDTO>> updateProperty(
             @PathVariable Long id,
             @RequestBody RentalPropertyDTO propertyDTO) {
-        log.info("PUT request to update rental property with id: {}", id);
-        try {
-            RentalPropertyDTO updated = rentalPropertyService.updateProperty(id, propertyDTO);
-            return ResponseEntity.ok(AnalysisResponseDTO.builder()
-                    .success(true)
-                    .message("Rental property updated successfully")
-                    .data(updated)
-                    .build());
-        } catch (IllegalArgumentException e) {
-            log.error("Validation error updating rental property", e);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message(e.getMessage())
-                            .build());
-        } catch (Exception e) {
-            log.error("Error updating rental property with id: {}", id, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message("Error updating rental property")
-                            .build());
-        }
+        return jdbcExecutor.mono(() -> {
+            log.info("PUT request to update rental property with id: {}", id);
+            try {
+                RentalPropertyDTO updated = rentalPropertyService.updateProperty(id, propertyDTO);
+                return ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Rental property updated successfully")
+                        .data(updated)
+                        .build());
+            } catch (IllegalArgumentException e) {
+                log.error("Validation error updating rental property", e);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(e.getMessage())
+                                .build());
+            } catch (Exception e) {
+                log.error("Error updating rental property with id: {}", id, e);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("Error updating rental property")
+                                .build());
+            }
+        });
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<AnalysisResponseDTO> deleteProperty(@PathVariable Long id) {
-        log.info("DELETE request to delete rental property with id: {}", id);
-        try {
-            rentalPropertyService.deleteProperty(id);
-            return ResponseEntity.ok(AnalysisResponseDTO.builder()
-                    .success(true)
-                    .message("Rental property deleted successfully")
-                    .build());
-        } catch (IllegalArgumentException e) {
-            log.error("Validation error deleting rental property", e);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message(e.getMessage())
-                            .build());
-        } catch (Exception e) {
-            log.error("Error deleting rental property with id: {}", id, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message("Error deleting rental property")
-                            .build());
-        }
+    public Mono<ResponseEntity<AnalysisResponseDTO>> deleteProperty(@PathVariable Long id) {
+        return jdbcExecutor.mono(() -> {
+            log.info("DELETE request to delete rental property with id: {}", id);
+            try {
+                rentalPropertyService.deleteProperty(id);
+                return ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Rental property deleted successfully")
+                        .build());
+            } catch (IllegalArgumentException e) {
+                log.error("Validation error deleting rental property", e);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(e.getMessage())
+                                .build());
+            } catch (Exception e) {
+                log.error("Error deleting rental property with id: {}", id, e);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message("Error deleting rental property")
+                                .build());
+            }
+        });
     }
 }
 
@@ -1,6 +1,8 @@
 package com.clusterat.live.controller;
 
+import com.clusterat.live.dto.SearXNGBatchSearchRequestDTO;
 import com.clusterat.live.dto.SearXNGSearchRequestDTO;
+import com.clusterat.live.service.SearXNGBatchSearchService;
 import com.clusterat.live.service.SearXNGService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -14,6 +16,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -28,10 +31,12 @@ import java.util.Map;
 public class SearXNGController {
 
     private final SearXNGService searXNGService;
+    private final SearXNGBatchSearchService searXNGBatchSearchService;
 
     @Autowired
-    public SearXNGController(SearXNGService searXNGService) {
+    public SearXNGController(SearXNGService searXNGService, SearXNGBatchSearchService searXNGBatchSearchService) {
         this.searXNGService = searXNGService;
+        this.searXNGBatchSearchService = searXNGBatchSearchService;
     }
 
     /**
@@ -45,24 +50,19 @@ public class SearXNGController {
             @ApiResponse(responseCode = "400", description = "Invalid parameters"),
             @ApiResponse(responseCode = "503", description = "SearXNG service unavailable")
     })
-    public ResponseEntity<String> simpleSearch(
+    public Mono<ResponseEntity<String>> simpleSearch(
             @RequestParam(name = "q")
             @Parameter(description = "Search term", required = true)
             String query) {
 
         log.info("Received simple search request for query: {}", query);
 
-        try {
-            String result = searXNGService.search(query);
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(result);
-        } catch (Exception e) {
-            log.error("Error during simple search", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body("{\"error\":\"" + e.getMessage() + "\"}");
-        }
+        return searXNGService.search(query)
+                .map(this::jsonResponse)
+                .onErrorResume(e -> {
+                    log.error("Error during simple search", e);
+                    return Mono.just(errorResponse(HttpStatus.INTERNAL_SERVER_ERROR, e));
+                });
     }
 
     /**
@@ -75,27 +75,52 @@ public class SearXNGController {
             @ApiResponse(responseCode = "400", description = "Invalid parameters"),
             @ApiResponse(responseCode = "503", description = "SearXNG service unavailable")
     })
-    public ResponseEntity<String> advancedSearch(
+    public Mono<ResponseEntity<String>> advancedSearch(
             @RequestBody SearXNGSearchRequestDTO request) {
 
         log.info("Received advanced search request for query: {}", request.getQuery());
 
-        try {
-            String result = searXNGService.search(
-                    request.getQuery(),
-                    request.getPage() != null ? request.getPage() : 1,
-                    request.getCategory(),
-                    request.getLanguage()
-            );
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(result);
-        } catch (Exception e) {
-            log.error("Error during advanced search", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body("{\"error\":\"" + e.getMessage() + "\"}");
-        }
+        return searXNGService.search(
+                        request.getQuery(),
+                        request.getPage() != null ? request.getPage() : 1,
+                        request.getCategory(),
+                        request.getLanguage())
+                .map(this::jsonResponse)
+                .onErrorResume(e -> {
+                    log.error("Error during advanced search", e);
+                    return Mono.just(errorResponse(HttpStatus.INTERNAL_SERVER_ERROR, e));
+                });
+    }
+
+    /**
+     * Performs several searches concurrently and merges the results
+     */
+    @PostMapping("/batch")
+    @Operation(summary = "Batch search", description = "Runs multiple queries concurrently, merging and deduplicating results by URL. Queries not finished within the deadline are reported as timed out")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Search performed (possibly partial)",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)),
+            @ApiResponse(responseCode = "400", description = "Invalid parameters"),
+            @ApiResponse(responseCode = "503", description = "SearXNG service unavailable")
+    })
+    public Mono<ResponseEntity<String>> batchSearch(
+            @RequestBody SearXNGBatchSearchRequestDTO request) {
+
+        log.info("Received batch search request with {} queries",
+                request.getQueries() != null ? request.getQueries().size() : 0);
+
+        return searXNGBatchSearchService.batchSearch(
+                        request.getQueries(),
+                        request.getPage() != null ? request.getPage() : 1,
+                        request.getCategory(),
+                        request.getLanguage(),
+                        request.getMaxConcurrency(),
+                        request.getTimeoutMs())
+                .map(this::jsonResponse)
+                .onErrorResume(e -> {
+                    log.error("Error during batch search", e);
+                    return Mono.just(errorResponse(HttpStatus.INTERNAL_SERVER_ERROR, e));
+                });
     }
 
     /**
@@ -108,7 +133,7 @@ public class SearXNGController {
             @ApiResponse(responseCode = "400", description = "Invalid parameters"),
             @ApiResponse(responseCode = "503", description = "SearXNG service unavailable")
     })
-    public ResponseEntity<String> customSearch(
+    public Mono<ResponseEntity<String>> customSearch(
             @RequestParam(name = "q")
             @Parameter(description = "Search term", required = true)
             String query,
@@ -128,17 +153,12 @@ public class SearXNGController {
         log.info("Received custom search request for query: {} with page: {}, category: {}, language: {}",
                 query, page, category, language);
 
-        try {
-            String result = searXNGService.search(query, page, category, language);
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(result);
-        } catch (Exception e) {
-            log.error("Error during custom search", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body("{\"error\":\"" + e.getMessage() + "\"}");
-        }
+        return searXNGService.search(query, page, category, language)
+                .map(this::jsonResponse)
+                .onErrorResume(e -> {
+                    log.error("Error during custom search", e);
+                    return Mono.just(errorResponse(HttpStatus.INTERNAL_SERVER_ERROR, e));
+                });
     }
 
     /**
@@ -202,34 +222,35 @@ public class SearXNGController {
      * Checks the health of the SearXNG service
      */
     @GetMapping("/health")
-    @Operation(summary = "Health check", description = "Checks if the SearXNG service is available")
+    @Operation(summary = "Health check", description = "Probes every configured SearXNG instance and reports whether at least one is available")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Service is healthy"),
             @ApiResponse(responseCode = "503", description = "Service unavailable")
     })
-    public ResponseEntity<Map<String, Object>> healthCheck() {
+    public Mono<ResponseEntity<Map<String, Object>>> healthCheck() {
         log.info("Performing SearXNG health check");
 
-        try {
-            boolean healthy = searXNGService.healthCheck();
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("status", healthy ? "HEALTHY" : "UNHEALTHY");
-            response.put("healthy", healthy);
-            response.put("timestamp", System.currentTimeMillis());
+        return searXNGService.healthCheck()
+                .map(healthy -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("status", healthy ? "HEALTHY" : "UNHEALTHY");
+                    response.put("healthy", healthy);
+                    response.put("instances", searXNGService.getInstancesStatus());
+                    response.put("timestamp", System.currentTimeMillis());
 
-            return healthy ?
-                    ResponseEntity.ok(response) :
-                    ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
-        } catch (Exception e) {
-            log.error("Error during health check", e);
-            Map<String, Object> response = new HashMap<>();
-            response.put("status", "UNHEALTHY");
-            response.put("healthy", false);
-            response.put("error", e.getMessage());
-            response.put("timestamp", System.currentTimeMillis());
-            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
-        }
+                    return healthy ?
+                            ResponseEntity.ok(response) :
+                            ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+                })
+                .onErrorResume(e -> {
+                    log.error("Error during health check", e);
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("status", "UNHEALTHY");
+                    response.put("healthy", false);
+                    response.put("error", e.getMessage());
+                    response.put("timestamp", System.currentTimeMillis());
+                    return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response));
+                });
     }
 
     /**
@@ -241,19 +262,39 @@ public class SearXNGController {
             @ApiResponse(responseCode = "200", description = "Information retrieved successfully"),
             @ApiResponse(responseCode = "503", description = "Service unavailable")
     })
-    public ResponseEntity<String> getServerInfo() {
+    public Mono<ResponseEntity<String>> getServerInfo() {
         log.info("Getting SearXNG server info");
 
-        try {
-            String info = searXNGService.getServerInfo();
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(info);
-        } catch (Exception e) {
-            log.error("Error getting server info", e);
-            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body("{\"error\":\"" + e.getMessage() + "\"}");
-        }
+        return searXNGService.getServerInfo()
+                .map(this::jsonResponse)
+                .onErrorResume(e -> {
+                    log.error("Error getting server info", e);
+                    return Mono.just(errorResponse(HttpStatus.SERVICE_UNAVAILABLE, e));
+                });
+    }
+
+    /**
+     * Lists the categories and engines known to the SearXNG server
+     */
+    @GetMapping("/catalog")
+    @Operation(summary = "Search catalog", description = "Lists the search categories and the enabled engines for each one, served from the in-memory server info cache")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Catalog retrieved successfully")
+    })
+    public ResponseEntity<Map<String, Object>> getSearchCatalog() {
+        log.info("Getting SearXNG search catalog");
+        return ResponseEntity.ok(searXNGService.getSearchCatalog());
+    }
+
+    private ResponseEntity<String> jsonResponse(String body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    private ResponseEntity<String> errorResponse(HttpStatus status, Throwable e) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\":\"" + e.getMessage() + "\"}");
     }
 }
@@ -0,0 +1,54 @@
+package com.clusterat.live.controller;
+
+import com.clusterat.live.dto.AnalysisResponseDTO;
+import com.clusterat.live.service.SearchService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+@Slf4j
+@RestController
+@RequestMapping("/v1/search")
+public class SearchController {
+    private final SearchService searchService;
+
+    @Autowired
+    public SearchController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    /**
+     * Ranked full-text search over OCR documents, job postings and rental properties (Portuguese and English).
+     * q accepts web search syntax: words, "exact phrase", -excluded, OR. types narrows the search to a
+     * comma-separated list of ocr_document, job_posting, rental_property.
+     */
+    @GetMapping
+    public Mono<ResponseEntity<AnalysisResponseDTO>> search(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String types,
+            @RequestParam(required = false) Integer limit) {
+        log.info("GET request to search for: {}", q);
+        return searchService.search(q, types, limit)
+                .map(results -> ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Found " + results.size() + " results")
+                        .data(results)
+                        .build()))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest()
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(e.getMessage())
+                                .build())))
+                .onErrorResume(e -> {
+                    log.error("Error searching for: {}", q, e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(AnalysisResponseDTO.builder()
+                                    .success(false)
+                                    .message("Error searching")
+                                    .build()));
+                });
+    }
+}
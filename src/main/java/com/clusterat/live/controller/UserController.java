@@ -1,15 +1,19 @@
 package com.clusterat.live.controller;
 
+import com.clusterat.live.config.JdbcExecutor;
 import com.clusterat.live.dto.AnalysisResponseDTO;
 import com.clusterat.live.dto.UserDTO;
+import com.clusterat.live.repository.KeysetPageRequest;
 import com.clusterat.live.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @Slf4j
 @RestController
@@ -17,111 +21,147 @@ import java.util.List;
 @RequiredArgsConstructor
 public class UserController {
     private final UserService userService;
+    private final JdbcExecutor jdbcExecutor;
 
     @GetMapping
-    public ResponseEntity<AnalysisResponseDTO> list(@RequestParam(required = false) String name) {
-        List<UserDTO> users;
-        if (name != null && !name.isEmpty()) {
-            users = userService.searchUsers(name);
-        } else {
-            users = userService.listUsers();
-        }
-        return ResponseEntity.ok(AnalysisResponseDTO.builder()
-                .success(true)
-                .message("Users fetched")
-                .data(users)
-                .build());
-    }
-
-    @GetMapping("/{userId}")
-    public ResponseEntity<AnalysisResponseDTO> getById(@PathVariable Long userId) {
-        try {
-            UserDTO user = userService.getUserById(userId);
+    public Mono<ResponseEntity<AnalysisResponseDTO>> list(@RequestParam(required = false) String name,
+                                                          @RequestParam(required = false) String after,
+                                                          @RequestParam(required = false) Integer limit,
+                                                          @RequestParam(required = false) String sort,
+                                                          @RequestParam(required = false) String order,
+                                                          @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return jdbcExecutor.mono(() -> {
+            Object users;
+            try {
+                if (name != null && !name.isEmpty()) {
+                    users = userService.searchUsers(name);
+                } else {
+                    users = userService.listUsers(after, limit, sort, order, includeTotal);
+                }
+            } catch (IllegalArgumentException ex) {
+                return ResponseEntity.badRequest()
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(ex.getMessage())
+                                .build());
+            }
             return ResponseEntity.ok(AnalysisResponseDTO.builder()
                     .success(true)
-                    .message("User fetched")
-                    .data(user)
+                    .message("Users fetched")
+                    .data(users)
                     .build());
-        } catch (IllegalArgumentException ex) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message(ex.getMessage())
-                            .build());
-        }
+        });
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<UserDTO> stream(@RequestParam(required = false) String after,
+                                @RequestParam(required = false) String sort,
+                                @RequestParam(required = false) String order) {
+        return jdbcExecutor.pages(cursor -> userService.listUsers(
+                        cursor, KeysetPageRequest.EXPORT_BATCH_SIZE, sort, order, false), after)
+                .onErrorMap(IllegalArgumentException.class,
+                        e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e));
+    }
+
+    @GetMapping("/{userId}")
+    public Mono<ResponseEntity<AnalysisResponseDTO>> getById(@PathVariable Long userId) {
+        return jdbcExecutor.mono(() -> {
+            try {
+                UserDTO user = userService.getUserById(userId);
+                return ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("User fetched")
+                        .data(user)
+                        .build());
+            } catch (IllegalArgumentException ex) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(ex.getMessage())
+                                .build());
+            }
+        });
     }
 
     @GetMapping("/wpp/{wppId}")
-    public ResponseEntity<AnalysisResponseDTO> getByWppId(@PathVariable String wppId) {
-        try {
-            UserDTO user = userService.getUserByWppId(wppId);
-            return ResponseEntity.ok(AnalysisResponseDTO.builder()
-                    .success(true)
-                    .message("User fetched")
-                    .data(user)
-                    .build());
-        } catch (IllegalArgumentException ex) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message(ex.getMessage())
-                            .build());
-        }
+    public Mono<ResponseEntity<AnalysisResponseDTO>> getByWppId(@PathVariable String wppId) {
+        return jdbcExecutor.mono(() -> {
+            try {
+                UserDTO user = userService.getUserByWppId(wppId);
+                return ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("User fetched")
+                        .data(user)
+                        .build());
+            } catch (IllegalArgumentException ex) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(ex.getMessage())
+                                .build());
+            }
+        });
     }
 
     @PostMapping
-    public ResponseEntity<AnalysisResponseDTO> create(@RequestBody UserDTO dto) {
-        try {
-            UserDTO created = userService.createUser(dto);
-            return ResponseEntity.status(HttpStatus.CREATED)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(true)
-                            .message("User created")
-                            .data(created)
-                            .build());
-        } catch (IllegalArgumentException ex) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message(ex.getMessage())
-                            .build());
-        }
+    public Mono<ResponseEntity<AnalysisResponseDTO>> create(@RequestBody UserDTO dto) {
+        return jdbcExecutor.mono(() -> {
+            try {
+                UserDTO created = userService.createUser(dto);
+                return ResponseEntity.status(HttpStatus.CREATED)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(true)
+                                .message("User created")
+                                .data(created)
+                                .build());
+            } catch (IllegalArgumentException ex) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(ex.getMessage())
+                                .build());
+            }
+        });
     }
 
     @PutMapping("/{userId}")
-    public ResponseEntity<AnalysisResponseDTO> update(@PathVariable Long userId,
-                                                      @RequestBody UserDTO dto) {
-        try {
-            UserDTO updated = userService.updateUser(userId, dto);
-            return ResponseEntity.ok(AnalysisResponseDTO.builder()
-                    .success(true)
-                    .message("User updated")
-                    .data(updated)
-                    .build());
-        } catch (IllegalArgumentException ex) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message(ex.getMessage())
-                            .build());
-        }
+    public Mono<ResponseEntity<AnalysisResponseDTO>> update(@PathVariable Long userId,
+                                                            @RequestBody UserDTO dto) {
+        return jdbcExecutor.mono(() -> {
+            try {
+                UserDTO updated = userService.updateUser(userId, dto);
+                return ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("User updated")
+                        .data(updated)
+                        .build());
+            } catch (IllegalArgumentException ex) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(ex.getMessage())
+                                .build());
+            }
+        });
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<AnalysisResponseDTO> delete(@PathVariable Long userId) {
-        try {
-            userService.deleteUser(userId);
-            return ResponseEntity.ok(AnalysisResponseDTO.builder()
-                    .success(true)
-                    .message("User deleted")
-                    .build());
-        } catch (IllegalArgumentException ex) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message(ex.getMessage())
-                            .build());
-        }
+    public Mono<ResponseEntity<AnalysisResponseDTO>> delete(@PathVariable Long userId) {
+        return jdbcExecutor.mono(() -> {
+            try {
+                userService.deleteUser(userId);
+                return ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("User deleted")
+                        .build());
+            } catch (IllegalArgumentException ex) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(ex.getMessage())
+                                .build());
+            }
+        });
     }
 }
 
@@ -1,5 +1,6 @@
 package com.clusterat.live.controller;
 
+import com.clusterat.live.config.JdbcExecutor;
 import com.clusterat.live.dto.AnalysisResponseDTO;
 import com.clusterat.live.dto.WorkoutExerciseDTO;
 import com.clusterat.live.service.WorkoutExerciseService;
@@ -8,6 +9,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 
@@ -17,80 +19,91 @@ import java.util.List;
 @RequiredArgsConstructor
 public class WorkoutExerciseController {
     private final WorkoutExerciseService workoutExerciseService;
+    private final JdbcExecutor jdbcExecutor;
 
     @GetMapping
-    public ResponseEntity<AnalysisResponseDTO> listAll() {
-        List<WorkoutExerciseDTO> exercises = workoutExerciseService.listAll();
-        return ResponseEntity.ok(AnalysisResponseDTO.builder()
-                .success(true)
-                .message("Exercises fetched")
-                .data(exercises)
-                .build());
-    }
-
-    @GetMapping("/{id}")
-    public ResponseEntity<AnalysisResponseDTO> get(@PathVariable Long id) {
-        try {
-            WorkoutExerciseDTO exercise = workoutExerciseService.getById(id);
+    public Mono<ResponseEntity<AnalysisResponseDTO>> listAll() {
+        return jdbcExecutor.mono(() -> {
+            List<WorkoutExerciseDTO> exercises = workoutExerciseService.listAll();
             return ResponseEntity.ok(AnalysisResponseDTO.builder()
                     .success(true)
-                    .message("Exercise fetched")
-                    .data(exercise)
+                    .message("Exercises fetched")
+                    .data(exercises)
                     .build());
-        } catch (IllegalArgumentException ex) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message(ex.getMessage())
-                            .build());
-        }
+        });
     }
 
-    @PostMapping
-    public ResponseEntity<AnalysisResponseDTO> create(@RequestBody WorkoutExerciseDTO dto) {
-        WorkoutExerciseDTO created = workoutExerciseService.create(dto);
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .body(AnalysisResponseDTO.builder()
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<AnalysisResponseDTO>> get(@PathVariable Long id) {
+        return jdbcExecutor.mono(() -> {
+            try {
+                WorkoutExerciseDTO exercise = workoutExerciseService.getById(id);
+                return ResponseEntity.ok(AnalysisResponseDTO.builder()
                         .success(true)
-                        .message("Exercise created")
-                        .data(created)
+                        .message("Exercise fetched")
+                        .data(exercise)
                         .build());
+            } catch (IllegalArgumentException ex) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(ex.getMessage())
+                                .build());
+            }
+        });
     }
 
-    @PutMapping("/{id}")
-    public ResponseEntity<AnalysisResponseDTO> update(@PathVariable Long id,
-                                                      @RequestBody WorkoutExerciseDTO dto) {
-        try {
-            WorkoutExerciseDTO updated = workoutExerciseService.update(id, dto);
-            return ResponseEntity.ok(AnalysisResponseDTO.builder()
-                    .success(true)
-                    .message("Exercise updated")
-                    .data(updated)
-                    .build());
-        } catch (IllegalArgumentException ex) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+    @PostMapping
+    public Mono<ResponseEntity<AnalysisResponseDTO>> create(@RequestBody WorkoutExerciseDTO dto) {
+        return jdbcExecutor.mono(() -> {
+            WorkoutExerciseDTO created = workoutExerciseService.create(dto);
+            return ResponseEntity.status(HttpStatus.CREATED)
                     .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message(ex.getMessage())
+                            .success(true)
+                            .message("Exercise created")
+                            .data(created)
                             .build());
-        }
+        });
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<AnalysisResponseDTO>> update(@PathVariable Long id,
+                                                            @RequestBody WorkoutExerciseDTO dto) {
+        return jdbcExecutor.mono(() -> {
+            try {
+                WorkoutExerciseDTO updated = workoutExerciseService.update(id, dto);
+                return ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Exercise updated")
+                        .data(updated)
+                        .build());
+            } catch (IllegalArgumentException ex) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(ex.getMessage())
+                                .build());
+            }
+        });
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<AnalysisResponseDTO> delete(@PathVariable Long id) {
-        try {
-            workoutExerciseService.delete(id);
-            return ResponseEntity.ok(AnalysisResponseDTO.builder()
-                    .success(true)
-                    .message("Exercise deleted")
-                    .build());
-        } catch (IllegalArgumentException ex) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message(ex.getMessage())
-                            .build());
-        }
+    public Mono<ResponseEntity<AnalysisResponseDTO>> delete(@PathVariable Long id) {
+        return jdbcExecutor.mono(() -> {
+            try {
+                workoutExerciseService.delete(id);
+                return ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Exercise deleted")
+                        .build());
+            } catch (IllegalArgumentException ex) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(ex.getMessage())
+                                .build());
+            }
+        });
     }
 }
 
@@ -1,15 +1,18 @@
 package com.clusterat.live.controller;
 
+import com.clusterat.live.config.JdbcExecutor;
 import com.clusterat.live.dto.AnalysisResponseDTO;
 import com.clusterat.live.dto.WorkoutSessionDTO;
 import com.clusterat.live.service.WorkoutSessionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.util.List;
 import java.util.UUID;
 
 @Slf4j
@@ -18,99 +21,116 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class WorkoutSessionController {
     private final WorkoutSessionService workoutSessionService;
+    private final JdbcExecutor jdbcExecutor;
 
     @GetMapping
-    public ResponseEntity<AnalysisResponseDTO> list(@RequestParam Long userId) {
-        List<WorkoutSessionDTO> sessions = workoutSessionService.listSessions(userId);
-        return ResponseEntity.ok(AnalysisResponseDTO.builder()
-                .success(true)
-                .message("Sessions fetched")
-                .data(sessions)
-                .build());
+    public Mono<ResponseEntity<AnalysisResponseDTO>> list(@RequestParam Long userId) {
+        return workoutSessionService.streamSessions(userId)
+                .collectList()
+                .map(sessions -> ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Sessions fetched")
+                        .data(sessions)
+                        .build()));
     }
 
-    @GetMapping("/{sessionId}")
-    public ResponseEntity<AnalysisResponseDTO> get(@PathVariable UUID sessionId) {
-        try {
-            WorkoutSessionDTO session = workoutSessionService.getSession(sessionId);
-            return ResponseEntity.ok(AnalysisResponseDTO.builder()
-                    .success(true)
-                    .message("Session fetched")
-                    .data(session)
-                    .build());
-        } catch (IllegalArgumentException ex) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message(ex.getMessage())
-                            .build());
-        }
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<WorkoutSessionDTO> stream(@RequestParam Long userId) {
+        return workoutSessionService.streamSessions(userId);
     }
 
-    @PostMapping
-    public ResponseEntity<AnalysisResponseDTO> create(@RequestBody WorkoutSessionDTO dto) {
-        WorkoutSessionDTO created = workoutSessionService.createSession(dto);
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .body(AnalysisResponseDTO.builder()
+    @GetMapping("/{sessionId}")
+    public Mono<ResponseEntity<AnalysisResponseDTO>> get(@PathVariable UUID sessionId) {
+        return jdbcExecutor.mono(() -> {
+            try {
+                WorkoutSessionDTO session = workoutSessionService.getSession(sessionId);
+                return ResponseEntity.ok(AnalysisResponseDTO.builder()
                         .success(true)
-                        .message("Session created")
-                        .data(created)
+                        .message("Session fetched")
+                        .data(session)
                         .build());
+            } catch (IllegalArgumentException ex) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(ex.getMessage())
+                                .build());
+            }
+        });
     }
 
-    @PutMapping("/{sessionId}")
-    public ResponseEntity<AnalysisResponseDTO> update(@PathVariable UUID sessionId,
-                                                      @RequestBody WorkoutSessionDTO dto) {
-        try {
-            WorkoutSessionDTO updated = workoutSessionService.updateSession(sessionId, dto);
-            return ResponseEntity.ok(AnalysisResponseDTO.builder()
-                    .success(true)
-                    .message("Session updated")
-                    .data(updated)
-                    .build());
-        } catch (IllegalArgumentException ex) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+    @PostMapping
+    public Mono<ResponseEntity<AnalysisResponseDTO>> create(@RequestBody WorkoutSessionDTO dto) {
+        return jdbcExecutor.mono(() -> {
+            WorkoutSessionDTO created = workoutSessionService.createSession(dto);
+            return ResponseEntity.status(HttpStatus.CREATED)
                     .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message(ex.getMessage())
+                            .success(true)
+                            .message("Session created")
+                            .data(created)
                             .build());
-        }
+        });
+    }
+
+    @PutMapping("/{sessionId}")
+    public Mono<ResponseEntity<AnalysisResponseDTO>> update(@PathVariable UUID sessionId,
+                                                            @RequestBody WorkoutSessionDTO dto) {
+        return jdbcExecutor.mono(() -> {
+            try {
+                WorkoutSessionDTO updated = workoutSessionService.updateSession(sessionId, dto);
+                return ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Session updated")
+                        .data(updated)
+                        .build());
+            } catch (IllegalArgumentException ex) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(ex.getMessage())
+                                .build());
+            }
+        });
     }
 
     @PutMapping("/{sessionId}/end")
-    public ResponseEntity<AnalysisResponseDTO> endSession(@PathVariable UUID sessionId,
-                                                          @RequestParam(required = false) String observation) {
-        try {
-            WorkoutSessionDTO ended = workoutSessionService.endSession(sessionId, observation);
-            return ResponseEntity.ok(AnalysisResponseDTO.builder()
-                    .success(true)
-                    .message("Session ended")
-                    .data(ended)
-                    .build());
-        } catch (IllegalArgumentException ex) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message(ex.getMessage())
-                            .build());
-        }
+    public Mono<ResponseEntity<AnalysisResponseDTO>> endSession(@PathVariable UUID sessionId,
+                                                                @RequestParam(required = false) String observation) {
+        return jdbcExecutor.mono(() -> {
+            try {
+                WorkoutSessionDTO ended = workoutSessionService.endSession(sessionId, observation);
+                return ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Session ended")
+                        .data(ended)
+                        .build());
+            } catch (IllegalArgumentException ex) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(ex.getMessage())
+                                .build());
+            }
+        });
     }
 
     @DeleteMapping("/{sessionId}")
-    public ResponseEntity<AnalysisResponseDTO> delete(@PathVariable UUID sessionId) {
-        try {
-            workoutSessionService.deleteSession(sessionId);
-            return ResponseEntity.ok(AnalysisResponseDTO.builder()
-                    .success(true)
-                    .message("Session deleted")
-                    .build());
-        } catch (IllegalArgumentException ex) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message(ex.getMessage())
-                            .build());
-        }
+    public Mono<ResponseEntity<AnalysisResponseDTO>> delete(@PathVariable UUID sessionId) {
+        return jdbcExecutor.mono(() -> {
+            try {
+                workoutSessionService.deleteSession(sessionId);
+                return ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Session deleted")
+                        .build());
+            } catch (IllegalArgumentException ex) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(ex.getMessage())
+                                .build());
+            }
+        });
     }
 }
 
@@ -1,15 +1,20 @@
 package com.clusterat.live.controller;
 
+import com.clusterat.live.config.JdbcExecutor;
 import com.clusterat.live.dto.AnalysisResponseDTO;
+import com.clusterat.live.dto.KeysetPageDTO;
 import com.clusterat.live.dto.WorkoutTemplateDTO;
+import com.clusterat.live.repository.KeysetPageRequest;
 import com.clusterat.live.service.WorkoutTemplateService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @Slf4j
 @RestController
@@ -17,80 +22,113 @@ import java.util.List;
 @RequiredArgsConstructor
 public class WorkoutTemplateController {
     private final WorkoutTemplateService workoutTemplateService;
+    private final JdbcExecutor jdbcExecutor;
 
     @GetMapping
-    public ResponseEntity<AnalysisResponseDTO> listAll() {
-        List<WorkoutTemplateDTO> templates = workoutTemplateService.listAll();
-        return ResponseEntity.ok(AnalysisResponseDTO.builder()
-                .success(true)
-                .message("Templates fetched")
-                .data(templates)
-                .build());
+    public Mono<ResponseEntity<AnalysisResponseDTO>> listAll(@RequestParam(required = false) String after,
+                                                             @RequestParam(required = false) Integer limit,
+                                                             @RequestParam(required = false) String sort,
+                                                             @RequestParam(required = false) String order,
+                                                             @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return jdbcExecutor.mono(() -> {
+            try {
+                KeysetPageDTO<WorkoutTemplateDTO> templates = workoutTemplateService.listAll(after, limit, sort, order, includeTotal);
+                return ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Templates fetched")
+                        .data(templates)
+                        .build());
+            } catch (IllegalArgumentException ex) {
+                return ResponseEntity.badRequest()
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(ex.getMessage())
+                                .build());
+            }
+        });
     }
 
-    @GetMapping("/{id}")
-    public ResponseEntity<AnalysisResponseDTO> get(@PathVariable Long id) {
-        try {
-            WorkoutTemplateDTO template = workoutTemplateService.getById(id);
-            return ResponseEntity.ok(AnalysisResponseDTO.builder()
-                    .success(true)
-                    .message("Template fetched")
-                    .data(template)
-                    .build());
-        } catch (IllegalArgumentException ex) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message(ex.getMessage())
-                            .build());
-        }
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<WorkoutTemplateDTO> stream(@RequestParam(required = false) String after,
+                                           @RequestParam(required = false) String sort,
+                                           @RequestParam(required = false) String order) {
+        return jdbcExecutor.pages(cursor -> workoutTemplateService.listAll(
+                        cursor, KeysetPageRequest.EXPORT_BATCH_SIZE, sort, order, false), after)
+                .onErrorMap(IllegalArgumentException.class,
+                        e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e));
     }
 
-    @PostMapping
-    public ResponseEntity<AnalysisResponseDTO> create(@RequestBody WorkoutTemplateDTO dto) {
-        WorkoutTemplateDTO created = workoutTemplateService.create(dto);
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .body(AnalysisResponseDTO.builder()
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<AnalysisResponseDTO>> get(@PathVariable Long id) {
+        return jdbcExecutor.mono(() -> {
+            try {
+                WorkoutTemplateDTO template = workoutTemplateService.getById(id);
+                return ResponseEntity.ok(AnalysisResponseDTO.builder()
                         .success(true)
-                        .message("Template created")
-                        .data(created)
+                        .message("Template fetched")
+                        .data(template)
                         .build());
+            } catch (IllegalArgumentException ex) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(ex.getMessage())
+                                .build());
+            }
+        });
     }
 
-    @PutMapping("/{id}")
-    public ResponseEntity<AnalysisResponseDTO> update(@PathVariable Long id,
-                                                      @RequestBody WorkoutTemplateDTO dto) {
-        try {
-            WorkoutTemplateDTO updated = workoutTemplateService.update(id, dto);
-            return ResponseEntity.ok(AnalysisResponseDTO.builder()
-                    .success(true)
-                    .message("Template updated")
-                    .data(updated)
-                    .build());
-        } catch (IllegalArgumentException ex) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+    @PostMapping
+    public Mono<ResponseEntity<AnalysisResponseDTO>> create(@RequestBody WorkoutTemplateDTO dto) {
+        return jdbcExecutor.mono(() -> {
+            WorkoutTemplateDTO created = workoutTemplateService.create(dto);
+            return ResponseEntity.status(HttpStatus.CREATED)
                     .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message(ex.getMessage())
+                            .success(true)
+                            .message("Template created")
+                            .data(created)
                             .build());
-        }
+        });
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<AnalysisResponseDTO>> update(@PathVariable Long id,
+                                                            @RequestBody WorkoutTemplateDTO dto) {
+        return jdbcExecutor.mono(() -> {
+            try {
+                WorkoutTemplateDTO updated = workoutTemplateService.update(id, dto);
+                return ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Template updated")
+                        .data(updated)
+                        .build());
+            } catch (IllegalArgumentException ex) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(ex.getMessage())
+                                .build());
+            }
+        });
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<AnalysisResponseDTO> delete(@PathVariable Long id) {
-        try {
-            workoutTemplateService.delete(id);
-            return ResponseEntity.ok(AnalysisResponseDTO.builder()
-                    .success(true)
-                    .message("Template deleted")
-                    .build());
-        } catch (IllegalArgumentException ex) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(AnalysisResponseDTO.builder()
-                            .success(false)
-                            .message(ex.getMessage())
-                            .build());
-        }
+    public Mono<ResponseEntity<AnalysisResponseDTO>> delete(@PathVariable Long id) {
+        return jdbcExecutor.mono(() -> {
+            try {
+                workoutTemplateService.delete(id);
+                return ResponseEntity.ok(AnalysisResponseDTO.builder()
+                        .success(true)
+                        .message("Template deleted")
+                        .build());
+            } catch (IllegalArgumentException ex) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(AnalysisResponseDTO.builder()
+                                .success(false)
+                                .message(ex.getMessage())
+                                .build());
+            }
+        });
     }
 }
 
@@ -0,0 +1,21 @@
+package com.clusterat.live.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Spending total per analysis type; analysisType is null for transactions not yet analysed
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalysisTypeSummaryDTO {
+    private String analysisType;
+    private BigDecimal total;
+    private Long count;
+}
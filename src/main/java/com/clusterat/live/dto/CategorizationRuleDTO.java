@@ -0,0 +1,38 @@
+package com.clusterat.live.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+/**
+ * Auto-categorization rule: transactions whose matchField contains pattern (case and accent
+ * insensitive) and whose amount is within [minAmount, maxAmount] get categoryId and analysisType
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategorizationRuleDTO {
+    private Integer ruleId;
+    private String name;
+    private String pattern;
+    /**
+     * description (default) or merchant (metadata.merchant)
+     */
+    private String matchField;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+    private Integer categoryId;
+    private String analysisType;
+    private Integer priority;
+    private Boolean enabled;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss[XXX][X]")
+    private OffsetDateTime createdAt;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss[XXX][X]")
+    private OffsetDateTime updatedAt;
+}
@@ -0,0 +1,29 @@
+package com.clusterat.live.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Spending total of one expense category; total and count include its subcategories
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategorySummaryDTO {
+    private Integer categoryId;
+    private String name;
+    private Integer parentCategoryId;
+    private Boolean isIncome;
+    private BigDecimal total;
+    private Long count;
+    /**
+     * Total of transactions booked directly on this category, without subcategories
+     */
+    private BigDecimal directTotal;
+    private Long directCount;
+}
@@ -0,0 +1,68 @@
+package com.clusterat.live.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Status and progress of a job recomputing the MinHash signatures and near-duplicate groups of all job postings
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DuplicateBackfillJobDTO {
+    @JsonProperty("job_id")
+    private String jobId;
+
+    @JsonProperty("status")
+    private String status;
+
+    @JsonProperty("message")
+    private String message;
+
+    /**
+     * Percentage of id-range batches already processed (0-100), signing and matching phases together
+     */
+    @JsonProperty("progress")
+    private Integer progress;
+
+    @JsonProperty("batches_total")
+    private Long batchesTotal;
+
+    @JsonProperty("batches_done")
+    private Long batchesDone;
+
+    @JsonProperty("postings_scanned")
+    private Long postingsScanned;
+
+    @JsonProperty("signatures_stored")
+    private Long signaturesStored;
+
+    /**
+     * Verified near-duplicate pairs (each pair counted from both sides)
+     */
+    @JsonProperty("duplicate_pairs")
+    private Long duplicatePairs;
+
+    @JsonProperty("clusters")
+    private Long clusters;
+
+    @JsonProperty("postings_clustered")
+    private Long postingsClustered;
+
+    @JsonProperty("started_at")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss[XXX][X]")
+    private OffsetDateTime startedAt;
+
+    @JsonProperty("finished_at")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss[XXX][X]")
+    private OffsetDateTime finishedAt;
+}
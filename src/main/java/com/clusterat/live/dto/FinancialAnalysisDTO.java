@@ -1,6 +1,7 @@
 package com.clusterat.live.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.JsonNode;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -22,8 +23,15 @@ public class FinancialAnalysisDTO {
     private OffsetDateTime transactionDate;
     private String description;
     private Integer categoryId;
+    /**
+     * Resolved from the in-memory category registry; ignored on writes
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String categoryName;
     private String analysisType;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String analysisNotes;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private JsonNode metadata;
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss[XXX][X]")
     private OffsetDateTime createdAt;
@@ -0,0 +1,84 @@
+package com.clusterat.live.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Status and progress of an asynchronous financial transaction import
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FinancialImportJobDTO {
+    @JsonProperty("job_id")
+    private String jobId;
+
+    @JsonProperty("status")
+    private String status;
+
+    @JsonProperty("format")
+    private String format;
+
+    @JsonProperty("filename")
+    private String filename;
+
+    @JsonProperty("message")
+    private String message;
+
+    /**
+     * Percentage of the uploaded file already read (0-100)
+     */
+    @JsonProperty("progress")
+    private Integer progress;
+
+    @JsonProperty("bytes_total")
+    private Long bytesTotal;
+
+    @JsonProperty("bytes_read")
+    private Long bytesRead;
+
+    @JsonProperty("rows_read")
+    private Long rowsRead;
+
+    @JsonProperty("rows_imported")
+    private Long rowsImported;
+
+    @JsonProperty("rows_rejected")
+    private Long rowsRejected;
+
+    /**
+     * Rows not imported because the same transaction is already stored or appears earlier in the file
+     */
+    @JsonProperty("rows_skipped")
+    private Long rowsSkipped;
+
+    /**
+     * First validation errors, as "line N: reason"
+     */
+    @JsonProperty("errors")
+    private List<String> errors;
+
+    /**
+     * First skipped duplicates, as "line N: reason"
+     */
+    @JsonProperty("skipped")
+    private List<String> skipped;
+
+    @JsonProperty("started_at")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss[XXX][X]")
+    private OffsetDateTime startedAt;
+
+    @JsonProperty("finished_at")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss[XXX][X]")
+    private OffsetDateTime finishedAt;
+}
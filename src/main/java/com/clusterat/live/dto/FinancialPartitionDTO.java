@@ -0,0 +1,29 @@
+package com.clusterat.live.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.YearMonth;
+
+/**
+ * A monthly partition of financial_analysis, or the default partition (month is null)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FinancialPartitionDTO {
+    private String tableName;
+    private YearMonth month;
+    /**
+     * Partition bound as reported by Postgres (FOR VALUES FROM ... TO ... or DEFAULT)
+     */
+    private String bounds;
+    /**
+     * Planner estimate (pg_class.reltuples); null until the partition is analyzed
+     */
+    private Long estimatedRows;
+    private long totalBytes;
+}
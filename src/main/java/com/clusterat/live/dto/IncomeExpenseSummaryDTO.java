@@ -0,0 +1,24 @@
+package com.clusterat.live.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Income versus expense over a period, split by ExpenseCategoryModel.isIncome
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IncomeExpenseSummaryDTO {
+    private BigDecimal income;
+    private BigDecimal expense;
+    private BigDecimal net;
+    private Long count;
+    private Long months;
+    private BigDecimal averageMonthlyExpense;
+}
@@ -1,6 +1,7 @@
 package com.clusterat.live.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -38,6 +39,7 @@ public class JobPostingDTO {
     private String jobFunction;
     @JsonProperty("job_industries")
     private String jobIndustries;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     @JsonProperty("job_summary_text")
     private String jobSummaryText;
     @JsonProperty("salary_currency")
@@ -48,6 +50,15 @@ public class JobPostingDTO {
     private BigDecimal salaryMax;
     @JsonProperty("salary_payment_period")
     private String salaryPaymentPeriod;
+    /**
+     * Annualized salary in the configured base currency; computed on ingest, ignored on input
+     */
+    @JsonProperty(value = "salary_annual_min", access = JsonProperty.Access.READ_ONLY)
+    private BigDecimal salaryAnnualMin;
+    @JsonProperty(value = "salary_annual_max", access = JsonProperty.Access.READ_ONLY)
+    private BigDecimal salaryAnnualMax;
+    @JsonProperty(value = "salary_annual_currency", access = JsonProperty.Access.READ_ONLY)
+    private String salaryAnnualCurrency;
     @JsonProperty("apply_link")
     private String applyLink;
     @JsonProperty("is_easy_apply")
@@ -66,5 +77,10 @@ public class JobPostingDTO {
     @JsonProperty("scraped_at")
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss[.SSS][XXX][X]")
     private OffsetDateTime scrapedAt;
+    /**
+     * Id of the canonical (oldest) posting of this posting's near-duplicate group; absent when it has no duplicates
+     */
+    @JsonProperty(value = "duplicate_cluster_id", access = JsonProperty.Access.READ_ONLY)
+    private Long duplicateClusterId;
 }
 
@@ -0,0 +1,31 @@
+package com.clusterat.live.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of filtered job postings plus the facet counts of the whole filtered set
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class JobPostingFilterResultDTO {
+    /**
+     * Page of postings; total_count is the number of postings matching the filter when facets are included
+     */
+    private KeysetPageDTO<JobPostingDTO> page;
+
+    /**
+     * Most frequent values per facet (company, location, seniority, employment_type, easy_apply),
+     * only present when includeFacets=true
+     */
+    private Map<String, List<FacetCountDTO>> facets;
+}
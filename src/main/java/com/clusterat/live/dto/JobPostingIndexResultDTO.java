@@ -0,0 +1,26 @@
+package com.clusterat.live.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Job postings matched by the in-memory search index, most recent first (without job_summary_text)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobPostingIndexResultDTO {
+    /**
+     * Number of matching job postings, regardless of the limit
+     */
+    private int total;
+    private List<JobPostingDTO> items;
+    @JsonProperty("elapsed_micros")
+    private long elapsedMicros;
+}
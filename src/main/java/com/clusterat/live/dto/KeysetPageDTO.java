@@ -0,0 +1,44 @@
+package com.clusterat.live.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset (cursor) paginated listing
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class KeysetPageDTO<T> {
+
+    private List<T> items;
+
+    /**
+     * Opaque cursor to pass as "after" to fetch the next page; null on the last page
+     */
+    @JsonProperty("next_cursor")
+    private String nextCursor;
+
+    @JsonProperty("has_more")
+    private boolean hasMore;
+
+    private int limit;
+
+    private String sort;
+
+    private String order;
+
+    /**
+     * Total number of rows, only present when includeTotal=true
+     */
+    @JsonProperty("total_count")
+    private Long totalCount;
+}
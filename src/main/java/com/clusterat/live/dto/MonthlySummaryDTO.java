@@ -0,0 +1,28 @@
+package com.clusterat.live.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Income and expense totals of one calendar month (UTC), with trailing rolling averages
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlySummaryDTO {
+    /**
+     * Month as yyyy-MM
+     */
+    private String month;
+    private BigDecimal income;
+    private BigDecimal expense;
+    private BigDecimal net;
+    private Long count;
+    private BigDecimal rollingAverageExpense;
+    private BigDecimal rollingAverageNet;
+}
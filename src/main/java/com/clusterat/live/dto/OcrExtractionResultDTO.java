@@ -0,0 +1,23 @@
+package com.clusterat.live.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of turning one document's OCR text into financial analysis rows
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OcrExtractionResultDTO {
+    private String documentId;
+    private long linesRead;
+    private long transactionsExtracted;
+    /**
+     * Rows from a previous extraction of the same document that were replaced
+     */
+    private long previousTransactionsReplaced;
+}
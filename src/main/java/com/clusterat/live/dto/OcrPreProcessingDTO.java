@@ -1,6 +1,7 @@
 package com.clusterat.live.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -17,6 +18,7 @@ public class OcrPreProcessingDTO {
     private String id;
     private String documentId;
     private String documentName;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String extractedText;
     private Integer imageCount;
     private String processingStatus;
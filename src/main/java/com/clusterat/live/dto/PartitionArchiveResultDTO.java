@@ -0,0 +1,24 @@
+package com.clusterat.live.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.YearMonth;
+
+/**
+ * Result of detaching a monthly partition of financial_analysis into an archive table
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PartitionArchiveResultDTO {
+    private YearMonth month;
+    private String archiveTable;
+    /**
+     * Transactions moved out of financial_analysis (and out of the monthly summary)
+     */
+    private long archivedRows;
+}
@@ -0,0 +1,65 @@
+package com.clusterat.live.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Status and progress of a job re-applying the categorization rules to stored transactions
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RecategorizationJobDTO {
+    @JsonProperty("job_id")
+    private String jobId;
+
+    @JsonProperty("status")
+    private String status;
+
+    /**
+     * Only transactions currently in this category are re-categorized (all when absent)
+     */
+    @JsonProperty("category_id")
+    private Integer categoryId;
+
+    @JsonProperty("message")
+    private String message;
+
+    /**
+     * Percentage of id-range batches already processed (0-100)
+     */
+    @JsonProperty("progress")
+    private Integer progress;
+
+    @JsonProperty("batches_total")
+    private Long batchesTotal;
+
+    @JsonProperty("batches_done")
+    private Long batchesDone;
+
+    @JsonProperty("rows_scanned")
+    private Long rowsScanned;
+
+    @JsonProperty("rows_matched")
+    private Long rowsMatched;
+
+    @JsonProperty("rows_updated")
+    private Long rowsUpdated;
+
+    @JsonProperty("started_at")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss[XXX][X]")
+    private OffsetDateTime startedAt;
+
+    @JsonProperty("finished_at")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss[XXX][X]")
+    private OffsetDateTime finishedAt;
+}
@@ -1,6 +1,7 @@
 package com.clusterat.live.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -24,6 +25,7 @@ public class RentalPropertyDTO {
     private String buildingName;
     @JsonProperty("property_type")
     private String propertyType;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     @JsonProperty("property_address")
     private String propertyAddress;
     private String neighborhood;
@@ -48,6 +50,7 @@ public class RentalPropertyDTO {
     private BigDecimal totalMonthlyCost;
     @JsonProperty("transaction_type")
     private String transactionType;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     @JsonProperty("payment_methods")
     private String paymentMethods;
     @JsonProperty("source_url")
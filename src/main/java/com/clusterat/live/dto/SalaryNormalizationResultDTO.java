@@ -0,0 +1,26 @@
+package com.clusterat.live.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of recomputing the annualized salaries of stored job postings
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalaryNormalizationResultDTO {
+    private String baseCurrency;
+    /**
+     * Postings with a salary that were recomputed
+     */
+    private long scanned;
+    private long normalized;
+    /**
+     * Postings left without annualized salary (currency missing from the FX table or unknown period)
+     */
+    private long unsupported;
+}
@@ -0,0 +1,33 @@
+package com.clusterat.live.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Approximate annualized salary percentiles of one group of job postings
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalaryPercentilesDTO {
+    /**
+     * title, location, seniority or all
+     */
+    private String groupBy;
+    /**
+     * Group value as first seen (groups are matched ignoring case and accents); null for all
+     */
+    private String value;
+    private long count;
+    private String currency;
+    /**
+     * Percentile ("p50", "p90"...) to annualized salary
+     */
+    private Map<String, BigDecimal> percentiles;
+}
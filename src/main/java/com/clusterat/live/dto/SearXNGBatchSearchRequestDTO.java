@@ -0,0 +1,54 @@
+package com.clusterat.live.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * DTO for SearXNG batch (multi-query) search requests
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SearXNGBatchSearchRequestDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Search terms (required, limited by searxng.batch.max-queries)
+     */
+    private List<String> queries;
+
+    /**
+     * Results page applied to every query (default: 1)
+     */
+    @Builder.Default
+    private Integer page = 1;
+
+    /**
+     * Search category applied to every query (optional)
+     */
+    private String category;
+
+    /**
+     * Language of results applied to every query (optional)
+     */
+    private String language;
+
+    /**
+     * Maximum number of queries executed at the same time (optional, capped by server configuration)
+     */
+    private Integer maxConcurrency;
+
+    /**
+     * Overall deadline in milliseconds; queries still running are reported as timed out (optional)
+     */
+    private Long timeoutMs;
+}
@@ -0,0 +1,61 @@
+package com.clusterat.live.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * DTO for a search engine configured in SearXNG (from /config)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SearXNGEngineDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Engine name
+     */
+    private String name;
+
+    /**
+     * Bang shortcut (e.g. "ddg")
+     */
+    private String shortcut;
+
+    /**
+     * Categories served by the engine
+     */
+    private List<String> categories;
+
+    /**
+     * If the engine is enabled on the instance
+     */
+    private Boolean enabled;
+
+    /**
+     * If the engine supports pagination
+     */
+    private Boolean paging;
+
+    /**
+     * If the engine supports language selection
+     */
+    @JsonProperty("language_support")
+    private Boolean languageSupport;
+
+    /**
+     * If the engine supports time range filtering
+     */
+    @JsonProperty("time_range_support")
+    private Boolean timeRangeSupport;
+}
@@ -0,0 +1,33 @@
+package com.clusterat.live.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One hit of the cross-entity full-text search
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResultDTO {
+    /**
+     * ocr_document, job_posting or rental_property
+     */
+    private String type;
+    /**
+     * Id of the record in its own endpoint (OCR record id, job posting id, rental property id)
+     */
+    private String id;
+    private String title;
+    /**
+     * Excerpt around the matched terms, with matches wrapped in {@code <b>} tags
+     */
+    private String snippet;
+    /**
+     * Relevance in [0, 1), comparable across types
+     */
+    private double rank;
+}
@@ -0,0 +1,25 @@
+package com.clusterat.live.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Result of comparing the monthly financial summary with a full recomputation
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SummaryConsistencyDTO {
+    /**
+     * Number of (month, category, analysis type) keys whose totals differed
+     */
+    private long driftedKeys;
+    private boolean repaired;
+    private Integer summaryRows;
+    private OffsetDateTime checkedAt;
+}
@@ -0,0 +1,29 @@
+package com.clusterat.live.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of an upsert ingestion: how many payload rows were inserted, updated or left unchanged
+ * (already stored and not newer), and how many were merged into another row of the payload with the same key
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpsertResultDTO {
+
+    private String mode;
+
+    private int received;
+
+    private int inserted;
+
+    private int updated;
+
+    private int unchanged;
+
+    private int duplicatesInPayload;
+}
@@ -22,7 +22,7 @@ public class RentalPropertyMCPService {
     @Tool(description = "Get the lastest 10 rows from rental_properties table")
     public ResponseEntity<List<RentalPropertyDTO>> getLatestRentalProperties() {
         try {
-            List<RentalPropertyDTO> properties = rentalPropertyService.getLatestProperties();
+            List<RentalPropertyDTO> properties = rentalPropertyService.getLatestProperties().collectList().block();
             return ResponseEntity.ok(properties == null ? Collections.emptyList() : properties);
         } catch (Exception e) {
             log.error("Error fetching latest rental properties ", e);
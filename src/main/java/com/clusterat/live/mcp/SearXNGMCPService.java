@@ -1,5 +1,6 @@
 package com.clusterat.live.mcp;
 
+import com.clusterat.live.service.SearXNGBatchSearchService;
 import com.clusterat.live.service.SearXNGService;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -10,6 +11,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -21,10 +23,13 @@ import java.util.Map;
 public class SearXNGMCPService {
 
     private final SearXNGService searXNGService;
+    private final SearXNGBatchSearchService searXNGBatchSearchService;
     private final ObjectMapper objectMapper;
 
-    public SearXNGMCPService(SearXNGService searXNGService, ObjectMapper objectMapper) {
+    public SearXNGMCPService(SearXNGService searXNGService, SearXNGBatchSearchService searXNGBatchSearchService,
+                             ObjectMapper objectMapper) {
         this.searXNGService = searXNGService;
+        this.searXNGBatchSearchService = searXNGBatchSearchService;
         this.objectMapper = objectMapper;
     }
 
@@ -43,7 +48,7 @@ public class SearXNGMCPService {
                 return createErrorResponse("Query cannot be empty", HttpStatus.BAD_REQUEST);
             }
 
-            String resultJson = searXNGService.search(query);
+            String resultJson = searXNGService.search(query).block();
             Map<String, Object> result = parseJsonResponse(resultJson);
 
             log.info("MCP Tool: searchWeb completed successfully for query: {}", query);
@@ -83,7 +88,7 @@ public class SearXNGMCPService {
                     page != null ? page : 1,
                     category,
                     language
-            );
+            ).block();
 
             Map<String, Object> result = parseJsonResponse(resultJson);
 
@@ -96,22 +101,57 @@ public class SearXNGMCPService {
         }
     }
 
+    /**
+     * Runs several related web searches at once and merges the results.
+     *
+     * @param queries List of search queries (required, duplicates are ignored)
+     * @param category Search category filter applied to every query (optional)
+     * @param language Language code applied to every query (optional)
+     * @return ResponseEntity with results deduplicated by URL, plus failed and timed out queries
+     */
+    @Tool(description = "Run multiple related web searches concurrently in a single call. Results are merged and deduplicated by URL; each result lists the queries that matched it in 'matched_queries'. Queries that fail or exceed the deadline are reported in 'failed' and 'timed_out', and 'partial' is true when that happens. Prefer this over repeated searchWeb calls.")
+    public ResponseEntity<Map<String, Object>> batchSearchWeb(
+            List<String> queries,
+            String category,
+            String language) {
+        try {
+            log.info("MCP Tool: batchSearchWeb called with {} queries", queries != null ? queries.size() : 0);
+
+            if (queries == null || queries.isEmpty()) {
+                return createErrorResponse("Queries cannot be empty", HttpStatus.BAD_REQUEST);
+            }
+
+            String resultJson = searXNGBatchSearchService
+                    .batchSearch(queries, 1, category, language, null, null)
+                    .block();
+            Map<String, Object> result = parseJsonResponse(resultJson);
+
+            log.info("MCP Tool: batchSearchWeb completed successfully");
+            return ResponseEntity.ok(result);
+
+        } catch (Exception e) {
+            log.error("Error in MCP batchSearchWeb: {}", e.getMessage(), e);
+            return createErrorResponse("Batch search failed: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     /**
      * Checks the health status of the SearXNG service.
      *
      * @return ResponseEntity with health status information
      */
-    @Tool(description = "Check if the SearXNG search service is available and responding. Returns health status and timestamp.")
+    @Tool(description = "Check if the SearXNG search service is available and responding. Returns overall health status, the state of each SearXNG instance and timestamp.")
     public ResponseEntity<Map<String, Object>> checkSearchHealth() {
         try {
             log.info("MCP Tool: checkSearchHealth called");
 
-            boolean healthy = searXNGService.healthCheck();
+            boolean healthy = Boolean.TRUE.equals(searXNGService.healthCheck().block());
 
             Map<String, Object> response = new HashMap<>();
             response.put("healthy", healthy);
             response.put("status", healthy ? "HEALTHY" : "UNHEALTHY");
             response.put("service", "SearXNG");
+            response.put("instances", searXNGService.getInstancesStatus());
             response.put("timestamp", System.currentTimeMillis());
 
             log.info("MCP Tool: checkSearchHealth completed - status: {}", healthy ? "HEALTHY" : "UNHEALTHY");
@@ -133,7 +173,7 @@ public class SearXNGMCPService {
         try {
             log.info("MCP Tool: getServerInfo called");
 
-            String infoJson = searXNGService.getServerInfo();
+            String infoJson = searXNGService.getServerInfo().block();
             Map<String, Object> result = parseJsonResponse(infoJson);
 
             log.info("MCP Tool: getServerInfo completed successfully");
@@ -145,6 +185,31 @@ public class SearXNGMCPService {
         }
     }
 
+    /**
+     * Lists the search categories and the engines enabled for each one.
+     *
+     * @return ResponseEntity with the cached search catalog
+     */
+    @Tool(description = "List the available search categories and the engines enabled for each category. Cheaper than getServerInfo; use it to pick a valid 'category' for advancedSearch or batchSearchWeb.")
+    public ResponseEntity<Map<String, Object>> listSearchCategories() {
+        try {
+            log.info("MCP Tool: listSearchCategories called");
+
+            Map<String, Object> catalog = searXNGService.getSearchCatalog();
+            if (!Boolean.TRUE.equals(catalog.get("loaded"))) {
+                // Catalog not loaded yet: fetch /config once to populate it
+                searXNGService.getServerInfo().block();
+                catalog = searXNGService.getSearchCatalog();
+            }
+
+            return ResponseEntity.ok(catalog);
+
+        } catch (Exception e) {
+            log.error("Error in MCP listSearchCategories: {}", e.getMessage(), e);
+            return createErrorResponse("Failed to list search categories: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     /**
      * Clears the search cache, forcing fresh results on next search.
      *
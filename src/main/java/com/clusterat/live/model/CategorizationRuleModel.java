@@ -0,0 +1,74 @@
+package com.clusterat.live.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Type;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "categorization_rules", schema = "live")
+public class CategorizationRuleModel {
+    public static final String MATCH_DESCRIPTION = "description";
+    public static final String MATCH_MERCHANT = "merchant";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer ruleId;
+
+    @Column(name = "name", nullable = false, length = 100)
+    private String name;
+
+    @Column(name = "pattern", nullable = false)
+    private String pattern;
+
+    @Column(name = "match_field", nullable = false, length = 20)
+    private String matchField;
+
+    @Column(name = "min_amount", precision = 19, scale = 4)
+    private BigDecimal minAmount;
+
+    @Column(name = "max_amount", precision = 19, scale = 4)
+    private BigDecimal maxAmount;
+
+    @Column(name = "category_id", nullable = false)
+    private Integer categoryId;
+
+    @Type(PostgreSQLEnumType.class)
+    @Column(name = "analysis_type", columnDefinition = "enum_analysis_type")
+    private AnalysisType analysisType;
+
+    @Column(name = "priority", nullable = false)
+    private Integer priority;
+
+    @Column(name = "enabled", nullable = false)
+    private Boolean enabled;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        OffsetDateTime now = OffsetDateTime.now();
+        if (createdAt == null) {
+            createdAt = now;
+        }
+        updatedAt = now;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = OffsetDateTime.now();
+    }
+}
@@ -1,5 +1,6 @@
 package com.clusterat.live.model;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -19,8 +20,12 @@ import java.time.OffsetDateTime;
 @Entity
 @Table(name = "financial_analysis", schema = "live")
 public class FinancialAnalysisModel {
+    /**
+     * Unique through the sequence; the table key is (analysis_id, transaction_date) because it is partitioned by month.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "financial_analysis_seq")
+    @SequenceGenerator(name = "financial_analysis_seq", sequenceName = "financial_analysis_analysis_id_seq", schema = "live", allocationSize = 50)
     private Long analysisId;
 
     @Column(name = "source_transaction_id")
@@ -45,18 +50,33 @@ public class FinancialAnalysisModel {
     @Column(name = "analysis_notes", columnDefinition = "TEXT")
     private String analysisNotes;
 
+    /**
+     * Mapped as a JSON tree: Hibernate converts it once on read/write, and it goes to the DTO as is.
+     */
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "metadata", columnDefinition = "jsonb")
-    private String metadata;
+    private JsonNode metadata;
 
     @Column(name = "created_at", nullable = false)
     private OffsetDateTime createdAt;
 
+    /**
+     * Unique; recomputed from date, amount, description and source id on every write (TransactionDedupKey).
+     */
+    @Column(name = "dedup_key", length = 32)
+    private String dedupKey;
+
     @PrePersist
     protected void onCreate() {
         if (createdAt == null) {
             createdAt = OffsetDateTime.now();
         }
+        dedupKey = TransactionDedupKey.of(this);
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        dedupKey = TransactionDedupKey.of(this);
     }
 }
 
@@ -17,7 +17,8 @@ import java.time.OffsetDateTime;
 @Table(name = "job_postings", schema = "live")
 public class JobPostingModel {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "job_postings_seq")
+    @SequenceGenerator(name = "job_postings_seq", sequenceName = "job_postings_id_seq", schema = "live", allocationSize = 50)
     private Long id;
 
     @Column(name = "job_posting_id", nullable = false, length = 50, unique = true)
@@ -68,6 +69,18 @@ public class JobPostingModel {
     @Column(name = "salary_payment_period", length = 50)
     private String salaryPaymentPeriod;
 
+    /**
+     * Salário anual na moeda base, calculado na ingestão pelo SalaryNormalizer
+     */
+    @Column(name = "salary_annual_min", precision = 14, scale = 2)
+    private BigDecimal salaryAnnualMin;
+
+    @Column(name = "salary_annual_max", precision = 14, scale = 2)
+    private BigDecimal salaryAnnualMax;
+
+    @Column(name = "salary_annual_currency", length = 10)
+    private String salaryAnnualCurrency;
+
     @Column(name = "apply_link", columnDefinition = "TEXT")
     private String applyLink;
 
@@ -92,6 +105,13 @@ public class JobPostingModel {
     @Column(name = "scraped_at", nullable = false)
     private OffsetDateTime scrapedAt;
 
+    /**
+     * Menor id do grupo de quase-duplicatas da vaga (nulo quando não há duplicatas). Mantido só via JDBC
+     * pelo JobPostingDeduplicationService, por isso fora dos INSERT/UPDATE do Hibernate
+     */
+    @Column(name = "duplicate_cluster_id", insertable = false, updatable = false)
+    private Long duplicateClusterId;
+
     @PrePersist
     protected void onCreate() {
         if (scrapedAt == null) {
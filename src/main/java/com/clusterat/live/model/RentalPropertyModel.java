@@ -17,7 +17,8 @@ import java.time.OffsetDateTime;
 @Table(name = "rental_properties", schema = "live")
 public class RentalPropertyModel {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rental_properties_seq")
+    @SequenceGenerator(name = "rental_properties_seq", sequenceName = "rental_properties_id_seq", schema = "live", allocationSize = 50)
     private Long id;
 
     @Column(name = "property_code", nullable = false, length = 50)
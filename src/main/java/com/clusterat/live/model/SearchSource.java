@@ -0,0 +1,29 @@
+package com.clusterat.live.model;
+
+import lombok.Getter;
+
+@Getter
+public enum SearchSource {
+    OCR_DOCUMENT("ocr_document"),
+    JOB_POSTING("job_posting"),
+    RENTAL_PROPERTY("rental_property");
+
+    private final String value;
+
+    SearchSource(String value) {
+        this.value = value;
+    }
+
+    public static SearchSource fromValue(String value) {
+        if (value == null) {
+            return null;
+        }
+        for (SearchSource source : SearchSource.values()) {
+            if (source.value.equalsIgnoreCase(value.trim())) {
+                return source;
+            }
+        }
+        throw new IllegalArgumentException("Unknown search type: " + value
+                + " (allowed: ocr_document, job_posting, rental_property)");
+    }
+}
@@ -0,0 +1,51 @@
+package com.clusterat.live.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Chave de duplicidade de uma transação: MD5 (hex) de "dia UTC|valor|id de origem|descrição".
+ * O dia é contado a partir de 1970-01-01, o valor vai com a escala da coluna (4 casas) e a descrição
+ * com espaços colapsados, sem espaços nas bordas e em minúsculas. A migração 020 calcula a mesma
+ * chave em SQL para as linhas já gravadas, então as duas implementações precisam andar juntas.
+ */
+public final class TransactionDedupKey {
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private TransactionDedupKey() {
+    }
+
+    public static String of(FinancialAnalysisModel model) {
+        return of(model.getTransactionDate(), model.getAmount(), model.getDescription(), model.getSourceTransactionId());
+    }
+
+    public static String of(OffsetDateTime transactionDate, BigDecimal amount, String description,
+                            String sourceTransactionId) {
+        String key = (transactionDate != null
+                ? String.valueOf(transactionDate.atZoneSameInstant(ZoneOffset.UTC).toLocalDate().toEpochDay()) : "")
+                + '|' + (amount != null ? amount.setScale(4, RoundingMode.HALF_UP).toPlainString() : "")
+                + '|' + (sourceTransactionId != null ? sourceTransactionId : "")
+                + '|' + normalizeDescription(description);
+        try {
+            MessageDigest md5 = MessageDigest.getInstance("MD5");
+            return HexFormat.of().formatHex(md5.digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 not available", e);
+        }
+    }
+
+    static String normalizeDescription(String description) {
+        if (description == null) {
+            return "";
+        }
+        return WHITESPACE.matcher(description).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+    }
+}
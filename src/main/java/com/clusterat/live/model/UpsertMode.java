@@ -0,0 +1,27 @@
+package com.clusterat.live.model;
+
+import lombok.Getter;
+
+@Getter
+public enum UpsertMode {
+    INSERT_ONLY("insert_only"),
+    UPDATE_IF_NEWER("update_if_newer");
+
+    private final String value;
+
+    UpsertMode(String value) {
+        this.value = value;
+    }
+
+    public static UpsertMode fromValue(String value) {
+        if (value == null) {
+            return null;
+        }
+        for (UpsertMode mode : UpsertMode.values()) {
+            if (mode.value.equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown upsert mode: " + value + " (allowed: insert_only, update_if_newer)");
+    }
+}
@@ -0,0 +1,66 @@
+package com.clusterat.live.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Inserção em lote via JPA.
+ * Com ids de sequence em alocação pooled (allocationSize = 50) o Hibernate não precisa de um
+ * round-trip por linha para obter o id, agrupa os INSERTs em lotes JDBC (hibernate.jdbc.batch_size)
+ * e o driver os reescreve em INSERTs multi-linha (reWriteBatchedInserts).
+ * O contexto de persistência é descarregado e limpo a cada lote, então a memória não cresce com o payload.
+ */
+@Slf4j
+@Component
+public class BatchInsertWriter {
+    public static final int BATCH_SIZE = 500;
+
+    /**
+     * Limite de parâmetros por cláusula IN nas consultas de duplicidade.
+     */
+    public static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Persiste as entidades novas em lotes de BATCH_SIZE. As entidades voltam com o id preenchido
+     * e desanexadas do contexto.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <T> List<T> insertAll(List<T> entities) {
+        for (int i = 0; i < entities.size(); i++) {
+            entityManager.persist(entities.get(i));
+            if ((i + 1) % BATCH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        log.debug("Inserted {} rows in batches of {}", entities.size(), BATCH_SIZE);
+        return entities;
+    }
+
+    /**
+     * Executa uma consulta de chaves existentes em blocos de LOOKUP_CHUNK_SIZE, para não exceder o limite
+     * de parâmetros do driver com payloads grandes.
+     */
+    public static <K, R> List<R> lookupInChunks(Collection<K> keys, Function<List<K>, Collection<R>> query) {
+        List<K> all = new ArrayList<>(keys);
+        List<R> result = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += LOOKUP_CHUNK_SIZE) {
+            result.addAll(query.apply(all.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, all.size()))));
+        }
+        return result;
+    }
+}
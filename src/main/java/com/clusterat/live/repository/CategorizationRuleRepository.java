@@ -0,0 +1,12 @@
+package com.clusterat.live.repository;
+
+import com.clusterat.live.model.CategorizationRuleModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CategorizationRuleRepository extends JpaRepository<CategorizationRuleModel, Integer> {
+    List<CategorizationRuleModel> findByEnabledTrue();
+}
@@ -0,0 +1,97 @@
+package com.clusterat.live.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitura e atualização de financial_analysis para a recategorização em massa, por faixas de
+ * analysis_id (cada faixa é uma consulta pela PK e um lote de UPDATEs independente).
+ */
+@Repository
+public class FinancialAnalysisCategorizationRepository {
+    private static final String SELECT_RANGE = """
+            SELECT analysis_id, description, metadata->>'merchant' AS merchant, amount, category_id,
+                   analysis_type::text AS analysis_type
+            FROM live.financial_analysis
+            WHERE analysis_id >= ? AND analysis_id < ?""";
+
+    private static final String UPDATE_CATEGORY = """
+            UPDATE live.financial_analysis
+            SET category_id = ?, analysis_type = CAST(? AS live.enum_analysis_type)
+            WHERE analysis_id = ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public FinancialAnalysisCategorizationRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public record TransactionRow(long analysisId, String description, String merchant, BigDecimal amount,
+                                 int categoryId, String analysisType) {
+    }
+
+    public record CategoryUpdate(long analysisId, int categoryId, String analysisType) {
+    }
+
+    /**
+     * Menor e maior analysis_id (das linhas da categoria, quando informada), ou null se não houver linhas.
+     */
+    public long[] findIdRange(Integer categoryId) {
+        String sql = "SELECT MIN(analysis_id), MAX(analysis_id) FROM live.financial_analysis"
+                + (categoryId != null ? " WHERE category_id = ?" : "");
+        Object[] args = categoryId != null ? new Object[]{categoryId} : new Object[0];
+        return jdbcTemplate.query(sql, rs -> {
+            rs.next();
+            long min = rs.getLong(1);
+            return rs.wasNull() ? null : new long[]{min, rs.getLong(2)};
+        }, args);
+    }
+
+    /**
+     * Linhas com analysis_id em [fromId, toId), opcionalmente só da categoria informada.
+     */
+    public List<TransactionRow> findRange(long fromId, long toId, Integer categoryId) {
+        List<Object> args = new ArrayList<>(List.of(fromId, toId));
+        String sql = SELECT_RANGE;
+        if (categoryId != null) {
+            sql += " AND category_id = ?";
+            args.add(categoryId);
+        }
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new TransactionRow(
+                rs.getLong("analysis_id"),
+                rs.getString("description"),
+                rs.getString("merchant"),
+                rs.getBigDecimal("amount"),
+                rs.getInt("category_id"),
+                rs.getString("analysis_type")), args.toArray());
+    }
+
+    /**
+     * Grava as novas categorias num lote JDBC.
+     * @return quantidade de linhas atualizadas
+     */
+    public int updateCategories(List<CategoryUpdate> updates) {
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_CATEGORY, updates, updates.size(), (ps, update) -> {
+            ps.setInt(1, update.categoryId());
+            ps.setString(2, update.analysisType());
+            ps.setLong(3, update.analysisId());
+        });
+        int updated = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                updated += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+            }
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,226 @@
+package com.clusterat.live.repository;
+
+import com.clusterat.live.model.FinancialAnalysisModel;
+import com.clusterat.live.model.TransactionDedupKey;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Carga de alto volume em financial_analysis via COPY FROM STDIN (CopyManager do driver JDBC).
+ * As linhas são consumidas do iterador sob demanda e enviadas em blocos, então o arquivo de
+ * origem nunca fica inteiro em memória. A carga é uma transação só: ou entram todas, ou nenhuma.
+ * O COPY vai para uma tabela temporária; de lá um único INSERT ... SELECT ... ON CONFLICT DO NOTHING
+ * leva a primeira ocorrência de cada chave, então transações já gravadas ou repetidas no arquivo são
+ * ignoradas sem consulta por linha e sem abortar a carga. A tabela é particionada e a unicidade de
+ * dedup_key vem dos índices únicos de cada partição, por isso o ON CONFLICT não nomeia a coluna.
+ * analysis_id vem da sequence em blocos de 50, como no otimizador pooled do Hibernate (cada nextval v
+ * reserva os ids (v - 50, v]), e não do DEFAULT nextval, que andaria 50 ids por linha; created_at fica
+ * com o default da tabela (NOW()).
+ */
+@Slf4j
+@Repository
+public class FinancialAnalysisCopyRepository {
+    private static final String CREATE_STAGING_SQL = """
+            CREATE TEMP TABLE financial_import_staging (
+                line_number BIGINT NOT NULL,
+                source_transaction_id VARCHAR(255),
+                amount NUMERIC(19,4) NOT NULL,
+                transaction_date TIMESTAMP WITH TIME ZONE NOT NULL,
+                description TEXT,
+                category_id INT NOT NULL,
+                analysis_type live.enum_analysis_type,
+                analysis_notes TEXT,
+                metadata JSONB,
+                dedup_key CHAR(32) NOT NULL
+            ) ON COMMIT DROP""";
+
+    private static final String COPY_SQL = "COPY financial_import_staging (line_number, source_transaction_id, "
+            + "amount, transaction_date, description, category_id, analysis_type, analysis_notes, metadata, dedup_key) "
+            + "FROM STDIN WITH (FORMAT csv)";
+
+    /**
+     * Linhas que não serão gravadas: repetições no arquivo (depois da primeira) e chaves já gravadas.
+     */
+    private static final String SKIPPED_SQL = """
+            SELECT line_number, occurrence > 1 AS repeated_in_file
+            FROM (SELECT line_number, dedup_key,
+                         row_number() OVER (PARTITION BY dedup_key ORDER BY line_number) AS occurrence
+                  FROM financial_import_staging) s
+            WHERE occurrence > 1
+               OR EXISTS (SELECT 1 FROM live.financial_analysis f WHERE f.dedup_key = s.dedup_key)
+            ORDER BY line_number
+            LIMIT ?""";
+
+    /**
+     * Um bloco de ids a mais que o necessário: o primeiro valor de uma sequence nova (1) não reserva
+     * um bloco inteiro e é descartado. Os CTEs com nextval são materializados, avaliados uma vez.
+     */
+    private static final String INSERT_SQL = """
+            WITH first_occurrence AS (
+                SELECT f.*, row_number() OVER (ORDER BY line_number) - 1 AS position
+                FROM (SELECT DISTINCT ON (dedup_key) *
+                      FROM financial_import_staging
+                      ORDER BY dedup_key, line_number) f),
+            id_blocks AS (
+                SELECT hi, row_number() OVER (ORDER BY hi) - 1 AS block
+                FROM (SELECT nextval('live.financial_analysis_analysis_id_seq') AS hi
+                      FROM generate_series(0, (SELECT count(*) FROM first_occurrence) / 50 + 1)) s
+                WHERE hi >= 50)
+            INSERT INTO live.financial_analysis (analysis_id, source_transaction_id, amount, transaction_date,
+                                                 description, category_id, analysis_type, analysis_notes,
+                                                 metadata, dedup_key)
+            SELECT b.hi - 49 + o.position % 50, o.source_transaction_id, o.amount, o.transaction_date,
+                   o.description, o.category_id, o.analysis_type, o.analysis_notes, o.metadata, o.dedup_key
+            FROM first_occurrence o
+            JOIN id_blocks b ON b.block = o.position / 50
+            ORDER BY o.line_number
+            ON CONFLICT DO NOTHING""";
+    private static final int FLUSH_THRESHOLD_CHARS = 64 * 1024;
+
+    private final DataSource dataSource;
+
+    @Autowired
+    public FinancialAnalysisCopyRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Linha do arquivo de origem, com o número usado no relatório de duplicados.
+     */
+    public record SourceRow(long line, FinancialAnalysisModel model) {
+    }
+
+    public record SkippedRow(long line, boolean repeatedInFile) {
+    }
+
+    /**
+     * @param skipped as primeiras linhas ignoradas; o total é rowsCopied - rowsInserted
+     */
+    public record CopyResult(long rowsCopied, long rowsInserted, List<SkippedRow> skipped) {
+    }
+
+    /**
+     * Grava as linhas do iterador que ainda não existem em financial_analysis.
+     * @param maxReportedSkips quantas linhas ignoradas listar no resultado
+     * @throws SQLException se o COPY falhar; nada é gravado nesse caso
+     */
+    public CopyResult copyIn(Iterator<SourceRow> rows, int maxReportedSkips) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(CREATE_STAGING_SQL);
+                }
+                long copied = copy(connection, rows);
+                try (Statement statement = connection.createStatement()) {
+                    // Tabela temporária não passa pelo autovacuum; sem estatísticas o plano do INSERT seria às cegas
+                    statement.execute("ANALYZE financial_import_staging");
+                }
+                List<SkippedRow> skipped = findSkipped(connection, maxReportedSkips);
+                long inserted;
+                try (PreparedStatement insert = connection.prepareStatement(INSERT_SQL)) {
+                    inserted = insert.executeLargeUpdate();
+                }
+                connection.commit();
+                log.info("COPY staged {} rows, inserted {} into financial_analysis ({} duplicates skipped)",
+                        copied, inserted, copied - inserted);
+                return new CopyResult(copied, inserted, skipped);
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private static List<SkippedRow> findSkipped(Connection connection, int limit) throws SQLException {
+        List<SkippedRow> skipped = new ArrayList<>();
+        if (limit <= 0) {
+            return skipped;
+        }
+        try (PreparedStatement query = connection.prepareStatement(SKIPPED_SQL)) {
+            query.setInt(1, limit);
+            try (ResultSet rs = query.executeQuery()) {
+                while (rs.next()) {
+                    skipped.add(new SkippedRow(rs.getLong("line_number"), rs.getBoolean("repeated_in_file")));
+                }
+            }
+        }
+        return skipped;
+    }
+
+    private long copy(Connection connection, Iterator<SourceRow> rows) throws SQLException {
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+        try {
+            StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD_CHARS + 1024);
+            while (rows.hasNext()) {
+                appendRow(buffer, rows.next());
+                if (buffer.length() >= FLUSH_THRESHOLD_CHARS) {
+                    flush(copyIn, buffer);
+                }
+            }
+            flush(copyIn, buffer);
+            return copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private static void flush(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    private static void appendRow(StringBuilder buffer, SourceRow source) {
+        FinancialAnalysisModel row = source.model();
+        buffer.append(source.line()).append(',');
+        appendText(buffer, row.getSourceTransactionId());
+        buffer.append(',').append(row.getAmount().toPlainString());
+        buffer.append(',').append(row.getTransactionDate());
+        buffer.append(',');
+        appendText(buffer, row.getDescription());
+        buffer.append(',').append(row.getCategoryId());
+        buffer.append(',');
+        if (row.getAnalysisType() != null) {
+            buffer.append(row.getAnalysisType().getValue());
+        }
+        buffer.append(',');
+        appendText(buffer, row.getAnalysisNotes());
+        buffer.append(',');
+        appendText(buffer, row.getMetadata() != null ? row.getMetadata().toString() : null);
+        buffer.append(',').append(TransactionDedupKey.of(row));
+        buffer.append('\n');
+    }
+
+    /**
+     * No formato csv do COPY, campo vazio sem aspas é NULL; texto vai sempre entre aspas.
+     */
+    private static void appendText(StringBuilder buffer, String value) {
+        if (value == null) {
+            return;
+        }
+        buffer.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+}
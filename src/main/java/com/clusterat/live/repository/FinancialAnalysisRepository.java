@@ -1,16 +1,41 @@
 package com.clusterat.live.repository;
 
-import com.clusterat.live.model.AnalysisType;
 import com.clusterat.live.model.FinancialAnalysisModel;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface FinancialAnalysisRepository extends JpaRepository<FinancialAnalysisModel, Long> {
-    List<FinancialAnalysisModel> findByCategoryId(Integer categoryId);
-    List<FinancialAnalysisModel> findByAnalysisType(AnalysisType analysisType);
     List<FinancialAnalysisModel> findBySourceTransactionId(String sourceTransactionId);
+    boolean existsByDedupKey(String dedupKey);
+
+    /**
+     * Verificação de duplicidade em conjunto (índice único em dedup_key de cada partição):
+     * devolve apenas as chaves já gravadas.
+     */
+    @Query("SELECT f.dedupKey FROM FinancialAnalysisModel f WHERE f.dedupKey IN :dedupKeys")
+    List<String> findExistingDedupKeys(Collection<String> dedupKeys);
+
+    /**
+     * Remove em uma instrução as linhas cujo source_transaction_id começa com o prefixo
+     * (usa o índice idx_financial_analysis_transaction_id), sem carregar as entidades.
+     * O prefixo é comparado literalmente: %, _ e \ nele são escapados.
+     */
+    default int deleteBySourceTransactionIdPrefix(String prefix) {
+        return deleteBySourceTransactionIdLike(
+                prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%");
+    }
+
+    /**
+     * @param pattern padrão LIKE com \ como caractere de escape
+     */
+    @Modifying
+    @Query("DELETE FROM FinancialAnalysisModel f WHERE f.sourceTransactionId LIKE :pattern ESCAPE '\\'")
+    int deleteBySourceTransactionIdLike(String pattern);
 }
 
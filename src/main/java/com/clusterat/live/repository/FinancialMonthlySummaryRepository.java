@@ -0,0 +1,61 @@
+package com.clusterat.live.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Manutenção do resumo financial_monthly_summary, que no dia a dia é atualizado pelos triggers
+ * de financial_analysis: verificação contra um recálculo completo e reconstrução.
+ */
+@Slf4j
+@Repository
+public class FinancialMonthlySummaryRepository {
+    private static final String ACTUAL_TOTALS = """
+            SELECT date_trunc('month', transaction_date AT TIME ZONE 'UTC')::date AS month, category_id,
+                   COALESCE(analysis_type::text, '') AS analysis_type, SUM(amount) AS total, COUNT(*) AS tx_count
+            FROM live.financial_analysis
+            GROUP BY 1, 2, 3""";
+
+    private static final String DRIFT_SQL = """
+            WITH actual AS (
+            """ + ACTUAL_TOTALS + """
+            )
+            SELECT COUNT(*)
+            FROM actual a
+            FULL OUTER JOIN live.financial_monthly_summary s
+                ON s.month = a.month AND s.category_id = a.category_id AND s.analysis_type = a.analysis_type
+            WHERE a.total IS DISTINCT FROM s.total OR a.tx_count IS DISTINCT FROM s.tx_count""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public FinancialMonthlySummaryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Quantidade de chaves (mês, categoria, tipo) em que o resumo difere do recálculo a partir das linhas.
+     */
+    public long countDrift() {
+        Long drift = jdbcTemplate.queryForObject(DRIFT_SQL, Long.class);
+        return drift != null ? drift : 0;
+    }
+
+    /**
+     * Recalcula o resumo inteiro. A tabela de análises fica bloqueada para escrita durante a
+     * reconstrução, para que nenhum trigger concorrente aplique deltas sobre o resumo sendo refeito.
+     * @return quantidade de linhas do resumo
+     */
+    @Transactional
+    public int rebuild() {
+        jdbcTemplate.execute("LOCK TABLE live.financial_analysis IN SHARE MODE");
+        jdbcTemplate.update("DELETE FROM live.financial_monthly_summary");
+        int rows = jdbcTemplate.update("INSERT INTO live.financial_monthly_summary "
+                + "(month, category_id, analysis_type, total, tx_count) " + ACTUAL_TOTALS);
+        log.info("Rebuilt financial_monthly_summary with {} rows", rows);
+        return rows;
+    }
+}
@@ -0,0 +1,134 @@
+package com.clusterat.live.repository;
+
+import com.clusterat.live.dto.FinancialPartitionDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Manutenção das partições mensais de financial_analysis (changeSet 022).
+ * A criação fica nas funções live.financial_analysis_ensure_partition(s), que também tiram da
+ * partição padrão as linhas do mês criado; aqui ficam as chamadas, a listagem e o arquivamento.
+ */
+@Slf4j
+@Repository
+public class FinancialPartitionRepository {
+    public static final String PARTITION_PREFIX = "financial_analysis_";
+    public static final String ARCHIVE_PREFIX = "financial_analysis_archive_";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final String PARTITIONS_SQL = """
+            SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) AS bounds,
+                   c.reltuples::bigint AS estimated_rows, pg_total_relation_size(c.oid) AS total_bytes
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = 'live.financial_analysis'::regclass
+            ORDER BY c.relname""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public FinancialPartitionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Garante as partições de todos os meses entre from e to (inclusive).
+     * @return quantidade de partições criadas
+     */
+    public int ensurePartitions(YearMonth from, YearMonth to) {
+        Integer created = jdbcTemplate.queryForObject("SELECT live.financial_analysis_ensure_partitions(?, ?)",
+                Integer.class, from.atDay(1), to.atDay(1));
+        return created != null ? created : 0;
+    }
+
+    /**
+     * Cria a partição de cada mês que tenha linhas na partição padrão, levando as linhas para ela.
+     * @return quantidade de partições criadas
+     */
+    public int splitDefaultPartition() {
+        List<LocalDate> months = jdbcTemplate.queryForList(
+                "SELECT DISTINCT date_trunc('month', transaction_date AT TIME ZONE 'UTC')::date "
+                        + "FROM live.financial_analysis_default ORDER BY 1", LocalDate.class);
+        int created = 0;
+        for (LocalDate month : months) {
+            Boolean done = jdbcTemplate.queryForObject("SELECT live.financial_analysis_ensure_partition(?)",
+                    Boolean.class, month);
+            if (Boolean.TRUE.equals(done)) {
+                created++;
+            }
+        }
+        return created;
+    }
+
+    public List<FinancialPartitionDTO> findPartitions() {
+        return jdbcTemplate.query(PARTITIONS_SQL, (rs, rowNum) -> {
+            String name = rs.getString("relname");
+            long estimatedRows = rs.getLong("estimated_rows");
+            return FinancialPartitionDTO.builder()
+                    .tableName(name)
+                    .month(monthOf(name))
+                    .bounds(rs.getString("bounds"))
+                    .estimatedRows(estimatedRows >= 0 ? estimatedRows : null)
+                    .totalBytes(rs.getLong("total_bytes"))
+                    .build();
+        });
+    }
+
+    public boolean isAttached(YearMonth month) {
+        Long attached = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_inherits "
+                        + "WHERE inhparent = 'live.financial_analysis'::regclass AND inhrelid = to_regclass(?)",
+                Long.class, "live." + partitionName(month));
+        return attached != null && attached > 0;
+    }
+
+    public boolean tableExists(String tableName) {
+        Boolean exists = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, "live." + tableName);
+        return Boolean.TRUE.equals(exists);
+    }
+
+    /**
+     * Desanexa a partição do mês e a renomeia para a tabela de arquivo, sem copiar nem apagar linhas.
+     * As linhas do mês saem também do resumo mensal: as partições seguem os mesmos meses UTC do resumo.
+     * O DETACH pede bloqueio exclusivo da tabela, mas só pelo tempo de alterar o catálogo.
+     * @return quantidade de transações arquivadas
+     */
+    @Transactional
+    public long detachPartition(YearMonth month, String archiveTable) {
+        String partition = partitionName(month);
+        jdbcTemplate.execute("ALTER TABLE live.financial_analysis DETACH PARTITION live." + partition);
+        jdbcTemplate.execute("ALTER TABLE live." + partition + " RENAME TO " + archiveTable);
+        Long archived = jdbcTemplate.queryForObject("WITH removed AS ("
+                        + "DELETE FROM live.financial_monthly_summary WHERE month = ? RETURNING tx_count) "
+                        + "SELECT COALESCE(SUM(tx_count), 0) FROM removed",
+                Long.class, month.atDay(1));
+        log.info("Detached financial_analysis partition {} as {} ({} rows)", partition, archiveTable, archived);
+        return archived != null ? archived : 0;
+    }
+
+    public static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(SUFFIX);
+    }
+
+    public static String archiveName(YearMonth month) {
+        return ARCHIVE_PREFIX + month.format(SUFFIX);
+    }
+
+    static YearMonth monthOf(String tableName) {
+        if (!tableName.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(tableName.substring(PARTITION_PREFIX.length()), SUFFIX);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.clusterat.live.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assinaturas MinHash, índice LSH e grupos de quase-duplicatas das vagas (changeSet 026).
+ * O índice LSH é a tabela job_posting_lsh_bands, uma linha (faixa, bucket, vaga) por faixa da assinatura:
+ * as candidatas de uma vaga são as que compartilham algum par (faixa, bucket), buscadas pela PK.
+ * O grupo fica em job_postings.duplicate_cluster_id (menor id do grupo) e só é escrito por aqui.
+ * A ingestão e o backfill gravam grupos sob a trava consultiva CLUSTER_LOCK_KEY: compartilhada nas
+ * transações de ingestão, exclusiva quando o backfill substitui todos os grupos.
+ */
+@Repository
+public class JobPostingDuplicateRepository {
+    /**
+     * Vagas por consulta de candidatas: cada uma ocupa 2 parâmetros por faixa.
+     */
+    private static final int CANDIDATE_CHUNK_SIZE = 100;
+
+    /**
+     * Chave da trava consultiva (pg_advisory_xact_lock) sobre os grupos de duplicatas.
+     */
+    private static final long CLUSTER_LOCK_KEY = 26_050L;
+
+    private static final String SELECT_SIGNATURE = """
+            SELECT j.id, j.job_title, j.company_name, j.duplicate_cluster_id, m.signature
+            FROM live.job_postings j
+            JOIN live.job_posting_minhash m ON m.job_posting_id = j.id""";
+
+    private static final String SELECT_CANDIDATE = """
+            SELECT b.band, b.bucket, j.id, j.job_title, j.company_name, j.duplicate_cluster_id, m.signature
+            FROM live.job_posting_lsh_bands b
+            JOIN live.job_postings j ON j.id = b.job_posting_id
+            JOIN live.job_posting_minhash m ON m.job_posting_id = b.job_posting_id
+            WHERE (b.band, b.bucket) IN (""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public JobPostingDuplicateRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Texto de uma vaga usado na assinatura, com o grupo atual.
+     */
+    public record PostingText(long id, String title, String company, String location, String summary,
+                              Long clusterId) {
+    }
+
+    /**
+     * Assinatura serializada de uma vaga e o bucket de cada faixa (faixa i na posição i).
+     */
+    public record PostingSignature(long id, byte[] signature, long[] buckets) {
+    }
+
+    /**
+     * Vaga já assinada, com o necessário para verificar a semelhança e agrupar.
+     */
+    public record SignedPosting(long id, String title, String company, Long clusterId, byte[] signature) {
+    }
+
+    /**
+     * Vaga encontrada no bucket informado.
+     */
+    public record BucketCandidate(int band, long bucket, SignedPosting posting) {
+    }
+
+    public long[] findIdRange() {
+        return jdbcTemplate.query("SELECT MIN(id), MAX(id) FROM live.job_postings", rs -> {
+            rs.next();
+            long min = rs.getLong(1);
+            return rs.wasNull() ? null : new long[]{min, rs.getLong(2)};
+        });
+    }
+
+    /**
+     * Trava compartilhada até o fim da transação: transações de ingestão gravam grupos em paralelo entre
+     * si, mas esperam o backfill. Deve ser pedida antes de a transação alterar linhas de job_postings,
+     * para não esperar a trava segurando linhas que o backfill vai atualizar.
+     */
+    public void lockClustersShared() {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock_shared(?)", rs -> {
+        }, CLUSTER_LOCK_KEY);
+    }
+
+    /**
+     * Trava exclusiva até o fim da transação: espera as transações de ingestão em andamento e bloqueia as novas.
+     */
+    public void lockClustersExclusive() {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> {
+        }, CLUSTER_LOCK_KEY);
+    }
+
+    /**
+     * Espera as transações de ingestão em andamento e devolve o relógio do banco: assinaturas gravadas
+     * depois disso pela ingestão têm computed_at maior que o valor devolvido.
+     */
+    @Transactional
+    public OffsetDateTime awaitIngestClock() {
+        lockClustersExclusive();
+        return jdbcTemplate.queryForObject("SELECT clock_timestamp()", OffsetDateTime.class);
+    }
+
+    /**
+     * Texto das vagas com id em [fromId, toId).
+     */
+    public List<PostingText> findTextRange(long fromId, long toId) {
+        return jdbcTemplate.query("""
+                SELECT id, job_title, company_name, job_location, job_summary_text, duplicate_cluster_id
+                FROM live.job_postings
+                WHERE id >= ? AND id < ?""", (rs, rowNum) -> toPostingText(rs), fromId, toId);
+    }
+
+    /**
+     * Texto das vagas assinadas depois do instante informado (computed_at posterior).
+     */
+    public List<PostingText> findTextSignedAfter(OffsetDateTime signedAt) {
+        return jdbcTemplate.query("""
+                SELECT j.id, j.job_title, j.company_name, j.job_location, j.job_summary_text, j.duplicate_cluster_id
+                FROM live.job_postings j
+                JOIN live.job_posting_minhash m ON m.job_posting_id = j.id
+                WHERE m.computed_at > ?""", (rs, rowNum) -> toPostingText(rs), signedAt);
+    }
+
+    /**
+     * Assinaturas gravadas das vagas com id em [fromId, toId).
+     */
+    public List<SignedPosting> findSignatureRange(long fromId, long toId) {
+        return jdbcTemplate.query(SELECT_SIGNATURE + " WHERE j.id >= ? AND j.id < ?",
+                (rs, rowNum) -> toSignedPosting(rs), fromId, toId);
+    }
+
+    /**
+     * Vagas assinadas que compartilham algum (faixa, bucket) com as informadas, uma linha por bucket
+     * compartilhado: a mesma vaga pode voltar em várias faixas, e as próprias vagas informadas também voltam.
+     */
+    public List<BucketCandidate> findCandidates(List<PostingSignature> postings) {
+        List<BucketCandidate> candidates = new ArrayList<>();
+        for (int from = 0; from < postings.size(); from += CANDIDATE_CHUNK_SIZE) {
+            List<PostingSignature> chunk = postings.subList(from, Math.min(from + CANDIDATE_CHUNK_SIZE, postings.size()));
+            List<Object> args = new ArrayList<>();
+            for (PostingSignature posting : chunk) {
+                for (int band = 0; band < posting.buckets().length; band++) {
+                    args.add(band);
+                    args.add(posting.buckets()[band]);
+                }
+            }
+            String sql = SELECT_CANDIDATE + String.join(", ", Collections.nCopies(args.size() / 2, "(?, ?)")) + ")";
+            candidates.addAll(jdbcTemplate.query(sql, (rs, rowNum) ->
+                    new BucketCandidate(rs.getInt("band"), rs.getLong("bucket"), toSignedPosting(rs)), args.toArray()));
+        }
+        return candidates;
+    }
+
+    /**
+     * Grava (ou substitui) as assinaturas e os buckets LSH das vagas.
+     * @param signedAt computed_at das assinaturas; null para o relógio do banco (clock_timestamp()).
+     *                 Um computed_at já gravado nunca recua.
+     */
+    public void saveSignatures(List<PostingSignature> signatures, OffsetDateTime signedAt) {
+        if (signatures.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO live.job_posting_minhash (job_posting_id, signature, computed_at)
+                VALUES (?, ?, COALESCE(CAST(? AS TIMESTAMPTZ), clock_timestamp()))
+                ON CONFLICT (job_posting_id) DO UPDATE SET signature = EXCLUDED.signature,
+                    computed_at = GREATEST(live.job_posting_minhash.computed_at, EXCLUDED.computed_at)""",
+                signatures.stream().map(posting -> new Object[]{posting.id(), posting.signature(), signedAt}).toList());
+        jdbcTemplate.batchUpdate("DELETE FROM live.job_posting_lsh_bands WHERE job_posting_id = ?",
+                signatures.stream().map(posting -> new Object[]{posting.id()}).toList());
+        List<Object[]> bands = new ArrayList<>();
+        for (PostingSignature posting : signatures) {
+            for (int band = 0; band < posting.buckets().length; band++) {
+                bands.add(new Object[]{band, posting.buckets()[band], posting.id()});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO live.job_posting_lsh_bands (band, bucket, job_posting_id) VALUES (?, ?, ?)",
+                bands);
+    }
+
+    /**
+     * Põe no grupo clusterId as vagas informadas e todos os membros dos grupos a que elas já pertenciam.
+     * @return linhas alteradas
+     */
+    public int mergeCluster(long clusterId, List<Long> postingIds, List<Long> clusterIds) {
+        List<Object> args = new ArrayList<>();
+        args.add(clusterId);
+        args.addAll(postingIds);
+        StringBuilder sql = new StringBuilder("UPDATE live.job_postings SET duplicate_cluster_id = ? WHERE (id IN (")
+                .append(String.join(", ", Collections.nCopies(postingIds.size(), "?"))).append(')');
+        if (!clusterIds.isEmpty()) {
+            sql.append(" OR duplicate_cluster_id IN (")
+                    .append(String.join(", ", Collections.nCopies(clusterIds.size(), "?"))).append(')');
+            args.addAll(clusterIds);
+        }
+        sql.append(") AND duplicate_cluster_id IS DISTINCT FROM ?");
+        args.add(clusterId);
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    /**
+     * Antes de remover uma vaga: se ela é a canônica do grupo, o grupo passa para o menor id restante;
+     * se sobrar uma vaga só, ela deixa de ter grupo.
+     */
+    public void reassignCluster(long removedId) {
+        List<Long> cluster = jdbcTemplate.queryForList(
+                "SELECT duplicate_cluster_id FROM live.job_postings WHERE id = ? AND duplicate_cluster_id IS NOT NULL",
+                Long.class, removedId);
+        if (cluster.isEmpty()) {
+            return;
+        }
+        long clusterId = cluster.get(0);
+        List<Long> remaining = jdbcTemplate.queryForList(
+                "SELECT id FROM live.job_postings WHERE duplicate_cluster_id = ? AND id <> ? ORDER BY id",
+                Long.class, clusterId, removedId);
+        if (remaining.size() <= 1) {
+            jdbcTemplate.update("UPDATE live.job_postings SET duplicate_cluster_id = NULL WHERE duplicate_cluster_id = ? AND id <> ?",
+                    clusterId, removedId);
+        } else if (clusterId == removedId) {
+            jdbcTemplate.update("UPDATE live.job_postings SET duplicate_cluster_id = ? WHERE duplicate_cluster_id = ? AND id <> ?",
+                    remaining.get(0), clusterId, removedId);
+        }
+    }
+
+    /**
+     * Substitui todos os grupos pelos informados (vaga -> grupo), numa transação. Vagas removidas desde
+     * o cálculo dos grupos são compensadas: o grupo passa para o menor id restante, e grupos com uma
+     * vaga só são desfeitos.
+     * @return vagas com grupo
+     */
+    @Transactional
+    public int replaceClusters(Map<Long, Long> clusterByPosting) {
+        jdbcTemplate.update("UPDATE live.job_postings SET duplicate_cluster_id = NULL WHERE duplicate_cluster_id IS NOT NULL");
+        jdbcTemplate.batchUpdate("UPDATE live.job_postings SET duplicate_cluster_id = ? WHERE id = ?",
+                clusterByPosting.entrySet().stream()
+                        .map(entry -> new Object[]{entry.getValue(), entry.getKey()})
+                        .toList());
+        jdbcTemplate.update("""
+                UPDATE live.job_postings j SET duplicate_cluster_id = c.first_id
+                FROM (SELECT duplicate_cluster_id, MIN(id) AS first_id
+                      FROM live.job_postings
+                      WHERE duplicate_cluster_id IS NOT NULL
+                      GROUP BY duplicate_cluster_id
+                      HAVING MIN(id) <> duplicate_cluster_id) c
+                WHERE j.duplicate_cluster_id = c.duplicate_cluster_id""");
+        jdbcTemplate.update("""
+                UPDATE live.job_postings SET duplicate_cluster_id = NULL
+                WHERE duplicate_cluster_id IN (SELECT duplicate_cluster_id
+                                               FROM live.job_postings
+                                               WHERE duplicate_cluster_id IS NOT NULL
+                                               GROUP BY duplicate_cluster_id
+                                               HAVING COUNT(*) = 1)""");
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM live.job_postings WHERE duplicate_cluster_id IS NOT NULL", Integer.class);
+    }
+
+    private static PostingText toPostingText(ResultSet rs) throws SQLException {
+        long clusterId = rs.getLong("duplicate_cluster_id");
+        Long cluster = rs.wasNull() ? null : clusterId;
+        return new PostingText(rs.getLong("id"), rs.getString("job_title"), rs.getString("company_name"),
+                rs.getString("job_location"), rs.getString("job_summary_text"), cluster);
+    }
+
+    private static SignedPosting toSignedPosting(ResultSet rs) throws SQLException {
+        long clusterId = rs.getLong("duplicate_cluster_id");
+        Long cluster = rs.wasNull() ? null : clusterId;
+        return new SignedPosting(rs.getLong("id"), rs.getString("job_title"), rs.getString("company_name"),
+                cluster, rs.getBytes("signature"));
+    }
+}
@@ -0,0 +1,175 @@
+package com.clusterat.live.repository;
+
+import lombok.Builder;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filtro combinável da listagem de vagas: cada critério preenchido vira um predicado (AND) com
+ * parâmetro nomeado, e o mesmo WHERE serve à página e à contagem por facetas.
+ * Listas (empresa, local, senioridade, tipo) aceitam vários valores (IN); salário filtra por
+ * sobreposição da faixa da vaga com [salaryFrom, salaryTo], nos valores como gravados (as expressões COALESCE
+ * são as mesmas dos índices do changeSet 027 e só mudam junto com eles); annualSalaryFrom/To fazem o
+ * mesmo sobre o salário anual na moeda base (changeSet 025, índices do 028), comparável entre moedas e períodos.
+ * collapseDuplicates deixa só a vaga canônica (menor id) de cada grupo de quase-duplicatas (changeSet 026).
+ */
+@Builder
+public record JobPostingFilter(List<String> companies,
+                               List<String> locations,
+                               List<String> seniorityLevels,
+                               List<String> employmentTypes,
+                               String title,
+                               BigDecimal salaryFrom,
+                               BigDecimal salaryTo,
+                               String salaryCurrency,
+                               BigDecimal annualSalaryFrom,
+                               BigDecimal annualSalaryTo,
+                               LocalDate postedAfter,
+                               Boolean easyApply,
+                               Integer minApplicants,
+                               Integer maxApplicants,
+                               Boolean collapseDuplicates) {
+
+    /**
+     * @throws IllegalArgumentException para faixas invertidas ou valores negativos
+     */
+    public void validate() {
+        if (isNegative(salaryFrom) || isNegative(salaryTo) || isNegative(annualSalaryFrom) || isNegative(annualSalaryTo)) {
+            throw new IllegalArgumentException("Salary bounds must not be negative");
+        }
+        if (salaryFrom != null && salaryTo != null && salaryFrom.compareTo(salaryTo) > 0) {
+            throw new IllegalArgumentException("salaryFrom must not be greater than salaryTo");
+        }
+        if (annualSalaryFrom != null && annualSalaryTo != null && annualSalaryFrom.compareTo(annualSalaryTo) > 0) {
+            throw new IllegalArgumentException("annualSalaryFrom must not be greater than annualSalaryTo");
+        }
+        if ((minApplicants != null && minApplicants < 0) || (maxApplicants != null && maxApplicants < 0)) {
+            throw new IllegalArgumentException("Applicant bounds must not be negative");
+        }
+        if (minApplicants != null && maxApplicants != null && minApplicants > maxApplicants) {
+            throw new IllegalArgumentException("minApplicants must not be greater than maxApplicants");
+        }
+    }
+
+    /**
+     * Cláusula WHERE (com espaço inicial) dos critérios preenchidos, ou vazia sem nenhum.
+     */
+    public String whereClause() {
+        List<String> predicates = new ArrayList<>();
+        if (hasValues(companies)) {
+            predicates.add("company_name IN (:companies)");
+        }
+        if (hasValues(locations)) {
+            predicates.add("job_location IN (:locations)");
+        }
+        if (hasValues(seniorityLevels)) {
+            predicates.add("seniority_level IN (:seniorityLevels)");
+        }
+        if (hasValues(employmentTypes)) {
+            predicates.add("employment_type IN (:employmentTypes)");
+        }
+        if (hasText(title)) {
+            predicates.add("job_title ILIKE '%' || :title || '%' ESCAPE '\\'");
+        }
+        if (salaryFrom != null) {
+            predicates.add("COALESCE(salary_max, salary_min) >= :salaryFrom");
+        }
+        if (salaryTo != null) {
+            predicates.add("COALESCE(salary_min, salary_max) <= :salaryTo");
+        }
+        if (hasText(salaryCurrency)) {
+            predicates.add("salary_currency = :salaryCurrency");
+        }
+        if (annualSalaryFrom != null) {
+            predicates.add("COALESCE(salary_annual_max, salary_annual_min) >= :annualSalaryFrom");
+        }
+        if (annualSalaryTo != null) {
+            predicates.add("COALESCE(salary_annual_min, salary_annual_max) <= :annualSalaryTo");
+        }
+        if (postedAfter != null) {
+            predicates.add("job_posted_at >= :postedAfter");
+        }
+        if (easyApply != null) {
+            predicates.add("is_easy_apply = :easyApply");
+        }
+        if (minApplicants != null) {
+            predicates.add("num_applicants >= :minApplicants");
+        }
+        if (maxApplicants != null) {
+            predicates.add("num_applicants <= :maxApplicants");
+        }
+        if (Boolean.TRUE.equals(collapseDuplicates)) {
+            predicates.add("(duplicate_cluster_id IS NULL OR duplicate_cluster_id = id)");
+        }
+        return predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates);
+    }
+
+    public DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec) {
+        DatabaseClient.GenericExecuteSpec bound = spec;
+        if (hasValues(companies)) {
+            bound = bound.bind("companies", values(companies));
+        }
+        if (hasValues(locations)) {
+            bound = bound.bind("locations", values(locations));
+        }
+        if (hasValues(seniorityLevels)) {
+            bound = bound.bind("seniorityLevels", values(seniorityLevels));
+        }
+        if (hasValues(employmentTypes)) {
+            bound = bound.bind("employmentTypes", values(employmentTypes));
+        }
+        if (hasText(title)) {
+            bound = bound.bind("title", title.trim().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_"));
+        }
+        if (salaryFrom != null) {
+            bound = bound.bind("salaryFrom", salaryFrom);
+        }
+        if (salaryTo != null) {
+            bound = bound.bind("salaryTo", salaryTo);
+        }
+        if (hasText(salaryCurrency)) {
+            bound = bound.bind("salaryCurrency", salaryCurrency.trim());
+        }
+        if (annualSalaryFrom != null) {
+            bound = bound.bind("annualSalaryFrom", annualSalaryFrom);
+        }
+        if (annualSalaryTo != null) {
+            bound = bound.bind("annualSalaryTo", annualSalaryTo);
+        }
+        if (postedAfter != null) {
+            bound = bound.bind("postedAfter", OffsetDateTime.of(postedAfter.atStartOfDay(), ZoneOffset.UTC));
+        }
+        if (easyApply != null) {
+            bound = bound.bind("easyApply", easyApply);
+        }
+        if (minApplicants != null) {
+            bound = bound.bind("minApplicants", minApplicants);
+        }
+        if (maxApplicants != null) {
+            bound = bound.bind("maxApplicants", maxApplicants);
+        }
+        return bound;
+    }
+
+    private static boolean isNegative(BigDecimal value) {
+        return value != null && value.signum() < 0;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static boolean hasValues(List<String> values) {
+        return values != null && values.stream().anyMatch(JobPostingFilter::hasText);
+    }
+
+    private static List<String> values(List<String> values) {
+        return values.stream().filter(JobPostingFilter::hasText).map(String::trim).distinct().toList();
+    }
+}
@@ -2,18 +2,23 @@ package com.clusterat.live.repository;
 
 import com.clusterat.live.model.JobPostingModel;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface JobPostingRepository extends JpaRepository<JobPostingModel, Long> {
     Optional<JobPostingModel> findByJobPostingId(String jobPostingId);
-    List<JobPostingModel> findByCompanyName(String companyName);
-    List<JobPostingModel> findByJobLocation(String jobLocation);
-    List<JobPostingModel> findBySeniorityLevel(String seniorityLevel);
-    List<JobPostingModel> findByEmploymentType(String employmentType);
-    List<JobPostingModel> findByJobTitleContainingIgnoreCase(String jobTitle);
+
+    /**
+     * Verificação de duplicidade em conjunto para a inserção em lote: devolve apenas os ids já gravados.
+     */
+    @Query("SELECT j.jobPostingId FROM JobPostingModel j WHERE j.jobPostingId IN :jobPostingIds")
+    List<String> findExistingJobPostingIds(Collection<String> jobPostingIds);
+
+    List<JobPostingModel> findByDuplicateClusterIdOrderById(Long duplicateClusterId);
 }
 
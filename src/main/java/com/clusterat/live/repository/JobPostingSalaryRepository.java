@@ -0,0 +1,54 @@
+package com.clusterat.live.repository;
+
+import com.clusterat.live.model.JobPostingModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Renormalização em lote dos salários anuais (changeSet 025): leitura por keyset em id só das colunas
+ * de salário (e das que agrupam os percentis) e gravação dos valores anuais num batch de UPDATEs por bloco.
+ */
+@Repository
+public class JobPostingSalaryRepository {
+    private static final String SELECT = "SELECT id, job_title, job_location, seniority_level, "
+            + "salary_currency, salary_min, salary_max, salary_payment_period "
+            + "FROM live.job_postings WHERE id > ? AND (salary_min IS NOT NULL OR salary_max IS NOT NULL)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public JobPostingSalaryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Próximo bloco de vagas com salário informado, em ordem de id.
+     * @param onlyStale só as que ainda não foram normalizadas para baseCurrency
+     */
+    public List<JobPostingModel> findSalariesAfter(long afterId, int limit, boolean onlyStale, String baseCurrency) {
+        String sql = SELECT + (onlyStale ? " AND salary_annual_currency IS DISTINCT FROM ?" : "") + " ORDER BY id LIMIT ?";
+        Object[] args = onlyStale ? new Object[]{afterId, baseCurrency, limit} : new Object[]{afterId, limit};
+        return jdbcTemplate.query(sql, (rs, rowNum) -> JobPostingModel.builder()
+                .id(rs.getLong("id"))
+                .jobTitle(rs.getString("job_title"))
+                .jobLocation(rs.getString("job_location"))
+                .seniorityLevel(rs.getString("seniority_level"))
+                .salaryCurrency(rs.getString("salary_currency"))
+                .salaryMin(rs.getBigDecimal("salary_min"))
+                .salaryMax(rs.getBigDecimal("salary_max"))
+                .salaryPaymentPeriod(rs.getString("salary_payment_period"))
+                .build(), args);
+    }
+
+    public void updateAnnualSalaries(List<JobPostingModel> rows) {
+        jdbcTemplate.batchUpdate("UPDATE live.job_postings SET salary_annual_min = ?, salary_annual_max = ?, "
+                        + "salary_annual_currency = ? WHERE id = ?",
+                rows.stream()
+                        .map(row -> new Object[]{row.getSalaryAnnualMin(), row.getSalaryAnnualMax(),
+                                row.getSalaryAnnualCurrency(), row.getId()})
+                        .toList());
+    }
+}
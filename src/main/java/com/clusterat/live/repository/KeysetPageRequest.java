@@ -0,0 +1,236 @@
+package com.clusterat.live.repository;
+
+import com.clusterat.live.dto.KeysetPageDTO;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Página de uma listagem paginada por keyset.
+ * Em vez de OFFSET, filtra as linhas posteriores ao último par (valor de ordenação, id)
+ * já entregue: o custo de cada página não depende da profundidade e a consulta usa o
+ * índice (coluna, id). O cursor é opaco (base64) e carrega ordenação, direção e posição.
+ * O primeiro campo da lista é a chave única, usada como desempate e ordenação padrão.
+ */
+public final class KeysetPageRequest<T> {
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 1000;
+    public static final int EXPORT_BATCH_SIZE = 500;
+
+    private final KeysetSortField<T> idField;
+    private final KeysetSortField<T> sortField;
+    private final boolean descending;
+    private final Object afterValue;
+    private final Object afterId;
+    private final int limit;
+
+    private KeysetPageRequest(KeysetSortField<T> idField, KeysetSortField<T> sortField, boolean descending,
+                              Object afterValue, Object afterId, int limit) {
+        this.idField = idField;
+        this.sortField = sortField;
+        this.descending = descending;
+        this.afterValue = afterValue;
+        this.afterId = afterId;
+        this.limit = limit;
+    }
+
+    /**
+     * Valida os parâmetros da listagem.
+     * @param fields campos ordenáveis; o primeiro é a chave única
+     * @param sort nome do campo de ordenação (padrão: chave única)
+     * @param order asc ou desc (padrão: asc)
+     * @param after cursor devolvido pela página anterior
+     * @param limit tamanho da página (padrão DEFAULT_LIMIT, máximo MAX_LIMIT)
+     * @throws IllegalArgumentException para parâmetros ou cursor inválidos
+     */
+    public static <T> KeysetPageRequest<T> of(List<KeysetSortField<T>> fields, String sort, String order,
+                                              String after, Integer limit) {
+        KeysetSortField<T> idField = fields.get(0);
+        KeysetSortField<T> sortField = idField;
+        if (sort != null && !sort.isBlank()) {
+            sortField = fields.stream()
+                    .filter(field -> field.getName().equalsIgnoreCase(sort.trim()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Invalid sort field: " + sort + " (allowed: "
+                            + fields.stream().map(KeysetSortField::getName).collect(Collectors.joining(", ")) + ")"));
+        }
+
+        boolean descending;
+        if (order == null || order.isBlank() || order.trim().equalsIgnoreCase("asc")) {
+            descending = false;
+        } else if (order.trim().equalsIgnoreCase("desc")) {
+            descending = true;
+        } else {
+            throw new IllegalArgumentException("Invalid order: " + order + " (allowed: asc, desc)");
+        }
+
+        int size = limit != null ? limit : DEFAULT_LIMIT;
+        if (size < 1 || size > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+
+        Object afterValue = null;
+        Object afterId = null;
+        if (after != null && !after.isBlank()) {
+            String[] parts = decode(after.trim());
+            if (!parts[0].equals(sortField.getName()) || !parts[1].equals(descending ? "desc" : "asc")) {
+                throw new IllegalArgumentException("Cursor was issued for a different sort or order");
+            }
+            try {
+                afterId = idField.parse(parts[2]);
+                afterValue = sortField.parse(parts[3]);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        return new KeysetPageRequest<>(idField, sortField, descending, afterValue, afterId, size);
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Linhas a buscar: uma a mais que o limite, para saber se existe próxima página sem COUNT.
+     */
+    public int fetchSize() {
+        return limit + 1;
+    }
+
+    /**
+     * SQL de uma página (R2DBC): filtro de posição, ordenação e LIMIT.
+     */
+    public String pageSql(String select) {
+        return streamSql(select) + " LIMIT " + fetchSize();
+    }
+
+    /**
+     * SQL da exportação (R2DBC): a partir do cursor até o fim, sem LIMIT.
+     */
+    public String streamSql(String select) {
+        return select + whereClause() + orderByClause();
+    }
+
+    public DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec) {
+        if (afterId == null) {
+            return spec;
+        }
+        DatabaseClient.GenericExecuteSpec bound = spec.bind("afterId", afterId);
+        return sortField == idField ? bound : bound.bind("afterValue", afterValue);
+    }
+
+    public Sort toSort() {
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = Sort.by(direction, sortField.getAttribute());
+        return sortField == idField ? sort : sort.and(Sort.by(direction, idField.getAttribute()));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Specification<T> toSpecification() {
+        return (root, query, cb) -> {
+            if (afterId == null) {
+                return null;
+            }
+            Expression<Comparable> id = root.get(idField.getAttribute());
+            Predicate idBeyond = beyond(cb, id, (Comparable) afterId);
+            if (sortField == idField) {
+                return idBeyond;
+            }
+            Expression<Comparable> value = root.get(sortField.getAttribute());
+            return cb.or(beyond(cb, value, (Comparable) afterValue),
+                    cb.and(cb.equal(value, afterValue), idBeyond));
+        };
+    }
+
+    /**
+     * Busca a página (JPA) sem COUNT: filtro de posição, ordenação e limite.
+     */
+    public List<T> fetch(JpaSpecificationExecutor<T> repository) {
+        return repository.<T, List<T>>findBy(toSpecification(),
+                query -> query.sortBy(toSort()).limit(fetchSize()).all());
+    }
+
+    /**
+     * Monta a página a partir das linhas buscadas (até fetchSize()).
+     * @param totalCount total de linhas, ou null quando não solicitado
+     */
+    public <R> KeysetPageDTO<R> toPage(List<T> rows, Function<T, R> mapper, Long totalCount) {
+        boolean hasMore = rows.size() > limit;
+        List<T> pageRows = hasMore ? rows.subList(0, limit) : rows;
+        return KeysetPageDTO.<R>builder()
+                .items(pageRows.stream().map(mapper).collect(Collectors.toList()))
+                .nextCursor(hasMore ? cursorFor(pageRows.get(pageRows.size() - 1)) : null)
+                .hasMore(hasMore)
+                .limit(limit)
+                .sort(sortField.getName())
+                .order(descending ? "desc" : "asc")
+                .totalCount(totalCount)
+                .build();
+    }
+
+    /**
+     * Monta a página a partir de uma consulta reativa.
+     * @param totalCount total de linhas, ou Mono.empty() quando não solicitado
+     */
+    public <R> Mono<KeysetPageDTO<R>> collectPage(Flux<T> rows, Function<T, R> mapper, Mono<Long> totalCount) {
+        return Mono.zip(rows.collectList(), totalCount.map(Optional::of).defaultIfEmpty(Optional.empty()))
+                .map(result -> toPage(result.getT1(), mapper, result.getT2().orElse(null)));
+    }
+
+    String cursorFor(T row) {
+        String raw = sortField.getName() + '\n' + (descending ? "desc" : "asc") + '\n'
+                + idField.format(idField.valueOf(row)) + '\n' + sortField.format(sortField.valueOf(row));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String whereClause() {
+        if (afterId == null) {
+            return "";
+        }
+        String operator = descending ? " < " : " > ";
+        if (sortField == idField) {
+            return " WHERE " + idField.getColumn() + operator + ":afterId";
+        }
+        return " WHERE (" + sortField.getColumn() + ", " + idField.getColumn() + ")" + operator + "(:afterValue, :afterId)";
+    }
+
+    private String orderByClause() {
+        String direction = descending ? " DESC" : " ASC";
+        if (sortField == idField) {
+            return " ORDER BY " + idField.getColumn() + direction;
+        }
+        return " ORDER BY " + sortField.getColumn() + direction + ", " + idField.getColumn() + direction;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate beyond(CriteriaBuilder cb, Expression<Comparable> path, Comparable value) {
+        return descending ? cb.lessThan(path, value) : cb.greaterThan(path, value);
+    }
+
+    private static String[] decode(String cursor) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\n", 4);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return parts;
+    }
+}
@@ -0,0 +1,71 @@
+package com.clusterat.live.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.function.Function;
+
+/**
+ * Campo ordenável numa listagem paginada por keyset: nome exposto na API, atributo JPA,
+ * coluna SQL e como ler/converter o valor gravado no cursor.
+ * A coluna precisa ser NOT NULL, senão as linhas nulas somem da comparação por tupla.
+ */
+public final class KeysetSortField<T> {
+    private final String name;
+    private final String attribute;
+    private final String column;
+    private final Class<?> type;
+    private final Function<T, ?> accessor;
+
+    private KeysetSortField(String name, String attribute, String column, Class<?> type, Function<T, ?> accessor) {
+        this.name = name;
+        this.attribute = attribute;
+        this.column = column;
+        this.type = type;
+        this.accessor = accessor;
+    }
+
+    public static <T> KeysetSortField<T> of(String name, String attribute, String column,
+                                            Class<?> type, Function<T, ?> accessor) {
+        return new KeysetSortField<>(name, attribute, column, type, accessor);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    Object valueOf(T row) {
+        return accessor.apply(row);
+    }
+
+    String format(Object value) {
+        return value instanceof BigDecimal decimal ? decimal.toPlainString() : String.valueOf(value);
+    }
+
+    Object parse(String raw) {
+        if (type == Long.class) {
+            return Long.valueOf(raw);
+        }
+        if (type == Integer.class) {
+            return Integer.valueOf(raw);
+        }
+        if (type == BigDecimal.class) {
+            return new BigDecimal(raw);
+        }
+        if (type == OffsetDateTime.class) {
+            return OffsetDateTime.parse(raw);
+        }
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.parse(raw);
+        }
+        return raw;
+    }
+}
@@ -4,10 +4,17 @@ import com.clusterat.live.model.OcrPreProcessingModel;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface OcrPreProcessingRepository extends JpaRepository<OcrPreProcessingModel, String> {
+    List<KeysetSortField<OcrPreProcessingModel>> SORT_FIELDS = List.of(
+            KeysetSortField.of("id", "id", "id", String.class, OcrPreProcessingModel::getId),
+            KeysetSortField.of("created_at", "createdAt", "created_at", LocalDateTime.class, OcrPreProcessingModel::getCreatedAt),
+            KeysetSortField.of("updated_at", "updatedAt", "updated_at", LocalDateTime.class, OcrPreProcessingModel::getUpdatedAt));
+
     Optional<OcrPreProcessingModel> findByDocumentId(String documentId);
 }
 
@@ -0,0 +1,217 @@
+package com.clusterat.live.repository;
+
+import com.clusterat.live.model.JobPostingModel;
+import com.clusterat.live.model.RentalPropertyModel;
+import com.clusterat.live.model.UpsertMode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Ingestão por upsert nativo do Postgres (INSERT ... ON CONFLICT) para dados de scraping.
+ * Cada comando grava várias linhas de uma vez e a verificação de duplicidade fica a cargo da
+ * constraint única, então não há corrida entre scrapers concorrentes nem SELECT prévio.
+ * A contagem e os ids gravados vêm do RETURNING: xmax = 0 indica linha inserida; linhas ignoradas
+ * pelo ON CONFLICT (ou pela condição de atualização) não são retornadas.
+ * Os ids vão explícitos no INSERT, reservados em blocos de ID_ALLOCATION_SIZE como faz o Hibernate
+ * (allocationSize = 50 nos modelos): o DEFAULT nextval da coluna andaria 50 ids por linha, inclusive
+ * nas linhas que o ON CONFLICT ignora ou atualiza.
+ */
+@Slf4j
+@Repository
+public class ScrapedDataUpsertRepository {
+    private static final int MAX_ROWS_PER_STATEMENT = 500;
+    private static final int MAX_PARAMETERS_PER_STATEMENT = 30000;
+
+    /**
+     * Incremento das sequences de id (changeSet 008) e allocationSize dos @SequenceGenerator.
+     */
+    static final int ID_ALLOCATION_SIZE = 50;
+    private static final String NEXTVAL_SQL = "SELECT nextval(CAST(? AS regclass)) FROM generate_series(1, ?)";
+
+    static final UpsertTable<JobPostingModel> JOB_POSTINGS = new UpsertTable<>(
+            "live.job_postings", "live.job_postings_id_seq", List.of("job_posting_id"), List.of(
+            column("job_posting_id", Types.VARCHAR, JobPostingModel::getJobPostingId),
+            column("job_title", Types.VARCHAR, JobPostingModel::getJobTitle),
+            column("source_url", Types.VARCHAR, JobPostingModel::getSourceUrl),
+            column("company_name", Types.VARCHAR, JobPostingModel::getCompanyName),
+            column("company_url", Types.VARCHAR, JobPostingModel::getCompanyUrl),
+            column("external_company_id", Types.VARCHAR, JobPostingModel::getExternalCompanyId),
+            column("job_location", Types.VARCHAR, JobPostingModel::getJobLocation),
+            column("employment_type", Types.VARCHAR, JobPostingModel::getEmploymentType),
+            column("seniority_level", Types.VARCHAR, JobPostingModel::getSeniorityLevel),
+            column("job_function", Types.VARCHAR, JobPostingModel::getJobFunction),
+            column("job_industries", Types.VARCHAR, JobPostingModel::getJobIndustries),
+            column("job_summary_text", Types.VARCHAR, JobPostingModel::getJobSummaryText),
+            column("salary_currency", Types.VARCHAR, JobPostingModel::getSalaryCurrency),
+            column("salary_min", Types.NUMERIC, JobPostingModel::getSalaryMin),
+            column("salary_max", Types.NUMERIC, JobPostingModel::getSalaryMax),
+            column("salary_payment_period", Types.VARCHAR, JobPostingModel::getSalaryPaymentPeriod),
+            column("salary_annual_min", Types.NUMERIC, JobPostingModel::getSalaryAnnualMin),
+            column("salary_annual_max", Types.NUMERIC, JobPostingModel::getSalaryAnnualMax),
+            column("salary_annual_currency", Types.VARCHAR, JobPostingModel::getSalaryAnnualCurrency),
+            column("apply_link", Types.VARCHAR, JobPostingModel::getApplyLink),
+            column("is_easy_apply", Types.BOOLEAN, JobPostingModel::getIsEasyApply),
+            column("is_application_available", Types.BOOLEAN, JobPostingModel::getIsApplicationAvailable),
+            column("num_applicants", Types.SMALLINT, JobPostingModel::getNumApplicants),
+            column("job_poster_name", Types.VARCHAR, JobPostingModel::getJobPosterName),
+            column("job_poster_title", Types.VARCHAR, JobPostingModel::getJobPosterTitle),
+            column("job_posted_at", Types.TIMESTAMP_WITH_TIMEZONE, JobPostingModel::getJobPostedAt),
+            column("scraped_at", Types.TIMESTAMP_WITH_TIMEZONE, JobPostingModel::getScrapedAt)));
+
+    static final UpsertTable<RentalPropertyModel> RENTAL_PROPERTIES = new UpsertTable<>(
+            "live.rental_properties", "live.rental_properties_id_seq", List.of("property_code", "source_url"), List.of(
+            column("property_code", Types.VARCHAR, RentalPropertyModel::getPropertyCode),
+            column("source_url", Types.VARCHAR, RentalPropertyModel::getSourceUrl),
+            column("property_title", Types.VARCHAR, RentalPropertyModel::getPropertyTitle),
+            column("building_name", Types.VARCHAR, RentalPropertyModel::getBuildingName),
+            column("property_type", Types.VARCHAR, RentalPropertyModel::getPropertyType),
+            column("property_address", Types.VARCHAR, RentalPropertyModel::getPropertyAddress),
+            column("neighborhood", Types.VARCHAR, RentalPropertyModel::getNeighborhood),
+            column("city", Types.VARCHAR, RentalPropertyModel::getCity),
+            column("private_area_sqm", Types.NUMERIC, RentalPropertyModel::getPrivateAreaSqm),
+            column("bedrooms", Types.SMALLINT, RentalPropertyModel::getBedrooms),
+            column("suites", Types.SMALLINT, RentalPropertyModel::getSuites),
+            column("parking_spaces", Types.SMALLINT, RentalPropertyModel::getParkingSpaces),
+            column("rental_price", Types.NUMERIC, RentalPropertyModel::getRentalPrice),
+            column("condominium_fee", Types.NUMERIC, RentalPropertyModel::getCondominiumFee),
+            column("iptu_tax", Types.NUMERIC, RentalPropertyModel::getIptuTax),
+            column("fire_insurance", Types.NUMERIC, RentalPropertyModel::getFireInsurance),
+            column("garbage_collection_fee", Types.NUMERIC, RentalPropertyModel::getGarbageCollectionFee),
+            column("total_monthly_cost", Types.NUMERIC, RentalPropertyModel::getTotalMonthlyCost),
+            column("transaction_type", Types.VARCHAR, RentalPropertyModel::getTransactionType),
+            column("payment_methods", Types.VARCHAR, RentalPropertyModel::getPaymentMethods),
+            column("scraped_at", Types.TIMESTAMP_WITH_TIMEZONE, RentalPropertyModel::getScrapedAt)));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ScrapedDataUpsertRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Upsert de vagas pela chave job_posting_id.
+     * O payload não pode repetir a chave: o Postgres recusa atualizar a mesma linha duas vezes num comando.
+     */
+    public UpsertCounts upsertJobPostings(List<JobPostingModel> rows, UpsertMode mode) {
+        return upsert(JOB_POSTINGS, rows, mode);
+    }
+
+    /**
+     * Upsert de imóveis pela chave (property_code, source_url).
+     * O payload não pode repetir a chave: o Postgres recusa atualizar a mesma linha duas vezes num comando.
+     */
+    public UpsertCounts upsertRentalProperties(List<RentalPropertyModel> rows, UpsertMode mode) {
+        return upsert(RENTAL_PROPERTIES, rows, mode);
+    }
+
+    private <T> UpsertCounts upsert(UpsertTable<T> table, List<T> rows, UpsertMode mode) {
+        int rowsPerStatement = Math.min(MAX_ROWS_PER_STATEMENT, MAX_PARAMETERS_PER_STATEMENT / (table.columns.size() + 1));
+        long[] ids = allocateIds(table.idSequence, rows.size());
+        int inserted = 0;
+        List<Long> writtenIds = new ArrayList<>();
+        for (int from = 0; from < rows.size(); from += rowsPerStatement) {
+            List<T> chunk = rows.subList(from, Math.min(from + rowsPerStatement, rows.size()));
+            List<Boolean> written = jdbcTemplate.query(table.sql(chunk.size(), mode), (rs, rowNum) -> {
+                writtenIds.add(rs.getLong("id"));
+                return rs.getBoolean("inserted");
+            }, table.parameters(chunk, ids, from));
+            for (Boolean wasInserted : written) {
+                if (Boolean.TRUE.equals(wasInserted)) {
+                    inserted++;
+                }
+            }
+        }
+        int updated = writtenIds.size() - inserted;
+        log.info("Upserted {} rows into {} ({}): {} inserted, {} updated",
+                rows.size(), table.name, mode.getValue(), inserted, updated);
+        return new UpsertCounts(inserted, updated, writtenIds);
+    }
+
+    /**
+     * Reserva count ids da sequence com um nextval a cada ID_ALLOCATION_SIZE linhas. Como no otimizador
+     * pooled do Hibernate, o valor v devolvido reserva os ids (v - ID_ALLOCATION_SIZE, v], então os ids
+     * daqui e os do JPA nunca se cruzam.
+     */
+    private long[] allocateIds(String sequence, int count) {
+        long[] ids = new long[count];
+        int filled = 0;
+        while (filled < count) {
+            int blocks = (count - filled + ID_ALLOCATION_SIZE - 1) / ID_ALLOCATION_SIZE;
+            for (Long hi : jdbcTemplate.queryForList(NEXTVAL_SQL, Long.class, sequence, blocks)) {
+                // O primeiro valor de uma sequence nova (1) reserva só o próprio id
+                for (long id = Math.max(1, hi - ID_ALLOCATION_SIZE + 1); id <= hi && filled < count; id++) {
+                    ids[filled++] = id;
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static <T> UpsertColumn<T> column(String name, int sqlType, Function<T, Object> accessor) {
+        return new UpsertColumn<>(name, sqlType, accessor);
+    }
+
+    /**
+     * @param writtenIds ids das linhas inseridas ou atualizadas (as ignoradas não entram)
+     */
+    public record UpsertCounts(int inserted, int updated, List<Long> writtenIds) {
+    }
+
+    record UpsertColumn<T>(String name, int sqlType, Function<T, Object> accessor) {
+    }
+
+    /**
+     * @param idSequence sequence da coluna id, que vai explícita antes das demais colunas
+     */
+    record UpsertTable<T>(String name, String idSequence, List<String> conflictColumns,
+                                  List<UpsertColumn<T>> columns) {
+
+        String sql(int rowCount, UpsertMode mode) {
+            String placeholders = "(?, " + columns.stream().map(column -> "?").collect(Collectors.joining(", ")) + ")";
+            StringBuilder sql = new StringBuilder("INSERT INTO ").append(name).append(" AS t (id, ")
+                    .append(columns.stream().map(UpsertColumn::name).collect(Collectors.joining(", ")))
+                    .append(") VALUES ");
+            for (int i = 0; i < rowCount; i++) {
+                sql.append(i == 0 ? "" : ", ").append(placeholders);
+            }
+            sql.append(" ON CONFLICT (").append(String.join(", ", conflictColumns)).append(")");
+            if (mode == UpsertMode.INSERT_ONLY) {
+                sql.append(" DO NOTHING");
+            } else {
+                sql.append(" DO UPDATE SET ")
+                        .append(columns.stream()
+                                .map(UpsertColumn::name)
+                                .filter(column -> !conflictColumns.contains(column))
+                                .map(column -> column + " = EXCLUDED." + column)
+                                .collect(Collectors.joining(", ")))
+                        .append(" WHERE EXCLUDED.scraped_at > COALESCE(t.scraped_at, '-infinity'::timestamptz)");
+            }
+            return sql.append(" RETURNING t.id, (t.xmax = 0) AS inserted").toString();
+        }
+
+        /**
+         * @param ids ids reservados para todo o payload; o da linha i do bloco é ids[firstRow + i]
+         */
+        Object[] parameters(List<T> rows, long[] ids, int firstRow) {
+            List<Object> parameters = new ArrayList<>(rows.size() * (columns.size() + 1));
+            for (int i = 0; i < rows.size(); i++) {
+                T row = rows.get(i);
+                parameters.add(new SqlParameterValue(Types.BIGINT, ids[firstRow + i]));
+                for (UpsertColumn<T> column : columns) {
+                    parameters.add(new SqlParameterValue(column.sqlType(), column.accessor().apply(row)));
+                }
+            }
+            return parameters.toArray();
+        }
+    }
+}
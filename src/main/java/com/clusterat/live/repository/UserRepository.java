@@ -2,13 +2,20 @@ package com.clusterat.live.repository;
 
 import com.clusterat.live.model.UserModel;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<UserModel, Long> {
+public interface UserRepository extends JpaRepository<UserModel, Long>, JpaSpecificationExecutor<UserModel> {
+    List<KeysetSortField<UserModel>> SORT_FIELDS = List.of(
+            KeysetSortField.of("id", "id", "id", Long.class, UserModel::getId),
+            KeysetSortField.of("name", "name", "name", String.class, UserModel::getName),
+            KeysetSortField.of("created_at", "createdAt", "created_at", LocalDateTime.class, UserModel::getCreatedAt));
+
     Optional<UserModel> findByWppId(String wppId);
     List<UserModel> findByNameContainingIgnoreCase(String name);
 }
@@ -3,15 +3,25 @@ package com.clusterat.live.repository;
 import com.clusterat.live.model.WorkoutTemplateModel;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface WorkoutTemplateRepository extends JpaRepository<WorkoutTemplateModel, Long> {
+public interface WorkoutTemplateRepository extends JpaRepository<WorkoutTemplateModel, Long>,
+        JpaSpecificationExecutor<WorkoutTemplateModel> {
+    List<KeysetSortField<WorkoutTemplateModel>> SORT_FIELDS = List.of(
+            KeysetSortField.of("id", "id", "id", Long.class, WorkoutTemplateModel::getId),
+            KeysetSortField.of("name", "name", "name", String.class, WorkoutTemplateModel::getName));
+
     List<WorkoutTemplateModel> findByCreatedByUserId(Long userId);
 
     @Override
     @EntityGraph(attributePaths = {"exercises", "exercises.exercise"})
     List<WorkoutTemplateModel> findAll();
+
+    @EntityGraph(attributePaths = {"exercises", "exercises.exercise"})
+    List<WorkoutTemplateModel> findByIdIn(Collection<Long> ids);
 }
@@ -0,0 +1,167 @@
+package com.clusterat.live.repository.reactive;
+
+import com.clusterat.live.model.AnalysisType;
+import com.clusterat.live.model.FinancialAnalysisModel;
+import com.clusterat.live.repository.KeysetPageRequest;
+import com.clusterat.live.repository.KeysetSortField;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitura reativa (R2DBC) das análises financeiras.
+ * O enum e o jsonb são lidos como texto; o jsonb vira árvore JSON uma vez, no mapeamento da linha.
+ */
+@Slf4j
+@Repository
+public class FinancialAnalysisReactiveRepository {
+    private static final String SELECT = "SELECT analysis_id, source_transaction_id, amount, transaction_date, description, "
+            + "category_id, analysis_type::text AS analysis_type, analysis_notes, metadata::text AS metadata, created_at "
+            + "FROM live.financial_analysis";
+
+    /**
+     * Projeção das listagens e buscas: sem as colunas pesadas (analysis_notes, metadata),
+     * carregadas só no detalhe.
+     */
+    private static final String SUMMARY_SELECT = "SELECT analysis_id, source_transaction_id, amount, transaction_date, description, "
+            + "category_id, analysis_type::text AS analysis_type, created_at FROM live.financial_analysis";
+
+    /**
+     * Campos ordenáveis na listagem paginada; o primeiro é a chave única.
+     */
+    public static final List<KeysetSortField<FinancialAnalysisModel>> SORT_FIELDS = List.of(
+            KeysetSortField.of("id", "analysisId", "analysis_id", Long.class, FinancialAnalysisModel::getAnalysisId),
+            KeysetSortField.of("transaction_date", "transactionDate", "transaction_date", OffsetDateTime.class, FinancialAnalysisModel::getTransactionDate),
+            KeysetSortField.of("amount", "amount", "amount", BigDecimal.class, FinancialAnalysisModel::getAmount));
+
+    private final DatabaseClient databaseClient;
+    private final ObjectMapper objectMapper;
+
+    public FinancialAnalysisReactiveRepository(DatabaseClient databaseClient, ObjectMapper objectMapper) {
+        this.databaseClient = databaseClient;
+        this.objectMapper = objectMapper;
+    }
+
+    public Flux<FinancialAnalysisModel> findAll() {
+        return databaseClient.sql(SELECT + " ORDER BY analysis_id")
+                .map(this::mapRow)
+                .all();
+    }
+
+    public Flux<FinancialAnalysisModel> findPage(KeysetPageRequest<FinancialAnalysisModel> page) {
+        return page.bind(databaseClient.sql(page.pageSql(SUMMARY_SELECT)))
+                .map(this::mapRow)
+                .all();
+    }
+
+    /**
+     * Todas as linhas a partir do cursor, na ordem pedida, sem LIMIT (exportação).
+     */
+    public Flux<FinancialAnalysisModel> streamFrom(KeysetPageRequest<FinancialAnalysisModel> page) {
+        return page.bind(databaseClient.sql(page.streamSql(SELECT)))
+                .map(this::mapRow)
+                .all();
+    }
+
+    public Mono<Long> count() {
+        return databaseClient.sql("SELECT count(*) FROM live.financial_analysis")
+                .map((row, metadata) -> row.get(0, Long.class))
+                .one();
+    }
+
+    public Flux<FinancialAnalysisModel> findByCategoryId(Integer categoryId) {
+        return databaseClient.sql(SUMMARY_SELECT + " WHERE category_id = :categoryId ORDER BY analysis_id")
+                .bind("categoryId", categoryId)
+                .map(this::mapRow)
+                .all();
+    }
+
+    public Flux<FinancialAnalysisModel> findByAnalysisType(AnalysisType analysisType) {
+        return databaseClient.sql(SUMMARY_SELECT + " WHERE analysis_type::text = :analysisType ORDER BY analysis_id")
+                .bind("analysisType", analysisType.getValue())
+                .map(this::mapRow)
+                .all();
+    }
+
+    /**
+     * Página das análises cujo metadata contém o documento JSON e/ou tem a chave (top-level).
+     * Os operadores {@code @>} e {@code ?|} usam o índice GIN idx_financial_analysis_metadata; o filtro fica numa
+     * subconsulta para a posição do cursor e a ordenação do keyset se aplicarem sobre ele.
+     * @param contains objeto JSON (texto) ou null
+     * @param key chave que precisa existir, ou null
+     */
+    public Flux<FinancialAnalysisModel> findPageByMetadata(KeysetPageRequest<FinancialAnalysisModel> page,
+                                                           String contains, String key) {
+        List<String> conditions = new ArrayList<>();
+        if (contains != null) {
+            conditions.add("metadata @> CAST(:contains AS jsonb)");
+        }
+        if (key != null) {
+            conditions.add("metadata ?| ARRAY[CAST(:key AS text)]");
+        }
+        String filtered = "SELECT * FROM (" + SELECT + " WHERE " + String.join(" AND ", conditions) + ") filtered";
+        DatabaseClient.GenericExecuteSpec spec = page.bind(databaseClient.sql(page.pageSql(filtered)));
+        if (contains != null) {
+            spec = spec.bind("contains", contains);
+        }
+        if (key != null) {
+            spec = spec.bind("key", key);
+        }
+        return spec.map(this::mapRow).all();
+    }
+
+    /**
+     * Página das análises com transaction_date em [start, end). O intervalo fica na subconsulta, junto da
+     * tabela, para o planejador descartar as partições mensais fora dele antes do keyset.
+     */
+    public Flux<FinancialAnalysisModel> findPageInRange(KeysetPageRequest<FinancialAnalysisModel> page,
+                                                        OffsetDateTime start, OffsetDateTime end) {
+        String inRange = "SELECT * FROM (" + SUMMARY_SELECT
+                + " WHERE transaction_date >= :start AND transaction_date < :end) in_range";
+        return page.bind(databaseClient.sql(page.pageSql(inRange)))
+                .bind("start", start)
+                .bind("end", end)
+                .map(this::mapRow)
+                .all();
+    }
+
+    FinancialAnalysisModel mapRow(Row row, RowMetadata metadata) {
+        String analysisType = row.get("analysis_type", String.class);
+        return FinancialAnalysisModel.builder()
+                .analysisId(row.get("analysis_id", Long.class))
+                .sourceTransactionId(row.get("source_transaction_id", String.class))
+                .amount(row.get("amount", BigDecimal.class))
+                .transactionDate(row.get("transaction_date", OffsetDateTime.class))
+                .description(row.get("description", String.class))
+                .categoryId(row.get("category_id", Integer.class))
+                .analysisType(analysisType != null ? AnalysisType.fromValue(analysisType) : null)
+                .analysisNotes(ReactiveRows.getIfPresent(row, metadata, "analysis_notes", String.class))
+                .metadata(readMetadata(ReactiveRows.getIfPresent(row, metadata, "metadata", String.class)))
+                .createdAt(row.get("created_at", OffsetDateTime.class))
+                .build();
+    }
+
+    private JsonNode readMetadata(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to parse metadata JSON, using null: {}", e.getMessage());
+            return null;
+        }
+    }
+}
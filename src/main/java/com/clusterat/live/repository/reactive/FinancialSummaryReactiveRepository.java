@@ -0,0 +1,182 @@
+package com.clusterat.live.repository.reactive;
+
+import com.clusterat.live.dto.AnalysisTypeSummaryDTO;
+import com.clusterat.live.dto.CategorySummaryDTO;
+import com.clusterat.live.dto.MonthlySummaryDTO;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Agregações das análises financeiras calculadas no banco (GROUP BY), para que os painéis
+ * recebam só os totais em vez da tabela inteira.
+ * Quando o período cobre meses inteiros (ou não tem limites), as consultas leem o resumo
+ * financial_monthly_summary, mantido por triggers, e custam O(meses x categorias x tipos);
+ * para períodos fora do limite de mês caem nas linhas de financial_analysis.
+ * O período é [from, to); qualquer um dos limites pode ser null. Meses são agrupados em UTC.
+ */
+@Repository
+public class FinancialSummaryReactiveRepository {
+
+    /**
+     * Fatos agregáveis (mês, categoria, tipo, total, quantidade) a partir do resumo mensal.
+     */
+    private static final String SUMMARY_FACTS = """
+            SELECT s.month, s.category_id, NULLIF(s.analysis_type, '') AS analysis_type,
+                   s.total, s.tx_count AS cnt
+            FROM live.financial_monthly_summary s
+            %s""";
+
+    /**
+     * Os mesmos fatos a partir das linhas, para períodos que não começam ou terminam num limite de mês.
+     */
+    private static final String ROW_FACTS = """
+            SELECT date_trunc('month', f.transaction_date AT TIME ZONE 'UTC')::date AS month, f.category_id,
+                   f.analysis_type::text AS analysis_type, f.amount AS total, 1::bigint AS cnt
+            FROM live.financial_analysis f
+            %s""";
+
+    /**
+     * Totais diretos por categoria; o acumulado pela hierarquia é montado no serviço com o
+     * ExpenseCategoryRegistry, sem CTE recursiva sobre expense_categories.
+     */
+    private static final String CATEGORY_SQL = """
+            WITH facts AS (
+                %s
+            )
+            SELECT category_id, SUM(total) AS total, SUM(cnt)::bigint AS cnt
+            FROM facts
+            GROUP BY category_id""";
+
+    private static final String MONTHLY_SQL = """
+            WITH facts AS (
+                %s
+            )
+            SELECT to_char(f.month, 'YYYY-MM') AS month,
+                   SUM(CASE WHEN c.is_income THEN f.total ELSE 0 END) AS income,
+                   SUM(CASE WHEN c.is_income THEN 0 ELSE f.total END) AS expense,
+                   SUM(f.cnt)::bigint AS cnt
+            FROM facts f
+            JOIN live.expense_categories c ON c.category_id = f.category_id
+            GROUP BY f.month
+            ORDER BY f.month""";
+
+    private static final String ANALYSIS_TYPE_SQL = """
+            WITH facts AS (
+                %s
+            )
+            SELECT analysis_type, SUM(total) AS total, SUM(cnt)::bigint AS cnt
+            FROM facts
+            GROUP BY analysis_type
+            ORDER BY total DESC""";
+
+    private final DatabaseClient databaseClient;
+
+    public FinancialSummaryReactiveRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Totais por categoria só com os lançamentos feitos diretamente nela (directTotal e directCount).
+     */
+    public Flux<CategorySummaryDTO> summarizeDirectByCategory(OffsetDateTime from, OffsetDateTime to) {
+        return bindPeriod(databaseClient.sql(CATEGORY_SQL.formatted(facts(from, to))), from, to)
+                .map((row, metadata) -> CategorySummaryDTO.builder()
+                        .categoryId(row.get("category_id", Integer.class))
+                        .directTotal(row.get("total", BigDecimal.class))
+                        .directCount(row.get("cnt", Long.class))
+                        .build())
+                .all();
+    }
+
+    /**
+     * Totais de receita e despesa por mês, só dos meses com lançamentos (sem médias móveis).
+     */
+    public Flux<MonthlySummaryDTO> summarizeByMonth(OffsetDateTime from, OffsetDateTime to) {
+        return bindPeriod(databaseClient.sql(MONTHLY_SQL.formatted(facts(from, to))), from, to)
+                .map((row, metadata) -> {
+                    BigDecimal income = row.get("income", BigDecimal.class);
+                    BigDecimal expense = row.get("expense", BigDecimal.class);
+                    return MonthlySummaryDTO.builder()
+                            .month(row.get("month", String.class))
+                            .income(income)
+                            .expense(expense)
+                            .net(income.subtract(expense))
+                            .count(row.get("cnt", Long.class))
+                            .build();
+                })
+                .all();
+    }
+
+    public Flux<AnalysisTypeSummaryDTO> summarizeByAnalysisType(OffsetDateTime from, OffsetDateTime to) {
+        return bindPeriod(databaseClient.sql(ANALYSIS_TYPE_SQL.formatted(facts(from, to))), from, to)
+                .map((row, metadata) -> AnalysisTypeSummaryDTO.builder()
+                        .analysisType(row.get("analysis_type", String.class))
+                        .total(row.get("total", BigDecimal.class))
+                        .count(row.get("cnt", Long.class))
+                        .build())
+                .all();
+    }
+
+    /**
+     * Fonte dos fatos do período: o resumo mensal quando os dois limites caem no início de um mês UTC
+     * (ou faltam), senão as linhas.
+     */
+    static String facts(OffsetDateTime from, OffsetDateTime to) {
+        if (usesMonthlySummary(from, to)) {
+            return SUMMARY_FACTS.formatted(periodClause("s.month", from, to));
+        }
+        return ROW_FACTS.formatted(periodClause("f.transaction_date", from, to));
+    }
+
+    /**
+     * true quando o resumo mensal responde ao período [from, to) exatamente: cada limite é null ou um
+     * instante que, em UTC, é meia-noite do dia 1 (em qualquer offset).
+     */
+    static boolean usesMonthlySummary(OffsetDateTime from, OffsetDateTime to) {
+        return isMonthStart(from) && isMonthStart(to);
+    }
+
+    private static boolean isMonthStart(OffsetDateTime bound) {
+        if (bound == null) {
+            return true;
+        }
+        OffsetDateTime utc = bound.withOffsetSameInstant(ZoneOffset.UTC);
+        return utc.getDayOfMonth() == 1 && utc.toLocalTime().equals(LocalTime.MIDNIGHT);
+    }
+
+    private static String periodClause(String column, OffsetDateTime from, OffsetDateTime to) {
+        if (from != null && to != null) {
+            return "WHERE " + column + " >= :from AND " + column + " < :to";
+        }
+        if (from != null) {
+            return "WHERE " + column + " >= :from";
+        }
+        if (to != null) {
+            return "WHERE " + column + " < :to";
+        }
+        return "";
+    }
+
+    /**
+     * No resumo a coluna é DATE, então os limites (já alinhados ao mês) são ligados como a data UTC.
+     */
+    private static DatabaseClient.GenericExecuteSpec bindPeriod(DatabaseClient.GenericExecuteSpec spec,
+                                                                OffsetDateTime from, OffsetDateTime to) {
+        boolean summary = usesMonthlySummary(from, to);
+        DatabaseClient.GenericExecuteSpec bound = from != null
+                ? spec.bind("from", summary ? utcDate(from) : from)
+                : spec;
+        return to != null ? bound.bind("to", summary ? utcDate(to) : to) : bound;
+    }
+
+    private static LocalDate utcDate(OffsetDateTime bound) {
+        return bound.withOffsetSameInstant(ZoneOffset.UTC).toLocalDate();
+    }
+}
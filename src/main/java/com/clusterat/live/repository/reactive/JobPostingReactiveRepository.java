@@ -0,0 +1,232 @@
+package com.clusterat.live.repository.reactive;
+
+import com.clusterat.live.model.JobPostingModel;
+import com.clusterat.live.repository.JobPostingFilter;
+import com.clusterat.live.repository.KeysetPageRequest;
+import com.clusterat.live.repository.KeysetSortField;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Leitura reativa (R2DBC) de vagas, emitindo as linhas conforme chegam do banco.
+ */
+@Repository
+public class JobPostingReactiveRepository {
+    /**
+     * Todas as colunas mapeadas em JobPostingModel; o search_vector fica de fora, só a busca textual o lê.
+     */
+    private static final String SELECT = "SELECT id, job_posting_id, job_title, source_url, company_name, company_url, "
+            + "external_company_id, job_location, employment_type, seniority_level, job_function, "
+            + "job_industries, job_summary_text, salary_currency, salary_min, salary_max, salary_payment_period, "
+            + "salary_annual_min, salary_annual_max, salary_annual_currency, apply_link, is_easy_apply, "
+            + "is_application_available, num_applicants, job_poster_name, job_poster_title, job_posted_at, "
+            + "scraped_at, duplicate_cluster_id FROM live.job_postings";
+
+    /**
+     * Projeção das listagens e buscas: sem as colunas pesadas (job_summary_text),
+     * carregadas só no detalhe.
+     */
+    private static final String SUMMARY_SELECT = "SELECT id, job_posting_id, job_title, source_url, company_name, company_url, "
+            + "external_company_id, job_location, employment_type, seniority_level, job_function, "
+            + "job_industries, salary_currency, salary_min, salary_max, salary_payment_period, "
+            + "salary_annual_min, salary_annual_max, salary_annual_currency, apply_link, is_easy_apply, "
+            + "is_application_available, num_applicants, job_poster_name, job_poster_title, job_posted_at, "
+            + "scraped_at, duplicate_cluster_id FROM live.job_postings";
+
+    /**
+     * Campos ordenáveis na listagem paginada; o primeiro é a chave única.
+     */
+    public static final List<KeysetSortField<JobPostingModel>> SORT_FIELDS = List.of(
+            KeysetSortField.of("id", "id", "id", Long.class, JobPostingModel::getId),
+            KeysetSortField.of("scraped_at", "scrapedAt", "scraped_at", OffsetDateTime.class, JobPostingModel::getScrapedAt));
+
+    public static final String FACET_COMPANY = "company";
+    public static final String FACET_LOCATION = "location";
+    public static final String FACET_SENIORITY = "seniority";
+    public static final String FACET_EMPLOYMENT_TYPE = "employment_type";
+    public static final String FACET_EASY_APPLY = "easy_apply";
+    public static final String FACET_TOTAL = "total";
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Uma linha da contagem por facetas; na faceta "total" o valor é nulo.
+     */
+    public record FacetCount(String facet, String value, long count) {
+    }
+
+    public JobPostingReactiveRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<JobPostingModel> findAll() {
+        return databaseClient.sql(SELECT + " ORDER BY id")
+                .map(JobPostingReactiveRepository::mapRow)
+                .all();
+    }
+
+    /**
+     * Todas as vagas na projeção sem job_summary_text, em ordem de id (carga do índice em memória).
+     */
+    public Flux<JobPostingModel> findAllSummaries() {
+        return databaseClient.sql(SUMMARY_SELECT + " ORDER BY id")
+                .map(JobPostingReactiveRepository::mapRow)
+                .all();
+    }
+
+    /**
+     * Título, local, senioridade e salário anual das vagas normalizadas para a moeda informada
+     * (carga dos sketches de percentis).
+     */
+    public Flux<JobPostingModel> findAnnualSalaries(String currency) {
+        return databaseClient.sql("SELECT job_title, job_location, seniority_level, salary_annual_min, salary_annual_max "
+                        + "FROM live.job_postings WHERE salary_annual_currency = :currency")
+                .bind("currency", currency)
+                .map((row, metadata) -> JobPostingModel.builder()
+                        .jobTitle(row.get("job_title", String.class))
+                        .jobLocation(row.get("job_location", String.class))
+                        .seniorityLevel(row.get("seniority_level", String.class))
+                        .salaryAnnualMin(row.get("salary_annual_min", BigDecimal.class))
+                        .salaryAnnualMax(row.get("salary_annual_max", BigDecimal.class))
+                        .build())
+                .all();
+    }
+
+    public Flux<JobPostingModel> findPage(KeysetPageRequest<JobPostingModel> page) {
+        return page.bind(databaseClient.sql(page.pageSql(SUMMARY_SELECT)))
+                .map(JobPostingReactiveRepository::mapRow)
+                .all();
+    }
+
+    /**
+     * Página das vagas que atendem ao filtro. O filtro fica na subconsulta e o keyset é aplicado por fora.
+     */
+    public Flux<JobPostingModel> findPageFiltered(KeysetPageRequest<JobPostingModel> page, JobPostingFilter filter) {
+        String filtered = "SELECT * FROM (" + SUMMARY_SELECT + filter.whereClause() + ") filtered";
+        return filter.bind(page.bind(databaseClient.sql(page.pageSql(filtered))))
+                .map(JobPostingReactiveRepository::mapRow)
+                .all();
+    }
+
+    /**
+     * Contagens por faceta das vagas que atendem ao filtro, numa única varredura (GROUPING SETS):
+     * os facetLimit valores mais frequentes de cada faceta, mais a linha "total" com o total filtrado.
+     */
+    public Flux<FacetCount> countFacets(JobPostingFilter filter, int facetLimit) {
+        String sql = "WITH counts AS (SELECT CASE"
+                + " WHEN GROUPING(company_name) = 0 THEN '" + FACET_COMPANY + "'"
+                + " WHEN GROUPING(job_location) = 0 THEN '" + FACET_LOCATION + "'"
+                + " WHEN GROUPING(seniority_level) = 0 THEN '" + FACET_SENIORITY + "'"
+                + " WHEN GROUPING(employment_type) = 0 THEN '" + FACET_EMPLOYMENT_TYPE + "'"
+                + " WHEN GROUPING(is_easy_apply) = 0 THEN '" + FACET_EASY_APPLY + "'"
+                + " ELSE '" + FACET_TOTAL + "' END AS facet,"
+                + " COALESCE(company_name, job_location, seniority_level, employment_type, is_easy_apply::text) AS value,"
+                + " count(*) AS count"
+                + " FROM live.job_postings" + filter.whereClause()
+                + " GROUP BY GROUPING SETS ((company_name), (job_location), (seniority_level), (employment_type),"
+                + " (is_easy_apply), ())), "
+                + "ranked AS (SELECT facet, value, count,"
+                + " row_number() OVER (PARTITION BY facet ORDER BY count DESC, value) AS position"
+                + " FROM counts WHERE value IS NOT NULL OR facet = '" + FACET_TOTAL + "') "
+                + "SELECT facet, value, count FROM ranked WHERE position <= :facetLimit ORDER BY facet, position";
+        return filter.bind(databaseClient.sql(sql))
+                .bind("facetLimit", facetLimit)
+                .map((row, metadata) -> new FacetCount(row.get("facet", String.class),
+                        row.get("value", String.class), row.get("count", Long.class)))
+                .all();
+    }
+
+    /**
+     * Todas as linhas a partir do cursor, na ordem pedida, sem LIMIT (exportação).
+     */
+    public Flux<JobPostingModel> streamFrom(KeysetPageRequest<JobPostingModel> page) {
+        return page.bind(databaseClient.sql(page.streamSql(SELECT)))
+                .map(JobPostingReactiveRepository::mapRow)
+                .all();
+    }
+
+    public Mono<Long> count() {
+        return databaseClient.sql("SELECT count(*) FROM live.job_postings")
+                .map((row, metadata) -> row.get(0, Long.class))
+                .one();
+    }
+
+    public Mono<Long> countFiltered(JobPostingFilter filter) {
+        return filter.bind(databaseClient.sql("SELECT count(*) FROM live.job_postings" + filter.whereClause()))
+                .map((row, metadata) -> row.get(0, Long.class))
+                .one();
+    }
+
+    public Flux<JobPostingModel> findByCompanyName(String companyName) {
+        return findByColumn("company_name", companyName);
+    }
+
+    public Flux<JobPostingModel> findByJobLocation(String jobLocation) {
+        return findByColumn("job_location", jobLocation);
+    }
+
+    public Flux<JobPostingModel> findBySeniorityLevel(String seniorityLevel) {
+        return findByColumn("seniority_level", seniorityLevel);
+    }
+
+    public Flux<JobPostingModel> findByEmploymentType(String employmentType) {
+        return findByColumn("employment_type", employmentType);
+    }
+
+    public Flux<JobPostingModel> findByJobTitleContainingIgnoreCase(String jobTitle) {
+        String pattern = jobTitle.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return databaseClient.sql(SUMMARY_SELECT + " WHERE job_title ILIKE '%' || :jobTitle || '%' ESCAPE '\\' ORDER BY id")
+                .bind("jobTitle", pattern)
+                .map(JobPostingReactiveRepository::mapRow)
+                .all();
+    }
+
+    private Flux<JobPostingModel> findByColumn(String column, String value) {
+        return databaseClient.sql(SUMMARY_SELECT + " WHERE " + column + " = :value ORDER BY id")
+                .bind("value", value)
+                .map(JobPostingReactiveRepository::mapRow)
+                .all();
+    }
+
+    static JobPostingModel mapRow(Row row, RowMetadata metadata) {
+        return JobPostingModel.builder()
+                .id(row.get("id", Long.class))
+                .jobPostingId(row.get("job_posting_id", String.class))
+                .jobTitle(row.get("job_title", String.class))
+                .sourceUrl(row.get("source_url", String.class))
+                .companyName(row.get("company_name", String.class))
+                .companyUrl(row.get("company_url", String.class))
+                .externalCompanyId(row.get("external_company_id", String.class))
+                .jobLocation(row.get("job_location", String.class))
+                .employmentType(row.get("employment_type", String.class))
+                .seniorityLevel(row.get("seniority_level", String.class))
+                .jobFunction(row.get("job_function", String.class))
+                .jobIndustries(row.get("job_industries", String.class))
+                .jobSummaryText(ReactiveRows.getIfPresent(row, metadata, "job_summary_text", String.class))
+                .salaryCurrency(row.get("salary_currency", String.class))
+                .salaryMin(row.get("salary_min", BigDecimal.class))
+                .salaryMax(row.get("salary_max", BigDecimal.class))
+                .salaryPaymentPeriod(row.get("salary_payment_period", String.class))
+                .salaryAnnualMin(row.get("salary_annual_min", BigDecimal.class))
+                .salaryAnnualMax(row.get("salary_annual_max", BigDecimal.class))
+                .salaryAnnualCurrency(row.get("salary_annual_currency", String.class))
+                .applyLink(row.get("apply_link", String.class))
+                .isEasyApply(row.get("is_easy_apply", Boolean.class))
+                .isApplicationAvailable(row.get("is_application_available", Boolean.class))
+                .numApplicants(row.get("num_applicants", Short.class))
+                .jobPosterName(row.get("job_poster_name", String.class))
+                .jobPosterTitle(row.get("job_poster_title", String.class))
+                .jobPostedAt(row.get("job_posted_at", OffsetDateTime.class))
+                .scrapedAt(row.get("scraped_at", OffsetDateTime.class))
+                .duplicateClusterId(row.get("duplicate_cluster_id", Long.class))
+                .build();
+    }
+}
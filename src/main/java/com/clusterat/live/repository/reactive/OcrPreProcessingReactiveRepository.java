@@ -0,0 +1,72 @@
+package com.clusterat.live.repository.reactive;
+
+import com.clusterat.live.model.OcrPreProcessingModel;
+import com.clusterat.live.repository.KeysetPageRequest;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Leitura reativa (R2DBC) dos registros de pré-processamento OCR.
+ * A ordenação usa os mesmos campos do repositório JPA (OcrPreProcessingRepository.SORT_FIELDS).
+ */
+@Repository
+public class OcrPreProcessingReactiveRepository {
+    /**
+     * Colunas do detalhe e da exportação, sem o search_vector, que só serve à busca textual.
+     */
+    private static final String SELECT = "SELECT id, document_id, document_name, extracted_text, image_count, "
+            + "processing_status, created_at, updated_at, error_message FROM live.ocr_pre_processing";
+
+    /**
+     * Projeção das listagens: sem o texto extraído do documento inteiro, carregado só no detalhe.
+     */
+    private static final String SUMMARY_SELECT = "SELECT id, document_id, document_name, image_count, processing_status, "
+            + "created_at, updated_at, error_message FROM live.ocr_pre_processing";
+
+    private final DatabaseClient databaseClient;
+
+    public OcrPreProcessingReactiveRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<OcrPreProcessingModel> findPage(KeysetPageRequest<OcrPreProcessingModel> page) {
+        return page.bind(databaseClient.sql(page.pageSql(SUMMARY_SELECT)))
+                .map(OcrPreProcessingReactiveRepository::mapRow)
+                .all();
+    }
+
+    /**
+     * Todas as linhas a partir do cursor, na ordem pedida, sem LIMIT (exportação).
+     */
+    public Flux<OcrPreProcessingModel> streamFrom(KeysetPageRequest<OcrPreProcessingModel> page) {
+        return page.bind(databaseClient.sql(page.streamSql(SELECT)))
+                .map(OcrPreProcessingReactiveRepository::mapRow)
+                .all();
+    }
+
+    public Mono<Long> count() {
+        return databaseClient.sql("SELECT count(*) FROM live.ocr_pre_processing")
+                .map((row, metadata) -> row.get(0, Long.class))
+                .one();
+    }
+
+    static OcrPreProcessingModel mapRow(Row row, RowMetadata metadata) {
+        return OcrPreProcessingModel.builder()
+                .id(row.get("id", String.class))
+                .documentId(row.get("document_id", String.class))
+                .documentName(row.get("document_name", String.class))
+                .extractedText(ReactiveRows.getIfPresent(row, metadata, "extracted_text", String.class))
+                .imageCount(row.get("image_count", Integer.class))
+                .processingStatus(row.get("processing_status", String.class))
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .updatedAt(row.get("updated_at", LocalDateTime.class))
+                .errorMessage(row.get("error_message", String.class))
+                .build();
+    }
+}
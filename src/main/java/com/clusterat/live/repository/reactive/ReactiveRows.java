@@ -0,0 +1,18 @@
+package com.clusterat.live.repository.reactive;
+
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+
+/**
+ * Leitura de colunas opcionais: as projeções de listagem omitem colunas pesadas
+ * (TEXT/JSONB) e o mapeamento deixa esses campos nulos.
+ */
+final class ReactiveRows {
+
+    private ReactiveRows() {
+    }
+
+    static <V> V getIfPresent(Row row, RowMetadata metadata, String column, Class<V> type) {
+        return metadata.contains(column) ? row.get(column, type) : null;
+    }
+}
@@ -0,0 +1,139 @@
+package com.clusterat.live.repository.reactive;
+
+import com.clusterat.live.model.RentalPropertyModel;
+import com.clusterat.live.repository.KeysetPageRequest;
+import com.clusterat.live.repository.KeysetSortField;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Leitura reativa (R2DBC) de imóveis para aluguel.
+ */
+@Repository
+public class RentalPropertyReactiveRepository {
+    /**
+     * Todas as colunas mapeadas em RentalPropertyModel, exceto o search_vector (usado só na busca textual).
+     */
+    private static final String SELECT = "SELECT id, property_code, property_title, building_name, property_type, "
+            + "property_address, neighborhood, city, private_area_sqm, bedrooms, suites, parking_spaces, rental_price, "
+            + "condominium_fee, iptu_tax, fire_insurance, garbage_collection_fee, total_monthly_cost, "
+            + "transaction_type, payment_methods, source_url, scraped_at FROM live.rental_properties";
+
+    /**
+     * Projeção das listagens e buscas: sem as colunas pesadas (property_address, payment_methods),
+     * carregadas só no detalhe.
+     */
+    private static final String SUMMARY_SELECT = "SELECT id, property_code, property_title, building_name, property_type, neighborhood, "
+            + "city, private_area_sqm, bedrooms, suites, parking_spaces, rental_price, "
+            + "condominium_fee, iptu_tax, fire_insurance, garbage_collection_fee, total_monthly_cost, "
+            + "transaction_type, source_url, scraped_at FROM live.rental_properties";
+
+    /**
+     * Campos ordenáveis na listagem paginada; o primeiro é a chave única.
+     */
+    public static final List<KeysetSortField<RentalPropertyModel>> SORT_FIELDS = List.of(
+            KeysetSortField.of("id", "id", "id", Long.class, RentalPropertyModel::getId),
+            KeysetSortField.of("total_monthly_cost", "totalMonthlyCost", "total_monthly_cost", BigDecimal.class, RentalPropertyModel::getTotalMonthlyCost));
+
+    private final DatabaseClient databaseClient;
+
+    public RentalPropertyReactiveRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<RentalPropertyModel> findAll() {
+        return databaseClient.sql(SELECT + " ORDER BY id")
+                .map(RentalPropertyReactiveRepository::mapRow)
+                .all();
+    }
+
+    public Flux<RentalPropertyModel> findPage(KeysetPageRequest<RentalPropertyModel> page) {
+        return page.bind(databaseClient.sql(page.pageSql(SUMMARY_SELECT)))
+                .map(RentalPropertyReactiveRepository::mapRow)
+                .all();
+    }
+
+    /**
+     * Todas as linhas a partir do cursor, na ordem pedida, sem LIMIT (exportação).
+     */
+    public Flux<RentalPropertyModel> streamFrom(KeysetPageRequest<RentalPropertyModel> page) {
+        return page.bind(databaseClient.sql(page.streamSql(SELECT)))
+                .map(RentalPropertyReactiveRepository::mapRow)
+                .all();
+    }
+
+    public Mono<Long> count() {
+        return databaseClient.sql("SELECT count(*) FROM live.rental_properties")
+                .map((row, metadata) -> row.get(0, Long.class))
+                .one();
+    }
+
+    public Flux<RentalPropertyModel> findByNeighborhood(String neighborhood) {
+        return findByColumn("neighborhood", neighborhood);
+    }
+
+    public Flux<RentalPropertyModel> findByCity(String city) {
+        return findByColumn("city", city);
+    }
+
+    public Flux<RentalPropertyModel> findByPropertyType(String propertyType) {
+        return findByColumn("property_type", propertyType);
+    }
+
+    public Flux<RentalPropertyModel> findByTotalMonthlyCostBetween(BigDecimal minCost, BigDecimal maxCost) {
+        return databaseClient.sql(SUMMARY_SELECT + " WHERE total_monthly_cost BETWEEN :minCost AND :maxCost ORDER BY id")
+                .bind("minCost", minCost)
+                .bind("maxCost", maxCost)
+                .map(RentalPropertyReactiveRepository::mapRow)
+                .all();
+    }
+
+    public Flux<RentalPropertyModel> findLatest(int limit) {
+        return databaseClient.sql(SUMMARY_SELECT + " ORDER BY scraped_at DESC NULLS LAST LIMIT :limit")
+                .bind("limit", limit)
+                .map(RentalPropertyReactiveRepository::mapRow)
+                .all();
+    }
+
+    private Flux<RentalPropertyModel> findByColumn(String column, String value) {
+        return databaseClient.sql(SUMMARY_SELECT + " WHERE " + column + " = :value ORDER BY id")
+                .bind("value", value)
+                .map(RentalPropertyReactiveRepository::mapRow)
+                .all();
+    }
+
+    static RentalPropertyModel mapRow(Row row, RowMetadata metadata) {
+        return RentalPropertyModel.builder()
+                .id(row.get("id", Long.class))
+                .propertyCode(row.get("property_code", String.class))
+                .propertyTitle(row.get("property_title", String.class))
+                .buildingName(row.get("building_name", String.class))
+                .propertyType(row.get("property_type", String.class))
+                .propertyAddress(ReactiveRows.getIfPresent(row, metadata, "property_address", String.class))
+                .neighborhood(row.get("neighborhood", String.class))
+                .city(row.get("city", String.class))
+                .privateAreaSqm(row.get("private_area_sqm", BigDecimal.class))
+                .bedrooms(row.get("bedrooms", Short.class))
+                .suites(row.get("suites", Short.class))
+                .parkingSpaces(row.get("parking_spaces", Short.class))
+                .rentalPrice(row.get("rental_price", BigDecimal.class))
+                .condominiumFee(row.get("condominium_fee", BigDecimal.class))
+                .iptuTax(row.get("iptu_tax", BigDecimal.class))
+                .fireInsurance(row.get("fire_insurance", BigDecimal.class))
+                .garbageCollectionFee(row.get("garbage_collection_fee", BigDecimal.class))
+                .totalMonthlyCost(row.get("total_monthly_cost", BigDecimal.class))
+                .transactionType(row.get("transaction_type", String.class))
+                .paymentMethods(ReactiveRows.getIfPresent(row, metadata, "payment_methods", String.class))
+                .sourceUrl(row.get("source_url", String.class))
+                .scrapedAt(row.get("scraped_at", OffsetDateTime.class))
+                .build();
+    }
+}
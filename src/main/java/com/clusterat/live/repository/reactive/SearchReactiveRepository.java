@@ -0,0 +1,90 @@
+package com.clusterat.live.repository.reactive;
+
+import com.clusterat.live.dto.SearchResultDTO;
+import com.clusterat.live.model.SearchSource;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Busca textual (R2DBC) sobre documentos OCR, vagas e imóveis, pelas colunas search_vector (changeSet 023).
+ * O termo vira a união das consultas em portuguese e english, do mesmo jeito que as colunas são geradas.
+ * Cada tipo devolve só os seus melhores resultados pelo índice GIN; o trecho destacado (ts_headline,
+ * caro) é calculado apenas para as linhas que sobram depois da ordenação final.
+ */
+@Repository
+public class SearchReactiveRepository {
+    /**
+     * Normalização 1 | 32 do ts_rank_cd: divide pelo log do tamanho do documento (textos de OCR longos não
+     * dominam) e leva o valor para [0, 1), para os tipos serem comparáveis.
+     */
+    private static final int RANK_NORMALIZATION = 33;
+
+    private static final Map<SearchSource, String> SOURCES = Map.of(
+            SearchSource.OCR_DOCUMENT, """
+                    SELECT 'ocr_document' AS type, o.id AS id, o.document_name AS title,
+                           left(o.extracted_text, 100000) AS body,
+                           ts_rank_cd(o.search_vector, q.query, %1$d) AS rank
+                    FROM live.ocr_pre_processing o, q
+                    WHERE o.search_vector @@ q.query""",
+            SearchSource.JOB_POSTING, """
+                    SELECT 'job_posting' AS type, j.id::text AS id, j.job_title AS title,
+                           concat_ws(' - ', j.company_name, j.job_location, j.job_summary_text) AS body,
+                           ts_rank_cd(j.search_vector, q.query, %1$d) AS rank
+                    FROM live.job_postings j, q
+                    WHERE j.search_vector @@ q.query""",
+            SearchSource.RENTAL_PROPERTY, """
+                    SELECT 'rental_property' AS type, r.id::text AS id, r.property_title AS title,
+                           concat_ws(' - ', r.building_name, r.property_type, r.property_address, r.neighborhood, r.city) AS body,
+                           ts_rank_cd(r.search_vector, q.query, %1$d) AS rank
+                    FROM live.rental_properties r, q
+                    WHERE r.search_vector @@ q.query""");
+
+    private final DatabaseClient databaseClient;
+
+    public SearchReactiveRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Resultados mais relevantes entre os tipos pedidos, em ordem decrescente de relevância.
+     * @param text termo no formato de busca web (palavras, "frase exata", -exclusão, OR)
+     * @param sources tipos a consultar (não vazio)
+     */
+    public Flux<SearchResultDTO> search(String text, Set<SearchSource> sources, int limit) {
+        String hits = sources.stream()
+                .sorted()
+                .map(source -> "(" + SOURCES.get(source).formatted(RANK_NORMALIZATION) + " ORDER BY rank DESC LIMIT :limit)")
+                .collect(Collectors.joining(" UNION ALL "));
+        String sql = "WITH q AS (SELECT websearch_to_tsquery('portuguese', :text) "
+                + "|| websearch_to_tsquery('english', :text) AS query), "
+                + "hits AS (" + hits + "), "
+                + "ranked AS (SELECT * FROM hits ORDER BY rank DESC, type, id LIMIT :limit) "
+                + "SELECT ranked.type, ranked.id, ranked.title, ranked.rank, "
+                + "ts_headline('portuguese', COALESCE(ranked.body, ''), q.query, "
+                + "'MaxFragments=2, MaxWords=20, MinWords=8, FragmentDelimiter=\" ... \"') AS snippet "
+                + "FROM ranked, q ORDER BY ranked.rank DESC, ranked.type, ranked.id";
+        return databaseClient.sql(sql)
+                .bind("text", text)
+                .bind("limit", limit)
+                .map(SearchReactiveRepository::mapRow)
+                .all();
+    }
+
+    static SearchResultDTO mapRow(Row row, RowMetadata metadata) {
+        Float rank = row.get("rank", Float.class);
+        return SearchResultDTO.builder()
+                .type(row.get("type", String.class))
+                .id(row.get("id", String.class))
+                .title(row.get("title", String.class))
+                .snippet(row.get("snippet", String.class))
+                .rank(rank != null ? rank : 0)
+                .build();
+    }
+}
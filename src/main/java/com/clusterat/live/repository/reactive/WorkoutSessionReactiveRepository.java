@@ -0,0 +1,87 @@
+package com.clusterat.live.repository.reactive;
+
+import com.clusterat.live.model.WorkoutExerciseModel;
+import com.clusterat.live.model.WorkoutSessionModel;
+import com.clusterat.live.model.WorkoutSetModel;
+import com.clusterat.live.model.WorkoutTemplateModel;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Leitura reativa (R2DBC) do histórico de sessões de treino.
+ * Sessões e séries vêm em uma única consulta (LEFT JOIN) ordenada por sessão;
+ * as linhas consecutivas da mesma sessão são agrupadas sem carregar o histórico inteiro.
+ */
+@Repository
+public class WorkoutSessionReactiveRepository {
+    private static final String SELECT_HISTORY = "SELECT s.id AS session_id, s.user_id, s.template_id, s.started_at, "
+            + "s.ended_at, s.observation, ws.id AS set_id, ws.exercise_id, ws.set_order, ws.reps, ws.weight_kg, "
+            + "ws.rpe, ws.rest_seconds, ws.is_warmup, ws.performed_at "
+            + "FROM live.workout_sessions s "
+            + "LEFT JOIN live.workout_sets ws ON ws.session_id = s.id "
+            + "WHERE s.user_id = :userId "
+            + "ORDER BY s.started_at DESC, s.id, ws.set_order";
+
+    private final DatabaseClient databaseClient;
+
+    public WorkoutSessionReactiveRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<WorkoutSessionModel> findByUserIdOrderByStartedAtDesc(Long userId) {
+        return databaseClient.sql(SELECT_HISTORY)
+                .bind("userId", userId)
+                .fetch()
+                .all()
+                .bufferUntilChanged(row -> row.get("session_id"))
+                .map(this::toSession);
+    }
+
+    private WorkoutSessionModel toSession(List<Map<String, Object>> rows) {
+        Map<String, Object> first = rows.get(0);
+        Long templateId = (Long) first.get("template_id");
+
+        WorkoutSessionModel session = WorkoutSessionModel.builder()
+                .id((UUID) first.get("session_id"))
+                .userId((Long) first.get("user_id"))
+                .template(templateId != null ? WorkoutTemplateModel.builder().id(templateId).build() : null)
+                .startedAt(toOffsetDateTime(first.get("started_at")))
+                .endedAt(toOffsetDateTime(first.get("ended_at")))
+                .observation((String) first.get("observation"))
+                .build();
+
+        for (Map<String, Object> row : rows) {
+            if (row.get("set_id") == null) {
+                continue;
+            }
+            session.addSet(WorkoutSetModel.builder()
+                    .id((Long) row.get("set_id"))
+                    .exercise(WorkoutExerciseModel.builder().id((Long) row.get("exercise_id")).build())
+                    .setOrder((Integer) row.get("set_order"))
+                    .reps((Integer) row.get("reps"))
+                    .weightKg((BigDecimal) row.get("weight_kg"))
+                    .rpe((Integer) row.get("rpe"))
+                    .restSeconds((Integer) row.get("rest_seconds"))
+                    .warmup((Boolean) row.get("is_warmup"))
+                    .performedAt(toOffsetDateTime(row.get("performed_at")))
+                    .build());
+        }
+        return session;
+    }
+
+    private static OffsetDateTime toOffsetDateTime(Object value) {
+        if (value instanceof LocalDateTime localDateTime) {
+            return localDateTime.atOffset(ZoneOffset.UTC);
+        }
+        return (OffsetDateTime) value;
+    }
+}
@@ -0,0 +1,113 @@
+package com.clusterat.live.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.function.IntConsumer;
+
+/**
+ * Autômato de Aho-Corasick: encontra todas as ocorrências de um conjunto de padrões num texto
+ * com uma única passada, em tempo proporcional ao tamanho do texto (mais o número de ocorrências),
+ * independente de quantos padrões existam.
+ * Depois de construído é imutável: as transições de cada nó ficam em arrays ordenados
+ * (busca binária) e as saídas já incluem as herdadas pelos links de falha.
+ */
+final class AhoCorasickMatcher {
+    private final char[][] keys;
+    private final int[][] targets;
+    private final int[] fail;
+    private final int[][] outputs;
+
+    /**
+     * @param patterns padrões já normalizados; o índice na lista é o que {@link #forEachMatch} devolve
+     */
+    AhoCorasickMatcher(List<String> patterns) {
+        List<Map<Character, Integer>> next = new ArrayList<>();
+        List<List<Integer>> out = new ArrayList<>();
+        next.add(new HashMap<>());
+        out.add(new ArrayList<>());
+
+        for (int i = 0; i < patterns.size(); i++) {
+            String pattern = patterns.get(i);
+            if (pattern.isEmpty()) {
+                continue;
+            }
+            int node = 0;
+            for (int j = 0; j < pattern.length(); j++) {
+                Integer child = next.get(node).get(pattern.charAt(j));
+                if (child == null) {
+                    child = next.size();
+                    next.get(node).put(pattern.charAt(j), child);
+                    next.add(new HashMap<>());
+                    out.add(new ArrayList<>());
+                }
+                node = child;
+            }
+            out.get(node).add(i);
+        }
+
+        int size = next.size();
+        this.fail = new int[size];
+        Queue<Integer> queue = new ArrayDeque<>(next.get(0).values());
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (Map.Entry<Character, Integer> edge : next.get(node).entrySet()) {
+                int child = edge.getValue();
+                queue.add(child);
+                int f = fail[node];
+                while (f != 0 && !next.get(f).containsKey(edge.getKey())) {
+                    f = fail[f];
+                }
+                Integer target = next.get(f).get(edge.getKey());
+                fail[child] = target != null && target != child ? target : 0;
+                out.get(child).addAll(out.get(fail[child]));
+            }
+        }
+
+        this.keys = new char[size][];
+        this.targets = new int[size][];
+        this.outputs = new int[size][];
+        for (int node = 0; node < size; node++) {
+            char[] nodeKeys = new char[next.get(node).size()];
+            int k = 0;
+            for (Character c : next.get(node).keySet()) {
+                nodeKeys[k++] = c;
+            }
+            Arrays.sort(nodeKeys);
+            int[] nodeTargets = new int[nodeKeys.length];
+            for (k = 0; k < nodeKeys.length; k++) {
+                nodeTargets[k] = next.get(node).get(nodeKeys[k]);
+            }
+            keys[node] = nodeKeys;
+            targets[node] = nodeTargets;
+            outputs[node] = out.get(node).stream().mapToInt(Integer::intValue).distinct().toArray();
+        }
+    }
+
+    /**
+     * Chama o consumer com o índice de cada padrão encontrado (uma vez por ocorrência).
+     */
+    void forEachMatch(CharSequence text, IntConsumer consumer) {
+        int node = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int child;
+            while ((child = step(node, c)) < 0 && node != 0) {
+                node = fail[node];
+            }
+            node = Math.max(child, 0);
+            for (int pattern : outputs[node]) {
+                consumer.accept(pattern);
+            }
+        }
+    }
+
+    private int step(int node, char c) {
+        int index = Arrays.binarySearch(keys[node], c);
+        return index >= 0 ? targets[node][index] : -1;
+    }
+}
@@ -0,0 +1,64 @@
+package com.clusterat.live.service;
+
+import com.clusterat.live.dto.DocumentStatusEnum;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Estado comum dos jobs assíncronos (importação, recategorização, backfill de duplicatas), atualizado
+ * pelas threads do pool de jobs e lido pelas consultas de status. Cada job acrescenta seus contadores
+ * e monta o próprio DTO em {@link #snapshot()}; o ciclo de vida fica com o {@link BackgroundJobRegistry}.
+ * @param <D> DTO de status do job
+ */
+abstract class BackgroundJob<D> {
+    final String id = UUID.randomUUID().toString();
+    final OffsetDateTime startedAt = OffsetDateTime.now();
+    final AtomicLong batchesDone = new AtomicLong();
+    volatile long batchesTotal;
+    volatile DocumentStatusEnum status = DocumentStatusEnum.PENDING;
+    volatile String message;
+    volatile OffsetDateTime finishedAt;
+
+    /**
+     * Marca o início do processamento, com o total de lotes que o progresso vai contar.
+     */
+    void start(long batchesTotal) {
+        this.batchesTotal = batchesTotal;
+        this.status = DocumentStatusEnum.PROCESSING;
+    }
+
+    void finish() {
+        this.message = completionMessage();
+        this.finishedAt = OffsetDateTime.now();
+        this.status = DocumentStatusEnum.COMPLETED;
+    }
+
+    void fail(String message) {
+        this.message = message;
+        this.finishedAt = OffsetDateTime.now();
+        this.status = DocumentStatusEnum.FAILED;
+    }
+
+    /**
+     * Percentual de lotes concluídos; 100 só quando o job termina com sucesso.
+     */
+    int progress() {
+        return percent(batchesDone.get(), batchesTotal);
+    }
+
+    final int percent(long done, long total) {
+        if (status == DocumentStatusEnum.COMPLETED) {
+            return 100;
+        }
+        return total == 0 ? 0 : (int) Math.min(99, done * 100 / total);
+    }
+
+    /**
+     * Resumo gravado em message quando o job termina com sucesso.
+     */
+    abstract String completionMessage();
+
+    abstract D snapshot();
+}
@@ -0,0 +1,89 @@
+package com.clusterat.live.service;
+
+import com.clusterat.live.config.BackgroundJobExecutor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Jobs assíncronos de um tipo: registra, executa e guarda o status por id enquanto o processo estiver
+ * no ar (jobs terminados são descartados após FINISHED_JOB_RETENTION). Cada job ocupa uma vaga do
+ * {@link BackgroundJobExecutor} até terminar; quando exclusive, só um job deste tipo roda por vez.
+ * @param <J> job
+ * @param <D> DTO de status do job
+ */
+@Slf4j
+final class BackgroundJobRegistry<J extends BackgroundJob<D>, D> {
+    private static final Duration FINISHED_JOB_RETENTION = Duration.ofHours(1);
+
+    private final String name;
+    private final boolean exclusive;
+    private final BackgroundJobExecutor backgroundJobExecutor;
+    private final Map<String, J> jobs = new ConcurrentHashMap<>();
+    private final AtomicReference<J> runningJob = new AtomicReference<>();
+
+    /**
+     * @param name nome do tipo de job nas mensagens e nos logs (ex.: "recategorization")
+     */
+    BackgroundJobRegistry(String name, boolean exclusive, BackgroundJobExecutor backgroundJobExecutor) {
+        this.name = name;
+        this.exclusive = exclusive;
+        this.backgroundJobExecutor = backgroundJobExecutor;
+    }
+
+    /**
+     * Falha rápido, antes de preparar um job caro, quando o executor não tem vaga.
+     * @throws IllegalStateException se já houver o máximo de jobs em andamento
+     */
+    void checkCapacity() {
+        evictFinishedJobs();
+        backgroundJobExecutor.checkCapacity();
+    }
+
+    /**
+     * Registra o job e assina o trabalho; o job termina (finish/fail) quando o Mono completa ou falha.
+     * @throws IllegalStateException se já houver o máximo de jobs (de qualquer tipo) em andamento
+     * @throws IllegalArgumentException se o tipo for exclusivo e já houver um job dele em andamento
+     */
+    D submit(J job, Supplier<Mono<?>> work) {
+        evictFinishedJobs();
+        backgroundJobExecutor.acquireSlot();
+        if (exclusive && !runningJob.compareAndSet(null, job)) {
+            backgroundJobExecutor.releaseSlot();
+            throw new IllegalArgumentException("A " + name + " job is already running: " + runningJob.get().id);
+        }
+        jobs.put(job.id, job);
+
+        Mono.defer(work)
+                .doFinally(signal -> {
+                    runningJob.compareAndSet(job, null);
+                    backgroundJobExecutor.releaseSlot();
+                })
+                .subscribe(unused -> {
+                        }, e -> {
+                            log.error("{} job {} failed", name, job.id, e);
+                            job.fail(e.getMessage());
+                        },
+                        () -> {
+                            job.finish();
+                            log.info("{} job {} completed: {}", name, job.id, job.message);
+                        });
+        return job.snapshot();
+    }
+
+    Optional<D> get(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(BackgroundJob::snapshot);
+    }
+
+    private void evictFinishedJobs() {
+        OffsetDateTime cutoff = OffsetDateTime.now().minus(FINISHED_JOB_RETENTION);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+}
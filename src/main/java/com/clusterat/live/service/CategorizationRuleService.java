@@ -0,0 +1,155 @@
+package com.clusterat.live.service;
+
+import com.clusterat.live.dto.CategorizationRuleDTO;
+import com.clusterat.live.model.AnalysisType;
+import com.clusterat.live.model.CategorizationRuleModel;
+import com.clusterat.live.repository.CategorizationRuleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Cadastro das regras de categorização. Cada escrita recompila o TransactionCategorizer,
+ * então a regra passa a valer na próxima transação classificada.
+ */
+@Slf4j
+@Service
+public class CategorizationRuleService {
+    private final CategorizationRuleRepository categorizationRuleRepository;
+    private final TransactionCategorizer transactionCategorizer;
+    private final ExpenseCategoryRegistry expenseCategoryRegistry;
+
+    @Autowired
+    public CategorizationRuleService(CategorizationRuleRepository categorizationRuleRepository,
+                                     TransactionCategorizer transactionCategorizer,
+                                     ExpenseCategoryRegistry expenseCategoryRegistry) {
+        this.categorizationRuleRepository = categorizationRuleRepository;
+        this.transactionCategorizer = transactionCategorizer;
+        this.expenseCategoryRegistry = expenseCategoryRegistry;
+    }
+
+    public List<CategorizationRuleDTO> getAllRules() {
+        log.info("Fetching all categorization rules");
+        return categorizationRuleRepository.findAll().stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @throws IllegalArgumentException para padrão vazio, campo, faixa de valor, categoria ou tipo inválidos
+     */
+    public CategorizationRuleDTO createRule(CategorizationRuleDTO ruleDTO) {
+        log.info("Creating categorization rule: {}", ruleDTO);
+        if (ruleDTO.getName() == null || ruleDTO.getName().isBlank()) {
+            throw new IllegalArgumentException("name is required");
+        }
+        if (ruleDTO.getCategoryId() == null) {
+            throw new IllegalArgumentException("categoryId is required");
+        }
+        CategorizationRuleModel model = CategorizationRuleModel.builder()
+                .name(ruleDTO.getName().trim())
+                .matchField(CategorizationRuleModel.MATCH_DESCRIPTION)
+                .priority(0)
+                .enabled(true)
+                .build();
+        updateModelFields(model, ruleDTO);
+        if (model.getPattern() == null) {
+            throw new IllegalArgumentException("pattern is required");
+        }
+        CategorizationRuleModel saved = categorizationRuleRepository.save(model);
+        transactionCategorizer.reload();
+        log.info("Categorization rule created with id: {}", saved.getRuleId());
+        return convertToDTO(saved);
+    }
+
+    /**
+     * Atualiza apenas os campos informados.
+     */
+    public CategorizationRuleDTO updateRule(Integer ruleId, CategorizationRuleDTO ruleDTO) {
+        log.info("Updating categorization rule with id: {}", ruleId);
+        CategorizationRuleModel model = categorizationRuleRepository.findById(ruleId)
+                .orElseThrow(() -> new RuntimeException("Categorization rule not found with id: " + ruleId));
+        if (ruleDTO.getName() != null && !ruleDTO.getName().isBlank()) {
+            model.setName(ruleDTO.getName().trim());
+        }
+        updateModelFields(model, ruleDTO);
+        CategorizationRuleModel saved = categorizationRuleRepository.save(model);
+        transactionCategorizer.reload();
+        log.info("Categorization rule updated with id: {}", saved.getRuleId());
+        return convertToDTO(saved);
+    }
+
+    public void deleteRule(Integer ruleId) {
+        log.info("Deleting categorization rule with id: {}", ruleId);
+        if (!categorizationRuleRepository.existsById(ruleId)) {
+            throw new RuntimeException("Categorization rule not found with id: " + ruleId);
+        }
+        categorizationRuleRepository.deleteById(ruleId);
+        transactionCategorizer.reload();
+        log.info("Categorization rule deleted with id: {}", ruleId);
+    }
+
+    private void updateModelFields(CategorizationRuleModel model, CategorizationRuleDTO dto) {
+        if (dto.getPattern() != null) {
+            if (TransactionCategorizer.normalize(dto.getPattern()).isEmpty()) {
+                throw new IllegalArgumentException("pattern must contain letters or digits");
+            }
+            model.setPattern(dto.getPattern().trim());
+        }
+        if (dto.getMatchField() != null) {
+            String field = dto.getMatchField().trim().toLowerCase(Locale.ROOT);
+            if (!field.equals(CategorizationRuleModel.MATCH_DESCRIPTION) && !field.equals(CategorizationRuleModel.MATCH_MERCHANT)) {
+                throw new IllegalArgumentException("matchField must be description or merchant");
+            }
+            model.setMatchField(field);
+        }
+        if (dto.getMinAmount() != null) {
+            model.setMinAmount(dto.getMinAmount());
+        }
+        if (dto.getMaxAmount() != null) {
+            model.setMaxAmount(dto.getMaxAmount());
+        }
+        BigDecimal min = model.getMinAmount();
+        BigDecimal max = model.getMaxAmount();
+        if (min != null && max != null && min.compareTo(max) > 0) {
+            throw new IllegalArgumentException("minAmount must not be greater than maxAmount");
+        }
+        if (dto.getCategoryId() != null) {
+            if (!expenseCategoryRegistry.exists(dto.getCategoryId())) {
+                throw new IllegalArgumentException("Unknown categoryId: " + dto.getCategoryId());
+            }
+            model.setCategoryId(dto.getCategoryId());
+        }
+        if (dto.getAnalysisType() != null) {
+            model.setAnalysisType(AnalysisType.fromValue(dto.getAnalysisType()));
+        }
+        if (dto.getPriority() != null) {
+            model.setPriority(dto.getPriority());
+        }
+        if (dto.getEnabled() != null) {
+            model.setEnabled(dto.getEnabled());
+        }
+    }
+
+    private CategorizationRuleDTO convertToDTO(CategorizationRuleModel model) {
+        return CategorizationRuleDTO.builder()
+                .ruleId(model.getRuleId())
+                .name(model.getName())
+                .pattern(model.getPattern())
+                .matchField(model.getMatchField())
+                .minAmount(model.getMinAmount())
+                .maxAmount(model.getMaxAmount())
+                .categoryId(model.getCategoryId())
+                .analysisType(model.getAnalysisType() != null ? model.getAnalysisType().getValue() : null)
+                .priority(model.getPriority())
+                .enabled(model.getEnabled())
+                .createdAt(model.getCreatedAt())
+                .updatedAt(model.getUpdatedAt())
+                .build();
+    }
+}
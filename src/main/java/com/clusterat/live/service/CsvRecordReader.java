@@ -0,0 +1,111 @@
+package com.clusterat.live.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitor de CSV (RFC 4180) em streaming: devolve um registro por vez, com suporte a campos
+ * entre aspas, aspas escapadas ("") e quebras de linha dentro de campos.
+ * Campos vazios sem aspas viram null; "" entre aspas vira string vazia.
+ */
+class CsvRecordReader {
+    private final Reader reader;
+    private final char delimiter;
+    private int pending = -2;
+    private long line = 1;
+    private long recordLine;
+
+    CsvRecordReader(Reader reader, char delimiter) {
+        this.reader = reader;
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * Próximo registro, ou null no fim do arquivo.
+     * @throws IOException em erro de leitura ou aspas não fechadas
+     */
+    List<String> next() throws IOException {
+        int c = read();
+        while (c == '\r' || c == '\n') {
+            c = skipLineBreak(c);
+        }
+        if (c == -1) {
+            return null;
+        }
+
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (c == '"' && field.isEmpty() && !quoted) {
+                quoted = true;
+                c = readQuoted(field);
+                continue;
+            }
+            if (c == delimiter) {
+                fields.add(value(field, quoted));
+                field.setLength(0);
+                quoted = false;
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                fields.add(value(field, quoted));
+                if (c != -1) {
+                    pending = skipLineBreak(c);
+                }
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * Linha do arquivo em que começou o último registro devolvido.
+     */
+    long getRecordLine() {
+        return recordLine;
+    }
+
+    private int readQuoted(StringBuilder field) throws IOException {
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw new IOException("Unclosed quoted field starting at line " + recordLine);
+            }
+            if (c == '"') {
+                int after = read();
+                if (after != '"') {
+                    return after;
+                }
+            } else if (c == '\n') {
+                line++;
+            }
+            field.append((char) c);
+        }
+    }
+
+    private int skipLineBreak(int c) throws IOException {
+        line++;
+        int after = read();
+        if (c == '\r' && after == '\n') {
+            return read();
+        }
+        return after;
+    }
+
+    private int read() throws IOException {
+        if (pending != -2) {
+            int c = pending;
+            pending = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private static String value(StringBuilder field, boolean quoted) {
+        return field.isEmpty() && !quoted ? null : field.toString();
+    }
+}
@@ -0,0 +1,207 @@
+package com.clusterat.live.service;
+
+import com.clusterat.live.dto.ExpenseCategoryDTO;
+import com.clusterat.live.model.ExpenseCategoryModel;
+import com.clusterat.live.repository.ExpenseCategoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Registro em memória das categorias de despesa e da hierarquia (parent_category_id).
+ * A tabela é pequena: é carregada inteira num snapshot imutável, com filhos e ancestrais
+ * pré-calculados, e as consultas não fazem round-trip ao banco (seguras no event loop).
+ * O snapshot é recarregado após cada escrita (invalidate) e periodicamente, para pegar
+ * alterações feitas fora da aplicação. Os DTOs devolvidos são compartilhados: não alterar.
+ */
+@Slf4j
+@Service
+public class ExpenseCategoryRegistry {
+    private static final int MAX_DEPTH = 16;
+
+    private final ExpenseCategoryRepository expenseCategoryRepository;
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public ExpenseCategoryRegistry(ExpenseCategoryRepository expenseCategoryRepository) {
+        this.expenseCategoryRepository = expenseCategoryRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        invalidate();
+    }
+
+    /**
+     * Recarrega o snapshot. Chamado após escritas em expense_categories.
+     */
+    public void invalidate() {
+        Snapshot loaded = new Snapshot(expenseCategoryRepository.findAll());
+        snapshot = loaded;
+        log.info("Expense category registry loaded with {} categories", loaded.byId.size());
+    }
+
+    @Scheduled(fixedDelayString = "${expense.categories.refresh-interval-ms:600000}",
+            initialDelayString = "${expense.categories.refresh-interval-ms:600000}") // 10 minutes
+    public void scheduledRefresh() {
+        try {
+            invalidate();
+        } catch (Exception e) {
+            log.error("Error refreshing expense category registry: {}", e.getMessage(), e);
+        }
+    }
+
+    public List<ExpenseCategoryDTO> getAll() {
+        return current().ordered;
+    }
+
+    public Optional<ExpenseCategoryDTO> get(Integer categoryId) {
+        return Optional.ofNullable(categoryId != null ? current().byId.get(categoryId) : null);
+    }
+
+    public boolean exists(Integer categoryId) {
+        return categoryId != null && current().byId.containsKey(categoryId);
+    }
+
+    /**
+     * Busca por nome, sem diferenciar maiúsculas.
+     */
+    public Optional<ExpenseCategoryDTO> findByName(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        Snapshot current = current();
+        return Optional.ofNullable(current.idsByName.get(name.trim().toLowerCase(Locale.ROOT)))
+                .map(current.byId::get);
+    }
+
+    public boolean isIncome(Integer categoryId) {
+        return get(categoryId).map(ExpenseCategoryDTO::getIsIncome).orElse(false);
+    }
+
+    public List<ExpenseCategoryDTO> getChildren(Integer categoryId) {
+        return current().children.getOrDefault(categoryId, List.of());
+    }
+
+    public List<ExpenseCategoryDTO> getRoots() {
+        return current().roots;
+    }
+
+    /**
+     * Ancestrais da categoria, do pai até a raiz (vazio para raízes e ids desconhecidos).
+     */
+    public int[] getAncestors(Integer categoryId) {
+        int[] ancestors = current().ancestors.get(categoryId);
+        return ancestors != null ? ancestors.clone() : new int[0];
+    }
+
+    /**
+     * Verdadeiro se {@code ancestorId} é a própria categoria ou um de seus ancestrais.
+     */
+    public boolean isSameOrDescendant(Integer categoryId, Integer ancestorId) {
+        if (categoryId == null || ancestorId == null) {
+            return false;
+        }
+        if (categoryId.equals(ancestorId)) {
+            return true;
+        }
+        int[] ancestors = current().ancestors.get(categoryId);
+        if (ancestors == null) {
+            return false;
+        }
+        for (int ancestor : ancestors) {
+            if (ancestor == ancestorId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    invalidate();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private static final class Snapshot {
+        private final Map<Integer, ExpenseCategoryDTO> byId;
+        private final Map<String, Integer> idsByName;
+        private final Map<Integer, List<ExpenseCategoryDTO>> children;
+        private final Map<Integer, int[]> ancestors;
+        private final List<ExpenseCategoryDTO> roots;
+        private final List<ExpenseCategoryDTO> ordered;
+
+        private Snapshot(List<ExpenseCategoryModel> categories) {
+            Map<Integer, ExpenseCategoryDTO> ids = new LinkedHashMap<>();
+            Map<String, Integer> names = new HashMap<>();
+            categories.stream()
+                    .sorted((a, b) -> Integer.compare(a.getCategoryId(), b.getCategoryId()))
+                    .forEach(category -> {
+                        ids.put(category.getCategoryId(), ExpenseCategoryDTO.builder()
+                                .categoryId(category.getCategoryId())
+                                .name(category.getName())
+                                .parentCategoryId(category.getParentCategoryId())
+                                .isIncome(category.getIsIncome())
+                                .build());
+                        names.put(category.getName().toLowerCase(Locale.ROOT), category.getCategoryId());
+                    });
+
+            Map<Integer, List<ExpenseCategoryDTO>> childLists = new HashMap<>();
+            List<ExpenseCategoryDTO> rootList = new ArrayList<>();
+            Map<Integer, int[]> ancestorArrays = new HashMap<>();
+            for (ExpenseCategoryDTO category : ids.values()) {
+                Integer parentId = category.getParentCategoryId();
+                if (parentId == null || !ids.containsKey(parentId)) {
+                    rootList.add(category);
+                } else {
+                    childLists.computeIfAbsent(parentId, id -> new ArrayList<>()).add(category);
+                }
+                ancestorArrays.put(category.getCategoryId(), walkAncestors(category, ids));
+            }
+            childLists.replaceAll((id, list) -> Collections.unmodifiableList(list));
+
+            this.byId = Collections.unmodifiableMap(ids);
+            this.idsByName = Collections.unmodifiableMap(names);
+            this.children = Collections.unmodifiableMap(childLists);
+            this.ancestors = ancestorArrays;
+            this.roots = Collections.unmodifiableList(rootList);
+            this.ordered = List.copyOf(ids.values());
+        }
+
+        /**
+         * Sobe pela cadeia de pais; para em ciclos ou pais inexistentes.
+         */
+        private static int[] walkAncestors(ExpenseCategoryDTO category, Map<Integer, ExpenseCategoryDTO> ids) {
+            List<Integer> chain = new ArrayList<>();
+            Set<Integer> seen = new HashSet<>();
+            seen.add(category.getCategoryId());
+            Integer parentId = category.getParentCategoryId();
+            while (parentId != null && ids.containsKey(parentId) && seen.add(parentId) && chain.size() < MAX_DEPTH) {
+                chain.add(parentId);
+                parentId = ids.get(parentId).getParentCategoryId();
+            }
+            return chain.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+}
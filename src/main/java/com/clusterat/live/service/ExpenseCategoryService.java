@@ -0,0 +1,142 @@
+package com.clusterat.live.service;
+
+import com.clusterat.live.dto.ExpenseCategoryDTO;
+import com.clusterat.live.model.ExpenseCategoryModel;
+import com.clusterat.live.repository.ExpenseCategoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Escrita das categorias de despesa. Toda alteração passa por aqui e, depois de gravada,
+ * invalida o ExpenseCategoryRegistry; as leituras vêm sempre do registro em memória.
+ */
+@Slf4j
+@Service
+public class ExpenseCategoryService {
+    private final ExpenseCategoryRepository expenseCategoryRepository;
+    private final ExpenseCategoryRegistry expenseCategoryRegistry;
+
+    @Autowired
+    public ExpenseCategoryService(ExpenseCategoryRepository expenseCategoryRepository,
+                                  ExpenseCategoryRegistry expenseCategoryRegistry) {
+        this.expenseCategoryRepository = expenseCategoryRepository;
+        this.expenseCategoryRegistry = expenseCategoryRegistry;
+    }
+
+    public List<ExpenseCategoryDTO> getAllCategories() {
+        return expenseCategoryRegistry.getAll();
+    }
+
+    /**
+     * @throws IllegalArgumentException para nome ausente ou repetido, ou categoria pai inexistente
+     */
+    public ExpenseCategoryDTO createCategory(ExpenseCategoryDTO categoryDTO) {
+        log.info("Creating expense category: {}", categoryDTO);
+        if (categoryDTO.getName() == null || categoryDTO.getName().isBlank()) {
+            throw new IllegalArgumentException("name is required");
+        }
+        validateName(null, categoryDTO.getName());
+        validateParent(null, categoryDTO.getParentCategoryId());
+
+        ExpenseCategoryModel saved = save(ExpenseCategoryModel.builder()
+                .name(categoryDTO.getName().trim())
+                .parentCategoryId(categoryDTO.getParentCategoryId())
+                .isIncome(Boolean.TRUE.equals(categoryDTO.getIsIncome()))
+                .build());
+        log.info("Expense category created with id: {}", saved.getCategoryId());
+        return convertToDTO(saved);
+    }
+
+    /**
+     * Atualiza apenas os campos informados.
+     * @throws IllegalArgumentException para nome repetido ou se o novo pai criar um ciclo na hierarquia
+     */
+    public ExpenseCategoryDTO updateCategory(Integer categoryId, ExpenseCategoryDTO categoryDTO) {
+        log.info("Updating expense category with id: {}", categoryId);
+        ExpenseCategoryModel model = expenseCategoryRepository.findById(categoryId)
+                .orElseThrow(() -> new RuntimeException("Expense category not found with id: " + categoryId));
+
+        if (categoryDTO.getName() != null && !categoryDTO.getName().isBlank()) {
+            validateName(categoryId, categoryDTO.getName());
+            model.setName(categoryDTO.getName().trim());
+        }
+        if (categoryDTO.getParentCategoryId() != null) {
+            validateParent(categoryId, categoryDTO.getParentCategoryId());
+            model.setParentCategoryId(categoryDTO.getParentCategoryId());
+        }
+        if (categoryDTO.getIsIncome() != null) {
+            model.setIsIncome(categoryDTO.getIsIncome());
+        }
+
+        ExpenseCategoryModel saved = save(model);
+        log.info("Expense category updated with id: {}", saved.getCategoryId());
+        return convertToDTO(saved);
+    }
+
+    /**
+     * @throws IllegalArgumentException se a categoria tiver subcategorias ou lançamentos
+     */
+    public void deleteCategory(Integer categoryId) {
+        log.info("Deleting expense category with id: {}", categoryId);
+        if (!expenseCategoryRepository.existsById(categoryId)) {
+            throw new RuntimeException("Expense category not found with id: " + categoryId);
+        }
+        if (!expenseCategoryRegistry.getChildren(categoryId).isEmpty()) {
+            throw new IllegalArgumentException("Expense category has subcategories: " + categoryId);
+        }
+        try {
+            expenseCategoryRepository.deleteById(categoryId);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalArgumentException("Expense category is in use: " + categoryId);
+        } finally {
+            expenseCategoryRegistry.invalidate();
+        }
+        log.info("Expense category deleted with id: {}", categoryId);
+    }
+
+    /**
+     * Grava (commit da própria transação do repositório) e só então recarrega o registro.
+     */
+    private ExpenseCategoryModel save(ExpenseCategoryModel model) {
+        try {
+            return expenseCategoryRepository.saveAndFlush(model);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalArgumentException("Expense category already exists: " + model.getName());
+        } finally {
+            expenseCategoryRegistry.invalidate();
+        }
+    }
+
+    private void validateName(Integer categoryId, String name) {
+        expenseCategoryRegistry.findByName(name)
+                .filter(existing -> !existing.getCategoryId().equals(categoryId))
+                .ifPresent(existing -> {
+                    throw new IllegalArgumentException("Expense category already exists: " + name);
+                });
+    }
+
+    private void validateParent(Integer categoryId, Integer parentCategoryId) {
+        if (parentCategoryId == null) {
+            return;
+        }
+        if (!expenseCategoryRegistry.exists(parentCategoryId)) {
+            throw new IllegalArgumentException("Unknown parentCategoryId: " + parentCategoryId);
+        }
+        if (categoryId != null && expenseCategoryRegistry.isSameOrDescendant(parentCategoryId, categoryId)) {
+            throw new IllegalArgumentException("parentCategoryId would create a cycle: " + parentCategoryId);
+        }
+    }
+
+    private ExpenseCategoryDTO convertToDTO(ExpenseCategoryModel model) {
+        return ExpenseCategoryDTO.builder()
+                .categoryId(model.getCategoryId())
+                .name(model.getName())
+                .parentCategoryId(model.getParentCategoryId())
+                .isIncome(model.getIsIncome())
+                .build();
+    }
+}
@@ -1,31 +1,58 @@
 package com.clusterat.live.service;
 
+import com.clusterat.live.dto.KeysetPageDTO;
 import com.clusterat.live.dto.OcrPreProcessingDTO;
 import com.clusterat.live.model.OcrPreProcessingModel;
+import com.clusterat.live.repository.KeysetPageRequest;
 import com.clusterat.live.repository.OcrPreProcessingRepository;
+import com.clusterat.live.repository.reactive.OcrPreProcessingReactiveRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class FinancialAnalysisDataService {
     private final OcrPreProcessingRepository ocrPreProcessingRepository;
+    private final OcrPreProcessingReactiveRepository ocrPreProcessingReactiveRepository;
 
     @Autowired
-    public FinancialAnalysisDataService(OcrPreProcessingRepository ocrPreProcessingRepository) {
+    public FinancialAnalysisDataService(OcrPreProcessingRepository ocrPreProcessingRepository,
+                                        OcrPreProcessingReactiveRepository ocrPreProcessingReactiveRepository) {
         this.ocrPreProcessingRepository = ocrPreProcessingRepository;
+        this.ocrPreProcessingReactiveRepository = ocrPreProcessingReactiveRepository;
     }
 
-    public List<OcrPreProcessingDTO> getAllOcrPreProcessingData() {
-        log.info("Fetching all OCR pre-processing data");
-        return ocrPreProcessingRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    /**
+     * Página dos registros de OCR por keyset (R2DBC), sem o texto extraído, que só vem no detalhe.
+     * O total exige COUNT e só é calculado quando pedido.
+     * @throws IllegalArgumentException (no Mono) para ordenação, limite ou cursor inválidos
+     */
+    public Mono<KeysetPageDTO<OcrPreProcessingDTO>> getAllOcrPreProcessingData(String after, Integer limit, String sort,
+                                                                               String order, boolean includeTotal) {
+        return Mono.defer(() -> {
+            KeysetPageRequest<OcrPreProcessingModel> page = KeysetPageRequest.of(
+                    OcrPreProcessingRepository.SORT_FIELDS, sort, order, after, limit);
+            log.info("Fetching OCR pre-processing data page (sort: {}, order: {}, limit: {})", sort, order, page.getLimit());
+            return page.collectPage(ocrPreProcessingReactiveRepository.findPage(page), this::convertToDTO,
+                    includeTotal ? ocrPreProcessingReactiveRepository.count() : Mono.empty());
+        });
+    }
+
+    /**
+     * Emite os registros de OCR completos a partir do cursor via R2DBC (exportação).
+     */
+    public Flux<OcrPreProcessingDTO> streamOcrPreProcessingData(String after, String sort, String order) {
+        return Flux.defer(() -> {
+            KeysetPageRequest<OcrPreProcessingModel> page = KeysetPageRequest.of(
+                    OcrPreProcessingRepository.SORT_FIELDS, sort, order, after, null);
+            log.info("Streaming OCR pre-processing data (sort: {}, order: {})", sort, order);
+            return ocrPreProcessingReactiveRepository.streamFrom(page).map(this::convertToDTO);
+        });
     }
 
     public Optional<OcrPreProcessingDTO> getOcrPreProcessingById(String id) {
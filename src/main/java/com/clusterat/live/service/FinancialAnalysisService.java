@@ -1,79 +1,291 @@
 package com.clusterat.live.service;
 
+import com.clusterat.live.dto.ExpenseCategoryDTO;
 import com.clusterat.live.dto.FinancialAnalysisDTO;
+import com.clusterat.live.dto.KeysetPageDTO;
 import com.clusterat.live.model.AnalysisType;
 import com.clusterat.live.model.FinancialAnalysisModel;
+import com.clusterat.live.model.TransactionDedupKey;
+import com.clusterat.live.repository.BatchInsertWriter;
 import com.clusterat.live.repository.FinancialAnalysisRepository;
+import com.clusterat.live.repository.KeysetPageRequest;
+import com.clusterat.live.repository.reactive.FinancialAnalysisReactiveRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class FinancialAnalysisService {
+    private static final int MAX_REPORTED_SKIPPED = 100;
+    private static final String DUPLICATE_TRANSACTION =
+            "A transaction with the same date, amount, description and source id is already stored";
+
     private final FinancialAnalysisRepository financialAnalysisRepository;
+    private final FinancialAnalysisReactiveRepository financialAnalysisReactiveRepository;
+    private final BatchInsertWriter batchInsertWriter;
+    private final ExpenseCategoryRegistry expenseCategoryRegistry;
+    private final TransactionCategorizer transactionCategorizer;
     private final ObjectMapper objectMapper;
 
     @Autowired
-    public FinancialAnalysisService(FinancialAnalysisRepository financialAnalysisRepository, ObjectMapper objectMapper) {
+    public FinancialAnalysisService(FinancialAnalysisRepository financialAnalysisRepository,
+                                    FinancialAnalysisReactiveRepository financialAnalysisReactiveRepository,
+                                    BatchInsertWriter batchInsertWriter,
+                                    ExpenseCategoryRegistry expenseCategoryRegistry,
+                                    TransactionCategorizer transactionCategorizer,
+                                    ObjectMapper objectMapper) {
         this.financialAnalysisRepository = financialAnalysisRepository;
+        this.financialAnalysisReactiveRepository = financialAnalysisReactiveRepository;
+        this.batchInsertWriter = batchInsertWriter;
+        this.expenseCategoryRegistry = expenseCategoryRegistry;
+        this.transactionCategorizer = transactionCategorizer;
         this.objectMapper = objectMapper;
     }
 
-    public List<FinancialAnalysisDTO> getAllAnalysis() {
-        log.info("Fetching all financial analysis records");
-        return financialAnalysisRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    /**
+     * Resultado da inserção em lote; skipped traz os primeiros duplicados como "record N: motivo".
+     */
+    public record BulkSaveResult(List<FinancialAnalysisDTO> saved, int skippedCount, List<String> skipped) {
     }
 
-    public Optional<FinancialAnalysisDTO> getAnalysisById(Long analysisId) {
-        log.info("Fetching financial analysis with id: {}", analysisId);
-        return financialAnalysisRepository.findById(analysisId)
-                .map(this::convertToDTO);
+    /**
+     * Página de análises por keyset (R2DBC). O total exige COUNT e só é calculado quando pedido.
+     * @throws IllegalArgumentException (no Mono) para ordenação, limite ou cursor inválidos
+     */
+    public Mono<KeysetPageDTO<FinancialAnalysisDTO>> getAnalysisPage(String after, Integer limit, String sort,
+                                                                     String order, boolean includeTotal) {
+        return Mono.defer(() -> {
+            KeysetPageRequest<FinancialAnalysisModel> page = KeysetPageRequest.of(
+                    FinancialAnalysisReactiveRepository.SORT_FIELDS, sort, order, after, limit);
+            log.info("Fetching financial analysis page (sort: {}, order: {}, limit: {})", sort, order, page.getLimit());
+            return page.collectPage(financialAnalysisReactiveRepository.findPage(page), this::convertToDTO,
+                    includeTotal ? financialAnalysisReactiveRepository.count() : Mono.empty());
+        });
     }
 
-    public List<FinancialAnalysisDTO> getAnalysisByCategory(Integer categoryId) {
-        log.info("Fetching financial analysis by category: {}", categoryId);
-        return financialAnalysisRepository.findByCategoryId(categoryId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    /**
+     * Página das análises filtradas pelo metadata (índice GIN), com o mesmo keyset da listagem.
+     * @param contains objeto JSON que o metadata precisa conter (chaves aninhadas e valores de qualquer tipo)
+     * @param key chave top-level; com value o metadata precisa ter key = value (texto), sem value basta a chave existir
+     * @throws IllegalArgumentException (no Mono) sem filtro, para contains que não seja objeto JSON,
+     *                                  value sem key, key com value já presente em contains ou paginação inválida
+     */
+    public Mono<KeysetPageDTO<FinancialAnalysisDTO>> getAnalysisPageByMetadata(String contains, String key, String value,
+                                                                               String after, Integer limit,
+                                                                               String sort, String order) {
+        return Mono.defer(() -> {
+            KeysetPageRequest<FinancialAnalysisModel> page = KeysetPageRequest.of(
+                    FinancialAnalysisReactiveRepository.SORT_FIELDS, sort, order, after, limit);
+            ObjectNode containment = parseContains(contains);
+            boolean hasKey = key != null && !key.isBlank();
+            if (value != null && !hasKey) {
+                throw new IllegalArgumentException("value requires key");
+            }
+            if (value != null) {
+                // Fundir key = value num contains que já restringe a chave trocaria o critério do cliente
+                if (containment.has(key)) {
+                    throw new IllegalArgumentException("key is already constrained by contains: " + key);
+                }
+                containment.put(key, value);
+            }
+            String containsJson = containment.isEmpty() ? null : containment.toString();
+            String requiredKey = hasKey && value == null ? key : null;
+            if (containsJson == null && requiredKey == null) {
+                throw new IllegalArgumentException("A metadata filter is required: contains, key, or key and value");
+            }
+            log.info("Fetching financial analysis page by metadata (contains: {}, key: {}, limit: {})",
+                    containsJson, requiredKey, page.getLimit());
+            return page.collectPage(financialAnalysisReactiveRepository.findPageByMetadata(page, containsJson, requiredKey),
+                    this::convertToDTO, Mono.empty());
+        });
+    }
+
+    /**
+     * Página das análises do período [from, to] (datas UTC), com o mesmo keyset da listagem.
+     * O filtro por transaction_date restringe a leitura às partições mensais do período.
+     * @throws IllegalArgumentException (no Mono) se from for posterior a to ou para paginação inválida
+     */
+    public Mono<KeysetPageDTO<FinancialAnalysisDTO>> getAnalysisPageInRange(LocalDate from, LocalDate to,
+                                                                            String after, Integer limit,
+                                                                            String sort, String order) {
+        return Mono.defer(() -> {
+            if (from.isAfter(to)) {
+                throw new IllegalArgumentException("from must not be after to");
+            }
+            KeysetPageRequest<FinancialAnalysisModel> page = KeysetPageRequest.of(
+                    FinancialAnalysisReactiveRepository.SORT_FIELDS, sort, order, after, limit);
+            log.info("Fetching financial analysis page from {} to {} (sort: {}, order: {}, limit: {})",
+                    from, to, sort, order, page.getLimit());
+            return page.collectPage(financialAnalysisReactiveRepository.findPageInRange(page,
+                            from.atStartOfDay().atOffset(ZoneOffset.UTC),
+                            to.plusDays(1).atStartOfDay().atOffset(ZoneOffset.UTC)),
+                    this::convertToDTO, Mono.empty());
+        });
+    }
+
+    /**
+     * Emite as análises a partir do cursor via R2DBC, com backpressure, sem materializar a lista.
+     */
+    public Flux<FinancialAnalysisDTO> streamAllAnalysis(String after, String sort, String order) {
+        return Flux.defer(() -> {
+            KeysetPageRequest<FinancialAnalysisModel> page = KeysetPageRequest.of(
+                    FinancialAnalysisReactiveRepository.SORT_FIELDS, sort, order, after, null);
+            log.info("Streaming financial analysis records (sort: {}, order: {})", sort, order);
+            return financialAnalysisReactiveRepository.streamFrom(page).map(this::convertToDTO);
+        });
+    }
+
+    public Flux<FinancialAnalysisDTO> streamAnalysisByCategory(Integer categoryId) {
+        log.info("Streaming financial analysis by category: {}", categoryId);
+        return financialAnalysisReactiveRepository.findByCategoryId(categoryId).map(this::convertToDTO);
     }
 
-    public List<FinancialAnalysisDTO> getAnalysisByType(String analysisType) {
-        log.info("Fetching financial analysis by type: {}", analysisType);
+    public Flux<FinancialAnalysisDTO> streamAnalysisByType(String analysisType) {
+        log.info("Streaming financial analysis by type: {}", analysisType);
+        AnalysisType typeEnum;
         try {
-            AnalysisType typeEnum = AnalysisType.fromValue(analysisType);
-            return financialAnalysisRepository.findByAnalysisType(typeEnum).stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
+            typeEnum = AnalysisType.fromValue(analysisType);
         } catch (IllegalArgumentException e) {
             log.warn("Invalid analysis type '{}': {}", analysisType, e.getMessage());
-            return List.of();
+            return Flux.empty();
         }
+        return financialAnalysisReactiveRepository.findByAnalysisType(typeEnum).map(this::convertToDTO);
+    }
+
+    public Optional<FinancialAnalysisDTO> getAnalysisById(Long analysisId) {
+        log.info("Fetching financial analysis with id: {}", analysisId);
+        return financialAnalysisRepository.findById(analysisId)
+                .map(this::convertToDTO);
     }
 
+    /**
+     * @throws IllegalArgumentException se a categoria não existir ou a transação já estiver gravada
+     */
     public FinancialAnalysisDTO saveAnalysis(FinancialAnalysisDTO analysisDTO) {
         log.info("Saving new financial analysis: {}", analysisDTO);
+        validateCategory(analysisDTO.getCategoryId());
         FinancialAnalysisModel model = convertToModel(analysisDTO);
         model.setCreatedAt(OffsetDateTime.now());
-        FinancialAnalysisModel saved = financialAnalysisRepository.save(model);
+        if (financialAnalysisRepository.existsByDedupKey(TransactionDedupKey.of(model))) {
+            log.warn("Financial analysis already stored: {}", analysisDTO);
+            throw new IllegalArgumentException(DUPLICATE_TRANSACTION);
+        }
+        FinancialAnalysisModel saved;
+        try {
+            saved = financialAnalysisRepository.saveAndFlush(model);
+        } catch (DataIntegrityViolationException e) {
+            // Outra requisição gravou a mesma transação entre a verificação e o INSERT
+            log.warn("Financial analysis already stored: {}", analysisDTO);
+            throw new IllegalArgumentException(DUPLICATE_TRANSACTION);
+        }
         log.info("Financial analysis saved with id: {}", saved.getAnalysisId());
         return convertToDTO(saved);
     }
 
-    public List<FinancialAnalysisDTO> saveAnalysisBulk(List<FinancialAnalysisDTO> analysisDTOs) {
+    /**
+     * Inserção em lote numa única transação, com os INSERTs agrupados em lotes JDBC.
+     * A duplicidade é verificada numa passada pelas chaves (TransactionDedupKey): repetições no
+     * próprio payload saem por um HashSet e as já gravadas por uma consulta IN por bloco de chaves,
+     * não um SELECT por registro. Registros sem categoria são classificados pelas regras de categorização
+     * (como na importação), que também preenchem o analysisType ausente. Duplicados e registros que
+     * nenhuma regra classifica são ignorados e reportados pelo índice no payload.
+     * @throws IllegalArgumentException se alguma categoria informada não existir (nada é gravado)
+     */
+    @Transactional
+    public BulkSaveResult saveAnalysisBulk(List<FinancialAnalysisDTO> analysisDTOs) {
         log.info("Saving {} financial analysis records", analysisDTOs.size());
-        return analysisDTOs.stream()
-                .map(this::saveAnalysis)
+        analysisDTOs.stream()
+                .filter(dto -> dto.getCategoryId() != null)
+                .forEach(dto -> validateCategory(dto.getCategoryId()));
+        OffsetDateTime createdAt = OffsetDateTime.now();
+        List<FinancialAnalysisModel> models = new ArrayList<>(analysisDTOs.size());
+        List<String> keys = new ArrayList<>(analysisDTOs.size());
+        for (FinancialAnalysisDTO dto : analysisDTOs) {
+            FinancialAnalysisModel model = convertToModel(dto);
+            model.setCreatedAt(createdAt);
+            models.add(model);
+            // Sem chave: nenhuma regra classificou o registro
+            keys.add(categorize(model) ? TransactionDedupKey.of(model) : null);
+        }
+
+        Set<String> keySet = keys.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        Set<String> stored = new HashSet<>(BatchInsertWriter.lookupInChunks(
+                keySet, financialAnalysisRepository::findExistingDedupKeys));
+        Map<String, Integer> firstIndexByKey = new HashMap<>();
+        List<FinancialAnalysisModel> toInsert = new ArrayList<>(models.size());
+        List<String> skipped = new ArrayList<>();
+        int skippedCount = 0;
+        for (int i = 0; i < models.size(); i++) {
+            String key = keys.get(i);
+            Integer first = key == null ? null : firstIndexByKey.putIfAbsent(key, i);
+            String reason = key == null ? "no categorization rule matched"
+                    : stored.contains(key) ? "already stored"
+                    : first != null ? "repeats record " + first
+                    : null;
+            if (reason == null) {
+                toInsert.add(models.get(i));
+            } else if (skippedCount++ < MAX_REPORTED_SKIPPED) {
+                skipped.add("record " + i + ": " + reason);
+            }
+        }
+
+        List<FinancialAnalysisDTO> saved = batchInsertWriter.insertAll(toInsert).stream()
+                .map(this::convertToDTO)
                 .collect(Collectors.toList());
+        log.info("Saved {} financial analysis records, skipped {}", saved.size(), skippedCount);
+        return new BulkSaveResult(saved, skippedCount, skipped);
+    }
+
+    /**
+     * Completa categoria e analysisType ausentes pelas regras, como FinancialImportService.toModel:
+     * o tipo da regra só é usado quando a regra casa com a categoria do registro.
+     * @return false se o registro não tem categoria e nenhuma regra casou
+     */
+    private boolean categorize(FinancialAnalysisModel model) {
+        if (model.getCategoryId() != null && model.getAnalysisType() != null) {
+            return true;
+        }
+        Optional<TransactionCategorizer.Classification> classification = transactionCategorizer.classify(
+                model.getDescription(), merchantOf(model.getMetadata()), model.getAmount());
+        if (model.getCategoryId() == null) {
+            if (classification.isEmpty()) {
+                return false;
+            }
+            model.setCategoryId(classification.get().categoryId());
+        }
+        if (model.getAnalysisType() == null) {
+            classification.filter(match -> match.categoryId().equals(model.getCategoryId()))
+                    .map(TransactionCategorizer.Classification::analysisType)
+                    .ifPresent(model::setAnalysisType);
+        }
+        return true;
+    }
+
+    private static String merchantOf(JsonNode metadata) {
+        JsonNode merchant = metadata == null ? null : metadata.get("merchant");
+        return merchant != null && merchant.isTextual() ? merchant.asText() : null;
     }
 
     public FinancialAnalysisDTO updateAnalysis(Long analysisId, FinancialAnalysisDTO analysisDTO) {
@@ -85,9 +297,18 @@ public class FinancialAnalysisService {
             throw new RuntimeException("Financial analysis not found with id: " + analysisId);
         }
 
+        if (analysisDTO.getCategoryId() != null) {
+            validateCategory(analysisDTO.getCategoryId());
+        }
         FinancialAnalysisModel model = existing.get();
         updateModelFields(model, analysisDTO);
-        FinancialAnalysisModel updated = financialAnalysisRepository.save(model);
+        FinancialAnalysisModel updated;
+        try {
+            updated = financialAnalysisRepository.save(model);
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Financial analysis {} would duplicate a stored transaction", analysisId);
+            throw new IllegalArgumentException(DUPLICATE_TRANSACTION);
+        }
         log.info("Financial analysis updated with id: {}", updated.getAnalysisId());
         return convertToDTO(updated);
     }
@@ -102,16 +323,32 @@ public class FinancialAnalysisService {
         log.info("Financial analysis deleted with id: {}", analysisId);
     }
 
-    private FinancialAnalysisDTO convertToDTO(FinancialAnalysisModel model) {
-        JsonNode metadataNode = null;
-        if (model.getMetadata() != null) {
-            try {
-                metadataNode = objectMapper.readTree(model.getMetadata());
-            } catch (Exception e) {
-                log.warn("Failed to parse metadata JSON, using null: {}", e.getMessage());
-            }
+    /**
+     * Checagem em memória no registro, antes de a FK recusar o INSERT.
+     */
+    private void validateCategory(Integer categoryId) {
+        if (!expenseCategoryRegistry.exists(categoryId)) {
+            throw new IllegalArgumentException("Unknown categoryId: " + categoryId);
         }
+    }
+
+    private ObjectNode parseContains(String contains) {
+        if (contains == null || contains.isBlank()) {
+            return objectMapper.createObjectNode();
+        }
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(contains);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("contains is not valid JSON");
+        }
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("contains must be a JSON object");
+        }
+        return (ObjectNode) node;
+    }
 
+    private FinancialAnalysisDTO convertToDTO(FinancialAnalysisModel model) {
         return FinancialAnalysisDTO.builder()
                 .analysisId(model.getAnalysisId())
                 .sourceTransactionId(model.getSourceTransactionId())
@@ -119,23 +356,17 @@ public class FinancialAnalysisService {
                 .transactionDate(model.getTransactionDate())
                 .description(model.getDescription())
                 .categoryId(model.getCategoryId())
+                .categoryName(expenseCategoryRegistry.get(model.getCategoryId())
+                        .map(ExpenseCategoryDTO::getName)
+                        .orElse(null))
                 .analysisType(model.getAnalysisType() != null ? model.getAnalysisType().getValue() : null)
                 .analysisNotes(model.getAnalysisNotes())
-                .metadata(metadataNode)
+                .metadata(model.getMetadata())
                 .createdAt(model.getCreatedAt())
                 .build();
     }
 
     private FinancialAnalysisModel convertToModel(FinancialAnalysisDTO dto) {
-        String metadataString = null;
-        if (dto.getMetadata() != null) {
-            try {
-                metadataString = objectMapper.writeValueAsString(dto.getMetadata());
-            } catch (Exception e) {
-                log.warn("Failed to serialize metadata JSON, using null: {}", e.getMessage());
-            }
-        }
-
         AnalysisType analysisTypeEnum = null;
         if (dto.getAnalysisType() != null) {
             try {
@@ -154,7 +385,7 @@ public class FinancialAnalysisService {
                 .categoryId(dto.getCategoryId())
                 .analysisType(analysisTypeEnum)
                 .analysisNotes(dto.getAnalysisNotes())
-                .metadata(metadataString)
+                .metadata(dto.getMetadata())
                 .createdAt(dto.getCreatedAt())
                 .build();
     }
@@ -186,11 +417,7 @@ public class FinancialAnalysisService {
             model.setAnalysisNotes(dto.getAnalysisNotes());
         }
         if (dto.getMetadata() != null) {
-            try {
-                model.setMetadata(objectMapper.writeValueAsString(dto.getMetadata()));
-            } catch (Exception e) {
-                log.warn("Failed to serialize metadata JSON during update: {}", e.getMessage());
-            }
+            model.setMetadata(dto.getMetadata());
         }
     }
 }
@@ -0,0 +1,616 @@
+package com.clusterat.live.service;
+
+import com.clusterat.live.config.BackgroundJobExecutor;
+import com.clusterat.live.dto.DocumentStatusEnum;
+import com.clusterat.live.dto.ExpenseCategoryDTO;
+import com.clusterat.live.dto.FinancialImportJobDTO;
+import com.clusterat.live.model.AnalysisType;
+import com.clusterat.live.model.FinancialAnalysisModel;
+import com.clusterat.live.repository.FinancialAnalysisCopyRepository;
+import com.clusterat.live.repository.FinancialAnalysisCopyRepository.CopyResult;
+import com.clusterat.live.repository.FinancialAnalysisCopyRepository.SourceRow;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Importação de transações financeiras em alto volume (CSV ou NDJSON).
+ * O upload é gravado em arquivo temporário e a importação roda como job assíncrono no pool de jobs
+ * ({@link BackgroundJobExecutor}, fora das threads JDBC das requisições; acima do limite de jobs
+ * simultâneos a importação é recusada):
+ * o arquivo é lido em streaming, cada linha é validada e tem a categoria resolvida (pelas regras
+ * de categorização quando não informada), e as linhas válidas seguem direto para o COPY FROM STDIN.
+ * Linhas inválidas são ignoradas e reportadas.
+ * Transações já gravadas ou repetidas no arquivo (mesma TransactionDedupKey) são descartadas pelo
+ * próprio COPY, numa passada, e as primeiras são listadas no relatório do job.
+ * O progresso fica disponível por id do job enquanto o processo estiver no ar.
+ */
+@Slf4j
+@Service
+public class FinancialImportService {
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final FinancialAnalysisCopyRepository financialAnalysisCopyRepository;
+    private final ExpenseCategoryRegistry expenseCategoryRegistry;
+    private final TransactionCategorizer transactionCategorizer;
+    private final BackgroundJobExecutor backgroundJobExecutor;
+    private final ObjectMapper objectMapper;
+    private final BackgroundJobRegistry<ImportJob, FinancialImportJobDTO> jobs;
+
+    @Autowired
+    public FinancialImportService(FinancialAnalysisCopyRepository financialAnalysisCopyRepository,
+                                  ExpenseCategoryRegistry expenseCategoryRegistry,
+                                  TransactionCategorizer transactionCategorizer,
+                                  BackgroundJobExecutor backgroundJobExecutor,
+                                  ObjectMapper objectMapper) {
+        this.financialAnalysisCopyRepository = financialAnalysisCopyRepository;
+        this.expenseCategoryRegistry = expenseCategoryRegistry;
+        this.transactionCategorizer = transactionCategorizer;
+        this.backgroundJobExecutor = backgroundJobExecutor;
+        this.objectMapper = objectMapper;
+        this.jobs = new BackgroundJobRegistry<>("financial import", false, backgroundJobExecutor);
+    }
+
+    /**
+     * Grava o upload em disco e agenda a importação.
+     * @param format csv ou ndjson; quando ausente, deduzido da extensão do arquivo
+     * @throws IllegalArgumentException (no Mono) para formato não suportado
+     * @throws IllegalStateException (no Mono) se já houver o máximo de jobs em andamento
+     */
+    public Mono<FinancialImportJobDTO> startImport(FilePart filePart, String format) {
+        return Mono.defer(() -> {
+            ImportFormat importFormat = ImportFormat.resolve(format, filePart.filename());
+            jobs.checkCapacity();
+            return Mono.fromCallable(() -> Files.createTempFile("financial-import-", importFormat.extension))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .flatMap(spool -> filePart.transferTo(spool)
+                            .then(Mono.fromCallable(() -> submit(filePart.filename(), importFormat, spool)))
+                            .subscribeOn(Schedulers.boundedElastic())
+                            .onErrorResume(e -> Mono.fromRunnable(() -> deleteQuietly(spool))
+                                    .then(Mono.<FinancialImportJobDTO>error(e))));
+        });
+    }
+
+    public Optional<FinancialImportJobDTO> getImportJob(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    private FinancialImportJobDTO submit(String filename, ImportFormat format, Path spool) throws IOException {
+        ImportJob job = new ImportJob(filename, format, Files.size(spool));
+        FinancialImportJobDTO snapshot = jobs.submit(job, () -> backgroundJobExecutor.mono(() -> {
+                    runImport(job, spool);
+                    return job.id;
+                })
+                .doFinally(signal -> deleteQuietly(spool)));
+        log.info("Financial import {} queued: {} ({}, {} bytes)", job.id, filename, format.value, job.bytesTotal);
+        return snapshot;
+    }
+
+    private void runImport(ImportJob job, Path spool) throws IOException, SQLException {
+        job.status = DocumentStatusEnum.PROCESSING;
+        try (InputStream input = new CountingInputStream(Files.newInputStream(spool), job.bytesRead);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            Iterator<SourceRow> rows = new ValidatingIterator(
+                    job.format == ImportFormat.CSV ? new CsvRows(reader) : new NdjsonRows(reader, objectMapper),
+                    job);
+
+            CopyResult result = financialAnalysisCopyRepository.copyIn(rows, MAX_REPORTED_ERRORS);
+            long skipped = result.rowsCopied() - result.rowsInserted();
+            job.rowsImported.set(result.rowsInserted());
+            job.rowsSkipped.set(skipped);
+            result.skipped().forEach(row -> job.skipped.add("line " + row.line() + ": "
+                    + (row.repeatedInFile() ? "repeated in file" : "already imported")));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private FinancialAnalysisModel toModel(RawRow row) {
+        BigDecimal amount = parseAmount(row.required("amount"));
+        OffsetDateTime transactionDate = parseDate(row.required("transactiondate"));
+        String analysisType = row.get("analysistype");
+        boolean categoryMissing = isBlank(row.get("categoryid")) && isBlank(row.get("category"));
+        Optional<TransactionCategorizer.Classification> classification = categoryMissing || isBlank(analysisType)
+                ? transactionCategorizer.classify(row.get("description"), merchantOf(row), amount)
+                : Optional.empty();
+        Integer categoryId = categoryMissing
+                ? classification.map(TransactionCategorizer.Classification::categoryId)
+                        .orElseThrow(() -> new IllegalArgumentException(
+                                "categoryId or category is required (no categorization rule matched)"))
+                : resolveCategory(row.get("categoryid"), row.get("category"));
+        AnalysisType type = !isBlank(analysisType) ? AnalysisType.fromValue(analysisType.trim())
+                : classification.filter(match -> match.categoryId().equals(categoryId))
+                        .map(TransactionCategorizer.Classification::analysisType)
+                        .orElse(null);
+        JsonNode metadata = row.metadata(objectMapper);
+        return FinancialAnalysisModel.builder()
+                .sourceTransactionId(row.get("sourcetransactionid"))
+                .amount(amount)
+                .transactionDate(transactionDate)
+                .description(row.get("description"))
+                .categoryId(categoryId)
+                .analysisType(type)
+                .analysisNotes(row.get("analysisnotes"))
+                .metadata(metadata)
+                .build();
+    }
+
+    /**
+     * Resolve a categoria pelo id ou pelo nome (sem diferenciar maiúsculas) no registro em memória.
+     */
+    private Integer resolveCategory(String categoryId, String categoryName) {
+        if (categoryId != null && !categoryId.isBlank()) {
+            Integer id;
+            try {
+                id = Integer.valueOf(categoryId.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("categoryId is not a number: " + categoryId);
+            }
+            if (!expenseCategoryRegistry.exists(id)) {
+                throw new IllegalArgumentException("Unknown categoryId: " + id);
+            }
+            return id;
+        }
+        if (categoryName != null && !categoryName.isBlank()) {
+            return expenseCategoryRegistry.findByName(categoryName)
+                    .map(ExpenseCategoryDTO::getCategoryId)
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown category: " + categoryName));
+        }
+        throw new IllegalArgumentException("categoryId or category is required");
+    }
+
+    /**
+     * Estabelecimento para as regras de categorização: campo "merchant" da linha ou, na falta dele, metadata.merchant.
+     */
+    private String merchantOf(RawRow row) {
+        String merchant = row.get("merchant");
+        JsonNode metadata = merchant == null ? row.metadata(objectMapper) : null;
+        if (metadata == null) {
+            return merchant;
+        }
+        JsonNode value = metadata.get("merchant");
+        return value != null && value.isTextual() ? value.asText() : null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static BigDecimal parseAmount(String value) {
+        try {
+            return new BigDecimal(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("amount is not a number: " + value);
+        }
+    }
+
+    /**
+     * Aceita data/hora ISO com offset, data/hora local ou só a data (ambas assumidas em UTC).
+     */
+    private static OffsetDateTime parseDate(String value) {
+        String trimmed = value.trim();
+        try {
+            return OffsetDateTime.parse(trimmed);
+        } catch (DateTimeParseException ignored) {
+            // tenta os formatos sem offset
+        }
+        try {
+            return LocalDateTime.parse(trimmed).atOffset(ZoneOffset.UTC);
+        } catch (DateTimeParseException ignored) {
+            // tenta só a data
+        }
+        try {
+            return LocalDate.parse(trimmed).atStartOfDay().atOffset(ZoneOffset.UTC);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("transactionDate is not an ISO date: " + value);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete import spool file {}", path, e);
+        }
+    }
+
+    /**
+     * Normaliza nomes de campo (minúsculas, sem '_'), para aceitar tanto "transaction_date" quanto "transactionDate".
+     */
+    private static String normalize(String name) {
+        return name.replace("_", "").trim().toLowerCase(Locale.ROOT);
+    }
+
+    private enum ImportFormat {
+        CSV("csv", ".csv"),
+        NDJSON("ndjson", ".ndjson");
+
+        private final String value;
+        private final String extension;
+
+        ImportFormat(String value, String extension) {
+            this.value = value;
+            this.extension = extension;
+        }
+
+        static ImportFormat resolve(String format, String filename) {
+            String requested = format;
+            if (requested == null || requested.isBlank()) {
+                String name = filename == null ? "" : filename.toLowerCase(Locale.ROOT);
+                if (name.endsWith(".csv")) {
+                    requested = "csv";
+                } else if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+                    requested = "ndjson";
+                } else {
+                    throw new IllegalArgumentException("Cannot infer the import format from '" + filename
+                            + "'; pass format=csv or format=ndjson");
+                }
+            }
+            for (ImportFormat importFormat : values()) {
+                if (importFormat.value.equalsIgnoreCase(requested.trim())) {
+                    return importFormat;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported import format: " + requested + " (allowed: csv, ndjson)");
+        }
+    }
+
+    /**
+     * Estado da importação; o progresso é medido em bytes lidos do arquivo.
+     */
+    private static final class ImportJob extends BackgroundJob<FinancialImportJobDTO> {
+        private final String filename;
+        private final ImportFormat format;
+        private final long bytesTotal;
+        private final AtomicLong bytesRead = new AtomicLong();
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong rowsImported = new AtomicLong();
+        private final AtomicLong rowsRejected = new AtomicLong();
+        private final AtomicLong rowsSkipped = new AtomicLong();
+        private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        private final List<String> skipped = Collections.synchronizedList(new ArrayList<>());
+
+        private ImportJob(String filename, ImportFormat format, long bytesTotal) {
+            this.filename = filename;
+            this.format = format;
+            this.bytesTotal = bytesTotal;
+        }
+
+        private void reject(long line, String reason) {
+            rowsRejected.incrementAndGet();
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("line " + line + ": " + reason);
+            }
+        }
+
+        @Override
+        String completionMessage() {
+            return String.format("Imported %d rows, skipped %d duplicates, rejected %d",
+                    rowsImported.get(), rowsSkipped.get(), rowsRejected.get());
+        }
+
+        /**
+         * O COPY é uma transação só: numa falha nada foi gravado.
+         */
+        @Override
+        void fail(String message) {
+            this.rowsImported.set(0);
+            this.rowsSkipped.set(0);
+            this.skipped.clear();
+            super.fail(message);
+        }
+
+        @Override
+        int progress() {
+            return percent(bytesRead.get(), bytesTotal);
+        }
+
+        @Override
+        FinancialImportJobDTO snapshot() {
+            long read = bytesRead.get();
+            List<String> reportedErrors;
+            synchronized (errors) {
+                reportedErrors = errors.isEmpty() ? null : List.copyOf(errors);
+            }
+            List<String> reportedSkips;
+            synchronized (skipped) {
+                reportedSkips = skipped.isEmpty() ? null : List.copyOf(skipped);
+            }
+            return FinancialImportJobDTO.builder()
+                    .jobId(id)
+                    .status(status.getValue())
+                    .format(format.value)
+                    .filename(filename)
+                    .message(message)
+                    .progress(progress())
+                    .bytesTotal(bytesTotal)
+                    .bytesRead(read)
+                    .rowsRead(rowsRead.get())
+                    .rowsImported(rowsImported.get())
+                    .rowsRejected(rowsRejected.get())
+                    .rowsSkipped(rowsSkipped.get())
+                    .errors(reportedErrors)
+                    .skipped(reportedSkips)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .build();
+        }
+    }
+
+    /**
+     * Linha de entrada já separada em campos de nome normalizado.
+     */
+    private static final class RawRow {
+        private final long line;
+        private final Map<String, String> fields;
+        private final String metadataJson;
+        private JsonNode metadataNode;
+
+        private RawRow(long line, Map<String, String> fields, String metadataJson, JsonNode metadataNode) {
+            this.line = line;
+            this.fields = fields;
+            this.metadataJson = metadataJson;
+            this.metadataNode = metadataNode;
+        }
+
+        private String get(String name) {
+            return fields.get(name);
+        }
+
+        private String required(String name) {
+            String value = fields.get(name);
+            if (value == null || value.isBlank()) {
+                throw new IllegalArgumentException(name + " is required");
+            }
+            return value;
+        }
+
+        /**
+         * Metadata como árvore JSON; o texto vindo do CSV é convertido uma vez, na primeira chamada.
+         * @throws IllegalArgumentException se o texto não for JSON válido
+         */
+        private JsonNode metadata(ObjectMapper objectMapper) {
+            if (metadataNode == null && metadataJson != null && !metadataJson.isBlank()) {
+                try {
+                    metadataNode = objectMapper.readTree(metadataJson);
+                } catch (IOException e) {
+                    throw new IllegalArgumentException("metadata is not valid JSON");
+                }
+            }
+            return metadataNode;
+        }
+    }
+
+    /**
+     * CSV com cabeçalho; a coluna metadata, se presente, traz um JSON em texto.
+     */
+    private static final class CsvRows implements Iterator<RawRow> {
+        private final CsvRecordReader reader;
+        private final List<String> header;
+        private RawRow next;
+
+        private CsvRows(BufferedReader input) throws IOException {
+            this.reader = new CsvRecordReader(input, ',');
+            List<String> names = reader.next();
+            if (names == null) {
+                throw new IllegalArgumentException("CSV file is empty");
+            }
+            this.header = names.stream()
+                    .map(name -> name == null ? "" : normalize(name.replace("\uFEFF", "")))
+                    .collect(Collectors.toList());
+            // category_id/category são opcionais: sem eles a linha é classificada pelas regras
+            if (!header.contains("amount") || !header.contains("transactiondate")) {
+                throw new IllegalArgumentException("CSV header must contain amount and transaction_date");
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                next = read();
+            }
+            return next != null;
+        }
+
+        @Override
+        public RawRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            RawRow row = next;
+            next = null;
+            return row;
+        }
+
+        private RawRow read() {
+            try {
+                List<String> values = reader.next();
+                if (values == null) {
+                    return null;
+                }
+                Map<String, String> fields = new HashMap<>();
+                for (int i = 0; i < header.size() && i < values.size(); i++) {
+                    fields.put(header.get(i), values.get(i));
+                }
+                return new RawRow(reader.getRecordLine(), fields, fields.get("metadata"), null);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Um objeto JSON por linha, com os mesmos campos do FinancialAnalysisDTO
+     * (mais "category" para resolver a categoria pelo nome).
+     */
+    private static final class NdjsonRows implements Iterator<RawRow> {
+        private final BufferedReader reader;
+        private final ObjectMapper objectMapper;
+        private long line;
+        private RawRow next;
+
+        private NdjsonRows(BufferedReader reader, ObjectMapper objectMapper) {
+            this.reader = reader;
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                next = read();
+            }
+            return next != null;
+        }
+
+        @Override
+        public RawRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            RawRow row = next;
+            next = null;
+            return row;
+        }
+
+        private RawRow read() {
+            try {
+                String text;
+                do {
+                    text = reader.readLine();
+                    line++;
+                } while (text != null && text.isBlank());
+                if (text == null) {
+                    return null;
+                }
+                Map<String, String> fields = new HashMap<>();
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(text);
+                } catch (IOException e) {
+                    return new RawRow(line, null, null, null);
+                }
+                if (node == null || !node.isObject()) {
+                    return new RawRow(line, null, null, null);
+                }
+                JsonNode metadata = null;
+                for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+                    Map.Entry<String, JsonNode> field = it.next();
+                    String name = normalize(field.getKey());
+                    if (name.equals("metadata")) {
+                        metadata = field.getValue().isNull() ? null : field.getValue();
+                    } else if (!field.getValue().isNull()) {
+                        fields.put(name, field.getValue().asText());
+                    }
+                }
+                return new RawRow(line, fields, null, metadata);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Etapa de validação do pipeline: converte cada linha e descarta (reportando) as inválidas.
+     */
+    private final class ValidatingIterator implements Iterator<SourceRow> {
+        private final Iterator<RawRow> source;
+        private final ImportJob job;
+        private SourceRow next;
+
+        private ValidatingIterator(Iterator<RawRow> source, ImportJob job) {
+            this.source = source;
+            this.job = job;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && source.hasNext()) {
+                RawRow row = source.next();
+                job.rowsRead.incrementAndGet();
+                if (row.fields == null) {
+                    job.reject(row.line, "not a JSON object");
+                    continue;
+                }
+                try {
+                    next = new SourceRow(row.line, toModel(row));
+                } catch (IllegalArgumentException e) {
+                    job.reject(row.line, e.getMessage());
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public SourceRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            SourceRow row = next;
+            next = null;
+            return row;
+        }
+    }
+
+    /**
+     * Conta os bytes lidos do arquivo, base do percentual de progresso.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private final AtomicLong counter;
+
+        private CountingInputStream(InputStream in, AtomicLong counter) {
+            super(in);
+            this.counter = counter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                counter.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                counter.addAndGet(n);
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.clusterat.live.service;
+
+import com.clusterat.live.dto.FinancialPartitionDTO;
+import com.clusterat.live.dto.PartitionArchiveResultDTO;
+import com.clusterat.live.repository.FinancialPartitionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Partições mensais de financial_analysis: na subida e periodicamente garante as partições do mês
+ * corrente e dos próximos meses e esvazia a partição padrão; sob demanda arquiva meses antigos.
+ */
+@Slf4j
+@Service
+public class FinancialPartitionService {
+
+    private final FinancialPartitionRepository financialPartitionRepository;
+
+    @Value("${financial.partitions.enabled:true}")
+    private boolean maintenanceEnabled;
+
+    @Value("${financial.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Autowired
+    public FinancialPartitionService(FinancialPartitionRepository financialPartitionRepository) {
+        this.financialPartitionRepository = financialPartitionRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        scheduledMaintenance();
+    }
+
+    @Scheduled(initialDelayString = "${financial.partitions.interval-ms:21600000}",
+            fixedDelayString = "${financial.partitions.interval-ms:21600000}") // 6 hours
+    public void scheduledMaintenance() {
+        if (!maintenanceEnabled) {
+            log.debug("Financial partition maintenance is disabled");
+            return;
+        }
+
+        try {
+            maintainPartitions();
+        } catch (Exception e) {
+            log.error("Error maintaining financial_analysis partitions: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Cria as partições que faltam até monthsAhead meses à frente e as dos meses que caíram na partição padrão.
+     * @return quantidade de partições criadas
+     */
+    public int maintainPartitions() {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        int created = financialPartitionRepository.ensurePartitions(current, current.plusMonths(monthsAhead));
+        created += financialPartitionRepository.splitDefaultPartition();
+        if (created > 0) {
+            log.info("Created {} financial_analysis partitions", created);
+        }
+        return created;
+    }
+
+    public List<FinancialPartitionDTO> getPartitions() {
+        return financialPartitionRepository.findPartitions();
+    }
+
+    /**
+     * Desanexa a partição de um mês já encerrado para live.financial_analysis_archive_YYYY_MM.
+     * A tabela de arquivo mantém linhas e índices e pode ser exportada ou removida depois.
+     * @throws IllegalArgumentException para o mês corrente ou futuro, ou se o arquivo do mês já existir
+     * @throws RuntimeException se o mês não tiver partição anexada
+     */
+    public PartitionArchiveResultDTO archivePartition(YearMonth month) {
+        if (!month.isBefore(YearMonth.now(ZoneOffset.UTC))) {
+            throw new IllegalArgumentException("Only months before the current month can be archived");
+        }
+        if (!financialPartitionRepository.isAttached(month)) {
+            throw new RuntimeException("Partition not found for month: " + month);
+        }
+        String archiveTable = FinancialPartitionRepository.archiveName(month);
+        if (financialPartitionRepository.tableExists(archiveTable)) {
+            throw new IllegalArgumentException("Archive table already exists: " + archiveTable);
+        }
+
+        long archivedRows = financialPartitionRepository.detachPartition(month, archiveTable);
+        return PartitionArchiveResultDTO.builder()
+                .month(month)
+                .archiveTable(archiveTable)
+                .archivedRows(archivedRows)
+                .build();
+    }
+}
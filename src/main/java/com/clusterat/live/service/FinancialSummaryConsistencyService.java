@@ -0,0 +1,70 @@
+package com.clusterat.live.service;
+
+import com.clusterat.live.dto.SummaryConsistencyDTO;
+import com.clusterat.live.repository.FinancialMonthlySummaryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Verificação periódica do resumo mensal mantido pelos triggers: compara com um recálculo
+ * completo e, se houver divergência e o reparo estiver habilitado, reconstrói o resumo.
+ */
+@Slf4j
+@Service
+public class FinancialSummaryConsistencyService {
+
+    private final FinancialMonthlySummaryRepository financialMonthlySummaryRepository;
+
+    @Value("${financial.summary.consistency.enabled:true}")
+    private boolean checkEnabled;
+
+    @Value("${financial.summary.consistency.repair:true}")
+    private boolean repairEnabled;
+
+    @Autowired
+    public FinancialSummaryConsistencyService(FinancialMonthlySummaryRepository financialMonthlySummaryRepository) {
+        this.financialMonthlySummaryRepository = financialMonthlySummaryRepository;
+    }
+
+    @Scheduled(initialDelayString = "${financial.summary.consistency.initial-delay-ms:300000}",
+            fixedDelayString = "${financial.summary.consistency.interval-ms:21600000}") // 6 hours
+    public void scheduledCheck() {
+        if (!checkEnabled) {
+            log.debug("Financial summary consistency check is disabled");
+            return;
+        }
+
+        try {
+            checkConsistency(repairEnabled);
+        } catch (Exception e) {
+            log.error("Error checking financial summary consistency: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Compara o resumo com o recálculo e, se pedido, reconstrói quando houver divergência.
+     */
+    public SummaryConsistencyDTO checkConsistency(boolean repair) {
+        long drift = financialMonthlySummaryRepository.countDrift();
+        Integer rows = null;
+        if (drift > 0) {
+            log.warn("Financial monthly summary differs from financial_analysis on {} keys", drift);
+            if (repair) {
+                rows = financialMonthlySummaryRepository.rebuild();
+            }
+        } else {
+            log.info("Financial monthly summary is consistent");
+        }
+        return SummaryConsistencyDTO.builder()
+                .driftedKeys(drift)
+                .repaired(rows != null)
+                .summaryRows(rows)
+                .checkedAt(OffsetDateTime.now())
+                .build();
+    }
+}
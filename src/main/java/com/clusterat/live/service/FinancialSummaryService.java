@@ -0,0 +1,211 @@
+package com.clusterat.live.service;
+
+import com.clusterat.live.dto.AnalysisTypeSummaryDTO;
+import com.clusterat.live.dto.CategorySummaryDTO;
+import com.clusterat.live.dto.ExpenseCategoryDTO;
+import com.clusterat.live.dto.IncomeExpenseSummaryDTO;
+import com.clusterat.live.dto.MonthlySummaryDTO;
+import com.clusterat.live.repository.reactive.FinancialSummaryReactiveRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Resumos de gastos calculados no banco: totais por categoria (com acumulado da hierarquia),
+ * por mês, por tipo de análise e receita x despesa. O período é [from, to], em datas UTC.
+ */
+@Slf4j
+@Service
+public class FinancialSummaryService {
+    public static final int DEFAULT_ROLLING_WINDOW = 3;
+    public static final int MAX_ROLLING_WINDOW = 24;
+
+    private final FinancialSummaryReactiveRepository financialSummaryReactiveRepository;
+    private final ExpenseCategoryRegistry expenseCategoryRegistry;
+
+    @Autowired
+    public FinancialSummaryService(FinancialSummaryReactiveRepository financialSummaryReactiveRepository,
+                                   ExpenseCategoryRegistry expenseCategoryRegistry) {
+        this.financialSummaryReactiveRepository = financialSummaryReactiveRepository;
+        this.expenseCategoryRegistry = expenseCategoryRegistry;
+    }
+
+    /**
+     * @throws IllegalArgumentException (no Mono) se from for posterior a to
+     */
+    public Mono<List<CategorySummaryDTO>> getCategorySummary(LocalDate from, LocalDate to) {
+        return Mono.defer(() -> {
+            validatePeriod(from, to);
+            log.info("Summarizing financial analysis by category ({} to {})", from, to);
+            return financialSummaryReactiveRepository.summarizeDirectByCategory(start(from), end(to))
+                    .collectList()
+                    .map(this::rollUpCategories);
+        });
+    }
+
+    /**
+     * Totais mensais com os meses sem lançamentos preenchidos com zero, e médias móveis
+     * de despesa e saldo sobre os últimos {@code window} meses.
+     * @throws IllegalArgumentException (no Mono) para período ou janela inválidos
+     */
+    public Mono<List<MonthlySummaryDTO>> getMonthlySummary(LocalDate from, LocalDate to, Integer window) {
+        return Mono.defer(() -> {
+            validatePeriod(from, to);
+            int size = window != null ? window : DEFAULT_ROLLING_WINDOW;
+            if (size < 1 || size > MAX_ROLLING_WINDOW) {
+                throw new IllegalArgumentException("window must be between 1 and " + MAX_ROLLING_WINDOW);
+            }
+            log.info("Summarizing financial analysis by month ({} to {}, window {})", from, to, size);
+            return financialSummaryReactiveRepository.summarizeByMonth(start(from), end(to))
+                    .collectList()
+                    .map(months -> withRollingAverages(months,
+                            from != null ? YearMonth.from(from) : null,
+                            to != null ? YearMonth.from(to) : null,
+                            size));
+        });
+    }
+
+    public Mono<List<AnalysisTypeSummaryDTO>> getAnalysisTypeSummary(LocalDate from, LocalDate to) {
+        return Mono.defer(() -> {
+            validatePeriod(from, to);
+            log.info("Summarizing financial analysis by analysis type ({} to {})", from, to);
+            return financialSummaryReactiveRepository.summarizeByAnalysisType(start(from), end(to)).collectList();
+        });
+    }
+
+    public Mono<IncomeExpenseSummaryDTO> getIncomeExpenseSummary(LocalDate from, LocalDate to) {
+        return getMonthlySummary(from, to, 1).map(FinancialSummaryService::totals);
+    }
+
+    /**
+     * Soma os totais diretos de cada categoria em todos os seus ancestrais (arrays pré-calculados
+     * no registro) e completa nome, pai e tipo. Ordena pelo total acumulado, do maior para o menor.
+     */
+    List<CategorySummaryDTO> rollUpCategories(List<CategorySummaryDTO> direct) {
+        Map<Integer, CategorySummaryDTO> byId = new HashMap<>();
+        for (CategorySummaryDTO row : direct) {
+            CategorySummaryDTO own = summaryNode(byId, row.getCategoryId());
+            own.setDirectTotal(row.getDirectTotal());
+            own.setDirectCount(row.getDirectCount());
+            accumulate(own, row);
+            for (int ancestorId : expenseCategoryRegistry.getAncestors(row.getCategoryId())) {
+                accumulate(summaryNode(byId, ancestorId), row);
+            }
+        }
+        return byId.values().stream()
+                .sorted(Comparator.comparing(CategorySummaryDTO::getTotal).reversed()
+                        .thenComparing(CategorySummaryDTO::getCategoryId))
+                .toList();
+    }
+
+    private CategorySummaryDTO summaryNode(Map<Integer, CategorySummaryDTO> byId, Integer categoryId) {
+        return byId.computeIfAbsent(categoryId, id -> {
+            Optional<ExpenseCategoryDTO> category = expenseCategoryRegistry.get(id);
+            return CategorySummaryDTO.builder()
+                    .categoryId(id)
+                    .name(category.map(ExpenseCategoryDTO::getName).orElse(null))
+                    .parentCategoryId(category.map(ExpenseCategoryDTO::getParentCategoryId).orElse(null))
+                    .isIncome(category.map(ExpenseCategoryDTO::getIsIncome).orElse(null))
+                    .total(BigDecimal.ZERO)
+                    .count(0L)
+                    .directTotal(BigDecimal.ZERO)
+                    .directCount(0L)
+                    .build();
+        });
+    }
+
+    private static void accumulate(CategorySummaryDTO target, CategorySummaryDTO row) {
+        target.setTotal(target.getTotal().add(row.getDirectTotal()));
+        target.setCount(target.getCount() + row.getDirectCount());
+    }
+
+    /**
+     * Completa a série mensal (de first, ou do primeiro mês com dados, até last, ou o último mês com dados)
+     * e calcula as médias móveis. Nos primeiros meses a média usa só os meses disponíveis.
+     */
+    static List<MonthlySummaryDTO> withRollingAverages(List<MonthlySummaryDTO> months, YearMonth first,
+                                                       YearMonth last, int window) {
+        if (months.isEmpty() && (first == null || last == null)) {
+            return List.of();
+        }
+        Map<YearMonth, MonthlySummaryDTO> byMonth = months.stream()
+                .collect(Collectors.toMap(month -> YearMonth.parse(month.getMonth()), Function.identity()));
+        YearMonth start = first != null ? first : YearMonth.parse(months.get(0).getMonth());
+        YearMonth stop = last != null ? last : YearMonth.parse(months.get(months.size() - 1).getMonth());
+
+        List<MonthlySummaryDTO> series = new ArrayList<>();
+        BigDecimal expenseWindow = BigDecimal.ZERO;
+        BigDecimal netWindow = BigDecimal.ZERO;
+        for (YearMonth month = start; !month.isAfter(stop); month = month.plusMonths(1)) {
+            MonthlySummaryDTO current = byMonth.getOrDefault(month, MonthlySummaryDTO.builder()
+                    .month(month.toString())
+                    .income(BigDecimal.ZERO)
+                    .expense(BigDecimal.ZERO)
+                    .net(BigDecimal.ZERO)
+                    .count(0L)
+                    .build());
+            expenseWindow = expenseWindow.add(current.getExpense());
+            netWindow = netWindow.add(current.getNet());
+            if (series.size() >= window) {
+                MonthlySummaryDTO leaving = series.get(series.size() - window);
+                expenseWindow = expenseWindow.subtract(leaving.getExpense());
+                netWindow = netWindow.subtract(leaving.getNet());
+            }
+            BigDecimal divisor = BigDecimal.valueOf(Math.min(series.size() + 1, window));
+            current.setRollingAverageExpense(expenseWindow.divide(divisor, 2, RoundingMode.HALF_UP));
+            current.setRollingAverageNet(netWindow.divide(divisor, 2, RoundingMode.HALF_UP));
+            series.add(current);
+        }
+        return series;
+    }
+
+    private static IncomeExpenseSummaryDTO totals(List<MonthlySummaryDTO> months) {
+        BigDecimal income = BigDecimal.ZERO;
+        BigDecimal expense = BigDecimal.ZERO;
+        long count = 0;
+        for (MonthlySummaryDTO month : months) {
+            income = income.add(month.getIncome());
+            expense = expense.add(month.getExpense());
+            count += month.getCount();
+        }
+        return IncomeExpenseSummaryDTO.builder()
+                .income(income)
+                .expense(expense)
+                .net(income.subtract(expense))
+                .count(count)
+                .months((long) months.size())
+                .averageMonthlyExpense(months.isEmpty() ? BigDecimal.ZERO
+                        : expense.divide(BigDecimal.valueOf(months.size()), 2, RoundingMode.HALF_UP))
+                .build();
+    }
+
+    private static void validatePeriod(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+    }
+
+    private static OffsetDateTime start(LocalDate from) {
+        return from != null ? from.atStartOfDay().atOffset(ZoneOffset.UTC) : null;
+    }
+
+    private static OffsetDateTime end(LocalDate to) {
+        return to != null ? to.plusDays(1).atStartOfDay().atOffset(ZoneOffset.UTC) : null;
+    }
+}
@@ -0,0 +1,383 @@
+package com.clusterat.live.service;
+
+import com.clusterat.live.config.BackgroundJobExecutor;
+import com.clusterat.live.dto.DuplicateBackfillJobDTO;
+import com.clusterat.live.model.JobPostingModel;
+import com.clusterat.live.repository.JobPostingDuplicateRepository;
+import com.clusterat.live.repository.JobPostingDuplicateRepository.BucketCandidate;
+import com.clusterat.live.repository.JobPostingDuplicateRepository.PostingSignature;
+import com.clusterat.live.repository.JobPostingDuplicateRepository.PostingText;
+import com.clusterat.live.repository.JobPostingDuplicateRepository.SignedPosting;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Detecção de vagas quase-duplicadas (a mesma vaga republicada ou coletada de fontes diferentes, com
+ * pequenas variações de texto). Cada vaga recebe uma assinatura MinHash ({@link MinHasher}) cujas faixas
+ * vão para o índice LSH em job_posting_lsh_bands; as vagas que caem num mesmo bucket são candidatas e
+ * viram duplicatas quando a similaridade estimada passa de job-postings.dedup.threshold, a empresa é
+ * compatível e os títulos têm ao menos MIN_TITLE_SIMILARITY de palavras em comum.
+ * Duplicatas ficam no mesmo grupo (duplicate_cluster_id = menor id do grupo). Na ingestão cada vaga nova
+ * ou alterada entra no grupo das duplicatas encontradas (juntando grupos quando preciso), na mesma
+ * transação da gravação; sem duplicatas, o grupo atual da vaga é mantido. O backfill recalcula as
+ * assinaturas e todos os grupos: assina e depois compara as vagas por faixas de id em paralelo no pool
+ * de jobs, e une os pares encontrados (union-find) antes de gravar os grupos de uma vez. Um job por vez.
+ * Vagas gravadas pela ingestão durante o backfill são reagrupadas na mesma transação que grava os grupos,
+ * sob a trava exclusiva que faz a ingestão esperar ({@link #lockClusters()}).
+ */
+@Slf4j
+@Service
+public class JobPostingDeduplicationService {
+    static final double MIN_TITLE_SIMILARITY = 0.5;
+
+    private final JobPostingDuplicateRepository jobPostingDuplicateRepository;
+    private final BackgroundJobExecutor backgroundJobExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final double threshold;
+    private final int parallelism;
+    private final BackgroundJobRegistry<BackfillJob, DuplicateBackfillJobDTO> jobs;
+
+    @Autowired
+    public JobPostingDeduplicationService(JobPostingDuplicateRepository jobPostingDuplicateRepository,
+                                          BackgroundJobExecutor backgroundJobExecutor,
+                                          PlatformTransactionManager transactionManager,
+                                          @Value("${job-postings.dedup.enabled:true}") boolean enabled,
+                                          @Value("${job-postings.dedup.threshold:0.7}") double threshold,
+                                          @Value("${job-postings.dedup.backfill-parallelism:4}") int parallelism) {
+        if (!(threshold > 0 && threshold <= 1)) {
+            throw new IllegalArgumentException("job-postings.dedup.threshold must be in (0, 1]: " + threshold);
+        }
+        this.jobPostingDuplicateRepository = jobPostingDuplicateRepository;
+        this.backgroundJobExecutor = backgroundJobExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.parallelism = Math.max(1, parallelism);
+        this.jobs = new BackgroundJobRegistry<>("duplicate backfill", true, backgroundJobExecutor);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Trava compartilhada sobre os grupos até o fim da transação atual: faz a ingestão esperar enquanto
+     * o backfill grava os grupos. Deve ser a primeira escrita das transações que chamam
+     * {@link #deduplicate} ou {@link #removeFromCluster}.
+     */
+    public void lockClusters() {
+        if (enabled) {
+            jobPostingDuplicateRepository.lockClustersShared();
+        }
+    }
+
+    /**
+     * Assina as vagas gravadas e as põe nos grupos das duplicatas encontradas. Deve rodar na transação
+     * da gravação (as vagas já com id), depois de {@link #lockClusters()}; vagas do mesmo lote também se
+     * encontram. O duplicate_cluster_id das vagas informadas é atualizado no próprio modelo.
+     */
+    public void deduplicate(Collection<JobPostingModel> postings) {
+        if (!enabled || postings.isEmpty()) {
+            return;
+        }
+        List<PostingText> texts = postings.stream()
+                .map(posting -> new PostingText(posting.getId(), posting.getJobTitle(), posting.getCompanyName(),
+                        posting.getJobLocation(), posting.getJobSummaryText(), posting.getDuplicateClusterId()))
+                .toList();
+        Map<Long, Long> mergedInto = group(texts, null);
+        if (!mergedInto.isEmpty()) {
+            for (JobPostingModel posting : postings) {
+                Long current = posting.getDuplicateClusterId();
+                if (current != null || mergedInto.containsKey(posting.getId())) {
+                    posting.setDuplicateClusterId(resolve(mergedInto, current != null ? current : posting.getId()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Tira a vaga do seu grupo antes de removê-la (o grupo passa para o menor id restante), mesmo com a
+     * deduplicação desabilitada, para não deixar grupos apontando para uma vaga removida.
+     */
+    public void removeFromCluster(long id) {
+        jobPostingDuplicateRepository.reassignCluster(id);
+    }
+
+    /**
+     * Agenda o recálculo das assinaturas e dos grupos de todas as vagas.
+     * @throws IllegalArgumentException se a deduplicação estiver desabilitada ou já houver um job em andamento
+     * @throws IllegalStateException se já houver o máximo de jobs (de qualquer tipo) em andamento
+     */
+    public DuplicateBackfillJobDTO startBackfill() {
+        if (!enabled) {
+            throw new IllegalArgumentException("Job posting deduplication is disabled");
+        }
+        BackfillJob job = new BackfillJob();
+        log.info("Job posting duplicate backfill {} queued (threshold: {})", job.id, threshold);
+        return jobs.submit(job, () -> backgroundJobExecutor
+                .mono(() -> {
+                    job.signedAt = jobPostingDuplicateRepository.awaitIngestClock();
+                    return Optional.ofNullable(jobPostingDuplicateRepository.findIdRange());
+                })
+                .flatMap(range -> range.map(ids -> backfill(job, ids[0], ids[1])).orElse(Mono.empty())));
+    }
+
+    public Optional<DuplicateBackfillJobDTO> getBackfillJob(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    private Mono<Integer> backfill(BackfillJob job, long minId, long maxId) {
+        job.start(BackgroundJobExecutor.batchCount(minId, maxId) * 2);
+        Queue<long[]> pairs = new ConcurrentLinkedQueue<>();
+        return backgroundJobExecutor.forEachRange(minId, maxId, parallelism,
+                        (fromId, toId) -> signRange(job, fromId, toId))
+                // As candidatas só são buscadas depois que todas as vagas estão assinadas
+                .thenMany(backgroundJobExecutor.forEachRange(minId, maxId, parallelism,
+                        (fromId, toId) -> matchRange(job, fromId, toId, pairs)))
+                .then(backgroundJobExecutor.mono(() -> storeClusters(job, pairs)));
+    }
+
+    private int signRange(BackfillJob job, long fromId, long toId) {
+        List<PostingText> rows = jobPostingDuplicateRepository.findTextRange(fromId, toId);
+        List<PostingSignature> signatures = new ArrayList<>(rows.size());
+        for (PostingText row : rows) {
+            int[] signature = MinHasher.signature(row.title(), row.company(), row.location(), row.summary());
+            if (signature != null) {
+                signatures.add(new PostingSignature(row.id(), MinHasher.toBytes(signature), MinHasher.bandBuckets(signature)));
+            }
+        }
+        jobPostingDuplicateRepository.saveSignatures(signatures, job.signedAt);
+        job.postingsScanned.addAndGet(rows.size());
+        job.signaturesStored.addAndGet(signatures.size());
+        job.batchesDone.incrementAndGet();
+        return signatures.size();
+    }
+
+    private int matchRange(BackfillJob job, long fromId, long toId, Queue<long[]> pairs) {
+        List<SignedPosting> signed = jobPostingDuplicateRepository.findSignatureRange(fromId, toId);
+        List<PostingSignature> signatures = signed.stream()
+                .map(posting -> new PostingSignature(posting.id(), posting.signature(),
+                        MinHasher.bandBuckets(MinHasher.fromBytes(posting.signature()))))
+                .toList();
+        int found = 0;
+        for (Map.Entry<Long, List<SignedPosting>> entry : findDuplicates(signatures, signed).entrySet()) {
+            for (SignedPosting match : entry.getValue()) {
+                pairs.add(new long[]{entry.getKey(), match.id()});
+                found++;
+            }
+        }
+        job.duplicatePairs.addAndGet(found);
+        job.batchesDone.incrementAndGet();
+        return found;
+    }
+
+    /**
+     * Une os pares (o menor id de cada componente é o grupo) e grava os grupos. Com a ingestão parada
+     * pela trava, reagrupa as vagas que ela assinou durante o job (computed_at depois do início), cujos
+     * grupos a substituição acabou de apagar ou que o backfill não chegou a comparar.
+     */
+    private int storeClusters(BackfillJob job, Queue<long[]> pairs) {
+        Map<Long, Long> parent = new HashMap<>();
+        Set<Long> members = new HashSet<>();
+        for (long[] pair : pairs) {
+            members.add(pair[0]);
+            members.add(pair[1]);
+            long first = find(parent, pair[0]);
+            long second = find(parent, pair[1]);
+            if (first != second) {
+                parent.put(Math.max(first, second), Math.min(first, second));
+            }
+        }
+        Map<Long, Long> clusterByPosting = new HashMap<>(members.size() * 2);
+        for (Long id : members) {
+            clusterByPosting.put(id, find(parent, id));
+        }
+        int stored = transactionTemplate.execute(status -> {
+            jobPostingDuplicateRepository.lockClustersExclusive();
+            int replaced = jobPostingDuplicateRepository.replaceClusters(clusterByPosting);
+            List<PostingText> signedDuringJob = jobPostingDuplicateRepository.findTextSignedAfter(job.signedAt);
+            if (!signedDuringJob.isEmpty()) {
+                log.info("Regrouping {} job postings ingested during duplicate backfill {}",
+                        signedDuringJob.size(), job.id);
+                group(signedDuringJob, null);
+            }
+            return replaced;
+        });
+        job.clusters = clusterByPosting.values().stream().distinct().count();
+        job.postingsClustered = stored;
+        return stored;
+    }
+
+    /**
+     * Assina as vagas e as põe nos grupos das duplicatas encontradas (juntando grupos quando preciso).
+     * @param signedAt computed_at das assinaturas; null para o relógio do banco
+     * @return grupo de destino de cada vaga ou grupo que mudou (a seguir com {@link #resolve})
+     */
+    private Map<Long, Long> group(List<PostingText> postings, OffsetDateTime signedAt) {
+        List<PostingSignature> signatures = new ArrayList<>();
+        List<SignedPosting> signed = new ArrayList<>();
+        for (PostingText posting : postings) {
+            int[] signature = MinHasher.signature(posting.title(), posting.company(), posting.location(), posting.summary());
+            if (signature == null) {
+                continue;
+            }
+            byte[] bytes = MinHasher.toBytes(signature);
+            signatures.add(new PostingSignature(posting.id(), bytes, MinHasher.bandBuckets(signature)));
+            signed.add(new SignedPosting(posting.id(), posting.title(), posting.company(), posting.clusterId(), bytes));
+        }
+        jobPostingDuplicateRepository.saveSignatures(signatures, signedAt);
+        Map<Long, List<SignedPosting>> duplicates = findDuplicates(signatures, signed);
+
+        // Grupos já unidos nesta chamada: o grupo lido do banco pode ter sido absorvido por outro
+        Map<Long, Long> mergedInto = new HashMap<>();
+        for (SignedPosting posting : signed) {
+            List<SignedPosting> matches = duplicates.get(posting.id());
+            if (matches == null) {
+                continue;
+            }
+            List<Long> postingIds = new ArrayList<>();
+            Set<Long> clusterIds = new HashSet<>();
+            postingIds.add(posting.id());
+            clusterIds.add(resolve(mergedInto, posting.clusterId() != null ? posting.clusterId() : posting.id()));
+            for (SignedPosting match : matches) {
+                postingIds.add(match.id());
+                clusterIds.add(resolve(mergedInto, match.clusterId() != null ? match.clusterId() : match.id()));
+            }
+            long clusterId = clusterIds.stream().min(Long::compare).orElseThrow();
+            jobPostingDuplicateRepository.mergeCluster(clusterId, postingIds, new ArrayList<>(clusterIds));
+            clusterIds.forEach(id -> mergedInto.put(id, clusterId));
+            for (Long id : postingIds) {
+                mergedInto.put(id, clusterId);
+            }
+        }
+        if (!mergedInto.isEmpty()) {
+            log.info("Grouped {} of {} job postings with near duplicates", duplicates.size(), postings.size());
+        }
+        return mergedInto;
+    }
+
+    /**
+     * Duplicatas confirmadas de cada vaga assinada (só as vagas com alguma), entre as candidatas do índice LSH.
+     */
+    private Map<Long, List<SignedPosting>> findDuplicates(List<PostingSignature> signatures, List<SignedPosting> signed) {
+        Map<BucketKey, List<SignedPosting>> byBucket = new HashMap<>();
+        for (BucketCandidate candidate : jobPostingDuplicateRepository.findCandidates(signatures)) {
+            byBucket.computeIfAbsent(new BucketKey(candidate.band(), candidate.bucket()), key -> new ArrayList<>())
+                    .add(candidate.posting());
+        }
+        Map<Long, List<SignedPosting>> duplicates = new HashMap<>();
+        for (int i = 0; i < signatures.size(); i++) {
+            SignedPosting posting = signed.get(i);
+            long[] buckets = signatures.get(i).buckets();
+            Map<Long, SignedPosting> candidates = new LinkedHashMap<>();
+            for (int band = 0; band < buckets.length; band++) {
+                for (SignedPosting candidate : byBucket.getOrDefault(new BucketKey(band, buckets[band]), List.of())) {
+                    if (candidate.id() != posting.id()) {
+                        candidates.putIfAbsent(candidate.id(), candidate);
+                    }
+                }
+            }
+            if (candidates.isEmpty()) {
+                continue;
+            }
+            int[] signature = MinHasher.fromBytes(posting.signature());
+            List<SignedPosting> matches = candidates.values().stream()
+                    .filter(candidate -> isDuplicate(posting, signature, candidate))
+                    .toList();
+            if (!matches.isEmpty()) {
+                duplicates.put(posting.id(), matches);
+            }
+        }
+        return duplicates;
+    }
+
+    private boolean isDuplicate(SignedPosting posting, int[] signature, SignedPosting candidate) {
+        return MinHasher.sameCompany(posting.company(), candidate.company())
+                && MinHasher.titleSimilarity(posting.title(), candidate.title()) >= MIN_TITLE_SIMILARITY
+                && MinHasher.similarity(signature, MinHasher.fromBytes(candidate.signature())) >= threshold;
+    }
+
+    private static long resolve(Map<Long, Long> mergedInto, long id) {
+        long current = id;
+        Long next;
+        while ((next = mergedInto.get(current)) != null && next != current) {
+            current = next;
+        }
+        return current;
+    }
+
+    private static long find(Map<Long, Long> parent, long id) {
+        long root = id;
+        Long next;
+        while ((next = parent.get(root)) != null) {
+            root = next;
+        }
+        long current = id;
+        while (current != root) {
+            long following = parent.get(current);
+            parent.put(current, root);
+            current = following;
+        }
+        return root;
+    }
+
+    private record BucketKey(int band, long bucket) {
+    }
+
+    private static final class BackfillJob extends BackgroundJob<DuplicateBackfillJobDTO> {
+        private final AtomicLong postingsScanned = new AtomicLong();
+        private final AtomicLong signaturesStored = new AtomicLong();
+        private final AtomicLong duplicatePairs = new AtomicLong();
+        /**
+         * Relógio do banco no início do job: assinaturas posteriores são da ingestão.
+         */
+        private volatile OffsetDateTime signedAt;
+        private volatile long clusters;
+        private volatile long postingsClustered;
+
+        @Override
+        String completionMessage() {
+            return String.format("Grouped %d of %d job postings into %d clusters",
+                    postingsClustered, postingsScanned.get(), clusters);
+        }
+
+        @Override
+        DuplicateBackfillJobDTO snapshot() {
+            return DuplicateBackfillJobDTO.builder()
+                    .jobId(id)
+                    .status(status.getValue())
+                    .message(message)
+                    .progress(progress())
+                    .batchesTotal(batchesTotal)
+                    .batchesDone(batchesDone.get())
+                    .postingsScanned(postingsScanned.get())
+                    .signaturesStored(signaturesStored.get())
+                    .duplicatePairs(duplicatePairs.get())
+                    .clusters(clusters)
+                    .postingsClustered(postingsClustered)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package com.clusterat.live.service;
+
+import com.clusterat.live.dto.SalaryNormalizationResultDTO;
+import com.clusterat.live.dto.SalaryPercentilesDTO;
+import com.clusterat.live.model.JobPostingModel;
+import com.clusterat.live.repository.JobPostingSalaryRepository;
+import com.clusterat.live.repository.reactive.JobPostingReactiveRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Salários anuais das vagas: renormalização das linhas gravadas (na subida, só as pendentes; sob demanda,
+ * todas, por exemplo depois de mudar o câmbio) e percentis por título, local e senioridade.
+ * Os percentis saem de sketches t-digest montados em memória a partir das colunas anuais; a consulta não
+ * lê o banco. Cada vaga entra com o ponto médio da sua faixa anual. As vagas gravadas pela ingestão entram
+ * nos sketches depois do commit ({@link #recordAfterCommit}); como um t-digest não remove valores, o valor
+ * antigo de uma vaga alterada ou excluída só sai na reconstrução periódica, que existe para essa correção.
+ */
+@Slf4j
+@Service
+public class JobPostingSalaryService {
+    public static final String GROUP_TITLE = "title";
+    public static final String GROUP_LOCATION = "location";
+    public static final String GROUP_SENIORITY = "seniority";
+    public static final String GROUP_ALL = "all";
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 200;
+    static final String DEFAULT_PERCENTILES = "25,50,75,90";
+    private static final int NORMALIZATION_BATCH_SIZE = 1000;
+
+    private static final Map<String, Function<JobPostingModel, String>> GROUPS = Map.of(
+            GROUP_TITLE, JobPostingModel::getJobTitle,
+            GROUP_LOCATION, JobPostingModel::getJobLocation,
+            GROUP_SENIORITY, JobPostingModel::getSeniorityLevel);
+
+    private final JobPostingSalaryRepository jobPostingSalaryRepository;
+    private final JobPostingReactiveRepository jobPostingReactiveRepository;
+    private final SalaryNormalizer salaryNormalizer;
+    private volatile Sketches sketches;
+
+    @Value("${job-postings.salary.normalize-on-startup:true}")
+    private boolean normalizeOnStartup;
+
+    @Value("${job-postings.salary.stats.enabled:true}")
+    private boolean statsEnabled;
+
+    @Autowired
+    public JobPostingSalaryService(JobPostingSalaryRepository jobPostingSalaryRepository,
+                                   JobPostingReactiveRepository jobPostingReactiveRepository,
+                                   SalaryNormalizer salaryNormalizer) {
+        this.jobPostingSalaryRepository = jobPostingSalaryRepository;
+        this.jobPostingReactiveRepository = jobPostingReactiveRepository;
+        this.salaryNormalizer = salaryNormalizer;
+    }
+
+    public boolean isEnabled() {
+        return statsEnabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            if (normalizeOnStartup) {
+                normalizeSalaries(false);
+            }
+        } catch (Exception e) {
+            log.error("Error normalizing stored job posting salaries: {}", e.getMessage(), e);
+        }
+        scheduledRebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${job-postings.salary.stats.rebuild-interval-ms:21600000}",
+            initialDelayString = "${job-postings.salary.stats.rebuild-interval-ms:21600000}") // 6 hours
+    public void scheduledRebuild() {
+        if (!statsEnabled) {
+            return;
+        }
+        try {
+            rebuildStats();
+        } catch (Exception e) {
+            log.error("Error building job posting salary statistics: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Recalcula os salários anuais gravados, em blocos por id. As vagas pendentes normalizadas entram nos
+     * sketches; depois de renormalizar todas, os sketches são reconstruídos.
+     * @param all true para todas as vagas com salário; false só para as ainda não normalizadas na moeda base
+     */
+    public SalaryNormalizationResultDTO normalizeSalaries(boolean all) {
+        String baseCurrency = salaryNormalizer.getBaseCurrency();
+        long scanned = 0;
+        long normalized = 0;
+        long afterId = 0;
+        List<JobPostingModel> rows;
+        do {
+            rows = jobPostingSalaryRepository.findSalariesAfter(afterId, NORMALIZATION_BATCH_SIZE, !all, baseCurrency);
+            if (rows.isEmpty()) {
+                break;
+            }
+            for (JobPostingModel row : rows) {
+                salaryNormalizer.normalize(row);
+                if (row.getSalaryAnnualCurrency() != null) {
+                    normalized++;
+                }
+            }
+            jobPostingSalaryRepository.updateAnnualSalaries(rows);
+            if (!all) {
+                recordAfterCommit(rows);
+            }
+            scanned += rows.size();
+            afterId = rows.get(rows.size() - 1).getId();
+        } while (rows.size() == NORMALIZATION_BATCH_SIZE);
+
+        if (scanned > 0) {
+            log.info("Normalized salaries of {} job postings to {} ({} without FX rate or known period)",
+                    normalized, baseCurrency, scanned - normalized);
+            if (all) {
+                scheduledRebuild();
+            }
+        }
+        return SalaryNormalizationResultDTO.builder()
+                .baseCurrency(baseCurrency)
+                .scanned(scanned)
+                .normalized(normalized)
+                .unsupported(scanned - normalized)
+                .build();
+    }
+
+    /**
+     * Monta os sketches a partir das colunas anuais e troca os atuais.
+     */
+    public synchronized void rebuildStats() {
+        long start = System.nanoTime();
+        Sketches rebuilt = new Sketches(salaryNormalizer.getBaseCurrency());
+        jobPostingReactiveRepository.findAnnualSalaries(rebuilt.currency)
+                .doOnNext(rebuilt::add)
+                .blockLast();
+        rebuilt.compress();
+        sketches = rebuilt;
+        log.info("Job posting salary statistics built from {} postings in {} ms",
+                rebuilt.overall.count(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Acrescenta aos sketches atuais o salário anual das vagas gravadas, quando a transação corrente
+     * confirmar (na hora, fora de transação). Vagas sem salário anual são ignoradas.
+     */
+    public void recordAfterCommit(Collection<JobPostingModel> postings) {
+        if (!statsEnabled || postings.isEmpty()) {
+            return;
+        }
+        List<JobPostingModel> written = List.copyOf(postings);
+        afterCommit(() -> {
+            Sketches current = sketches;
+            // Sem sketches (ainda não montados), a primeira reconstrução já lê estas vagas do banco
+            if (current != null && current.currency.equals(salaryNormalizer.getBaseCurrency())) {
+                synchronized (current) {
+                    written.forEach(current::add);
+                }
+            }
+        });
+    }
+
+    /**
+     * Percentis aproximados do salário anual por grupo.
+     * @param groupBy title, location, seniority ou all
+     * @param value só o grupo com este valor (sem diferenciar maiúsculas e acentos); sem ele, os maiores grupos
+     * @param percentiles lista separada por vírgula, de 0 a 100 (padrão 25,50,75,90)
+     * @param minCount grupos com menos vagas são omitidos
+     * @param limit quantidade máxima de grupos (padrão DEFAULT_LIMIT, máximo MAX_LIMIT)
+     * @throws IllegalArgumentException para parâmetros inválidos
+     * @throws IllegalStateException se as estatísticas estiverem desabilitadas ou ainda não tiverem sido montadas
+     */
+    public List<SalaryPercentilesDTO> getPercentiles(String groupBy, String value, String percentiles,
+                                                     Integer minCount, Integer limit) {
+        String group = groupBy == null || groupBy.isBlank() ? GROUP_ALL : groupBy.trim().toLowerCase(Locale.ROOT);
+        if (!group.equals(GROUP_ALL) && !GROUPS.containsKey(group)) {
+            throw new IllegalArgumentException("Invalid groupBy: " + groupBy + " (allowed: all, title, location, seniority)");
+        }
+        List<Double> quantiles = parsePercentiles(percentiles);
+        int minimum = minCount != null ? minCount : 1;
+        if (minimum < 1) {
+            throw new IllegalArgumentException("minCount must be at least 1");
+        }
+        int size = limit != null ? limit : DEFAULT_LIMIT;
+        if (size < 1 || size > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        Sketches current = sketches;
+        if (!statsEnabled || current == null) {
+            throw new IllegalStateException("Salary statistics are not available");
+        }
+
+        synchronized (current) {
+            return percentiles(current, group, value, quantiles, minimum, size);
+        }
+    }
+
+    private static List<SalaryPercentilesDTO> percentiles(Sketches current, String group, String value,
+                                                          List<Double> quantiles, int minimum, int size) {
+        if (group.equals(GROUP_ALL)) {
+            return current.overall.count() < minimum ? List.of()
+                    : List.of(toDTO(GROUP_ALL, null, current.overall, current.currency, quantiles));
+        }
+        Map<String, Group> groups = current.groups.get(group);
+        List<Group> selected;
+        if (value != null && !value.isBlank()) {
+            Group match = groups.get(TransactionCategorizer.normalize(value));
+            selected = match == null ? List.of() : List.of(match);
+        } else {
+            selected = new ArrayList<>(groups.values());
+            selected.sort(Comparator.comparingLong((Group g) -> g.digest.count()).reversed()
+                    .thenComparing(g -> g.label));
+        }
+        return selected.stream()
+                .filter(g -> g.digest.count() >= minimum)
+                .limit(size)
+                .map(g -> toDTO(group, g.label, g.digest, current.currency, quantiles))
+                .toList();
+    }
+
+    static List<Double> parsePercentiles(String percentiles) {
+        String text = percentiles == null || percentiles.isBlank() ? DEFAULT_PERCENTILES : percentiles;
+        List<Double> quantiles = new ArrayList<>();
+        for (String part : text.split(",")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            double percentile;
+            try {
+                percentile = Double.parseDouble(part.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid percentile: " + part.trim());
+            }
+            if (!(percentile >= 0 && percentile <= 100)) {
+                throw new IllegalArgumentException("Percentiles must be between 0 and 100");
+            }
+            quantiles.add(percentile / 100);
+        }
+        if (quantiles.isEmpty()) {
+            throw new IllegalArgumentException("At least one percentile is required");
+        }
+        return quantiles;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static SalaryPercentilesDTO toDTO(String groupBy, String value, TDigest digest, String currency,
+                                              List<Double> quantiles) {
+        Map<String, BigDecimal> values = new LinkedHashMap<>();
+        for (double q : quantiles) {
+            values.put("p" + BigDecimal.valueOf(q * 100).stripTrailingZeros().toPlainString(),
+                    BigDecimal.valueOf(digest.quantile(q)).setScale(2, RoundingMode.HALF_UP));
+        }
+        return SalaryPercentilesDTO.builder()
+                .groupBy(groupBy)
+                .value(value)
+                .count(digest.count())
+                .currency(currency)
+                .percentiles(values)
+                .build();
+    }
+
+    /**
+     * Ponto médio da faixa anual, ou o único limite informado.
+     */
+    static BigDecimal annualMidpoint(JobPostingModel posting) {
+        BigDecimal min = posting.getSalaryAnnualMin();
+        BigDecimal max = posting.getSalaryAnnualMax();
+        if (min == null || max == null) {
+            return min != null ? min : max;
+        }
+        return min.add(max).divide(BigDecimal.valueOf(2), 2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Montado fora de lock e publicado pronto; depois disso, gravações (recordAfterCommit) e leituras
+     * sincronizam na própria instância, porque o t-digest não é thread-safe.
+     */
+    private static final class Sketches {
+        private final String currency;
+        private final TDigest overall = new TDigest();
+        private final Map<String, Map<String, Group>> groups = new HashMap<>();
+
+        private Sketches(String currency) {
+            this.currency = currency;
+            GROUPS.keySet().forEach(group -> groups.put(group, new HashMap<>()));
+        }
+
+        private void add(JobPostingModel posting) {
+            BigDecimal salary = annualMidpoint(posting);
+            if (salary == null) {
+                return;
+            }
+            double amount = salary.doubleValue();
+            overall.add(amount);
+            GROUPS.forEach((group, accessor) -> {
+                String label = accessor.apply(posting);
+                String key = TransactionCategorizer.normalize(label);
+                if (!key.isEmpty()) {
+                    groups.get(group).computeIfAbsent(key, k -> new Group(label.trim())).digest.add(amount);
+                }
+            });
+        }
+
+        private void compress() {
+            overall.compress();
+            groups.values().forEach(byKey -> byKey.values().forEach(group -> group.digest.compress()));
+        }
+    }
+
+    private static final class Group {
+        private final String label;
+        private final TDigest digest = new TDigest();
+
+        private Group(String label) {
+            this.label = label;
+        }
+    }
+}
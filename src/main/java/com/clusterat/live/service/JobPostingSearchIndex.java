@@ -0,0 +1,502 @@
+package com.clusterat.live.service;
+
+import com.clusterat.live.dto.JobPostingDTO;
+import com.clusterat.live.dto.JobPostingIndexResultDTO;
+import com.clusterat.live.model.JobPostingModel;
+import com.clusterat.live.repository.reactive.JobPostingReactiveRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Índice invertido em memória das vagas, para as buscas combinadas das ferramentas de agente
+ * (palavras do título + local + senioridade + tipo de contratação + empresa) sem ida ao banco.
+ * Cada vaga recebe um número sequencial (ordinal) e cada termo do título e cada valor de faceta
+ * aponta para a lista dos ordinais das vagas que o contêm ({@link PostingList}: int[] ordenado para
+ * termos raros, BitSet para os frequentes); uma consulta é a interseção (AND) dessas listas.
+ * Termos e valores passam pela normalização do TransactionCategorizer (minúsculas, sem acentos),
+ * então "São Paulo" e "sao paulo" são o mesmo valor.
+ * O índice é montado na subida a partir da projeção sem job_summary_text, atualizado por vaga após
+ * o commit das escritas do JobPostingService e reconstruído periodicamente (compacta os ordinais de
+ * vagas removidas e pega alterações feitas fora da aplicação). Leituras e escritas passam por um
+ * ReadWriteLock; as consultas só seguram o lock de leitura durante a interseção.
+ * Os DTOs devolvidos são os guardados no índice: não alterar.
+ */
+@Slf4j
+@Service
+public class JobPostingSearchIndex {
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 1000;
+
+    static final String TITLE = "title";
+    static final String LOCATION = "location";
+    static final String SENIORITY = "seniority";
+    static final String EMPLOYMENT_TYPE = "employment_type";
+    static final String COMPANY = "company";
+
+    private final JobPostingReactiveRepository jobPostingReactiveRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Segment segment = new Segment();
+    private List<Consumer<Segment>> pendingDuringRebuild;
+    private volatile boolean loaded;
+
+    @Value("${job-postings.index.enabled:true}")
+    private boolean enabled;
+
+    @Autowired
+    public JobPostingSearchIndex(JobPostingReactiveRepository jobPostingReactiveRepository) {
+        this.jobPostingReactiveRepository = jobPostingReactiveRepository;
+    }
+
+    /**
+     * Critérios da busca; campos nulos ou vazios não filtram. keywords exige todas as palavras no título.
+     */
+    public record Query(String keywords, String location, String seniority, String employmentType, String company) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${job-postings.index.rebuild-interval-ms:3600000}",
+            initialDelayString = "${job-postings.index.rebuild-interval-ms:3600000}") // 1 hour
+    public void scheduledRebuild() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Error rebuilding job posting search index: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Monta um índice novo a partir do banco e o troca pelo atual. Atualizações que chegam durante a
+     * leitura são aplicadas também ao índice novo, depois da troca, para não se perderem.
+     */
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Segment rebuilt = new Segment();
+        try {
+            jobPostingReactiveRepository.findAllSummaries()
+                    .doOnNext(model -> rebuilt.put(summaryOf(model)))
+                    .blockLast();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild.forEach(update -> update.accept(rebuilt));
+            pendingDuringRebuild = null;
+            segment = rebuilt;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Job posting search index built with {} postings and {} terms ({} KB of posting lists) in {} ms",
+                rebuilt.size(), rebuilt.termCount(), rebuilt.postingListBytes() / 1024,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Indexa (ou reindexa) as vagas depois do commit da transação corrente; sem transação, na hora.
+     * A cópia é feita já na chamada e sem o texto da descrição, que não é guardado.
+     */
+    public void indexAfterCommit(Collection<JobPostingModel> postings) {
+        if (!enabled || postings.isEmpty()) {
+            return;
+        }
+        List<JobPostingDTO> summaries = postings.stream().map(JobPostingSearchIndex::summaryOf).toList();
+        afterCommit(() -> apply(target -> summaries.forEach(target::put)));
+    }
+
+    public void removeAfterCommit(Long id) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> apply(target -> target.remove(id)));
+    }
+
+    /**
+     * Vagas que atendem a todos os critérios, das mais recentes (maior ordinal) para as mais antigas.
+     * @throws IllegalArgumentException para limite fora de [1, MAX_LIMIT]
+     * @throws IllegalStateException se o índice estiver desabilitado ou ainda não tiver sido montado
+     */
+    public JobPostingIndexResultDTO search(Query query, Integer limit) {
+        int size = limit != null ? limit : DEFAULT_LIMIT;
+        if (size < 1 || size > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (!enabled || !loaded) {
+            throw new IllegalStateException("Job posting search index is not available");
+        }
+
+        long start = System.nanoTime();
+        List<JobPostingDTO> items = new ArrayList<>(Math.min(size, 64));
+        int total;
+        lock.readLock().lock();
+        try {
+            BitSet matches = segment.match(query);
+            total = matches.cardinality();
+            for (int ordinal = matches.length() - 1; ordinal >= 0 && items.size() < size;
+                 ordinal = matches.previousSetBit(ordinal - 1)) {
+                items.add(segment.postings.get(ordinal));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return JobPostingIndexResultDTO.builder()
+                .total(total)
+                .items(items)
+                .elapsedMicros((System.nanoTime() - start) / 1_000)
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return segment.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Consumer<Segment> update) {
+        lock.writeLock().lock();
+        try {
+            update.accept(segment);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(update);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static JobPostingDTO summaryOf(JobPostingModel model) {
+        return JobPostingDTO.builder()
+                .id(model.getId())
+                .jobPostingId(model.getJobPostingId())
+                .jobTitle(model.getJobTitle())
+                .sourceUrl(model.getSourceUrl())
+                .companyName(model.getCompanyName())
+                .companyUrl(model.getCompanyUrl())
+                .externalCompanyId(model.getExternalCompanyId())
+                .jobLocation(model.getJobLocation())
+                .employmentType(model.getEmploymentType())
+                .seniorityLevel(model.getSeniorityLevel())
+                .jobFunction(model.getJobFunction())
+                .jobIndustries(model.getJobIndustries())
+                .salaryCurrency(model.getSalaryCurrency())
+                .salaryMin(model.getSalaryMin())
+                .salaryMax(model.getSalaryMax())
+                .salaryPaymentPeriod(model.getSalaryPaymentPeriod())
+                .salaryAnnualMin(model.getSalaryAnnualMin())
+                .salaryAnnualMax(model.getSalaryAnnualMax())
+                .salaryAnnualCurrency(model.getSalaryAnnualCurrency())
+                .applyLink(model.getApplyLink())
+                .isEasyApply(model.getIsEasyApply())
+                .isApplicationAvailable(model.getIsApplicationAvailable())
+                .numApplicants(model.getNumApplicants())
+                .jobPosterName(model.getJobPosterName())
+                .jobPosterTitle(model.getJobPosterTitle())
+                .jobPostedAt(model.getJobPostedAt())
+                .scrapedAt(model.getScrapedAt())
+                .duplicateClusterId(model.getDuplicateClusterId())
+                .build();
+    }
+
+    /**
+     * Termos de uma vaga: palavras do título e os valores normalizados das facetas, como "campo:valor".
+     */
+    static Set<String> termsOf(JobPostingDTO posting) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String word : words(posting.getJobTitle())) {
+            terms.add(TITLE + ':' + word);
+        }
+        addFacet(terms, LOCATION, posting.getJobLocation());
+        addFacet(terms, SENIORITY, posting.getSeniorityLevel());
+        addFacet(terms, EMPLOYMENT_TYPE, posting.getEmploymentType());
+        addFacet(terms, COMPANY, posting.getCompanyName());
+        return terms;
+    }
+
+    private static void addFacet(Set<String> terms, String field, String value) {
+        String normalized = TransactionCategorizer.normalize(value);
+        if (!normalized.isEmpty()) {
+            terms.add(field + ':' + normalized);
+        }
+    }
+
+    private static String[] words(String text) {
+        String normalized = TransactionCategorizer.normalize(text);
+        return normalized.isEmpty() ? new String[0] : normalized.split(" ");
+    }
+
+    /**
+     * Estrutura do índice; só é acessada sob o lock (ou, na reconstrução, antes de ser publicada).
+     */
+    static final class Segment {
+        private final List<JobPostingDTO> postings = new ArrayList<>();
+        private final Map<Long, Integer> ordinalsById = new HashMap<>();
+        private final Map<String, PostingList> postingLists = new HashMap<>();
+        private final BitSet live = new BitSet();
+
+        void put(JobPostingDTO posting) {
+            if (posting.getId() == null) {
+                return;
+            }
+            Integer ordinal = ordinalsById.get(posting.getId());
+            if (ordinal == null) {
+                ordinal = postings.size();
+                postings.add(posting);
+                ordinalsById.put(posting.getId(), ordinal);
+            } else {
+                unlink(ordinal);
+                postings.set(ordinal, posting);
+            }
+            for (String term : termsOf(posting)) {
+                postingLists.computeIfAbsent(term, key -> new PostingList()).add(ordinal, postings.size());
+            }
+            live.set(ordinal);
+        }
+
+        void remove(Long id) {
+            Integer ordinal = ordinalsById.remove(id);
+            if (ordinal != null) {
+                unlink(ordinal);
+                postings.set(ordinal, null);
+                live.clear(ordinal);
+            }
+        }
+
+        private void unlink(int ordinal) {
+            for (String term : termsOf(postings.get(ordinal))) {
+                PostingList list = postingLists.get(term);
+                if (list != null) {
+                    list.remove(ordinal);
+                    if (list.isEmpty()) {
+                        postingLists.remove(term);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Interseção das listas dos critérios, começando pela menor; um termo ausente encerra com vazio.
+         */
+        BitSet match(Query query) {
+            List<String> required = new ArrayList<>();
+            for (String word : words(query.keywords())) {
+                required.add(TITLE + ':' + word);
+            }
+            addFacet(required, LOCATION, query.location());
+            addFacet(required, SENIORITY, query.seniority());
+            addFacet(required, EMPLOYMENT_TYPE, query.employmentType());
+            addFacet(required, COMPANY, query.company());
+
+            List<PostingList> lists = new ArrayList<>(required.size());
+            for (String term : required) {
+                PostingList list = postingLists.get(term);
+                if (list == null) {
+                    return new BitSet();
+                }
+                lists.add(list);
+            }
+            if (lists.isEmpty()) {
+                return (BitSet) live.clone();
+            }
+            lists.sort((a, b) -> Integer.compare(a.cardinality(), b.cardinality()));
+            BitSet result = lists.get(0).toBitSet();
+            for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+                lists.get(i).retainIn(result);
+            }
+            return result;
+        }
+
+        private static void addFacet(List<String> required, String field, String value) {
+            String normalized = TransactionCategorizer.normalize(value);
+            if (!normalized.isEmpty()) {
+                required.add(field + ':' + normalized);
+            }
+        }
+
+        int size() {
+            return ordinalsById.size();
+        }
+
+        int termCount() {
+            return postingLists.size();
+        }
+
+        /**
+         * Memória aproximada das listas de ordinais (só os arrays e BitSets, sem cabeçalhos de objeto).
+         */
+        long postingListBytes() {
+            long bytes = 0;
+            for (PostingList list : postingLists.values()) {
+                bytes += list.sizeInBytes();
+            }
+            return bytes;
+        }
+    }
+
+    /**
+     * Ordinais das vagas de um termo. A maioria dos termos (palavras de título pouco comuns) aparece em
+     * poucas vagas e fica num int[] ordenado, de custo proporcional às vagas; um BitSet custaria um bit
+     * por vaga do índice até o maior ordinal. Quando a lista passa de 1/DENSE_RATIO das vagas (onde o
+     * int[] fica maior que o BitSet), vira BitSet, como as facetas comuns. Não volta a int[]: a
+     * reconstrução periódica remonta as listas.
+     */
+    static final class PostingList {
+        private static final int DENSE_RATIO = Integer.SIZE;
+
+        private int[] sparse = new int[2];
+        private int size;
+        private BitSet dense;
+
+        /**
+         * @param universe vagas no índice, para decidir entre int[] e BitSet
+         */
+        void add(int ordinal, int universe) {
+            if (dense != null) {
+                dense.set(ordinal);
+                return;
+            }
+            // Vagas novas recebem o maior ordinal: quase sempre um acréscimo no fim
+            int index = size == 0 || sparse[size - 1] < ordinal ? -(size + 1) : Arrays.binarySearch(sparse, 0, size, ordinal);
+            if (index >= 0) {
+                return;
+            }
+            if ((long) (size + 1) * DENSE_RATIO > universe) {
+                dense = new BitSet(universe);
+                for (int i = 0; i < size; i++) {
+                    dense.set(sparse[i]);
+                }
+                dense.set(ordinal);
+                sparse = null;
+                size = 0;
+                return;
+            }
+            int insertAt = -index - 1;
+            if (size == sparse.length) {
+                sparse = Arrays.copyOf(sparse, size + (size >> 1) + 1);
+            }
+            System.arraycopy(sparse, insertAt, sparse, insertAt + 1, size - insertAt);
+            sparse[insertAt] = ordinal;
+            size++;
+        }
+
+        void remove(int ordinal) {
+            if (dense != null) {
+                dense.clear(ordinal);
+                return;
+            }
+            int index = Arrays.binarySearch(sparse, 0, size, ordinal);
+            if (index >= 0) {
+                System.arraycopy(sparse, index + 1, sparse, index, size - index - 1);
+                size--;
+            }
+        }
+
+        boolean contains(int ordinal) {
+            return dense != null ? dense.get(ordinal) : Arrays.binarySearch(sparse, 0, size, ordinal) >= 0;
+        }
+
+        int cardinality() {
+            return dense != null ? dense.cardinality() : size;
+        }
+
+        boolean isEmpty() {
+            return dense != null ? dense.isEmpty() : size == 0;
+        }
+
+        boolean isDense() {
+            return dense != null;
+        }
+
+        BitSet toBitSet() {
+            if (dense != null) {
+                return (BitSet) dense.clone();
+            }
+            BitSet bits = new BitSet(size == 0 ? 0 : sparse[size - 1] + 1);
+            for (int i = 0; i < size; i++) {
+                bits.set(sparse[i]);
+            }
+            return bits;
+        }
+
+        /**
+         * Mantém em result só os ordinais desta lista (result vem da lista menor, então o custo
+         * no caso esparso é uma busca binária por ordinal de result).
+         */
+        void retainIn(BitSet result) {
+            if (dense != null) {
+                result.and(dense);
+                return;
+            }
+            for (int ordinal = result.nextSetBit(0); ordinal >= 0; ordinal = result.nextSetBit(ordinal + 1)) {
+                if (!contains(ordinal)) {
+                    result.clear(ordinal);
+                }
+            }
+        }
+
+        long sizeInBytes() {
+            return dense != null ? dense.size() / Byte.SIZE : (long) sparse.length * Integer.BYTES;
+        }
+    }
+}
@@ -1,79 +1,229 @@
 package com.clusterat.live.service;
 
+import com.clusterat.live.dto.FacetCountDTO;
 import com.clusterat.live.dto.JobPostingDTO;
+import com.clusterat.live.dto.JobPostingFilterResultDTO;
+import com.clusterat.live.dto.JobPostingIndexResultDTO;
+import com.clusterat.live.dto.KeysetPageDTO;
+import com.clusterat.live.dto.UpsertResultDTO;
 import com.clusterat.live.model.JobPostingModel;
+import com.clusterat.live.model.UpsertMode;
+import com.clusterat.live.repository.BatchInsertWriter;
+import com.clusterat.live.repository.JobPostingFilter;
 import com.clusterat.live.repository.JobPostingRepository;
+import com.clusterat.live.repository.KeysetPageRequest;
+import com.clusterat.live.repository.ScrapedDataUpsertRepository;
+import com.clusterat.live.repository.reactive.JobPostingReactiveRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class JobPostingService {
+    public static final int DEFAULT_FACET_LIMIT = 10;
+    public static final int MAX_FACET_LIMIT = 100;
+
     private final JobPostingRepository jobPostingRepository;
+    private final JobPostingReactiveRepository jobPostingReactiveRepository;
+    private final BatchInsertWriter batchInsertWriter;
+    private final ScrapedDataUpsertRepository scrapedDataUpsertRepository;
+    private final JobPostingSearchIndex jobPostingSearchIndex;
+    private final SalaryNormalizer salaryNormalizer;
+    private final JobPostingDeduplicationService jobPostingDeduplicationService;
+    private final JobPostingSalaryService jobPostingSalaryService;
 
     @Autowired
-    public JobPostingService(JobPostingRepository jobPostingRepository) {
+    public JobPostingService(JobPostingRepository jobPostingRepository,
+                             JobPostingReactiveRepository jobPostingReactiveRepository,
+                             BatchInsertWriter batchInsertWriter,
+                             ScrapedDataUpsertRepository scrapedDataUpsertRepository,
+                             JobPostingSearchIndex jobPostingSearchIndex,
+                             SalaryNormalizer salaryNormalizer,
+                             JobPostingDeduplicationService jobPostingDeduplicationService,
+                             JobPostingSalaryService jobPostingSalaryService) {
         this.jobPostingRepository = jobPostingRepository;
+        this.jobPostingReactiveRepository = jobPostingReactiveRepository;
+        this.batchInsertWriter = batchInsertWriter;
+        this.scrapedDataUpsertRepository = scrapedDataUpsertRepository;
+        this.jobPostingSearchIndex = jobPostingSearchIndex;
+        this.salaryNormalizer = salaryNormalizer;
+        this.jobPostingDeduplicationService = jobPostingDeduplicationService;
+        this.jobPostingSalaryService = jobPostingSalaryService;
     }
 
-    public List<JobPostingDTO> getAllJobPostings() {
-        log.info("Fetching all job postings");
-        return jobPostingRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    /**
+     * Página de vagas por keyset (R2DBC). O total exige COUNT e só é calculado quando pedido.
+     * Com collapseDuplicates, só a vaga canônica de cada grupo de quase-duplicatas.
+     * @throws IllegalArgumentException (no Mono) para ordenação, limite ou cursor inválidos
+     */
+    public Mono<KeysetPageDTO<JobPostingDTO>> getJobPostingsPage(String after, Integer limit, String sort,
+                                                                 String order, boolean includeTotal,
+                                                                 boolean collapseDuplicates) {
+        return Mono.defer(() -> {
+            KeysetPageRequest<JobPostingModel> page = KeysetPageRequest.of(
+                    JobPostingReactiveRepository.SORT_FIELDS, sort, order, after, limit);
+            log.info("Fetching job postings page (sort: {}, order: {}, limit: {}, collapse duplicates: {})",
+                    sort, order, page.getLimit(), collapseDuplicates);
+            if (collapseDuplicates) {
+                JobPostingFilter canonical = JobPostingFilter.builder().collapseDuplicates(true).build();
+                return page.collectPage(jobPostingReactiveRepository.findPageFiltered(page, canonical), this::convertToDTO,
+                        includeTotal ? jobPostingReactiveRepository.countFiltered(canonical) : Mono.empty());
+            }
+            return page.collectPage(jobPostingReactiveRepository.findPage(page), this::convertToDTO,
+                    includeTotal ? jobPostingReactiveRepository.count() : Mono.empty());
+        });
     }
 
-    public Optional<JobPostingDTO> getJobPostingById(Long id) {
-        log.info("Fetching job posting with id: {}", id);
-        return jobPostingRepository.findById(id)
-                .map(this::convertToDTO);
+    /**
+     * Página das vagas que atendem ao filtro combinado e, opcionalmente, as contagens por faceta do
+     * conjunto filtrado inteiro. Página e facetas são duas consultas paralelas com o mesmo WHERE; o
+     * total filtrado vem da própria consulta de facetas.
+     * @throws IllegalArgumentException (no Mono) para filtro, paginação ou facetLimit inválidos
+     */
+    public Mono<JobPostingFilterResultDTO> filterJobPostings(JobPostingFilter filter, String after, Integer limit,
+                                                             String sort, String order, boolean includeFacets,
+                                                             Integer facetLimit) {
+        return Mono.defer(() -> {
+            filter.validate();
+            int facets = facetLimit != null ? facetLimit : DEFAULT_FACET_LIMIT;
+            if (facets < 1 || facets > MAX_FACET_LIMIT) {
+                throw new IllegalArgumentException("facetLimit must be between 1 and " + MAX_FACET_LIMIT);
+            }
+            KeysetPageRequest<JobPostingModel> page = KeysetPageRequest.of(
+                    JobPostingReactiveRepository.SORT_FIELDS, sort, order, after, limit);
+            log.info("Filtering job postings {} (sort: {}, order: {}, limit: {}, facets: {})",
+                    filter, sort, order, page.getLimit(), includeFacets);
+
+            Mono<KeysetPageDTO<JobPostingDTO>> pageMono = page.collectPage(
+                    jobPostingReactiveRepository.findPageFiltered(page, filter), this::convertToDTO, Mono.empty());
+            if (!includeFacets) {
+                return pageMono.map(result -> JobPostingFilterResultDTO.builder().page(result).build());
+            }
+            return Mono.zip(pageMono, jobPostingReactiveRepository.countFacets(filter, facets).collectList())
+                    .map(result -> toFilterResult(result.getT1(), result.getT2()));
+        });
     }
 
-    public Optional<JobPostingDTO> getJobPostingByJobPostingId(String jobPostingId) {
-        log.info("Fetching job posting with jobPostingId: {}", jobPostingId);
-        return jobPostingRepository.findByJobPostingId(jobPostingId)
-                .map(this::convertToDTO);
+    private static JobPostingFilterResultDTO toFilterResult(KeysetPageDTO<JobPostingDTO> page,
+                                                            List<JobPostingReactiveRepository.FacetCount> counts) {
+        Map<String, List<FacetCountDTO>> facets = new LinkedHashMap<>();
+        for (String facet : List.of(JobPostingReactiveRepository.FACET_COMPANY, JobPostingReactiveRepository.FACET_LOCATION,
+                JobPostingReactiveRepository.FACET_SENIORITY, JobPostingReactiveRepository.FACET_EMPLOYMENT_TYPE,
+                JobPostingReactiveRepository.FACET_EASY_APPLY)) {
+            facets.put(facet, new ArrayList<>());
+        }
+        long total = 0;
+        for (JobPostingReactiveRepository.FacetCount count : counts) {
+            if (JobPostingReactiveRepository.FACET_TOTAL.equals(count.facet())) {
+                total = count.count();
+            } else {
+                facets.computeIfAbsent(count.facet(), key -> new ArrayList<>())
+                        .add(FacetCountDTO.builder().value(count.value()).count(count.count()).build());
+            }
+        }
+        page.setTotalCount(total);
+        return JobPostingFilterResultDTO.builder()
+                .page(page)
+                .facets(facets)
+                .build();
     }
 
-    public List<JobPostingDTO> getJobPostingsByCompany(String companyName) {
-        log.info("Fetching job postings by company: {}", companyName);
-        return jobPostingRepository.findByCompanyName(companyName).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    /**
+     * Emite as vagas a partir do cursor via R2DBC, com backpressure, sem materializar a lista.
+     */
+    public Flux<JobPostingDTO> streamAllJobPostings(String after, String sort, String order) {
+        return Flux.defer(() -> {
+            KeysetPageRequest<JobPostingModel> page = KeysetPageRequest.of(
+                    JobPostingReactiveRepository.SORT_FIELDS, sort, order, after, null);
+            log.info("Streaming job postings (sort: {}, order: {})", sort, order);
+            return jobPostingReactiveRepository.streamFrom(page).map(this::convertToDTO);
+        });
     }
 
-    public List<JobPostingDTO> getJobPostingsByLocation(String jobLocation) {
-        log.info("Fetching job postings by location: {}", jobLocation);
-        return jobPostingRepository.findByJobLocation(jobLocation).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public Flux<JobPostingDTO> streamJobPostingsByCompany(String companyName) {
+        log.info("Streaming job postings by company: {}", companyName);
+        return jobPostingReactiveRepository.findByCompanyName(companyName).map(this::convertToDTO);
     }
 
-    public List<JobPostingDTO> getJobPostingsBySeniority(String seniorityLevel) {
-        log.info("Fetching job postings by seniority: {}", seniorityLevel);
-        return jobPostingRepository.findBySeniorityLevel(seniorityLevel).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public Flux<JobPostingDTO> streamJobPostingsByLocation(String jobLocation) {
+        log.info("Streaming job postings by location: {}", jobLocation);
+        return jobPostingReactiveRepository.findByJobLocation(jobLocation).map(this::convertToDTO);
+    }
+
+    public Flux<JobPostingDTO> streamJobPostingsBySeniority(String seniorityLevel) {
+        log.info("Streaming job postings by seniority: {}", seniorityLevel);
+        return jobPostingReactiveRepository.findBySeniorityLevel(seniorityLevel).map(this::convertToDTO);
+    }
+
+    public Flux<JobPostingDTO> streamJobPostingsByEmploymentType(String employmentType) {
+        log.info("Streaming job postings by employment type: {}", employmentType);
+        return jobPostingReactiveRepository.findByEmploymentType(employmentType).map(this::convertToDTO);
+    }
+
+    public Optional<JobPostingDTO> getJobPostingById(Long id) {
+        log.info("Fetching job posting with id: {}", id);
+        return jobPostingRepository.findById(id)
+                .map(this::convertToDTO);
     }
 
-    public List<JobPostingDTO> getJobPostingsByEmploymentType(String employmentType) {
-        log.info("Fetching job postings by employment type: {}", employmentType);
-        return jobPostingRepository.findByEmploymentType(employmentType).stream()
+    /**
+     * Outras vagas do grupo de quase-duplicatas da vaga, por id; vazio se a vaga não existe.
+     */
+    public Optional<List<JobPostingDTO>> getDuplicates(Long id) {
+        log.info("Fetching near duplicates of job posting with id: {}", id);
+        Optional<JobPostingModel> posting = jobPostingRepository.findById(id);
+        if (posting.isEmpty()) {
+            return Optional.empty();
+        }
+        Long clusterId = posting.get().getDuplicateClusterId();
+        if (clusterId == null) {
+            return Optional.of(List.of());
+        }
+        return Optional.of(jobPostingRepository.findByDuplicateClusterIdOrderById(clusterId).stream()
+                .filter(duplicate -> !duplicate.getId().equals(id))
                 .map(this::convertToDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
-    public List<JobPostingDTO> searchJobPostingsByTitle(String jobTitle) {
+    public Optional<JobPostingDTO> getJobPostingByJobPostingId(String jobPostingId) {
+        log.info("Fetching job posting with jobPostingId: {}", jobPostingId);
+        return jobPostingRepository.findByJobPostingId(jobPostingId)
+                .map(this::convertToDTO);
+    }
+
+    /**
+     * Busca por título via R2DBC, sem o texto da descrição (só carregado no detalhe).
+     */
+    public Flux<JobPostingDTO> searchJobPostingsByTitle(String jobTitle) {
         log.info("Searching job postings by title: {}", jobTitle);
-        return jobPostingRepository.findByJobTitleContainingIgnoreCase(jobTitle).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return jobPostingReactiveRepository.findByJobTitleContainingIgnoreCase(jobTitle).map(this::convertToDTO);
+    }
+
+    /**
+     * Busca combinada no índice em memória (palavras do título e facetas), sem acesso ao banco.
+     * @throws IllegalArgumentException para limite inválido
+     * @throws IllegalStateException se o índice não estiver disponível
+     */
+    public JobPostingIndexResultDTO searchIndex(JobPostingSearchIndex.Query query, Integer limit) {
+        JobPostingIndexResultDTO result = jobPostingSearchIndex.search(query, limit);
+        log.info("Job posting index search {} matched {} postings in {} us", query, result.getTotal(),
+                result.getElapsedMicros());
+        return result;
     }
 
     @Transactional
@@ -88,25 +238,107 @@ public class JobPostingService {
         }
 
         JobPostingModel model = convertToModel(dto);
-        JobPostingModel saved = jobPostingRepository.save(model);
+        JobPostingModel saved;
+        jobPostingDeduplicationService.lockClusters();
+        try {
+            saved = jobPostingRepository.saveAndFlush(model);
+        } catch (DataIntegrityViolationException e) {
+            // Outro scraper gravou a mesma vaga entre a verificação e o INSERT
+            log.warn("Job posting with id {} already exists", dto.getJobPostingId());
+            throw new IllegalArgumentException("Job posting already exists");
+        }
+        jobPostingDeduplicationService.deduplicate(List.of(saved));
+        jobPostingSearchIndex.indexAfterCommit(List.of(saved));
+        jobPostingSalaryService.recordAfterCommit(List.of(saved));
         log.info("Job posting created with id: {}", saved.getId());
         return convertToDTO(saved);
     }
 
+    /**
+     * Inserção em lote. A duplicidade é verificada em conjunto (uma consulta IN por bloco de ids,
+     * não um SELECT por vaga) e as novas vagas são gravadas em lotes JDBC.
+     * Vagas já existentes, repetidas no próprio payload ou sem job_posting_id são ignoradas.
+     */
     @Transactional
     public List<JobPostingDTO> createJobPostings(List<JobPostingDTO> dtos) {
         log.info("Creating {} job postings", dtos.size());
-        return dtos.stream()
-                .map(dto -> {
-                    try {
-                        return createJobPosting(dto);
-                    } catch (IllegalArgumentException e) {
-                        log.warn("Skipping duplicate job posting with id: {}", dto.getJobPostingId());
-                        return null;
-                    }
-                })
-                .filter(java.util.Objects::nonNull)
+        Map<String, JobPostingDTO> byJobPostingId = new LinkedHashMap<>();
+        for (JobPostingDTO dto : dtos) {
+            if (dto.getJobPostingId() == null) {
+                log.warn("Skipping job posting without id: {}", dto.getJobTitle());
+            } else if (byJobPostingId.putIfAbsent(dto.getJobPostingId(), dto) != null) {
+                log.warn("Skipping job posting repeated in payload with id: {}", dto.getJobPostingId());
+            }
+        }
+
+        Set<String> existing = new HashSet<>(BatchInsertWriter.lookupInChunks(
+                byJobPostingId.keySet(), jobPostingRepository::findExistingJobPostingIds));
+        if (!existing.isEmpty()) {
+            log.warn("Skipping {} job postings that already exist", existing.size());
+        }
+
+        List<JobPostingModel> models = byJobPostingId.values().stream()
+                .filter(dto -> !existing.contains(dto.getJobPostingId()))
+                .map(this::convertToModel)
+                .collect(Collectors.toList());
+        jobPostingDeduplicationService.lockClusters();
+        List<JobPostingModel> inserted = batchInsertWriter.insertAll(models);
+        jobPostingDeduplicationService.deduplicate(inserted);
+        jobPostingSearchIndex.indexAfterCommit(inserted);
+        jobPostingSalaryService.recordAfterCommit(inserted);
+        List<JobPostingDTO> created = inserted.stream()
+                .map(this::convertToDTO)
                 .collect(Collectors.toList());
+        log.info("Created {} out of {} job postings", created.size(), dtos.size());
+        return created;
+    }
+
+    /**
+     * Ingestão por upsert (INSERT ... ON CONFLICT em comandos multi-linha), chave job_posting_id.
+     * insert_only ignora vagas já gravadas; update_if_newer (padrão) as sobrescreve quando o
+     * scraped_at recebido é mais recente. Repetições no payload ficam com o scraped_at mais recente.
+     * @throws IllegalArgumentException para modo inválido ou vaga sem job_posting_id
+     */
+    @Transactional
+    public UpsertResultDTO upsertJobPostings(List<JobPostingDTO> dtos, String mode) {
+        UpsertMode upsertMode = Optional.ofNullable(UpsertMode.fromValue(mode)).orElse(UpsertMode.UPDATE_IF_NEWER);
+        log.info("Upserting {} job postings (mode: {})", dtos.size(), upsertMode.getValue());
+        OffsetDateTime now = OffsetDateTime.now();
+        Map<String, JobPostingModel> byJobPostingId = new LinkedHashMap<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            JobPostingDTO dto = dtos.get(i);
+            if (dto.getJobPostingId() == null) {
+                throw new IllegalArgumentException("Job posting at index " + i + " has no job_posting_id");
+            }
+            JobPostingModel model = convertToModel(dto);
+            if (model.getScrapedAt() == null) {
+                model.setScrapedAt(now);
+            }
+            byJobPostingId.merge(dto.getJobPostingId(), model,
+                    (current, candidate) -> candidate.getScrapedAt().isAfter(current.getScrapedAt()) ? candidate : current);
+        }
+
+        jobPostingDeduplicationService.lockClusters();
+        ScrapedDataUpsertRepository.UpsertCounts counts = scrapedDataUpsertRepository
+                .upsertJobPostings(new ArrayList<>(byJobPostingId.values()), upsertMode);
+        if ((jobPostingSearchIndex.isEnabled() || jobPostingDeduplicationService.isEnabled()
+                || jobPostingSalaryService.isEnabled()) && !counts.writtenIds().isEmpty()) {
+            // O upsert só devolve os ids gravados; as linhas são relidas na mesma transação para deduplicar,
+            // reindexar e entrar nos percentis de salário
+            List<JobPostingModel> written = BatchInsertWriter.lookupInChunks(
+                    counts.writtenIds(), jobPostingRepository::findAllById);
+            jobPostingDeduplicationService.deduplicate(written);
+            jobPostingSearchIndex.indexAfterCommit(written);
+            jobPostingSalaryService.recordAfterCommit(written);
+        }
+        return UpsertResultDTO.builder()
+                .mode(upsertMode.getValue())
+                .received(dtos.size())
+                .inserted(counts.inserted())
+                .updated(counts.updated())
+                .unchanged(byJobPostingId.size() - counts.inserted() - counts.updated())
+                .duplicatesInPayload(dtos.size() - byJobPostingId.size())
+                .build();
     }
 
     @Transactional
@@ -118,8 +350,13 @@ public class JobPostingService {
                     return new IllegalArgumentException("Job posting not found");
                 });
 
+        jobPostingDeduplicationService.lockClusters();
         updateModelFromDTO(model, dto);
+        salaryNormalizer.normalize(model);
         JobPostingModel updated = jobPostingRepository.save(model);
+        jobPostingDeduplicationService.deduplicate(List.of(updated));
+        jobPostingSearchIndex.indexAfterCommit(List.of(updated));
+        jobPostingSalaryService.recordAfterCommit(List.of(updated));
         log.info("Job posting updated with id: {}", updated.getId());
         return convertToDTO(updated);
     }
@@ -131,7 +368,10 @@ public class JobPostingService {
             log.error("Job posting not found with id: {}", id);
             throw new IllegalArgumentException("Job posting not found");
         }
+        jobPostingDeduplicationService.lockClusters();
+        jobPostingDeduplicationService.removeFromCluster(id);
         jobPostingRepository.deleteById(id);
+        jobPostingSearchIndex.removeAfterCommit(id);
         log.info("Job posting deleted with id: {}", id);
     }
 
@@ -154,6 +394,9 @@ public class JobPostingService {
                 .salaryMin(model.getSalaryMin())
                 .salaryMax(model.getSalaryMax())
                 .salaryPaymentPeriod(model.getSalaryPaymentPeriod())
+                .salaryAnnualMin(model.getSalaryAnnualMin())
+                .salaryAnnualMax(model.getSalaryAnnualMax())
+                .salaryAnnualCurrency(model.getSalaryAnnualCurrency())
                 .applyLink(model.getApplyLink())
                 .isEasyApply(model.getIsEasyApply())
                 .isApplicationAvailable(model.getIsApplicationAvailable())
@@ -162,11 +405,12 @@ public class JobPostingService {
                 .jobPosterTitle(model.getJobPosterTitle())
                 .jobPostedAt(model.getJobPostedAt())
                 .scrapedAt(model.getScrapedAt())
+                .duplicateClusterId(model.getDuplicateClusterId())
                 .build();
     }
 
     private JobPostingModel convertToModel(JobPostingDTO dto) {
-        return JobPostingModel.builder()
+        JobPostingModel model = JobPostingModel.builder()
                 .jobPostingId(dto.getJobPostingId())
                 .jobTitle(dto.getJobTitle())
                 .sourceUrl(dto.getSourceUrl())
@@ -192,6 +436,8 @@ public class JobPostingService {
                 .jobPostedAt(dto.getJobPostedAt())
                 .scrapedAt(dto.getScrapedAt())
                 .build();
+        salaryNormalizer.normalize(model);
+        return model;
     }
 
     private void updateModelFromDTO(JobPostingModel model, JobPostingDTO dto) {
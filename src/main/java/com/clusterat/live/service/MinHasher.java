@@ -0,0 +1,185 @@
+package com.clusterat.live.service;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Assinaturas MinHash das vagas para detecção de quase-duplicatas.
+ * O texto (descrição; sem ela, título + empresa + local) é normalizado e quebrado em shingles de
+ * SHINGLE_WORDS palavras; a assinatura guarda, para cada uma das HASHES funções de hash, o menor hash
+ * entre os shingles. A fração de posições iguais entre duas assinaturas estima a similaridade de
+ * Jaccard dos conjuntos de shingles. Título e empresa entram como shingles extras.
+ * Para o LSH a assinatura é dividida em BANDS faixas de ROWS posições; vagas com alguma faixa igual
+ * (mesmo bucket) viram candidatas. Com 20 x 6 a chance de virar candidata é de ~60% com similaridade
+ * 0,6, ~92% com 0,7 e passa de 99% a partir de 0,8; abaixo de 0,4 fica em menos de 10%.
+ */
+final class MinHasher {
+    static final int BANDS = 20;
+    static final int ROWS = 6;
+    static final int HASHES = BANDS * ROWS;
+    static final int SHINGLE_WORDS = 2;
+
+    private static final long[] SEEDS = new long[HASHES];
+
+    static {
+        long state = 0x5DEECE66DL;
+        for (int i = 0; i < HASHES; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            SEEDS[i] = mix(state);
+        }
+    }
+
+    private MinHasher() {
+    }
+
+    /**
+     * Assinatura da vaga, ou null quando não há texto para comparar.
+     */
+    static int[] signature(String title, String company, String location, String summary) {
+        Set<String> shingles = shingles(summary);
+        if (shingles.isEmpty()) {
+            shingles = shingles(String.join(" ", nullToEmpty(title), nullToEmpty(company), nullToEmpty(location)));
+        }
+        if (shingles.isEmpty()) {
+            return null;
+        }
+        String normalizedTitle = TransactionCategorizer.normalize(title);
+        if (!normalizedTitle.isEmpty()) {
+            shingles.add("title:" + normalizedTitle);
+        }
+        String normalizedCompany = TransactionCategorizer.normalize(company);
+        if (!normalizedCompany.isEmpty()) {
+            shingles.add("company:" + normalizedCompany);
+        }
+
+        int[] signature = new int[HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (String shingle : shingles) {
+            long base = fnv1a(shingle);
+            for (int i = 0; i < HASHES; i++) {
+                int hash = (int) (mix(base ^ SEEDS[i]) >>> 32);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Bucket de cada faixa da assinatura (hash das ROWS posições da faixa).
+     */
+    static long[] bandBuckets(int[] signature) {
+        long[] buckets = new long[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            long hash = SEEDS[band];
+            for (int row = 0; row < ROWS; row++) {
+                hash = mix(hash ^ (signature[band * ROWS + row] & 0xFFFFFFFFL));
+            }
+            buckets[band] = hash;
+        }
+        return buckets;
+    }
+
+    /**
+     * Similaridade de Jaccard estimada: fração de posições iguais.
+     */
+    static double similarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < HASHES; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / HASHES;
+    }
+
+    /**
+     * Jaccard das palavras dos títulos normalizados ("senior java developer" e "java developer sr": 0,5).
+     */
+    static double titleSimilarity(String a, String b) {
+        Set<String> first = words(a);
+        Set<String> second = words(b);
+        if (first.isEmpty() || second.isEmpty()) {
+            return 0;
+        }
+        Set<String> union = new HashSet<>(first);
+        union.addAll(second);
+        first.retainAll(second);
+        return (double) first.size() / union.size();
+    }
+
+    /**
+     * Nomes de empresa compatíveis: iguais depois de normalizados, um prefixo do outro ("acme" e
+     * "acme inc"), ou algum deles ausente.
+     */
+    static boolean sameCompany(String a, String b) {
+        String first = TransactionCategorizer.normalize(a);
+        String second = TransactionCategorizer.normalize(b);
+        if (first.isEmpty() || second.isEmpty()) {
+            return true;
+        }
+        return first.equals(second) || first.startsWith(second + " ") || second.startsWith(first + " ");
+    }
+
+    static byte[] toBytes(int[] signature) {
+        ByteBuffer buffer = ByteBuffer.allocate(signature.length * Integer.BYTES);
+        for (int value : signature) {
+            buffer.putInt(value);
+        }
+        return buffer.array();
+    }
+
+    static int[] fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int[] signature = new int[bytes.length / Integer.BYTES];
+        for (int i = 0; i < signature.length; i++) {
+            signature[i] = buffer.getInt();
+        }
+        return signature;
+    }
+
+    private static Set<String> shingles(String text) {
+        String normalized = TransactionCategorizer.normalize(text);
+        Set<String> shingles = new HashSet<>();
+        if (normalized.isEmpty()) {
+            return shingles;
+        }
+        String[] words = normalized.split(" ");
+        int size = Math.min(SHINGLE_WORDS, words.length);
+        for (int i = 0; i + size <= words.length; i++) {
+            shingles.add(String.join(" ", Arrays.asList(words).subList(i, i + size)));
+        }
+        return shingles;
+    }
+
+    private static Set<String> words(String text) {
+        String normalized = TransactionCategorizer.normalize(text);
+        return normalized.isEmpty() ? new HashSet<>() : new HashSet<>(Arrays.asList(normalized.split(" ")));
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static long fnv1a(String text) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Finalizador do SplitMix64: espalha bem os bits, então XOR com uma semente dá funções de hash independentes.
+     */
+    private static long mix(long value) {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -6,6 +6,7 @@ import com.clusterat.live.repository.OcrPreProcessingRepository;
 import lombok.extern.slf4j.Slf4j;
 import net.sourceforge.tess4j.TesseractException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,12 +22,18 @@ import java.util.Optional;
 public class OcrPreProcessingService {
     private final OcrPreProcessingRepository ocrPreProcessingRepository;
     private final OcrService ocrService;
+    private final OcrTransactionExtractionService ocrTransactionExtractionService;
+    private final boolean transactionExtractionEnabled;
     private final Path documentsProcessedPath = Paths.get("documents_processed");
 
     @Autowired
-    public OcrPreProcessingService(OcrPreProcessingRepository ocrPreProcessingRepository, OcrService ocrService) {
+    public OcrPreProcessingService(OcrPreProcessingRepository ocrPreProcessingRepository, OcrService ocrService,
+                                   OcrTransactionExtractionService ocrTransactionExtractionService,
+                                   @Value("${financial.ocr-extraction.enabled:true}") boolean transactionExtractionEnabled) {
         this.ocrPreProcessingRepository = ocrPreProcessingRepository;
         this.ocrService = ocrService;
+        this.ocrTransactionExtractionService = ocrTransactionExtractionService;
+        this.transactionExtractionEnabled = transactionExtractionEnabled;
     }
 
     @Transactional
@@ -107,6 +114,10 @@ public class OcrPreProcessingService {
                 log.info("OCR processing completed for document {}: {} characters extracted",
                         documentId, extractedText.length());
 
+                if (transactionExtractionEnabled) {
+                    extractTransactions(documentId, ocrPreProcessingModel);
+                }
+
                 extractedText = null;
                 System.gc();
 
@@ -128,12 +139,20 @@ public class OcrPreProcessingService {
         }).start();
     }
 
-    public Optional<OcrPreProcessingModel> getOcrResult(String documentId) {
-        return ocrPreProcessingRepository.findByDocumentId(documentId);
+    /**
+     * Falha na extração não altera o status do OCR; ela pode ser refeita pelo endpoint de extração.
+     */
+    private void extractTransactions(String documentId, OcrPreProcessingModel ocrPreProcessingModel) {
+        try {
+            ocrTransactionExtractionService.extractTransactions(documentId,
+                    ocrPreProcessingModel.getExtractedText(), ocrPreProcessingModel.getCreatedAt().toLocalDate());
+        } catch (Exception e) {
+            log.error("Error extracting transactions from OCR text of document {}: {}", documentId, e.getMessage(), e);
+        }
     }
 
-    public List<OcrPreProcessingModel> getAllOcrRecords() {
-        return ocrPreProcessingRepository.findAll();
+    public Optional<OcrPreProcessingModel> getOcrResult(String documentId) {
+        return ocrPreProcessingRepository.findByDocumentId(documentId);
     }
 
     @Transactional
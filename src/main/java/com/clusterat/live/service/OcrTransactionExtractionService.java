@@ -0,0 +1,186 @@
+package com.clusterat.live.service;
+
+import com.clusterat.live.dto.ExpenseCategoryDTO;
+import com.clusterat.live.dto.OcrExtractionResultDTO;
+import com.clusterat.live.model.AnalysisType;
+import com.clusterat.live.model.FinancialAnalysisModel;
+import com.clusterat.live.model.OcrPreProcessingModel;
+import com.clusterat.live.repository.BatchInsertWriter;
+import com.clusterat.live.repository.FinancialAnalysisRepository;
+import com.clusterat.live.repository.OcrPreProcessingRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Etapa de extração que transforma o texto do OCR em lançamentos de financial_analysis.
+ * O texto é percorrido linha a linha (StatementLineParser) e os lançamentos vão para o
+ * BatchInsertWriter em lotes de BATCH_SIZE, sem materializar o documento inteiro em entidades.
+ * Cada linha recebe source_transaction_id "ocr:{documentId}:p{página}:l{linha}", então extrair
+ * de novo o mesmo documento substitui os lançamentos anteriores em vez de duplicá-los.
+ * A categoria vem das regras de categorização; sem regra correspondente, débitos vão para a
+ * categoria padrão de despesa e créditos para a de receita.
+ */
+@Slf4j
+@Service
+public class OcrTransactionExtractionService {
+    public static final String SOURCE_PREFIX = "ocr:";
+    private static final Pattern PAGE_MARKER = Pattern.compile("^=== Page (\\d+) ===$");
+
+    private final FinancialAnalysisRepository financialAnalysisRepository;
+    private final OcrPreProcessingRepository ocrPreProcessingRepository;
+    private final BatchInsertWriter batchInsertWriter;
+    private final ExpenseCategoryRegistry expenseCategoryRegistry;
+    private final TransactionCategorizer transactionCategorizer;
+    private final ObjectMapper objectMapper;
+    private final String defaultExpenseCategory;
+    private final String defaultIncomeCategory;
+
+    @Autowired
+    public OcrTransactionExtractionService(FinancialAnalysisRepository financialAnalysisRepository,
+                                           OcrPreProcessingRepository ocrPreProcessingRepository,
+                                           BatchInsertWriter batchInsertWriter,
+                                           ExpenseCategoryRegistry expenseCategoryRegistry,
+                                           TransactionCategorizer transactionCategorizer,
+                                           ObjectMapper objectMapper,
+                                           @Value("${financial.ocr-extraction.default-expense-category:Uncategorized expense}") String defaultExpenseCategory,
+                                           @Value("${financial.ocr-extraction.default-income-category:Uncategorized income}") String defaultIncomeCategory) {
+        this.financialAnalysisRepository = financialAnalysisRepository;
+        this.ocrPreProcessingRepository = ocrPreProcessingRepository;
+        this.batchInsertWriter = batchInsertWriter;
+        this.expenseCategoryRegistry = expenseCategoryRegistry;
+        this.transactionCategorizer = transactionCategorizer;
+        this.objectMapper = objectMapper;
+        this.defaultExpenseCategory = defaultExpenseCategory;
+        this.defaultIncomeCategory = defaultIncomeCategory;
+    }
+
+    /**
+     * Extrai de novo os lançamentos de um documento já processado pelo OCR.
+     * @throws IllegalArgumentException se o OCR do documento ainda não estiver concluído
+     */
+    @Transactional
+    public OcrExtractionResultDTO extractForDocument(String documentId) {
+        OcrPreProcessingModel ocr = ocrPreProcessingRepository.findByDocumentId(documentId)
+                .orElseThrow(() -> new RuntimeException("OCR record not found for document: " + documentId));
+        if (!"completed".equals(ocr.getProcessingStatus())) {
+            throw new IllegalArgumentException("OCR processing is not completed for document: " + documentId);
+        }
+        return extractTransactions(documentId, ocr.getExtractedText(), ocr.getCreatedAt().toLocalDate());
+    }
+
+    /**
+     * Extrai e grava os lançamentos do texto, numa transação, substituindo os de uma extração anterior.
+     * @param referenceDate data do documento; até aparecer uma data completa no texto, datas sem ano
+     *                      não ficam depois dela
+     */
+    @Transactional
+    public OcrExtractionResultDTO extractTransactions(String documentId, String extractedText,
+                                                      LocalDate referenceDate) {
+        Integer expenseCategoryId = requireCategory(defaultExpenseCategory);
+        Integer incomeCategoryId = requireCategory(defaultIncomeCategory);
+        int replaced = financialAnalysisRepository.deleteBySourceTransactionIdPrefix(sourcePrefix(documentId));
+
+        StatementLineParser parser = new StatementLineParser(referenceDate);
+        OffsetDateTime createdAt = OffsetDateTime.now();
+        List<FinancialAnalysisModel> batch = new ArrayList<>();
+        long linesRead = 0;
+        long extracted = 0;
+        int page = 1;
+        int lineInPage = 0;
+        try (BufferedReader reader = new BufferedReader(new StringReader(extractedText != null ? extractedText : ""))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                linesRead++;
+                Matcher marker = PAGE_MARKER.matcher(line.trim());
+                if (marker.matches()) {
+                    page = Integer.parseInt(marker.group(1));
+                    lineInPage = 0;
+                    continue;
+                }
+                lineInPage++;
+                StatementLineParser.StatementLine parsed = parser.parse(line);
+                if (parsed == null) {
+                    continue;
+                }
+                Optional<TransactionCategorizer.Classification> classification =
+                        transactionCategorizer.classify(parsed.description(), null, parsed.amount());
+                batch.add(toModel(documentId, page, lineInPage, parsed,
+                        classification.map(TransactionCategorizer.Classification::categoryId)
+                                .orElse(parsed.credit() ? incomeCategoryId : expenseCategoryId),
+                        classification.map(TransactionCategorizer.Classification::analysisType).orElse(null),
+                        createdAt));
+                if (batch.size() == BatchInsertWriter.BATCH_SIZE) {
+                    extracted += batchInsertWriter.insertAll(batch).size();
+                    batch = new ArrayList<>();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!batch.isEmpty()) {
+            extracted += batchInsertWriter.insertAll(batch).size();
+        }
+
+        log.info("Extracted {} transactions from {} OCR lines of document {} (replaced {})",
+                extracted, linesRead, documentId, replaced);
+        return OcrExtractionResultDTO.builder()
+                .documentId(documentId)
+                .linesRead(linesRead)
+                .transactionsExtracted(extracted)
+                .previousTransactionsReplaced(replaced)
+                .build();
+    }
+
+    public static String sourcePrefix(String documentId) {
+        return SOURCE_PREFIX + documentId + ":";
+    }
+
+    private FinancialAnalysisModel toModel(String documentId, int page, int line,
+                                           StatementLineParser.StatementLine parsed,
+                                           Integer categoryId, AnalysisType analysisType, OffsetDateTime createdAt) {
+        ObjectNode metadata = objectMapper.createObjectNode()
+                .put("source", "ocr")
+                .put("document_id", documentId)
+                .put("page", page)
+                .put("line", line)
+                .put("direction", parsed.credit() ? "credit" : "debit");
+        return FinancialAnalysisModel.builder()
+                .sourceTransactionId(sourcePrefix(documentId) + "p" + page + ":l" + line)
+                .amount(parsed.amount())
+                .transactionDate(toTransactionDate(parsed.date()))
+                .description(parsed.description())
+                .categoryId(categoryId)
+                .analysisType(analysisType)
+                .metadata(metadata)
+                .createdAt(createdAt)
+                .build();
+    }
+
+    private static OffsetDateTime toTransactionDate(LocalDate date) {
+        return date.atStartOfDay().atOffset(ZoneOffset.UTC);
+    }
+
+    private Integer requireCategory(String name) {
+        return expenseCategoryRegistry.findByName(name)
+                .map(ExpenseCategoryDTO::getCategoryId)
+                .orElseThrow(() -> new IllegalStateException("Expense category not found: " + name));
+    }
+}
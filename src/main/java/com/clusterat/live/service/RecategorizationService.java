@@ -0,0 +1,135 @@
+package com.clusterat.live.service;
+
+import com.clusterat.live.config.BackgroundJobExecutor;
+import com.clusterat.live.dto.RecategorizationJobDTO;
+import com.clusterat.live.model.AnalysisType;
+import com.clusterat.live.repository.FinancialAnalysisCategorizationRepository;
+import com.clusterat.live.repository.FinancialAnalysisCategorizationRepository.CategoryUpdate;
+import com.clusterat.live.repository.FinancialAnalysisCategorizationRepository.TransactionRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Job que reaplica as regras de categorização às transações gravadas.
+ * O intervalo de analysis_id é dividido em faixas de ids ({@link BackgroundJobExecutor#forEachRange}),
+ * processadas em paralelo no pool de jobs (no máximo financial.categorization.recategorize-parallelism por vez),
+ * cada uma com uma leitura pela PK, a classificação em memória e um lote de UPDATEs só das linhas
+ * que mudaram. Linhas sem regra correspondente ficam como estão. Um job por vez.
+ */
+@Slf4j
+@Service
+public class RecategorizationService {
+    private final FinancialAnalysisCategorizationRepository financialAnalysisCategorizationRepository;
+    private final TransactionCategorizer transactionCategorizer;
+    private final ExpenseCategoryRegistry expenseCategoryRegistry;
+    private final BackgroundJobExecutor backgroundJobExecutor;
+    private final int parallelism;
+    private final BackgroundJobRegistry<RecategorizationJob, RecategorizationJobDTO> jobs;
+
+    @Autowired
+    public RecategorizationService(FinancialAnalysisCategorizationRepository financialAnalysisCategorizationRepository,
+                                   TransactionCategorizer transactionCategorizer,
+                                   ExpenseCategoryRegistry expenseCategoryRegistry,
+                                   BackgroundJobExecutor backgroundJobExecutor,
+                                   @Value("${financial.categorization.recategorize-parallelism:4}") int parallelism) {
+        this.financialAnalysisCategorizationRepository = financialAnalysisCategorizationRepository;
+        this.transactionCategorizer = transactionCategorizer;
+        this.expenseCategoryRegistry = expenseCategoryRegistry;
+        this.backgroundJobExecutor = backgroundJobExecutor;
+        this.parallelism = Math.max(1, parallelism);
+        this.jobs = new BackgroundJobRegistry<>("recategorization", true, backgroundJobExecutor);
+    }
+
+    /**
+     * Agenda a recategorização.
+     * @param categoryId quando informado, só as transações atualmente nesta categoria
+     * @throws IllegalArgumentException para categoria inexistente ou se já houver um job em andamento
+     * @throws IllegalStateException se já houver o máximo de jobs (de qualquer tipo) em andamento
+     */
+    public RecategorizationJobDTO startRecategorization(Integer categoryId) {
+        if (categoryId != null && !expenseCategoryRegistry.exists(categoryId)) {
+            throw new IllegalArgumentException("Unknown categoryId: " + categoryId);
+        }
+        RecategorizationJob job = new RecategorizationJob(categoryId);
+        log.info("Recategorization {} queued (category: {}, {} rules)", job.id, categoryId,
+                transactionCategorizer.getRuleCount());
+        return jobs.submit(job, () -> backgroundJobExecutor
+                .mono(() -> Optional.ofNullable(financialAnalysisCategorizationRepository.findIdRange(categoryId)))
+                .flatMap(range -> range.map(ids -> {
+                    job.start(BackgroundJobExecutor.batchCount(ids[0], ids[1]));
+                    return backgroundJobExecutor.forEachRange(ids[0], ids[1], parallelism,
+                            (fromId, toId) -> processRange(job, fromId, toId)).then();
+                }).orElse(Mono.empty())));
+    }
+
+    public Optional<RecategorizationJobDTO> getRecategorizationJob(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    private int processRange(RecategorizationJob job, long fromId, long toId) {
+        List<TransactionRow> rows = financialAnalysisCategorizationRepository.findRange(fromId, toId, job.categoryId);
+        List<CategoryUpdate> updates = new ArrayList<>();
+        for (TransactionRow row : rows) {
+            Optional<TransactionCategorizer.Classification> classification =
+                    transactionCategorizer.classify(row.description(), row.merchant(), row.amount());
+            if (classification.isEmpty()) {
+                continue;
+            }
+            job.rowsMatched.incrementAndGet();
+            int categoryId = classification.get().categoryId();
+            AnalysisType analysisType = classification.get().analysisType();
+            String type = analysisType != null ? analysisType.getValue() : row.analysisType();
+            if (categoryId != row.categoryId() || !Objects.equals(type, row.analysisType())) {
+                updates.add(new CategoryUpdate(row.analysisId(), categoryId, type));
+            }
+        }
+        int updated = financialAnalysisCategorizationRepository.updateCategories(updates);
+        job.rowsScanned.addAndGet(rows.size());
+        job.rowsUpdated.addAndGet(updated);
+        job.batchesDone.incrementAndGet();
+        return updated;
+    }
+
+    private static final class RecategorizationJob extends BackgroundJob<RecategorizationJobDTO> {
+        private final Integer categoryId;
+        private final AtomicLong rowsScanned = new AtomicLong();
+        private final AtomicLong rowsMatched = new AtomicLong();
+        private final AtomicLong rowsUpdated = new AtomicLong();
+
+        private RecategorizationJob(Integer categoryId) {
+            this.categoryId = categoryId;
+        }
+
+        @Override
+        String completionMessage() {
+            return String.format("Updated %d of %d transactions", rowsUpdated.get(), rowsScanned.get());
+        }
+
+        @Override
+        RecategorizationJobDTO snapshot() {
+            return RecategorizationJobDTO.builder()
+                    .jobId(id)
+                    .status(status.getValue())
+                    .categoryId(categoryId)
+                    .message(message)
+                    .progress(progress())
+                    .batchesTotal(batchesTotal)
+                    .batchesDone(batchesDone.get())
+                    .rowsScanned(rowsScanned.get())
+                    .rowsMatched(rowsMatched.get())
+                    .rowsUpdated(rowsUpdated.get())
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .build();
+        }
+    }
+}
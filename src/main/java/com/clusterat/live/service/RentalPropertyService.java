@@ -1,74 +1,112 @@
 package com.clusterat.live.service;
 
+import com.clusterat.live.dto.KeysetPageDTO;
 import com.clusterat.live.dto.RentalPropertyDTO;
+import com.clusterat.live.dto.UpsertResultDTO;
 import com.clusterat.live.model.RentalPropertyModel;
+import com.clusterat.live.model.UpsertMode;
+import com.clusterat.live.repository.BatchInsertWriter;
+import com.clusterat.live.repository.KeysetPageRequest;
+import com.clusterat.live.repository.ScrapedDataUpsertRepository;
 import com.clusterat.live.repository.RentalPropertyRepository;
+import com.clusterat.live.repository.reactive.RentalPropertyReactiveRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class RentalPropertyService {
     private final RentalPropertyRepository rentalPropertyRepository;
+    private final RentalPropertyReactiveRepository rentalPropertyReactiveRepository;
+    private final BatchInsertWriter batchInsertWriter;
+    private final ScrapedDataUpsertRepository scrapedDataUpsertRepository;
 
     @Autowired
-    public RentalPropertyService(RentalPropertyRepository rentalPropertyRepository) {
+    public RentalPropertyService(RentalPropertyRepository rentalPropertyRepository,
+                                 RentalPropertyReactiveRepository rentalPropertyReactiveRepository,
+                                 BatchInsertWriter batchInsertWriter,
+                                 ScrapedDataUpsertRepository scrapedDataUpsertRepository) {
         this.rentalPropertyRepository = rentalPropertyRepository;
+        this.rentalPropertyReactiveRepository = rentalPropertyReactiveRepository;
+        this.batchInsertWriter = batchInsertWriter;
+        this.scrapedDataUpsertRepository = scrapedDataUpsertRepository;
     }
 
-    public List<RentalPropertyDTO> getAllProperties() {
-        log.info("Fetching all rental properties");
-        return rentalPropertyRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    /**
+     * Página de imóveis por keyset (R2DBC). O total exige COUNT e só é calculado quando pedido.
+     * @throws IllegalArgumentException (no Mono) para ordenação, limite ou cursor inválidos
+     */
+    public Mono<KeysetPageDTO<RentalPropertyDTO>> getPropertiesPage(String after, Integer limit, String sort,
+                                                                    String order, boolean includeTotal) {
+        return Mono.defer(() -> {
+            KeysetPageRequest<RentalPropertyModel> page = KeysetPageRequest.of(
+                    RentalPropertyReactiveRepository.SORT_FIELDS, sort, order, after, limit);
+            log.info("Fetching rental properties page (sort: {}, order: {}, limit: {})", sort, order, page.getLimit());
+            return page.collectPage(rentalPropertyReactiveRepository.findPage(page), this::convertToDTO,
+                    includeTotal ? rentalPropertyReactiveRepository.count() : Mono.empty());
+        });
     }
 
-    public List<RentalPropertyDTO> getLatestProperties() {
-        log.info("Fetching latest 10 properties");
-        return rentalPropertyRepository.findTop10ByOrderByScrapedAtDesc().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    /**
+     * Emite os imóveis a partir do cursor via R2DBC, com backpressure, sem materializar a lista.
+     */
+    public Flux<RentalPropertyDTO> streamAllProperties(String after, String sort, String order) {
+        return Flux.defer(() -> {
+            KeysetPageRequest<RentalPropertyModel> page = KeysetPageRequest.of(
+                    RentalPropertyReactiveRepository.SORT_FIELDS, sort, order, after, null);
+            log.info("Streaming rental properties (sort: {}, order: {})", sort, order);
+            return rentalPropertyReactiveRepository.streamFrom(page).map(this::convertToDTO);
+        });
     }
 
-    public Optional<RentalPropertyDTO> getPropertyById(Long id) {
-        log.info("Fetching rental property with id: {}", id);
-        return rentalPropertyRepository.findById(id)
-                .map(this::convertToDTO);
+    public Flux<RentalPropertyDTO> streamPropertiesByNeighborhood(String neighborhood) {
+        log.info("Streaming rental properties by neighborhood: {}", neighborhood);
+        return rentalPropertyReactiveRepository.findByNeighborhood(neighborhood).map(this::convertToDTO);
     }
 
-    public List<RentalPropertyDTO> getPropertiesByNeighborhood(String neighborhood) {
-        log.info("Fetching rental properties by neighborhood: {}", neighborhood);
-        return rentalPropertyRepository.findByNeighborhood(neighborhood).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public Flux<RentalPropertyDTO> streamPropertiesByCity(String city) {
+        log.info("Streaming rental properties by city: {}", city);
+        return rentalPropertyReactiveRepository.findByCity(city).map(this::convertToDTO);
     }
 
-    public List<RentalPropertyDTO> getPropertiesByCity(String city) {
-        log.info("Fetching rental properties by city: {}", city);
-        return rentalPropertyRepository.findByCity(city).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public Flux<RentalPropertyDTO> streamPropertiesByType(String propertyType) {
+        log.info("Streaming rental properties by type: {}", propertyType);
+        return rentalPropertyReactiveRepository.findByPropertyType(propertyType).map(this::convertToDTO);
     }
 
-    public List<RentalPropertyDTO> getPropertiesByType(String propertyType) {
-        log.info("Fetching rental properties by type: {}", propertyType);
-        return rentalPropertyRepository.findByPropertyType(propertyType).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public Flux<RentalPropertyDTO> streamPropertiesByPriceRange(BigDecimal minCost, BigDecimal maxCost) {
+        log.info("Streaming rental properties with cost between {} and {}", minCost, maxCost);
+        return rentalPropertyReactiveRepository.findByTotalMonthlyCostBetween(minCost, maxCost).map(this::convertToDTO);
     }
 
-    public List<RentalPropertyDTO> getPropertiesByPriceRange(BigDecimal minCost, BigDecimal maxCost) {
-        log.info("Fetching rental properties with cost between {} and {}", minCost, maxCost);
-        return rentalPropertyRepository.findByTotalMonthlyCostBetween(minCost, maxCost).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    /**
+     * Últimos 10 imóveis coletados, sem endereço completo e formas de pagamento (só no detalhe).
+     */
+    public Flux<RentalPropertyDTO> getLatestProperties() {
+        log.info("Fetching latest 10 properties");
+        return rentalPropertyReactiveRepository.findLatest(10).map(this::convertToDTO);
+    }
+
+    public Optional<RentalPropertyDTO> getPropertyById(Long id) {
+        log.info("Fetching rental property with id: {}", id);
+        return rentalPropertyRepository.findById(id)
+                .map(this::convertToDTO);
     }
 
     @Transactional
@@ -84,25 +122,97 @@ public class RentalPropertyService {
         }
 
         RentalPropertyModel model = convertToModel(dto);
-        RentalPropertyModel saved = rentalPropertyRepository.save(model);
+        RentalPropertyModel saved;
+        try {
+            saved = rentalPropertyRepository.saveAndFlush(model);
+        } catch (DataIntegrityViolationException e) {
+            // Outro scraper gravou o mesmo imóvel entre a verificação e o INSERT
+            log.warn("Property with code {} and source URL {} already exists",
+                    dto.getPropertyCode(), dto.getSourceUrl());
+            throw new IllegalArgumentException("Property already exists");
+        }
         log.info("Rental property created with id: {}", saved.getId());
         return convertToDTO(saved);
     }
 
+    /**
+     * Inserção em lote. A duplicidade (código + URL de origem) é verificada em conjunto, com uma consulta
+     * IN por bloco de códigos, e os novos imóveis são gravados em lotes JDBC.
+     * Imóveis já existentes ou repetidos no próprio payload são ignorados.
+     */
     @Transactional
     public List<RentalPropertyDTO> createProperties(List<RentalPropertyDTO> dtos) {
         log.info("Creating {} rental properties", dtos.size());
-        return dtos.stream()
-                .map(dto -> {
-                    try {
-                        return createProperty(dto);
-                    } catch (IllegalArgumentException e) {
-                        log.warn("Skipping duplicate property with code: {}", dto.getPropertyCode());
-                        return null;
+        Map<PropertyKey, RentalPropertyDTO> byKey = new LinkedHashMap<>();
+        for (RentalPropertyDTO dto : dtos) {
+            if (byKey.putIfAbsent(new PropertyKey(dto.getPropertyCode(), dto.getSourceUrl()), dto) != null) {
+                log.warn("Skipping property repeated in payload with code: {}", dto.getPropertyCode());
+            }
+        }
+
+        Set<String> codes = byKey.keySet().stream()
+                .map(PropertyKey::propertyCode)
+                .collect(Collectors.toCollection(HashSet::new));
+        Set<PropertyKey> existing = BatchInsertWriter.lookupInChunks(codes, rentalPropertyRepository::findExistingKeys)
+                .stream()
+                .map(row -> new PropertyKey((String) row[0], (String) row[1]))
+                .collect(Collectors.toSet());
+
+        List<RentalPropertyModel> models = byKey.entrySet().stream()
+                .filter(entry -> {
+                    if (existing.contains(entry.getKey())) {
+                        log.warn("Skipping duplicate property with code: {}", entry.getKey().propertyCode());
+                        return false;
                     }
+                    return true;
                 })
-                .filter(java.util.Objects::nonNull)
+                .map(entry -> convertToModel(entry.getValue()))
                 .collect(Collectors.toList());
+        List<RentalPropertyDTO> created = batchInsertWriter.insertAll(models).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        log.info("Created {} out of {} rental properties", created.size(), dtos.size());
+        return created;
+    }
+
+    /**
+     * Ingestão por upsert (INSERT ... ON CONFLICT em comandos multi-linha), chave (property_code, source_url).
+     * insert_only ignora imóveis já gravados; update_if_newer (padrão) os sobrescreve quando o
+     * scraped_at recebido é mais recente. Repetições no payload ficam com o scraped_at mais recente.
+     * @throws IllegalArgumentException para modo inválido ou imóvel sem código ou URL de origem
+     */
+    @Transactional
+    public UpsertResultDTO upsertProperties(List<RentalPropertyDTO> dtos, String mode) {
+        UpsertMode upsertMode = Optional.ofNullable(UpsertMode.fromValue(mode)).orElse(UpsertMode.UPDATE_IF_NEWER);
+        log.info("Upserting {} rental properties (mode: {})", dtos.size(), upsertMode.getValue());
+        OffsetDateTime now = OffsetDateTime.now();
+        Map<PropertyKey, RentalPropertyModel> byKey = new LinkedHashMap<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            RentalPropertyDTO dto = dtos.get(i);
+            if (dto.getPropertyCode() == null || dto.getSourceUrl() == null) {
+                throw new IllegalArgumentException("Property at index " + i + " has no property_code or source_url");
+            }
+            RentalPropertyModel model = convertToModel(dto);
+            if (model.getScrapedAt() == null) {
+                model.setScrapedAt(now);
+            }
+            byKey.merge(new PropertyKey(dto.getPropertyCode(), dto.getSourceUrl()), model,
+                    (current, candidate) -> candidate.getScrapedAt().isAfter(current.getScrapedAt()) ? candidate : current);
+        }
+
+        ScrapedDataUpsertRepository.UpsertCounts counts = scrapedDataUpsertRepository
+                .upsertRentalProperties(new ArrayList<>(byKey.values()), upsertMode);
+        return UpsertResultDTO.builder()
+                .mode(upsertMode.getValue())
+                .received(dtos.size())
+                .inserted(counts.inserted())
+                .updated(counts.updated())
+                .unchanged(byKey.size() - counts.inserted() - counts.updated())
+                .duplicatesInPayload(dtos.size() - byKey.size())
+                .build();
+    }
+
+    private record PropertyKey(String propertyCode, String sourceUrl) {
     }
 
     @Transactional
@@ -0,0 +1,137 @@
+package com.clusterat.live.service;
+
+import com.clusterat.live.model.JobPostingModel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Normalização do salário das vagas na ingestão: salary_min/salary_max, informados em moedas e períodos
+ * variados, viram valores anuais na moeda base (salary_annual_min/max/currency), comparáveis entre vagas.
+ * O câmbio vem de uma tabela local (job-postings.salary.fx-rates, "MOEDA=taxa" para a moeda base), sem
+ * consulta externa. Moeda sem taxa ou período não reconhecido deixam os campos anuais nulos.
+ */
+@Slf4j
+@Component
+public class SalaryNormalizer {
+    private static final Map<String, String> CURRENCY_SYMBOLS = Map.of(
+            "R$", "BRL",
+            "US$", "USD",
+            "$", "USD",
+            "€", "EUR",
+            "£", "GBP");
+
+    /**
+     * Multiplicador para o valor anual, pelas palavras (já normalizadas) do período de pagamento.
+     */
+    private static final Map<String, Integer> PERIOD_MULTIPLIERS = Map.ofEntries(
+            Map.entry("hour", 2080), Map.entry("hourly", 2080), Map.entry("hora", 2080), Map.entry("hr", 2080),
+            Map.entry("day", 260), Map.entry("daily", 260), Map.entry("dia", 260), Map.entry("diario", 260),
+            Map.entry("week", 52), Map.entry("weekly", 52), Map.entry("semana", 52), Map.entry("semanal", 52),
+            Map.entry("biweekly", 26), Map.entry("quinzenal", 26),
+            Map.entry("month", 12), Map.entry("monthly", 12), Map.entry("mes", 12), Map.entry("mensal", 12),
+            Map.entry("year", 1), Map.entry("yearly", 1), Map.entry("annual", 1), Map.entry("annually", 1),
+            Map.entry("yr", 1), Map.entry("ano", 1), Map.entry("anual", 1));
+
+    private final String baseCurrency;
+    private final Map<String, BigDecimal> ratesToBase;
+
+    public SalaryNormalizer(@Value("${job-postings.salary.base-currency:BRL}") String baseCurrency,
+                            @Value("${job-postings.salary.fx-rates:}") String fxRates) {
+        this.baseCurrency = baseCurrency.trim().toUpperCase(Locale.ROOT);
+        this.ratesToBase = parseRates(fxRates);
+        this.ratesToBase.put(this.baseCurrency, BigDecimal.ONE);
+        log.info("Salary normalization to {} with rates for {}", this.baseCurrency, ratesToBase.keySet());
+    }
+
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    /**
+     * Preenche (ou limpa) os campos anuais da vaga a partir de salário, moeda e período.
+     */
+    public void normalize(JobPostingModel model) {
+        BigDecimal multiplier = annualMultiplier(model.getSalaryCurrency(), model.getSalaryPaymentPeriod());
+        if (multiplier == null || (model.getSalaryMin() == null && model.getSalaryMax() == null)) {
+            model.setSalaryAnnualMin(null);
+            model.setSalaryAnnualMax(null);
+            model.setSalaryAnnualCurrency(null);
+            return;
+        }
+        model.setSalaryAnnualMin(scale(model.getSalaryMin(), multiplier));
+        model.setSalaryAnnualMax(scale(model.getSalaryMax(), multiplier));
+        model.setSalaryAnnualCurrency(baseCurrency);
+    }
+
+    /**
+     * Fator que leva um valor na moeda e período informados ao valor anual na moeda base, ou null.
+     */
+    BigDecimal annualMultiplier(String currency, String paymentPeriod) {
+        BigDecimal rate = ratesToBase.get(currencyCode(currency));
+        Integer periods = periodsPerYear(paymentPeriod);
+        if (rate == null || periods == null) {
+            return null;
+        }
+        return rate.multiply(BigDecimal.valueOf(periods));
+    }
+
+    static String currencyCode(String currency) {
+        if (currency == null || currency.isBlank()) {
+            return null;
+        }
+        String trimmed = currency.trim().toUpperCase(Locale.ROOT);
+        return CURRENCY_SYMBOLS.getOrDefault(trimmed, trimmed);
+    }
+
+    /**
+     * Primeira palavra reconhecida do período ("per hour", "Mensal", "YEARLY"...), ou null.
+     */
+    static Integer periodsPerYear(String paymentPeriod) {
+        String normalized = TransactionCategorizer.normalize(paymentPeriod);
+        if (normalized.isEmpty()) {
+            return null;
+        }
+        for (String word : normalized.split(" ")) {
+            Integer periods = PERIOD_MULTIPLIERS.get(word);
+            if (periods != null) {
+                return periods;
+            }
+        }
+        return null;
+    }
+
+    private static BigDecimal scale(BigDecimal amount, BigDecimal multiplier) {
+        return amount == null ? null : amount.multiply(multiplier).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static Map<String, BigDecimal> parseRates(String fxRates) {
+        Map<String, BigDecimal> rates = new HashMap<>();
+        if (fxRates == null || fxRates.isBlank()) {
+            return rates;
+        }
+        for (String entry : fxRates.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.split("=", 2);
+            BigDecimal rate;
+            try {
+                rate = parts.length == 2 ? new BigDecimal(parts[1].trim()) : null;
+            } catch (NumberFormatException e) {
+                rate = null;
+            }
+            if (rate == null || rate.signum() <= 0) {
+                throw new IllegalArgumentException("Invalid job-postings.salary.fx-rates entry: " + entry.trim());
+            }
+            rates.put(parts[0].trim().toUpperCase(Locale.ROOT), rate);
+        }
+        return rates;
+    }
+}
@@ -0,0 +1,248 @@
+package com.clusterat.live.service;
+
+import com.clusterat.live.config.RequestDeadline;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Executa várias buscas no SearXNG em paralelo (com limite de concorrência),
+ * mescla os resultados removendo duplicados por URL e devolve o que estiver
+ * pronto dentro do prazo.
+ */
+@Slf4j
+@Service
+public class SearXNGBatchSearchService {
+    private final SearXNGService searXNGService;
+    private final ObjectMapper objectMapper;
+    private final int maxQueries;
+    private final int maxConcurrency;
+    private final long defaultTimeoutMs;
+    private final long maxTimeoutMs;
+
+    private record QueryOutcome(int index, String query, JsonNode results, String error) {
+    }
+
+    @Autowired
+    public SearXNGBatchSearchService(SearXNGService searXNGService, ObjectMapper objectMapper,
+                                     @Value("${searxng.batch.max-queries:20}") int maxQueries,
+                                     @Value("${searxng.batch.max-concurrency:5}") int maxConcurrency,
+                                     @Value("${searxng.batch.timeout-ms:15000}") long defaultTimeoutMs,
+                                     @Value("${searxng.batch.max-timeout-ms:60000}") long maxTimeoutMs) {
+        this.searXNGService = searXNGService;
+        this.objectMapper = objectMapper;
+        this.maxQueries = maxQueries;
+        this.maxConcurrency = maxConcurrency;
+        this.defaultTimeoutMs = defaultTimeoutMs;
+        this.maxTimeoutMs = maxTimeoutMs;
+    }
+
+    /**
+     * Realiza várias buscas simultâneas e mescla os resultados.
+     * @param queries Termos de busca (duplicados e vazios são ignorados)
+     * @param page Página de resultados aplicada a todas as buscas
+     * @param category Categoria de busca (opcional)
+     * @param language Idioma dos resultados (opcional)
+     * @param requestedConcurrency Paralelismo desejado (limitado por searxng.batch.max-concurrency)
+     * @param requestedTimeoutMs Prazo total em ms (limitado por searxng.batch.max-timeout-ms)
+     * @return JSON com resultados mesclados, buscas concluídas, com falha e expiradas
+     */
+    public Mono<String> batchSearch(List<String> queries, Integer page, String category, String language,
+                                    Integer requestedConcurrency, Long requestedTimeoutMs) {
+        List<String> distinctQueries = normalizeQueries(queries);
+
+        if (distinctQueries.isEmpty()) {
+            log.warn("Batch search called without queries");
+            return Mono.just(createErrorResponse("At least one search query is required"));
+        }
+
+        if (distinctQueries.size() > maxQueries) {
+            log.warn("Batch search exceeds maximum number of queries: {}", distinctQueries.size());
+            return Mono.just(createErrorResponse("Batch search accepts at most " + maxQueries + " queries"));
+        }
+
+        int concurrency = requestedConcurrency != null && requestedConcurrency > 0
+                ? Math.min(requestedConcurrency, maxConcurrency)
+                : maxConcurrency;
+        long timeoutMs = requestedTimeoutMs != null && requestedTimeoutMs > 0
+                ? Math.min(requestedTimeoutMs, maxTimeoutMs)
+                : defaultTimeoutMs;
+        int effectivePage = page != null && page > 0 ? page : 1;
+        long startTime = System.currentTimeMillis();
+
+        log.info("Starting batch search with {} queries (concurrency: {}, timeout: {}ms)",
+                distinctQueries.size(), concurrency, timeoutMs);
+
+        return Flux.range(0, distinctQueries.size())
+                .flatMap(index -> executeQuery(index, distinctQueries.get(index), effectivePage, category, language),
+                        concurrency)
+                .take(Duration.ofMillis(timeoutMs))
+                .collectList()
+                .map(outcomes -> buildBatchResponse(distinctQueries, outcomes, System.currentTimeMillis() - startTime))
+                // Cada busca recebe o prazo do lote (ou o do cliente, se menor)
+                .contextWrite(RequestDeadline.within(Duration.ofMillis(timeoutMs)));
+    }
+
+    private Mono<QueryOutcome> executeQuery(int index, String query, int page, String category, String language) {
+        return searXNGService.search(query, page, category, language)
+                .map(json -> toOutcome(index, query, json))
+                .onErrorResume(e -> {
+                    log.error("Error during batch search for query '{}': {}", query, e.getMessage(), e);
+                    return Mono.just(new QueryOutcome(index, query, null, e.getMessage()));
+                });
+    }
+
+    private QueryOutcome toOutcome(int index, String query, String json) {
+        try {
+            JsonNode root = objectMapper.readTree(json);
+            if (root.hasNonNull("error")) {
+                return new QueryOutcome(index, query, null, root.get("error").asText());
+            }
+            return new QueryOutcome(index, query, root.path("results"), null);
+        } catch (Exception e) {
+            log.warn("Failed to parse batch search response for query '{}': {}", query, e.getMessage());
+            return new QueryOutcome(index, query, null, "Invalid response: " + e.getMessage());
+        }
+    }
+
+    private String buildBatchResponse(List<String> queries, List<QueryOutcome> outcomes, long durationMs) {
+        List<QueryOutcome> ordered = new ArrayList<>(outcomes);
+        ordered.sort(Comparator.comparingInt(QueryOutcome::index));
+
+        Map<String, ObjectNode> mergedResults = new LinkedHashMap<>();
+        Map<String, String> failed = new LinkedHashMap<>();
+        Set<String> finished = new LinkedHashSet<>();
+
+        for (QueryOutcome outcome : ordered) {
+            finished.add(outcome.query());
+            if (outcome.error() != null) {
+                failed.put(outcome.query(), outcome.error());
+                continue;
+            }
+            if (outcome.results() == null || !outcome.results().isArray()) {
+                continue;
+            }
+            for (JsonNode item : outcome.results()) {
+                mergeResult(mergedResults, item, outcome.query());
+            }
+        }
+
+        List<String> timedOut = queries.stream()
+                .filter(query -> !finished.contains(query))
+                .toList();
+
+        List<ObjectNode> results = new ArrayList<>(mergedResults.values());
+        results.sort(Comparator
+                .comparingInt((ObjectNode node) -> node.path("matched_queries").size()).reversed()
+                .thenComparing(node -> node.path("score").asDouble(0d), Comparator.reverseOrder()));
+
+        ObjectNode response = objectMapper.createObjectNode();
+        response.set("queries", objectMapper.valueToTree(queries));
+        response.put("completed", finished.size() - failed.size());
+        response.set("failed", objectMapper.valueToTree(failed));
+        response.set("timed_out", objectMapper.valueToTree(timedOut));
+        response.put("partial", !failed.isEmpty() || !timedOut.isEmpty());
+        response.put("number_of_results", results.size());
+        response.set("results", objectMapper.valueToTree(results));
+        response.put("search_duration_ms", durationMs);
+        response.put("timestamp", System.currentTimeMillis());
+
+        log.info("Batch search finished in {}ms: {} completed, {} failed, {} timed out, {} unique results",
+                durationMs, finished.size() - failed.size(), failed.size(), timedOut.size(), results.size());
+
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (Exception e) {
+            log.error("Error serializing batch search response: {}", e.getMessage(), e);
+            return createErrorResponse("Failed to serialize batch search response");
+        }
+    }
+
+    private void mergeResult(Map<String, ObjectNode> mergedResults, JsonNode item, String query) {
+        if (!item.isObject()) {
+            return;
+        }
+        String key = normalizeUrl(item.path("url").asText(null));
+        if (key == null) {
+            return;
+        }
+
+        ObjectNode existing = mergedResults.get(key);
+        if (existing == null) {
+            ObjectNode copy = ((ObjectNode) item).deepCopy();
+            copy.putArray("matched_queries").add(query);
+            mergedResults.put(key, copy);
+            return;
+        }
+
+        ArrayNode matchedQueries = (ArrayNode) existing.get("matched_queries");
+        matchedQueries.add(query);
+        if (item.path("score").asDouble(0d) > existing.path("score").asDouble(0d)) {
+            existing.put("score", item.path("score").asDouble());
+        }
+    }
+
+    private String normalizeUrl(String url) {
+        if (url == null || url.isBlank()) {
+            return null;
+        }
+        String normalized = url.trim();
+        int fragment = normalized.indexOf('#');
+        if (fragment >= 0) {
+            normalized = normalized.substring(0, fragment);
+        }
+        while (normalized.endsWith("/")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        // Esquema e host não diferenciam maiúsculas; o caminho sim
+        int schemeEnd = normalized.indexOf("://");
+        int pathStart = schemeEnd >= 0 ? normalized.indexOf('/', schemeEnd + 3) : -1;
+        if (pathStart < 0) {
+            return normalized.toLowerCase();
+        }
+        return normalized.substring(0, pathStart).toLowerCase() + normalized.substring(pathStart);
+    }
+
+    private List<String> normalizeQueries(List<String> queries) {
+        if (queries == null) {
+            return List.of();
+        }
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String query : queries) {
+            if (query != null && !query.trim().isEmpty()) {
+                distinct.add(query.trim());
+            }
+        }
+        return new ArrayList<>(distinct);
+    }
+
+    private String createErrorResponse(String message) {
+        try {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", message);
+            errorResponse.put("timestamp", System.currentTimeMillis());
+            errorResponse.put("results", new Object[0]);
+            return objectMapper.writeValueAsString(errorResponse);
+        } catch (Exception e) {
+            log.error("Error creating error response: {}", e.getMessage(), e);
+            return "{\"error\":\"" + message + "\",\"results\":[]}";
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.clusterat.live.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool de instâncias SearXNG com roteamento por menor carga.
+ * A escolha usa "power of two choices": sorteia duas instâncias saudáveis e
+ * fica com a de menor (requisições em andamento + 1) x latência média (EWMA).
+ * Instâncias com falhas consecutivas são retiradas do pool e readmitidas
+ * quando a sonda periódica em /status volta a responder.
+ */
+@Slf4j
+@Component
+public class SearXNGEndpointPool {
+    private static final double LATENCY_EWMA_ALPHA = 0.3;
+
+    private final WebClient webClient;
+    private final List<Endpoint> endpoints;
+    private final int failureThreshold;
+    private final Duration probeTimeout;
+
+    /**
+     * Estado de uma instância SearXNG.
+     */
+    public static class Endpoint {
+        private final String url;
+        private final AtomicInteger inFlight = new AtomicInteger(0);
+        private final AtomicInteger consecutiveFailures = new AtomicInteger(0);
+        private volatile boolean healthy = true;
+        private volatile double latencyEwmaMs = 0;
+        private volatile long lastCheckedAt = 0;
+
+        Endpoint(String url) {
+            this.url = url;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        public int getInFlight() {
+            return inFlight.get();
+        }
+
+        public double getLatencyEwmaMs() {
+            return latencyEwmaMs;
+        }
+
+        double score() {
+            return (inFlight.get() + 1) * Math.max(latencyEwmaMs, 1d);
+        }
+
+        synchronized void recordLatency(long latencyMs) {
+            latencyEwmaMs = latencyEwmaMs == 0
+                    ? latencyMs
+                    : LATENCY_EWMA_ALPHA * latencyMs + (1 - LATENCY_EWMA_ALPHA) * latencyEwmaMs;
+        }
+    }
+
+    @Autowired
+    public SearXNGEndpointPool(WebClient webClient,
+                               @Value("${searxng.urls:${searxng.url}}") String urls,
+                               @Value("${searxng.health.failure-threshold:3}") int failureThreshold,
+                               @Value("${searxng.health.timeout-ms:2000}") long probeTimeoutMs) {
+        this.webClient = webClient;
+        this.endpoints = Arrays.stream(urls.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .map(url -> url.endsWith("/") ? url.substring(0, url.length() - 1) : url)
+                .distinct()
+                .map(Endpoint::new)
+                .toList();
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.probeTimeout = Duration.ofMillis(probeTimeoutMs);
+
+        if (endpoints.isEmpty()) {
+            throw new IllegalStateException("At least one SearXNG URL must be configured (searxng.urls or searxng.url)");
+        }
+        log.info("SearXNG endpoint pool initialized with {} instance(s): {}",
+                endpoints.size(), endpoints.stream().map(Endpoint::getUrl).toList());
+    }
+
+    /**
+     * Escolhe a instância para a próxima requisição.
+     * Se nenhuma estiver saudável, usa todas (fail open) para não derrubar a busca.
+     */
+    public Endpoint select() {
+        List<Endpoint> candidates = endpoints.stream().filter(Endpoint::isHealthy).toList();
+        if (candidates.isEmpty()) {
+            log.warn("No healthy SearXNG instance available, routing to any instance");
+            candidates = endpoints;
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Endpoint first = candidates.get(random.nextInt(candidates.size()));
+        Endpoint second = candidates.get(random.nextInt(candidates.size()));
+        return first.score() <= second.score() ? first : second;
+    }
+
+    /**
+     * Marca o início de uma requisição na instância.
+     */
+    public void begin(Endpoint endpoint) {
+        endpoint.inFlight.incrementAndGet();
+    }
+
+    /**
+     * Marca o fim de uma requisição na instância.
+     */
+    public void end(Endpoint endpoint) {
+        endpoint.inFlight.decrementAndGet();
+    }
+
+    /**
+     * Registra uma resposta bem-sucedida, atualizando a latência e zerando as falhas.
+     */
+    public void recordSuccess(Endpoint endpoint, long latencyMs) {
+        endpoint.recordLatency(latencyMs);
+        markHealthy(endpoint);
+    }
+
+    private void markHealthy(Endpoint endpoint) {
+        endpoint.consecutiveFailures.set(0);
+        if (!endpoint.healthy) {
+            endpoint.healthy = true;
+            log.info("SearXNG instance {} re-admitted to the pool", endpoint.url);
+        }
+    }
+
+    /**
+     * Registra uma falha; após searxng.health.failure-threshold falhas seguidas a instância é ejetada.
+     */
+    public void recordFailure(Endpoint endpoint, Throwable error) {
+        int failures = endpoint.consecutiveFailures.incrementAndGet();
+        if (endpoint.healthy && failures >= failureThreshold) {
+            endpoint.healthy = false;
+            log.warn("SearXNG instance {} ejected from the pool after {} consecutive failures: {}",
+                    endpoint.url, failures, error != null ? error.getMessage() : "health probe failed");
+        }
+    }
+
+    /**
+     * Sonda periódica de todas as instâncias.
+     */
+    @Scheduled(fixedDelayString = "${searxng.health.interval-ms:15000}",
+            initialDelayString = "${searxng.health.initial-delay-ms:5000}")
+    public Mono<Void> scheduledProbe() {
+        return probeAll().then();
+    }
+
+    /**
+     * Sonda todas as instâncias em /status e atualiza o estado de saúde.
+     * @return true se ao menos uma instância respondeu à sonda
+     */
+    public Mono<Boolean> probeAll() {
+        return Flux.fromIterable(endpoints)
+                .flatMap(this::probe)
+                .reduce(false, (anyHealthy, healthy) -> anyHealthy || healthy);
+    }
+
+    public boolean hasHealthyEndpoint() {
+        return endpoints.stream().anyMatch(Endpoint::isHealthy);
+    }
+
+    public List<Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Estado de cada instância, para exposição nos health checks.
+     */
+    public List<Map<String, Object>> describeEndpoints() {
+        return endpoints.stream().map(endpoint -> {
+            Map<String, Object> status = new HashMap<>();
+            status.put("url", endpoint.url);
+            status.put("healthy", endpoint.healthy);
+            status.put("in_flight", endpoint.inFlight.get());
+            status.put("latency_ewma_ms", Math.round(endpoint.latencyEwmaMs));
+            status.put("consecutive_failures", endpoint.consecutiveFailures.get());
+            status.put("last_checked_at", endpoint.lastCheckedAt);
+            return status;
+        }).toList();
+    }
+
+    private Mono<Boolean> probe(Endpoint endpoint) {
+        return webClient.get()
+                .uri(URI.create(endpoint.url + "/status"))
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(probeTimeout)
+                .map(response -> response.getStatusCode() == HttpStatus.OK)
+                .onErrorResume(e -> {
+                    log.debug("SearXNG health probe failed for {}: {}", endpoint.url, e.getMessage());
+                    return Mono.just(false);
+                })
+                .doOnNext(healthy -> {
+                    endpoint.lastCheckedAt = System.currentTimeMillis();
+                    // A latência de /status não representa a de /search, por isso não entra na média
+                    if (healthy) {
+                        markHealthy(endpoint);
+                    } else {
+                        recordFailure(endpoint, null);
+                    }
+                });
+    }
+}
@@ -0,0 +1,191 @@
+package com.clusterat.live.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pré-carregamento especulativo das próximas páginas de uma busca.
+ * Quando a página N é servida, as páginas N+1..N+searxng.prefetch.pages são buscadas
+ * em segundo plano e guardadas no cache de páginas. O prefetch não ocupa threads: o WebClient é
+ * não bloqueante, então o que o impede de competir com as buscas dos clientes são o limite de
+ * searxng.prefetch.max-in-flight requisições em andamento e o orçamento do rate limiter.
+ * Desligado por padrão (searxng.prefetch.enabled).
+ */
+@Slf4j
+@Component
+public class SearXNGPrefetcher {
+    private final boolean enabled;
+    private final int pagesAhead;
+    private final int maxInFlight;
+    private final double budgetFraction;
+    private final Cache<String, PrefetchedPage> pageCache;
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+
+    private final Counter issuedCounter;
+    private final Counter skippedCounter;
+    private final Counter failedCounter;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    /**
+     * Busca de uma página feita pelo SearXNGService em nome do prefetch.
+     * Devolve vazio quando o orçamento do rate limiter não permite a busca.
+     */
+    @FunctionalInterface
+    public interface PageFetcher {
+        Mono<String> fetch(String query, int page, String category, String language);
+    }
+
+    private static class PrefetchedPage {
+        final String body;
+        final AtomicBoolean served = new AtomicBoolean(false);
+
+        PrefetchedPage(String body) {
+            this.body = body;
+        }
+    }
+
+    @Autowired
+    public SearXNGPrefetcher(MeterRegistry meterRegistry,
+                             @Value("${searxng.prefetch.enabled:false}") boolean enabled,
+                             @Value("${searxng.prefetch.pages:1}") int pagesAhead,
+                             @Value("${searxng.prefetch.max-in-flight:4}") int maxInFlight,
+                             @Value("${searxng.prefetch.budget-fraction:0.5}") double budgetFraction,
+                             @Value("${searxng.prefetch.cache-size:500}") long cacheSize,
+                             @Value("${searxng.prefetch.ttl-minutes:10}") long ttlMinutes) {
+        this.enabled = enabled;
+        this.pagesAhead = Math.max(1, pagesAhead);
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.budgetFraction = Math.min(1d, Math.max(0d, budgetFraction));
+        this.pageCache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttlMinutes, TimeUnit.MINUTES)
+                .build();
+
+        this.issuedCounter = Counter.builder("searxng.prefetch.requests").tag("outcome", "issued")
+                .description("Prefetch requests sent to SearXNG").register(meterRegistry);
+        this.skippedCounter = Counter.builder("searxng.prefetch.requests").tag("outcome", "skipped")
+                .description("Prefetches skipped (rate limit budget or concurrency)").register(meterRegistry);
+        this.failedCounter = Counter.builder("searxng.prefetch.requests").tag("outcome", "failed")
+                .description("Prefetches that failed or returned an error").register(meterRegistry);
+        this.hitCounter = Counter.builder("searxng.prefetch.lookups").tag("result", "hit")
+                .description("Page requests served from a prefetched page").register(meterRegistry);
+        this.missCounter = Counter.builder("searxng.prefetch.lookups").tag("result", "miss")
+                .description("Page requests (page > 1) not found in the prefetch cache").register(meterRegistry);
+        Gauge.builder("searxng.prefetch.hit.ratio", this, SearXNGPrefetcher::hitRatio)
+                .description("Share of issued prefetches later served to a client")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Fração da janela do rate limiter que o prefetch pode consumir;
+     * acima dela o restante fica reservado para as buscas dos clientes.
+     */
+    public double getBudgetFraction() {
+        return budgetFraction;
+    }
+
+    /**
+     * Procura uma página já pré-carregada.
+     */
+    public Optional<String> lookup(String query, int page, String category, String language) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        PrefetchedPage prefetched = pageCache.getIfPresent(key(query, page, category, language));
+        if (prefetched == null) {
+            if (page > 1) {
+                missCounter.increment();
+            }
+            return Optional.empty();
+        }
+        // Conta o acerto só na primeira vez, para a taxa refletir prefetches úteis
+        if (prefetched.served.compareAndSet(false, true)) {
+            hitCounter.increment();
+        }
+        return Optional.of(prefetched.body);
+    }
+
+    /**
+     * Dispara em segundo plano o pré-carregamento das páginas seguintes à página servida.
+     */
+    public void prefetchAfter(String query, int page, String category, String language, PageFetcher fetcher) {
+        if (!enabled) {
+            return;
+        }
+        for (int next = page + 1; next <= page + pagesAhead; next++) {
+            String key = key(query, next, category, language);
+            if (pageCache.getIfPresent(key) != null) {
+                continue;
+            }
+            if (inFlight.incrementAndGet() > maxInFlight) {
+                inFlight.decrementAndGet();
+                skippedCounter.increment();
+                continue;
+            }
+
+            int nextPage = next;
+            fetcher.fetch(query, nextPage, category, language)
+                    .doFinally(signal -> inFlight.decrementAndGet())
+                    .subscribe(
+                            body -> {
+                                issuedCounter.increment();
+                                pageCache.put(key, new PrefetchedPage(body));
+                                log.debug("Prefetched page {} for query: {}", nextPage, query);
+                            },
+                            e -> {
+                                issuedCounter.increment();
+                                failedCounter.increment();
+                                log.debug("Prefetch of page {} failed for query '{}': {}", nextPage, query, e.getMessage());
+                            },
+                            () -> {
+                                // Vazio: sem orçamento no rate limiter ou resposta vazia
+                            });
+        }
+    }
+
+    /**
+     * Registra um prefetch recusado (sem orçamento no rate limiter).
+     */
+    public void recordSkipped() {
+        skippedCounter.increment();
+    }
+
+    public void clear() {
+        pageCache.invalidateAll();
+    }
+
+    public double getHitCount() {
+        return hitCounter.count();
+    }
+
+    public double getSkippedCount() {
+        return skippedCounter.count();
+    }
+
+    double hitRatio() {
+        double issued = issuedCounter.count();
+        return issued == 0 ? 0 : hitCounter.count() / issued;
+    }
+
+    private String key(String query, int page, String category, String language) {
+        return query + '\u0000' + page + '\u0000' + (category != null ? category : "") + '\u0000' + (language != null ? language : "");
+    }
+}
@@ -0,0 +1,264 @@
+package com.clusterat.live.service;
+
+import com.clusterat.live.dto.SearXNGEngineDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Cache em memória do /config do SearXNG.
+ * O conteúdo é atualizado em segundo plano (searxng.config.refresh-interval-ms) com
+ * requisição condicional (If-None-Match / If-Modified-Since), e um índice tipado de
+ * categorias e engines permite validar parâmetros sem ida ao SearXNG.
+ */
+@Slf4j
+@Service
+public class SearXNGServerInfoService {
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper;
+    private final SearXNGEndpointPool endpointPool;
+    private final Duration fetchTimeout;
+    private final long maxAgeMs;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final AtomicReference<Mono<Snapshot>> pendingRefresh = new AtomicReference<>();
+
+    /**
+     * Versão imutável do /config e do índice derivado dele.
+     */
+    private static final class Snapshot {
+        final String body;
+        final String etag;
+        final String lastModified;
+        final long fetchedAt;
+        final List<String> categories;
+        final Set<String> categoryKeys;
+        final List<SearXNGEngineDTO> engines;
+        final Map<String, List<String>> enginesByCategory;
+
+        Snapshot(String body, String etag, String lastModified, long fetchedAt, List<String> categories,
+                 List<SearXNGEngineDTO> engines, Map<String, List<String>> enginesByCategory) {
+            this.body = body;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.fetchedAt = fetchedAt;
+            this.categories = categories;
+            this.categoryKeys = new LinkedHashSet<>();
+            categories.forEach(category -> categoryKeys.add(normalize(category)));
+            this.engines = engines;
+            this.enginesByCategory = enginesByCategory;
+        }
+
+        Snapshot revalidated() {
+            return new Snapshot(body, etag, lastModified, System.currentTimeMillis(), categories, engines, enginesByCategory);
+        }
+    }
+
+    @Autowired
+    public SearXNGServerInfoService(WebClient webClient, ObjectMapper objectMapper,
+                                    SearXNGEndpointPool endpointPool,
+                                    @Value("${searxng.config.timeout-ms:5000}") long fetchTimeoutMs,
+                                    @Value("${searxng.config.max-age-ms:900000}") long maxAgeMs) {
+        this.webClient = webClient;
+        this.objectMapper = objectMapper;
+        this.endpointPool = endpointPool;
+        this.fetchTimeout = Duration.ofMillis(fetchTimeoutMs);
+        this.maxAgeMs = maxAgeMs;
+    }
+
+    /**
+     * Retorna o /config em cache; só busca no SearXNG se ainda não houver cópia ou se ela
+     * passou de searxng.config.max-age-ms. Se a busca falhar, serve a cópia antiga.
+     * @return JSON do /config
+     */
+    public Mono<String> getServerInfo() {
+        return Mono.defer(() -> {
+            Snapshot current = snapshot.get();
+            if (current != null && System.currentTimeMillis() - current.fetchedAt < maxAgeMs) {
+                return Mono.just(current.body);
+            }
+            return refresh()
+                    .map(refreshed -> refreshed.body)
+                    .onErrorResume(e -> {
+                        if (current == null) {
+                            return Mono.error(e);
+                        }
+                        log.warn("Serving stale SearXNG server info after refresh failure: {}", e.getMessage());
+                        return Mono.just(current.body);
+                    });
+        });
+    }
+
+    /**
+     * Atualização periódica em segundo plano.
+     */
+    @Scheduled(fixedDelayString = "${searxng.config.refresh-interval-ms:300000}",
+            initialDelayString = "${searxng.config.initial-delay-ms:0}")
+    public Mono<Void> scheduledRefresh() {
+        return refresh()
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("Scheduled SearXNG server info refresh failed: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Busca o /config de forma condicional. Chamadas simultâneas compartilham a mesma requisição.
+     */
+    Mono<Snapshot> refresh() {
+        Mono<Snapshot> pending = pendingRefresh.get();
+        if (pending != null) {
+            return pending;
+        }
+        Mono<Snapshot> request = Mono.defer(() -> fetch(snapshot.get()))
+                .doOnNext(snapshot::set)
+                .doFinally(signal -> pendingRefresh.set(null))
+                .cache();
+        return pendingRefresh.compareAndSet(null, request) ? request : refresh();
+    }
+
+    /**
+     * Indica se a categoria existe no SearXNG. Sem catálogo carregado a validação é
+     * ignorada (retorna true), para não bloquear buscas por indisponibilidade do /config.
+     */
+    public boolean isKnownCategory(String category) {
+        Snapshot current = snapshot.get();
+        return current == null || current.categoryKeys.isEmpty() || current.categoryKeys.contains(normalize(category));
+    }
+
+    public boolean isCatalogLoaded() {
+        return snapshot.get() != null;
+    }
+
+    public List<String> getCategories() {
+        Snapshot current = snapshot.get();
+        return current != null ? current.categories : Collections.emptyList();
+    }
+
+    public List<SearXNGEngineDTO> getEngines() {
+        Snapshot current = snapshot.get();
+        return current != null ? current.engines : Collections.emptyList();
+    }
+
+    /**
+     * Engines habilitadas que atendem a categoria.
+     */
+    public List<String> getEnginesForCategory(String category) {
+        Snapshot current = snapshot.get();
+        if (current == null || category == null) {
+            return Collections.emptyList();
+        }
+        return current.enginesByCategory.getOrDefault(normalize(category), Collections.emptyList());
+    }
+
+    /**
+     * Resumo do catálogo (categorias e engines por categoria).
+     */
+    public Map<String, Object> describeCatalog() {
+        Snapshot current = snapshot.get();
+        Map<String, Object> catalog = new HashMap<>();
+        catalog.put("loaded", current != null);
+        catalog.put("categories", current != null ? current.categories : Collections.emptyList());
+        catalog.put("engines_by_category", current != null ? current.enginesByCategory : Collections.emptyMap());
+        catalog.put("fetched_at", current != null ? current.fetchedAt : null);
+        return catalog;
+    }
+
+    private Mono<Snapshot> fetch(Snapshot current) {
+        SearXNGEndpointPool.Endpoint endpoint = endpointPool.select();
+
+        return webClient.get()
+                .uri(URI.create(endpoint.getUrl() + "/config"))
+                .headers(headers -> {
+                    if (current != null && current.etag != null) {
+                        headers.setIfNoneMatch(current.etag);
+                    }
+                    if (current != null && current.lastModified != null) {
+                        headers.set(HttpHeaders.IF_MODIFIED_SINCE, current.lastModified);
+                    }
+                })
+                .exchangeToMono(response -> {
+                    if (response.statusCode().value() == HttpStatus.NOT_MODIFIED.value() && current != null) {
+                        log.debug("SearXNG server info not modified");
+                        return response.releaseBody().thenReturn(current.revalidated());
+                    }
+                    if (response.statusCode().is2xxSuccessful()) {
+                        HttpHeaders headers = response.headers().asHttpHeaders();
+                        return response.bodyToMono(String.class)
+                                .map(body -> parse(body, headers.getETag(), headers.getFirst(HttpHeaders.LAST_MODIFIED)));
+                    }
+                    return response.createException().flatMap(Mono::error);
+                })
+                .timeout(fetchTimeout)
+                .doOnNext(refreshed -> log.debug("SearXNG server info refreshed: {} categories, {} engines",
+                        refreshed.categories.size(), refreshed.engines.size()));
+    }
+
+    private Snapshot parse(String body, String etag, String lastModified) {
+        List<String> categories = new ArrayList<>();
+        List<SearXNGEngineDTO> engines = new ArrayList<>();
+        Map<String, List<String>> enginesByCategory = new LinkedHashMap<>();
+
+        try {
+            JsonNode root = objectMapper.readTree(body);
+            root.path("categories").forEach(category -> categories.add(category.asText()));
+
+            for (JsonNode engineNode : root.path("engines")) {
+                List<String> engineCategories = new ArrayList<>();
+                engineNode.path("categories").forEach(category -> engineCategories.add(category.asText()));
+
+                SearXNGEngineDTO engine = SearXNGEngineDTO.builder()
+                        .name(engineNode.path("name").asText())
+                        .shortcut(engineNode.path("shortcut").asText(null))
+                        .categories(engineCategories)
+                        .enabled(engineNode.path("enabled").asBoolean(true))
+                        .paging(engineNode.path("paging").asBoolean(false))
+                        .languageSupport(engineNode.path("language_support").asBoolean(false))
+                        .timeRangeSupport(engineNode.path("time_range_support").asBoolean(false))
+                        .build();
+                engines.add(engine);
+
+                if (Boolean.TRUE.equals(engine.getEnabled())) {
+                    for (String category : engineCategories) {
+                        enginesByCategory.computeIfAbsent(normalize(category), key -> new ArrayList<>()).add(engine.getName());
+                        if (categories.stream().noneMatch(known -> normalize(known).equals(normalize(category)))) {
+                            categories.add(category);
+                        }
+                    }
+                }
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Invalid SearXNG server info: " + e.getMessage(), e);
+        }
+
+        return new Snapshot(body, etag, lastModified, System.currentTimeMillis(),
+                Collections.unmodifiableList(categories), Collections.unmodifiableList(engines),
+                Collections.unmodifiableMap(enginesByCategory));
+    }
+
+    private static String normalize(String category) {
+        return category.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,5 +1,6 @@
 package com.clusterat.live.service;
 
+import com.clusterat.live.config.RequestDeadline;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -7,27 +8,38 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.HttpServerErrorException;
-import org.springframework.web.client.RestClient;
-import org.springframework.web.client.RestClientException;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
+import java.net.URI;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 @Slf4j
 @Service
 public class SearXNGService {
-    private final RestClient restClient;
+    private final WebClient webClient;
     private final ObjectMapper objectMapper;
-    private final String searXNGUrl;
+    private final SearXNGEndpointPool endpointPool;
+    private final SearXNGPrefetcher prefetcher;
+    private final SearXNGServerInfoService serverInfoService;
+    private final Duration searchTimeout;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
     private final long rateLimitWindowMs;
     private final int maxRequestsPerWindow;
 
@@ -40,15 +52,23 @@ public class SearXNGService {
     }
 
     @Autowired
-    public SearXNGService(RestClient restClient, ObjectMapper objectMapper,
-                         @Value("${searxng.url}") String searXNGUrl,
+    public SearXNGService(WebClient webClient, ObjectMapper objectMapper,
+                         SearXNGEndpointPool endpointPool,
+                         SearXNGPrefetcher prefetcher,
+                         SearXNGServerInfoService serverInfoService,
                          @Value("${searxng.timeout.seconds:10}") int searchTimeoutSeconds,
                          @Value("${searxng.retry.max-attempts:3}") int maxRetries,
+                         @Value("${searxng.retry.backoff-ms:200}") long retryBackoffMs,
                          @Value("${searxng.rate-limit.window-ms:60000}") long rateLimitWindowMs,
                          @Value("${searxng.rate-limit.max-requests:100}") int maxRequestsPerWindow) {
-        this.restClient = restClient;
+        this.webClient = webClient;
         this.objectMapper = objectMapper;
-        this.searXNGUrl = searXNGUrl;
+        this.endpointPool = endpointPool;
+        this.prefetcher = prefetcher;
+        this.serverInfoService = serverInfoService;
+        this.searchTimeout = Duration.ofSeconds(searchTimeoutSeconds);
+        this.maxAttempts = Math.max(1, maxRetries);
+        this.retryBackoff = Duration.ofMillis(retryBackoffMs);
         this.rateLimitWindowMs = rateLimitWindowMs;
         this.maxRequestsPerWindow = maxRequestsPerWindow;
     }
@@ -56,77 +76,83 @@ public class SearXNGService {
     /**
      * Realiza uma busca no SearXNG com tratamento robusto de erros.
      * @param query Termo de busca
-     * @return Resposta JSON da busca ou JSON vazio em caso de erro
+     * @return Resposta JSON da busca ou JSON de erro
      */
     @Cacheable(value = "searxng_searches", key = "#query", unless = "#result == null || #result.isEmpty()")
-    public String search(String query) {
+    public Mono<String> search(String query) {
         return search(query, 1, null, null);
     }
 
     /**
      * Realiza uma busca com parâmetros avançados.
+     * Cada tentativa respeita searxng.timeout.seconds; falhas transitórias (5xx, 429,
+     * timeout, conexão) são repetidas com backoff exponencial com jitter, até
+     * searxng.retry.max-attempts tentativas. Se houver prazo no contexto
+     * ({@link RequestDeadline}) ele limita o total e é repassado ao SearXNG via timeout_limit.
+     * Com searxng.prefetch.enabled, as páginas seguintes são pré-carregadas em segundo plano.
      * @param query Termo de busca
      * @param page Página de resultados (padrão: 1)
      * @param category Categoria de busca (opcional)
      * @param language Idioma dos resultados (opcional)
      * @return Resposta JSON da busca
      */
-    public String search(String query, Integer page, String category, String language) {
+    public Mono<String> search(String query, Integer page, String category, String language) {
         // Validação de entrada
         if (query == null || query.trim().isEmpty()) {
             log.warn("Search query is empty");
-            return createErrorResponse("Search query cannot be empty");
+            return Mono.just(createErrorResponse("Search query cannot be empty"));
         }
 
         if (query.length() > 1000) {
             log.warn("Search query exceeds maximum length: {}", query.length());
-            return createErrorResponse("Search query exceeds maximum length of 1000 characters");
+            return Mono.just(createErrorResponse("Search query exceeds maximum length of 1000 characters"));
         }
 
-        if (!checkRateLimit(query)) {
-            log.warn("Rate limit exceeded for query: {}", query);
-            return createErrorResponse("Rate limit exceeded. Please try again later");
+        if (category != null && !category.isEmpty() && !serverInfoService.isKnownCategory(category)) {
+            log.warn("Unknown search category: {}", category);
+            return Mono.just(createErrorResponse("Unknown category: " + category + ". Available categories: "
+                    + String.join(", ", serverInfoService.getCategories())));
         }
 
-        try {
+        int pageNumber = page != null && page > 0 ? page : 1;
+
+        return Mono.deferContextual(context -> {
+            Optional<String> prefetched = prefetcher.lookup(query, pageNumber, category, language);
+            if (prefetched.isPresent()) {
+                log.debug("Serving prefetched page {} for query: {}", pageNumber, query);
+                prefetcher.prefetchAfter(query, pageNumber, category, language, this::prefetchPage);
+                return Mono.just(prefetched.get());
+            }
+
+            if (!checkRateLimit(query)) {
+                log.warn("Rate limit exceeded for query: {}", query);
+                return Mono.just(createErrorResponse("Rate limit exceeded. Please try again later"));
+            }
+
+            Optional<Duration> deadline = RequestDeadline.remaining(context);
+            if (deadline.isPresent() && deadline.get().isZero()) {
+                log.warn("Request deadline already expired for query: {}", query);
+                return Mono.just(createErrorResponse("Request deadline exceeded"));
+            }
+
             String encodedQuery = URLEncoder.encode(query, StandardCharsets.UTF_8);
-            String url = buildSearchUrl(encodedQuery, page, category, language);
+            String url = buildSearchUrl(encodedQuery, page, category, language, deadline.orElse(null));
 
             log.debug("Searching SearXNG with URL: {}", url);
 
-            ResponseEntity<String> response = restClient.get()
-                    .uri(url)
-                    .retrieve()
-                    .toEntity(String.class);
-
-            if (response.getStatusCode() == HttpStatus.OK) {
-                String body = response.getBody();
-                if (body != null && !body.isEmpty()) {
-                    log.info("Search successful for query: {}", query);
-                    return body;
-                } else {
-                    log.warn("Empty response body from SearXNG for query: {}", query);
-                    return createErrorResponse("Empty response from SearXNG");
-                }
-            } else {
-                log.error("Unexpected status code from SearXNG: {}", response.getStatusCode());
-                return createErrorResponse("Unexpected status: " + response.getStatusCode());
-            }
-        } catch (HttpClientErrorException e) {
-            log.error("Client error during search for query '{}': {} - {}",
-                    query, e.getStatusCode(), e.getMessage(), e);
-            return createErrorResponse("Client error: " + e.getStatusCode() + " - " + e.getMessage());
-        } catch (HttpServerErrorException e) {
-            log.error("Server error during search for query '{}': {} - {}",
-                    query, e.getStatusCode(), e.getMessage(), e);
-            return createErrorResponse("Server error: " + e.getStatusCode() + " - " + e.getMessage());
-        } catch (RestClientException e) {
-            log.error("REST client error during search for query '{}': {}", query, e.getMessage(), e);
-            return createErrorResponse("REST client error: " + e.getMessage());
-        } catch (Exception e) {
-            log.error("Unexpected error during search for query '{}': {}", query, e.getMessage(), e);
-            return createErrorResponse("Unexpected error: " + e.getMessage());
-        }
+            return execute(url, deadline.orElse(null))
+                    .map(body -> {
+                        if (body.isEmpty()) {
+                            log.warn("Empty response body from SearXNG for query: {}", query);
+                            return createErrorResponse("Empty response from SearXNG");
+                        }
+                        log.info("Search successful for query: {}", query);
+                        prefetcher.prefetchAfter(query, pageNumber, category, language, this::prefetchPage);
+                        return body;
+                    })
+                    .switchIfEmpty(Mono.fromSupplier(() -> createErrorResponse("Empty response from SearXNG")))
+                    .onErrorResume(e -> Mono.just(handleSearchError(query, e)));
+        });
     }
 
     /**
@@ -135,15 +161,14 @@ public class SearXNGService {
      * @param params Parâmetros adicionais
      * @return Resposta JSON da busca
      */
-    public String advancedSearch(String query, Map<String, String> params) {
+    public Mono<String> advancedSearch(String query, Map<String, String> params) {
         if (query == null || query.trim().isEmpty()) {
-            return createErrorResponse("Search query cannot be empty");
+            return Mono.just(createErrorResponse("Search query cannot be empty"));
         }
 
-        try {
+        return Mono.deferContextual(context -> {
             String encodedQuery = URLEncoder.encode(query, StandardCharsets.UTF_8);
-            StringBuilder urlBuilder = new StringBuilder(searXNGUrl)
-                    .append("/search?q=").append(encodedQuery)
+            StringBuilder urlBuilder = new StringBuilder("/search?q=").append(encodedQuery)
                     .append("&format=json");
 
             // Adicionar parâmetros opcionais
@@ -157,16 +182,13 @@ public class SearXNGService {
             String url = urlBuilder.toString();
             log.debug("Advanced search URL: {}", url);
 
-            String response = restClient.get()
-                    .uri(url)
-                    .retrieve()
-                    .body(String.class);
-
-            return response != null ? response : createErrorResponse("Empty response");
-        } catch (Exception e) {
-            log.error("Error during advanced search for query '{}': {}", query, e.getMessage(), e);
-            return createErrorResponse("Advanced search error: " + e.getMessage());
-        }
+            return execute(url, RequestDeadline.remaining(context).orElse(null))
+                    .switchIfEmpty(Mono.fromSupplier(() -> createErrorResponse("Empty response")))
+                    .onErrorResume(e -> {
+                        log.error("Error during advanced search for query '{}': {}", query, e.getMessage(), e);
+                        return Mono.just(createErrorResponse("Advanced search error: " + e.getMessage()));
+                    });
+        });
     }
 
     /**
@@ -175,6 +197,7 @@ public class SearXNGService {
     @CacheEvict(value = "searxng_searches", allEntries = true)
     public void clearCache() {
         log.info("Clearing SearXNG search cache");
+        prefetcher.clear();
     }
 
     /**
@@ -186,47 +209,137 @@ public class SearXNGService {
     }
 
     /**
-     * Verifica a saúde do serviço SearXNG.
-     * @return true se o serviço está disponível
+     * Verifica a saúde do serviço SearXNG, sondando todas as instâncias do pool.
+     * @return true se ao menos uma instância está disponível
      */
-    public boolean healthCheck() {
-        try {
-            log.debug("Checking SearXNG health");
-            ResponseEntity<String> response = restClient.get()
-                    .uri(searXNGUrl + "/status")
-                    .retrieve()
-                    .toEntity(String.class);
-
-            boolean isHealthy = response.getStatusCode() == HttpStatus.OK;
-            log.info("SearXNG health check: {}", isHealthy ? "HEALTHY" : "UNHEALTHY");
-            return isHealthy;
-        } catch (Exception e) {
-            log.error("SearXNG health check failed: {}", e.getMessage(), e);
-            return false;
-        }
+    public Mono<Boolean> healthCheck() {
+        log.debug("Checking SearXNG health");
+        return endpointPool.probeAll()
+                .doOnNext(isHealthy -> log.info("SearXNG health check: {}", isHealthy ? "HEALTHY" : "UNHEALTHY"))
+                .onErrorResume(e -> {
+                    log.error("SearXNG health check failed: {}", e.getMessage(), e);
+                    return Mono.just(false);
+                });
+    }
+
+    /**
+     * Estado de cada instância SearXNG do pool.
+     * @return Lista com URL, saúde, carga e latência média de cada instância
+     */
+    public List<Map<String, Object>> getInstancesStatus() {
+        return endpointPool.describeEndpoints();
     }
 
     /**
      * Obtém informações sobre o servidor SearXNG.
+     * Servido do cache mantido pelo {@link SearXNGServerInfoService}.
      * @return JSON com informações do servidor
      */
-    public String getServerInfo() {
-        try {
-            log.debug("Getting SearXNG server info");
-            String response = restClient.get()
-                    .uri(searXNGUrl + "/config")
-                    .retrieve()
-                    .body(String.class);
-            return response != null ? response : createErrorResponse("No server info available");
-        } catch (Exception e) {
-            log.error("Error getting SearXNG server info: {}", e.getMessage(), e);
-            return createErrorResponse("Failed to get server info: " + e.getMessage());
+    public Mono<String> getServerInfo() {
+        log.debug("Getting SearXNG server info");
+        return serverInfoService.getServerInfo()
+                .switchIfEmpty(Mono.fromSupplier(() -> createErrorResponse("No server info available")))
+                .onErrorResume(e -> {
+                    log.error("Error getting SearXNG server info: {}", e.getMessage(), e);
+                    return Mono.just(createErrorResponse("Failed to get server info: " + e.getMessage()));
+                });
+    }
+
+    /**
+     * Catálogo de categorias e engines do SearXNG, sem ida ao servidor.
+     * @return Categorias, engines habilitadas por categoria e momento da última atualização
+     */
+    public Map<String, Object> getSearchCatalog() {
+        return serverInfoService.describeCatalog();
+    }
+
+    /**
+     * Busca uma página para o prefetch, sem prazo do cliente.
+     * Só consome o rate limiter enquanto a janela estiver abaixo de searxng.prefetch.budget-fraction.
+     */
+    private Mono<String> prefetchPage(String query, int page, String category, String language) {
+        if (!hasPrefetchBudget(query)) {
+            log.debug("Skipping prefetch of page {} for query '{}': rate limit budget reserved for clients", page, query);
+            prefetcher.recordSkipped();
+            return Mono.empty();
         }
+
+        String encodedQuery = URLEncoder.encode(query, StandardCharsets.UTF_8);
+        return execute(buildSearchUrl(encodedQuery, page, category, language, null), null)
+                .filter(body -> !body.isEmpty());
     }
 
-    private String buildSearchUrl(String encodedQuery, Integer page, String category, String language) {
-        StringBuilder urlBuilder = new StringBuilder(searXNGUrl)
-                .append("/search?q=").append(encodedQuery)
+    /**
+     * Executa um GET com timeout por tentativa, retry com jitter e prazo total opcional.
+     * Cada tentativa escolhe uma instância do pool, então um retry tende a cair em outra instância.
+     */
+    private Mono<String> execute(String pathAndQuery, Duration deadline) {
+        Duration attemptTimeout = deadline != null && deadline.compareTo(searchTimeout) < 0 ? deadline : searchTimeout;
+
+        Mono<String> request = Mono.defer(() -> attempt(pathAndQuery, attemptTimeout))
+                .retryWhen(Retry.backoff(maxAttempts - 1, retryBackoff)
+                        .jitter(0.5)
+                        .filter(this::isRetryable)
+                        .doBeforeRetry(signal -> log.warn("Retrying SearXNG request (attempt {}): {}",
+                                signal.totalRetries() + 2, signal.failure().getMessage()))
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+
+        return deadline != null ? request.timeout(deadline) : request;
+    }
+
+    private Mono<String> attempt(String pathAndQuery, Duration attemptTimeout) {
+        SearXNGEndpointPool.Endpoint endpoint = endpointPool.select();
+        long start = System.currentTimeMillis();
+        endpointPool.begin(endpoint);
+
+        return webClient.get()
+                .uri(URI.create(endpoint.getUrl() + pathAndQuery))
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(attemptTimeout)
+                .doOnSuccess(body -> endpointPool.recordSuccess(endpoint, System.currentTimeMillis() - start))
+                .doOnError(e -> {
+                    // Erros 4xx são do pedido, não da instância
+                    if (isRetryable(e)) {
+                        endpointPool.recordFailure(endpoint, e);
+                    }
+                })
+                .doFinally(signal -> endpointPool.end(endpoint));
+    }
+
+    private boolean isRetryable(Throwable e) {
+        if (e instanceof WebClientResponseException responseException) {
+            return responseException.getStatusCode().is5xxServerError()
+                    || responseException.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value();
+        }
+        return e instanceof TimeoutException || e instanceof WebClientRequestException;
+    }
+
+    private String handleSearchError(String query, Throwable e) {
+        if (e instanceof WebClientResponseException responseException) {
+            if (responseException.getStatusCode().is4xxClientError()) {
+                log.error("Client error during search for query '{}': {} - {}",
+                        query, responseException.getStatusCode(), e.getMessage(), e);
+                return createErrorResponse("Client error: " + responseException.getStatusCode() + " - " + e.getMessage());
+            }
+            log.error("Server error during search for query '{}': {} - {}",
+                    query, responseException.getStatusCode(), e.getMessage(), e);
+            return createErrorResponse("Server error: " + responseException.getStatusCode() + " - " + e.getMessage());
+        }
+        if (e instanceof TimeoutException) {
+            log.error("Timeout during search for query '{}': {}", query, e.getMessage());
+            return createErrorResponse("Search timed out");
+        }
+        if (e instanceof WebClientRequestException) {
+            log.error("HTTP client error during search for query '{}': {}", query, e.getMessage(), e);
+            return createErrorResponse("HTTP client error: " + e.getMessage());
+        }
+        log.error("Unexpected error during search for query '{}': {}", query, e.getMessage(), e);
+        return createErrorResponse("Unexpected error: " + e.getMessage());
+    }
+
+    private String buildSearchUrl(String encodedQuery, Integer page, String category, String language, Duration deadline) {
+        StringBuilder urlBuilder = new StringBuilder("/search?q=").append(encodedQuery)
                 .append("&format=json");
 
         if (page != null && page > 0) {
@@ -241,6 +354,12 @@ public class SearXNGService {
             urlBuilder.append("&lang=").append(URLEncoder.encode(language, StandardCharsets.UTF_8));
         }
 
+        // Repassa o prazo restante para que o SearXNG não espere engines além do necessário
+        if (deadline != null) {
+            urlBuilder.append("&timeout_limit=")
+                    .append(String.format(Locale.ROOT, "%.1f", Math.max(0.1, deadline.toMillis() / 1000.0)));
+        }
+
         return urlBuilder.toString();
     }
 
@@ -260,6 +379,20 @@ public class SearXNGService {
         return currentCount <= maxRequestsPerWindow;
     }
 
+    private boolean hasPrefetchBudget(String clientId) {
+        int prefetchLimit = (int) (maxRequestsPerWindow * prefetcher.getBudgetFraction());
+        if (prefetchLimit <= 0) {
+            return false;
+        }
+        RateLimitInfo info = rateLimitMap.get(clientId);
+        if (info != null
+                && System.currentTimeMillis() - info.windowStartTime.get() < rateLimitWindowMs
+                && info.requestCount.get() >= prefetchLimit) {
+            return false;
+        }
+        return checkRateLimit(clientId);
+    }
+
     private String createErrorResponse(String message) {
         try {
             Map<String, Object> errorResponse = new HashMap<>();
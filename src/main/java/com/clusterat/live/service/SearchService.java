@@ -0,0 +1,70 @@
+package com.clusterat.live.service;
+
+import com.clusterat.live.dto.SearchResultDTO;
+import com.clusterat.live.model.SearchSource;
+import com.clusterat.live.repository.reactive.SearchReactiveRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Busca textual unificada sobre documentos OCR, vagas e imóveis, ordenada por relevância.
+ */
+@Slf4j
+@Service
+public class SearchService {
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+    private static final int MAX_QUERY_LENGTH = 500;
+
+    private final SearchReactiveRepository searchReactiveRepository;
+
+    @Autowired
+    public SearchService(SearchReactiveRepository searchReactiveRepository) {
+        this.searchReactiveRepository = searchReactiveRepository;
+    }
+
+    /**
+     * @param query termo de busca (palavras, "frase exata", -exclusão, OR)
+     * @param types tipos separados por vírgula (padrão: todos)
+     * @throws IllegalArgumentException (no Mono) para termo vazio ou longo demais, tipo desconhecido ou limite inválido
+     */
+    public Mono<List<SearchResultDTO>> search(String query, String types, Integer limit) {
+        return Mono.defer(() -> {
+            if (query == null || query.isBlank()) {
+                throw new IllegalArgumentException("q is required");
+            }
+            if (query.length() > MAX_QUERY_LENGTH) {
+                throw new IllegalArgumentException("q must have at most " + MAX_QUERY_LENGTH + " characters");
+            }
+            int size = limit != null ? limit : DEFAULT_LIMIT;
+            if (size < 1 || size > MAX_LIMIT) {
+                throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+            }
+            Set<SearchSource> sources = parseTypes(types);
+            log.info("Searching {} for '{}' (limit: {})", sources, query, size);
+            return searchReactiveRepository.search(query.trim(), sources, size).collectList();
+        });
+    }
+
+    static Set<SearchSource> parseTypes(String types) {
+        if (types == null || types.isBlank()) {
+            return EnumSet.allOf(SearchSource.class);
+        }
+        Set<SearchSource> sources = EnumSet.noneOf(SearchSource.class);
+        Arrays.stream(types.split(","))
+                .filter(type -> !type.isBlank())
+                .map(SearchSource::fromValue)
+                .forEach(sources::add);
+        if (sources.isEmpty()) {
+            return EnumSet.allOf(SearchSource.class);
+        }
+        return sources;
+    }
+}
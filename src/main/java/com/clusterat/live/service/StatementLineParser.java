@@ -0,0 +1,120 @@
+package com.clusterat.live.service;
+
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reconhece lançamentos em linhas de extrato/fatura vindas do OCR: data no início da linha,
+ * descrição e o primeiro valor monetário depois dela (valores seguintes, como saldo, são ignorados).
+ * Datas: dd/MM/yyyy, dd/MM/yy, dd/MM (ano do contexto), com / . ou - como separador, e yyyy-MM-dd.
+ * Valores: 1.234,56 ou 1,234.56, com sinal (+/-, antes ou depois), R$, ou sufixo D/C.
+ * Sem indicação, o valor é tratado como débito. O ano da última data completa vira o contexto
+ * das datas sem ano seguintes, por isso uma instância atende a um documento. Antes de aparecer
+ * uma data completa, a data sem ano é a última ocorrência até a data de referência (uma fatura
+ * de dezembro processada em janeiro fica no ano anterior).
+ */
+class StatementLineParser {
+    private static final Pattern ISO_DATE = Pattern.compile("^\\s*(\\d{4})-(\\d{2})-(\\d{2})(?!\\d)");
+    private static final Pattern DAY_MONTH_DATE = Pattern.compile("^\\s*(\\d{1,2})([/.-])(\\d{1,2})(?:\\2(\\d{4}|\\d{2}))?(?![\\d/.-])");
+    private static final Pattern AMOUNT = Pattern.compile(
+            "(?<![\\d.,])([-+])?\\s?(?:R\\$\\s?)?([-+])?(\\d{1,3}(?:[.,]\\d{3})+|\\d+)([.,])(\\d{2})(?![\\d])(?![.,]\\d)(-)?(?:\\s?([DdCc])\\b)?");
+    private static final Pattern LETTER = Pattern.compile("\\p{L}");
+    private static final List<String> SUMMARY_PREFIXES = List.of("saldo", "total", "subtotal", "balance", "sdo ");
+
+    private final LocalDate referenceDate;
+    private Integer contextYear;
+
+    StatementLineParser(LocalDate referenceDate) {
+        this.referenceDate = referenceDate;
+    }
+
+    record StatementLine(LocalDate date, BigDecimal amount, boolean credit, String description) {
+    }
+
+    /**
+     * @return o lançamento da linha, ou null se ela não tiver data, valor e descrição
+     */
+    StatementLine parse(String line) {
+        if (line == null || line.isBlank()) {
+            return null;
+        }
+        LocalDate date;
+        int dateEnd;
+        boolean fullDate = true;
+        Matcher iso = ISO_DATE.matcher(line);
+        Matcher dayMonth = DAY_MONTH_DATE.matcher(line);
+        if (iso.find()) {
+            date = toDate(Integer.parseInt(iso.group(1)), Integer.parseInt(iso.group(2)), Integer.parseInt(iso.group(3)));
+            dateEnd = iso.end();
+        } else if (dayMonth.find()) {
+            String year = dayMonth.group(4);
+            fullDate = year != null;
+            int month = Integer.parseInt(dayMonth.group(3));
+            int day = Integer.parseInt(dayMonth.group(1));
+            int resolvedYear = year != null
+                    ? (year.length() == 2 ? 2000 + Integer.parseInt(year) : Integer.parseInt(year))
+                    : contextYear != null ? contextYear : yearUpToReference(month, day);
+            date = toDate(resolvedYear, month, day);
+            dateEnd = dayMonth.end();
+        } else {
+            return null;
+        }
+        if (date == null) {
+            return null;
+        }
+
+        Matcher amount = AMOUNT.matcher(line);
+        amount.region(dateEnd, line.length());
+        while (amount.find()) {
+            String integerPart = amount.group(3);
+            String decimalSeparator = amount.group(4);
+            if (integerPart.contains(decimalSeparator)) {
+                continue;
+            }
+            String description = line.substring(dateEnd, amount.start()).trim().replaceAll("\\s+", " ");
+            if (!LETTER.matcher(description).find() || isSummaryLine(description)) {
+                return null;
+            }
+            if (fullDate) {
+                contextYear = date.getYear();
+            }
+            BigDecimal value = new BigDecimal(integerPart.replaceAll("[.,]", "") + "." + amount.group(5));
+            return new StatementLine(date, value, isCredit(amount), description);
+        }
+        return null;
+    }
+
+    private int yearUpToReference(int month, int day) {
+        boolean afterReference = month > referenceDate.getMonthValue()
+                || (month == referenceDate.getMonthValue() && day > referenceDate.getDayOfMonth());
+        return afterReference ? referenceDate.getYear() - 1 : referenceDate.getYear();
+    }
+
+    private static boolean isCredit(Matcher amount) {
+        String suffix = amount.group(7);
+        if (suffix != null) {
+            return suffix.equalsIgnoreCase("C");
+        }
+        boolean negative = "-".equals(amount.group(1)) || "-".equals(amount.group(2)) || amount.group(6) != null;
+        boolean positive = "+".equals(amount.group(1)) || "+".equals(amount.group(2));
+        return positive && !negative;
+    }
+
+    private static boolean isSummaryLine(String description) {
+        String lower = description.toLowerCase(Locale.ROOT);
+        return SUMMARY_PREFIXES.stream().anyMatch(lower::startsWith);
+    }
+
+    private static LocalDate toDate(int year, int month, int day) {
+        try {
+            return LocalDate.of(year, month, day);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.clusterat.live.service;
+
+import java.util.Arrays;
+
+/**
+ * Sketch t-digest (variante "merging") para quantis aproximados de um fluxo de valores em memória
+ * limitada: os valores são resumidos em centróides (média, peso), pequenos nas caudas e maiores
+ * no meio da distribuição, então p90/p99 saem precisos mesmo com poucos centróides.
+ * Os valores novos vão para um buffer; quando ele enche, buffer e centróides são ordenados e
+ * fundidos numa passada, respeitando o limite de peso 4 * n * q * (1 - q) / compression por centróide.
+ * Não é thread-safe: depois de {@link #compress()} as leituras não alteram o estado e podem ser
+ * feitas em paralelo.
+ */
+final class TDigest {
+    static final double DEFAULT_COMPRESSION = 100;
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final double compression;
+    private double[] means;
+    private double[] weights;
+    private int centroids;
+    private final int maxBuffered;
+    private double[] buffer;
+    private int buffered;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    TDigest() {
+        this(DEFAULT_COMPRESSION);
+    }
+
+    TDigest(double compression) {
+        this.compression = compression;
+        this.maxBuffered = (int) Math.ceil(compression) * 5;
+        // Arrays crescem sob demanda: há um sketch por grupo e a maioria dos grupos tem poucos valores
+        this.means = new double[INITIAL_CAPACITY];
+        this.weights = new double[INITIAL_CAPACITY];
+        this.buffer = new double[INITIAL_CAPACITY];
+    }
+
+    void add(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return;
+        }
+        if (buffered == buffer.length) {
+            if (buffer.length < maxBuffered) {
+                buffer = Arrays.copyOf(buffer, Math.min(buffer.length * 2, maxBuffered));
+            } else {
+                compress();
+            }
+        }
+        buffer[buffered++] = value;
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    long count() {
+        return count;
+    }
+
+    /**
+     * Funde o buffer nos centróides.
+     */
+    void compress() {
+        if (buffered == 0) {
+            return;
+        }
+        int total = centroids + buffered;
+        double[] allMeans = new double[total];
+        double[] allWeights = new double[total];
+        System.arraycopy(means, 0, allMeans, 0, centroids);
+        System.arraycopy(weights, 0, allWeights, 0, centroids);
+        for (int i = 0; i < buffered; i++) {
+            allMeans[centroids + i] = buffer[i];
+            allWeights[centroids + i] = 1;
+        }
+        buffered = 0;
+        sortByMean(allMeans, allWeights);
+
+        int merged = 0;
+        double mean = allMeans[0];
+        double weight = allWeights[0];
+        double before = 0;
+        for (int i = 1; i < total; i++) {
+            double proposed = weight + allWeights[i];
+            double q0 = before / count;
+            double q2 = (before + proposed) / count;
+            double limit = 4 * count * Math.min(q0 * (1 - q0), q2 * (1 - q2)) / compression;
+            if (proposed <= limit) {
+                mean += (allMeans[i] - mean) * allWeights[i] / proposed;
+                weight = proposed;
+            } else {
+                merged = append(merged, mean, weight);
+                before += weight;
+                mean = allMeans[i];
+                weight = allWeights[i];
+            }
+        }
+        centroids = append(merged, mean, weight);
+    }
+
+    /**
+     * Valor aproximado no quantil q (0 a 1), interpolando entre os centros dos centróides; NaN sem valores.
+     */
+    double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1");
+        }
+        compress();
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (centroids == 1 || q == 0) {
+            return q == 0 ? min : q == 1 ? max : means[0];
+        }
+        if (q == 1) {
+            return max;
+        }
+
+        double index = q * count;
+        if (index < weights[0] / 2) {
+            return min + (means[0] - min) * index / (weights[0] / 2);
+        }
+        double cumulative = 0;
+        for (int i = 0; i < centroids - 1; i++) {
+            double left = cumulative + weights[i] / 2;
+            double right = cumulative + weights[i] + weights[i + 1] / 2;
+            if (index < right) {
+                return means[i] + (means[i + 1] - means[i]) * (index - left) / (right - left);
+            }
+            cumulative += weights[i];
+        }
+        int last = centroids - 1;
+        double lastCenter = count - weights[last] / 2;
+        return means[last] + (max - means[last]) * Math.min(1, (index - lastCenter) / (weights[last] / 2));
+    }
+
+    private int append(int position, double mean, double weight) {
+        if (position == means.length) {
+            means = Arrays.copyOf(means, position * 2);
+            weights = Arrays.copyOf(weights, position * 2);
+        }
+        means[position] = mean;
+        weights[position] = weight;
+        return position + 1;
+    }
+
+    private static void sortByMean(double[] means, double[] weights) {
+        Integer[] order = new Integer[means.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(means[a], means[b]));
+        double[] sortedMeans = new double[means.length];
+        double[] sortedWeights = new double[means.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedMeans[i] = means[order[i]];
+            sortedWeights[i] = weights[order[i]];
+        }
+        System.arraycopy(sortedMeans, 0, means, 0, means.length);
+        System.arraycopy(sortedWeights, 0, weights, 0, weights.length);
+    }
+}
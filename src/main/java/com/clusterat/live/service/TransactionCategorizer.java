@@ -0,0 +1,210 @@
+package com.clusterat.live.service;
+
+import com.clusterat.live.model.AnalysisType;
+import com.clusterat.live.model.CategorizationRuleModel;
+import com.clusterat.live.repository.CategorizationRuleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Motor de categorização automática. As regras ativas são compiladas em dois autômatos de
+ * Aho-Corasick (descrição e estabelecimento), então classificar uma transação é uma passada
+ * pelo texto normalizado, qualquer que seja o número de regras.
+ * Quando várias regras casam vence a de maior prioridade, depois a de padrão mais longo e por
+ * fim a de menor id. As regras são recompiladas após cada alteração (hot reload) e periodicamente.
+ */
+@Slf4j
+@Service
+public class TransactionCategorizer {
+    private final CategorizationRuleRepository categorizationRuleRepository;
+    private volatile CompiledRules compiled;
+
+    @Autowired
+    public TransactionCategorizer(CategorizationRuleRepository categorizationRuleRepository) {
+        this.categorizationRuleRepository = categorizationRuleRepository;
+    }
+
+    /**
+     * Categoria e tipo de análise (null mantém o atual) da regra vencedora.
+     */
+    public record Classification(Integer ruleId, Integer categoryId, AnalysisType analysisType) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    /**
+     * Recompila as regras ativas; as classificações em andamento continuam com o conjunto anterior.
+     */
+    public void reload() {
+        CompiledRules loaded = new CompiledRules(categorizationRuleRepository.findByEnabledTrue());
+        compiled = loaded;
+        log.info("Categorization rules compiled: {} rules", loaded.ruleCount);
+    }
+
+    @Scheduled(fixedDelayString = "${financial.categorization.refresh-interval-ms:60000}",
+            initialDelayString = "${financial.categorization.refresh-interval-ms:60000}")
+    public void scheduledRefresh() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("Error reloading categorization rules: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @param merchant estabelecimento (metadata.merchant), opcional
+     * @param amount valor da transação; regras com faixa de valor não casam quando ele é nulo
+     */
+    public Optional<Classification> classify(String description, String merchant, BigDecimal amount) {
+        return current().classify(description, merchant, amount);
+    }
+
+    public int getRuleCount() {
+        return current().ruleCount;
+    }
+
+    /**
+     * Minúsculas, sem acentos, com qualquer sequência de caracteres que não seja letra ou dígito
+     * reduzida a um espaço. Padrões e textos passam pela mesma normalização.
+     */
+    static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder normalized = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && !normalized.isEmpty()) {
+                    normalized.append(' ');
+                }
+                pendingSpace = false;
+                normalized.append(Character.toLowerCase(c));
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    private CompiledRules current() {
+        CompiledRules current = compiled;
+        if (current == null) {
+            synchronized (this) {
+                if (compiled == null) {
+                    reload();
+                }
+                current = compiled;
+            }
+        }
+        return current;
+    }
+
+    private record CompiledRule(int ruleId, int priority, int patternLength, BigDecimal minAmount,
+                                BigDecimal maxAmount, Integer categoryId, AnalysisType analysisType) {
+
+        private boolean accepts(BigDecimal amount) {
+            if (minAmount == null && maxAmount == null) {
+                return true;
+            }
+            if (amount == null) {
+                return false;
+            }
+            BigDecimal value = amount.abs();
+            return (minAmount == null || value.compareTo(minAmount) >= 0)
+                    && (maxAmount == null || value.compareTo(maxAmount) <= 0);
+        }
+
+        private boolean beats(CompiledRule other) {
+            if (other == null) {
+                return true;
+            }
+            if (priority != other.priority) {
+                return priority > other.priority;
+            }
+            if (patternLength != other.patternLength) {
+                return patternLength > other.patternLength;
+            }
+            return ruleId < other.ruleId;
+        }
+    }
+
+    /**
+     * Regras agrupadas por campo e por padrão normalizado; o índice do padrão no autômato
+     * aponta para as regras que o usam.
+     */
+    private static final class CompiledRules {
+        private final AhoCorasickMatcher descriptionMatcher;
+        private final List<List<CompiledRule>> descriptionRules;
+        private final AhoCorasickMatcher merchantMatcher;
+        private final List<List<CompiledRule>> merchantRules;
+        private final int ruleCount;
+
+        private CompiledRules(List<CategorizationRuleModel> rules) {
+            Map<String, List<CompiledRule>> byDescription = new LinkedHashMap<>();
+            Map<String, List<CompiledRule>> byMerchant = new LinkedHashMap<>();
+            int count = 0;
+            for (CategorizationRuleModel rule : rules) {
+                String pattern = normalize(rule.getPattern());
+                if (pattern.isEmpty()) {
+                    continue;
+                }
+                CompiledRule compiledRule = new CompiledRule(rule.getRuleId(),
+                        rule.getPriority() != null ? rule.getPriority() : 0, pattern.length(),
+                        rule.getMinAmount(), rule.getMaxAmount(), rule.getCategoryId(), rule.getAnalysisType());
+                Map<String, List<CompiledRule>> target = CategorizationRuleModel.MATCH_MERCHANT.equals(rule.getMatchField())
+                        ? byMerchant : byDescription;
+                target.computeIfAbsent(pattern, p -> new ArrayList<>()).add(compiledRule);
+                count++;
+            }
+            this.descriptionMatcher = new AhoCorasickMatcher(new ArrayList<>(byDescription.keySet()));
+            this.descriptionRules = new ArrayList<>(byDescription.values());
+            this.merchantMatcher = new AhoCorasickMatcher(new ArrayList<>(byMerchant.keySet()));
+            this.merchantRules = new ArrayList<>(byMerchant.values());
+            this.ruleCount = count;
+        }
+
+        private Optional<Classification> classify(String description, String merchant, BigDecimal amount) {
+            CompiledRule[] best = new CompiledRule[1];
+            match(descriptionMatcher, descriptionRules, description, amount, best);
+            match(merchantMatcher, merchantRules, merchant, amount, best);
+            CompiledRule winner = best[0];
+            return winner == null ? Optional.empty()
+                    : Optional.of(new Classification(winner.ruleId(), winner.categoryId(), winner.analysisType()));
+        }
+
+        private static void match(AhoCorasickMatcher matcher, List<List<CompiledRule>> rulesByPattern,
+                                  String text, BigDecimal amount, CompiledRule[] best) {
+            if (rulesByPattern.isEmpty() || text == null || text.isBlank()) {
+                return;
+            }
+            matcher.forEachMatch(normalize(text), pattern -> {
+                for (CompiledRule rule : rulesByPattern.get(pattern)) {
+                    if (rule.accepts(amount) && rule.beats(best[0])) {
+                        best[0] = rule;
+                    }
+                }
+            });
+        }
+    }
+}
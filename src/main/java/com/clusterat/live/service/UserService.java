@@ -1,7 +1,9 @@
 package com.clusterat.live.service;
 
+import com.clusterat.live.dto.KeysetPageDTO;
 import com.clusterat.live.dto.UserDTO;
 import com.clusterat.live.model.UserModel;
+import com.clusterat.live.repository.KeysetPageRequest;
 import com.clusterat.live.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -17,10 +19,13 @@ import java.util.stream.Collectors;
 public class UserService {
     private final UserRepository userRepository;
 
-    public List<UserDTO> listUsers() {
-        return userRepository.findAll().stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+    /**
+     * Página de usuários por keyset. O total exige COUNT e só é calculado quando pedido.
+     */
+    public KeysetPageDTO<UserDTO> listUsers(String after, Integer limit, String sort, String order, boolean includeTotal) {
+        KeysetPageRequest<UserModel> page = KeysetPageRequest.of(UserRepository.SORT_FIELDS, sort, order, after, limit);
+        Long total = includeTotal ? userRepository.count() : null;
+        return page.toPage(page.fetch(userRepository), this::toDTO, total);
     }
 
     public List<UserDTO> searchUsers(String name) {
@@ -10,10 +10,12 @@ import com.clusterat.live.repository.WorkoutExerciseRepository;
 import com.clusterat.live.repository.WorkoutSessionRepository;
 import com.clusterat.live.repository.WorkoutSetRepository;
 import com.clusterat.live.repository.WorkoutTemplateRepository;
+import com.clusterat.live.repository.reactive.WorkoutSessionReactiveRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
 
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
@@ -30,6 +32,7 @@ public class WorkoutSessionService {
     private final WorkoutTemplateRepository workoutTemplateRepository;
     private final WorkoutExerciseRepository workoutExerciseRepository;
     private final WorkoutSetRepository workoutSetRepository;
+    private final WorkoutSessionReactiveRepository workoutSessionReactiveRepository;
 
     public List<WorkoutSessionDTO> listSessions(Long userId) {
         return workoutSessionRepository.findByUserIdOrderByStartedAtDesc(userId).stream()
@@ -37,6 +40,14 @@ public class WorkoutSessionService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Histórico de sessões do usuário via R2DBC, da mais recente para a mais antiga.
+     */
+    public Flux<WorkoutSessionDTO> streamSessions(Long userId) {
+        return workoutSessionReactiveRepository.findByUserIdOrderByStartedAtDesc(userId)
+                .map(this::toDTO);
+    }
+
     public WorkoutSessionDTO getSession(UUID sessionId) {
         return workoutSessionRepository.findById(sessionId)
                 .map(this::toDTO)
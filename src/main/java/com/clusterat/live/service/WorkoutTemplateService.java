@@ -1,10 +1,12 @@
 package com.clusterat.live.service;
 
+import com.clusterat.live.dto.KeysetPageDTO;
 import com.clusterat.live.dto.WorkoutExerciseDTO;
 import com.clusterat.live.dto.WorkoutTemplateDTO;
 import com.clusterat.live.dto.WorkoutTemplateExerciseDTO;
 import com.clusterat.live.model.WorkoutTemplateExerciseModel;
 import com.clusterat.live.model.WorkoutTemplateModel;
+import com.clusterat.live.repository.KeysetPageRequest;
 import com.clusterat.live.repository.WorkoutExerciseRepository;
 import com.clusterat.live.repository.WorkoutTemplateRepository;
 import lombok.RequiredArgsConstructor;
@@ -14,6 +16,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -23,10 +27,22 @@ public class WorkoutTemplateService {
     private final WorkoutTemplateRepository workoutTemplateRepository;
     private final WorkoutExerciseRepository workoutExerciseRepository;
 
-    public List<WorkoutTemplateDTO> listAll() {
-        return workoutTemplateRepository.findAll().stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+    /**
+     * Página de templates por keyset. Os exercícios da página são carregados numa segunda
+     * consulta (entity graph), já que fetch join de coleção com limite pagina em memória.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPageDTO<WorkoutTemplateDTO> listAll(String after, Integer limit, String sort, String order,
+                                                     boolean includeTotal) {
+        KeysetPageRequest<WorkoutTemplateModel> page = KeysetPageRequest.of(
+                WorkoutTemplateRepository.SORT_FIELDS, sort, order, after, limit);
+        List<WorkoutTemplateModel> rows = page.fetch(workoutTemplateRepository);
+        Map<Long, WorkoutTemplateModel> withExercises = workoutTemplateRepository
+                .findByIdIn(rows.stream().map(WorkoutTemplateModel::getId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(WorkoutTemplateModel::getId, Function.identity()));
+        Long total = includeTotal ? workoutTemplateRepository.count() : null;
+        return page.toPage(rows, row -> toDTO(withExercises.getOrDefault(row.getId(), row)), total);
     }
 
     public WorkoutTemplateDTO getById(Long id) {
@@ -0,0 +1,74 @@
+package com.clusterat.live.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JDBC Executor Tests")
+class JdbcExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private JdbcExecutor jdbcExecutor;
+
+    @AfterEach
+    void tearDown() {
+        jdbcExecutor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should run blocking work on a JDBC thread")
+    void testRunsOnJdbcThread() {
+        // Arrange
+        jdbcExecutor = new JdbcExecutor(meterRegistry, 2, 10);
+
+        // Act
+        String threadName = jdbcExecutor.mono(() -> Thread.currentThread().getName()).block(Duration.ofSeconds(5));
+
+        // Assert
+        assertTrue(threadName.startsWith("jdbc-"));
+        assertEquals(1, meterRegistry.get("jdbc.scheduler.queue.wait").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should emit the elements of a blocking collection")
+    void testFluxEmitsElements() {
+        // Arrange
+        jdbcExecutor = new JdbcExecutor(meterRegistry, 2, 10);
+
+        // Act
+        List<Integer> items = jdbcExecutor.flux(() -> List.of(1, 2, 3)).collectList().block(Duration.ofSeconds(5));
+
+        // Assert
+        assertEquals(List.of(1, 2, 3), items);
+    }
+
+    @Test
+    @DisplayName("Should reject work with 503 when the queue is full")
+    void testRejectsWhenQueueIsFull() throws InterruptedException {
+        // Arrange
+        jdbcExecutor = new JdbcExecutor(meterRegistry, 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        jdbcExecutor.mono(() -> release.await(5, TimeUnit.SECONDS)).subscribe();
+        jdbcExecutor.mono(() -> true).subscribe();
+
+        // Act
+        Mono<Boolean> rejected = jdbcExecutor.mono(() -> true);
+
+        // Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> rejected.block(Duration.ofSeconds(5)));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+        release.countDown();
+    }
+}
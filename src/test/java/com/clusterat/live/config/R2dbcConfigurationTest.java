@@ -0,0 +1,73 @@
+package com.clusterat.live.config;
+
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Option;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("R2DBC Configuration Tests")
+class R2dbcConfigurationTest {
+
+    @Test
+    @DisplayName("Should derive a pooled connection from the JDBC URL")
+    void testFromJdbcUrl() {
+        // Act
+        ConnectionFactoryOptions options = R2dbcConfiguration.connectionOptions(
+                "", "jdbc:postgresql://db.internal:6543/clusterat", "app", "secret", 12);
+
+        // Assert
+        assertEquals("pool", options.getValue(ConnectionFactoryOptions.DRIVER));
+        assertEquals("postgresql", options.getValue(ConnectionFactoryOptions.PROTOCOL));
+        assertEquals("db.internal", options.getValue(ConnectionFactoryOptions.HOST));
+        assertEquals(6543, options.getValue(ConnectionFactoryOptions.PORT));
+        assertEquals("clusterat", options.getValue(ConnectionFactoryOptions.DATABASE));
+        assertEquals("app", options.getValue(ConnectionFactoryOptions.USER));
+        assertEquals("secret", options.getValue(ConnectionFactoryOptions.PASSWORD));
+        assertEquals(12, options.getValue(Option.<Integer>valueOf("maxSize")));
+    }
+
+    @Test
+    @DisplayName("Should translate currentSchema and sslmode from the JDBC query parameters")
+    void testJdbcQueryParameters() {
+        // Act
+        ConnectionFactoryOptions options = R2dbcConfiguration.connectionOptions(
+                null, "jdbc:postgresql://db:5432/clusterat?currentSchema=live&sslmode=require&ApplicationName=live",
+                null, null, 20);
+
+        // Assert
+        assertEquals("db", options.getValue(ConnectionFactoryOptions.HOST));
+        assertEquals(5432, options.getValue(ConnectionFactoryOptions.PORT));
+        assertEquals("clusterat", options.getValue(ConnectionFactoryOptions.DATABASE));
+        assertEquals("live", options.getValue(Option.valueOf("schema")));
+        assertEquals("require", options.getValue(Option.valueOf("sslMode")));
+        assertEquals("live", options.getValue(Option.valueOf("ApplicationName")));
+        assertNull(options.getValue(ConnectionFactoryOptions.USER));
+    }
+
+    @Test
+    @DisplayName("Should prefer spring.r2dbc.url and keep an explicit pool driver")
+    void testExplicitR2dbcUrl() {
+        // Act
+        ConnectionFactoryOptions options = R2dbcConfiguration.connectionOptions(
+                "r2dbc:pool:postgresql://reader:5433/analytics?schema=live", "jdbc:postgresql://db:5432/clusterat",
+                "", "", 5);
+
+        // Assert
+        assertEquals("pool", options.getValue(ConnectionFactoryOptions.DRIVER));
+        assertEquals("postgresql", options.getValue(ConnectionFactoryOptions.PROTOCOL));
+        assertEquals("reader", options.getValue(ConnectionFactoryOptions.HOST));
+        assertEquals(5433, options.getValue(ConnectionFactoryOptions.PORT));
+        assertEquals("analytics", options.getValue(ConnectionFactoryOptions.DATABASE));
+        assertEquals("live", options.getValue(Option.valueOf("schema")));
+    }
+
+    @Test
+    @DisplayName("Should fail without any database URL")
+    void testMissingUrl() {
+        // Act & Assert
+        assertThrows(IllegalStateException.class,
+                () -> R2dbcConfiguration.connectionOptions("", "", "app", "secret", 20));
+    }
+}
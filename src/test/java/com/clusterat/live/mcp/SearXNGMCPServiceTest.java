@@ -1,5 +1,6 @@
 package com.clusterat.live.mcp;
 
+import com.clusterat.live.service.SearXNGBatchSearchService;
 import com.clusterat.live.service.SearXNGService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -7,7 +8,9 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
 
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -19,13 +22,15 @@ class SearXNGMCPServiceTest {
 
     private SearXNGMCPService mcpService;
     private SearXNGService searXNGService;
+    private SearXNGBatchSearchService searXNGBatchSearchService;
     private ObjectMapper objectMapper;
 
     @BeforeEach
     void setUp() {
         searXNGService = mock(SearXNGService.class);
+        searXNGBatchSearchService = mock(SearXNGBatchSearchService.class);
         objectMapper = new ObjectMapper();
-        mcpService = new SearXNGMCPService(searXNGService, objectMapper);
+        mcpService = new SearXNGMCPService(searXNGService, searXNGBatchSearchService, objectMapper);
     }
 
     @Test
@@ -34,7 +39,7 @@ class SearXNGMCPServiceTest {
         // Arrange
         String query = "java spring boot";
         String mockResponse = "{\"results\":[{\"title\":\"Test\",\"url\":\"http://test.com\"}],\"number_of_results\":1}";
-        when(searXNGService.search(query)).thenReturn(mockResponse);
+        when(searXNGService.search(query)).thenReturn(Mono.just(mockResponse));
 
         // Act
         ResponseEntity<Map<String, Object>> response = mcpService.searchWeb(query);
@@ -99,7 +104,7 @@ class SearXNGMCPServiceTest {
         String language = "pt-BR";
         String mockResponse = "{\"results\":[],\"number_of_results\":0}";
 
-        when(searXNGService.search(query, page, category, language)).thenReturn(mockResponse);
+        when(searXNGService.search(query, page, category, language)).thenReturn(Mono.just(mockResponse));
 
         // Act
         ResponseEntity<Map<String, Object>> response = mcpService.advancedSearch(query, page, category, language);
@@ -117,7 +122,7 @@ class SearXNGMCPServiceTest {
         String query = "test";
         String mockResponse = "{\"results\":[]}";
 
-        when(searXNGService.search(eq(query), eq(1), isNull(), isNull())).thenReturn(mockResponse);
+        when(searXNGService.search(eq(query), eq(1), isNull(), isNull())).thenReturn(Mono.just(mockResponse));
 
         // Act
         ResponseEntity<Map<String, Object>> response = mcpService.advancedSearch(query, null, null, null);
@@ -139,11 +144,43 @@ class SearXNGMCPServiceTest {
         assertTrue(response.getBody().containsKey("error"));
     }
 
+    @Test
+    @DisplayName("batchSearchWeb should return merged results")
+    void testBatchSearchWebSuccess() {
+        // Arrange
+        List<String> queries = List.of("java", "spring");
+        String mockResponse = "{\"results\":[{\"url\":\"http://test.com\",\"matched_queries\":[\"java\",\"spring\"]}],\"partial\":false}";
+        when(searXNGBatchSearchService.batchSearch(queries, 1, null, null, null, null))
+                .thenReturn(Mono.just(mockResponse));
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = mcpService.batchSearchWeb(queries, null, null);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertTrue(response.getBody().containsKey("results"));
+        assertEquals(false, response.getBody().get("partial"));
+    }
+
+    @Test
+    @DisplayName("batchSearchWeb should return error for empty queries")
+    void testBatchSearchWebEmptyQueries() {
+        // Act
+        ResponseEntity<Map<String, Object>> response = mcpService.batchSearchWeb(List.of(), null, null);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertTrue(response.getBody().containsKey("error"));
+        verifyNoInteractions(searXNGBatchSearchService);
+    }
+
     @Test
     @DisplayName("checkSearchHealth should return healthy status")
     void testCheckSearchHealthHealthy() {
         // Arrange
-        when(searXNGService.healthCheck()).thenReturn(true);
+        when(searXNGService.healthCheck()).thenReturn(Mono.just(true));
 
         // Act
         ResponseEntity<Map<String, Object>> response = mcpService.checkSearchHealth();
@@ -161,7 +198,7 @@ class SearXNGMCPServiceTest {
     @DisplayName("checkSearchHealth should return unhealthy status")
     void testCheckSearchHealthUnhealthy() {
         // Arrange
-        when(searXNGService.healthCheck()).thenReturn(false);
+        when(searXNGService.healthCheck()).thenReturn(Mono.just(false));
 
         // Act
         ResponseEntity<Map<String, Object>> response = mcpService.checkSearchHealth();
@@ -193,7 +230,7 @@ class SearXNGMCPServiceTest {
     void testGetServerInfoSuccess() {
         // Arrange
         String mockInfo = "{\"version\":\"1.0\",\"engines\":[\"google\",\"bing\"]}";
-        when(searXNGService.getServerInfo()).thenReturn(mockInfo);
+        when(searXNGService.getServerInfo()).thenReturn(Mono.just(mockInfo));
 
         // Act
         ResponseEntity<Map<String, Object>> response = mcpService.getServerInfo();
@@ -219,6 +256,22 @@ class SearXNGMCPServiceTest {
         assertTrue(response.getBody().containsKey("error"));
     }
 
+    @Test
+    @DisplayName("listSearchCategories should return the cached catalog")
+    void testListSearchCategories() {
+        // Arrange
+        Map<String, Object> catalog = Map.of("loaded", true, "categories", List.of("general", "news"));
+        when(searXNGService.getSearchCatalog()).thenReturn(catalog);
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = mcpService.listSearchCategories();
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of("general", "news"), response.getBody().get("categories"));
+        verify(searXNGService, never()).getServerInfo();
+    }
+
     @Test
     @DisplayName("clearSearchCache should clear cache successfully")
     void testClearSearchCacheSuccess() {
@@ -257,7 +310,7 @@ class SearXNGMCPServiceTest {
         // Arrange
         String query = "test";
         String malformedJson = "not a valid json";
-        when(searXNGService.search(query)).thenReturn(malformedJson);
+        when(searXNGService.search(query)).thenReturn(Mono.just(malformedJson));
 
         // Act
         ResponseEntity<Map<String, Object>> response = mcpService.searchWeb(query);
@@ -0,0 +1,42 @@
+package com.clusterat.live.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Transaction Dedup Key Tests")
+class TransactionDedupKeyTest {
+
+    @Test
+    @DisplayName("Should ignore time of day, amount scale and description whitespace and case")
+    void testEquivalentTransactions() {
+        // Arrange
+        String key = TransactionDedupKey.of(OffsetDateTime.parse("2024-03-10T23:30:00-03:00"),
+                new BigDecimal("-12.5"), "  Uber\t*Trip  SP ", null);
+
+        // Act
+        String sameDayUtc = TransactionDedupKey.of(OffsetDateTime.parse("2024-03-11T02:30:00Z"),
+                new BigDecimal("-12.50000"), "uber *trip sp", null);
+        String otherSource = TransactionDedupKey.of(OffsetDateTime.parse("2024-03-11T02:30:00Z"),
+                new BigDecimal("-12.50"), "uber *trip sp", "statement-42");
+
+        // Assert
+        assertEquals(key, sameDayUtc);
+        assertNotEquals(key, otherSource);
+    }
+
+    @Test
+    @DisplayName("Should match the MD5 computed by the SQL backfill")
+    void testMatchesSqlDefinition() {
+        // Act
+        String key = TransactionDedupKey.of(OffsetDateTime.parse("2024-03-11T02:30:00Z"),
+                new BigDecimal("-12.5"), "Uber *Trip SP", null);
+
+        // Assert: md5('19793|-12.5000||uber *trip sp')
+        assertEquals("7811b4ddc0d4ef0e7e73c1ca461064fc", key);
+    }
+}
@@ -0,0 +1,40 @@
+package com.clusterat.live.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Batch Insert Writer Tests")
+class BatchInsertWriterTest {
+
+    private static List<Integer> chunkSizes(int keyCount) {
+        List<Integer> sizes = new ArrayList<>();
+        List<Integer> keys = IntStream.range(0, keyCount).boxed().toList();
+
+        List<Integer> result = BatchInsertWriter.lookupInChunks(keys, chunk -> {
+            sizes.add(chunk.size());
+            return chunk;
+        });
+
+        assertEquals(keys, result);
+        return sizes;
+    }
+
+    @Test
+    @DisplayName("Should query at most LOOKUP_CHUNK_SIZE keys at a time and keep the results in order")
+    void testLookupChunkBoundaries() {
+        // Act & Assert
+        assertEquals(1000, BatchInsertWriter.LOOKUP_CHUNK_SIZE);
+        assertEquals(List.of(), chunkSizes(0));
+        assertEquals(List.of(1), chunkSizes(1));
+        assertEquals(List.of(999), chunkSizes(999));
+        assertEquals(List.of(1000), chunkSizes(1000));
+        assertEquals(List.of(1000, 1), chunkSizes(1001));
+        assertEquals(List.of(1000, 1000, 500), chunkSizes(2500));
+    }
+}
@@ -0,0 +1,78 @@
+package com.clusterat.live.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Job Posting Filter Tests")
+class JobPostingFilterTest {
+
+    @Test
+    @DisplayName("Should combine only the given criteria with AND")
+    void testWhereClause() {
+        // Arrange
+        JobPostingFilter empty = JobPostingFilter.builder().companies(List.of(" ")).title("").build();
+        JobPostingFilter filter = JobPostingFilter.builder()
+                .seniorityLevels(List.of("Entry level", "Associate"))
+                .salaryFrom(new BigDecimal("5000"))
+                .postedAfter(LocalDate.of(2025, 1, 1))
+                .easyApply(true)
+                .build();
+
+        // Act & Assert
+        assertEquals("", empty.whereClause());
+        assertEquals(" WHERE seniority_level IN (:seniorityLevels)"
+                + " AND COALESCE(salary_max, salary_min) >= :salaryFrom"
+                + " AND job_posted_at >= :postedAfter"
+                + " AND is_easy_apply = :easyApply", filter.whereClause());
+    }
+
+    @Test
+    @DisplayName("Should compare the salary range through the expressions of the salary indexes")
+    void testSalaryPredicates() {
+        // Arrange
+        JobPostingFilter filter = JobPostingFilter.builder()
+                .salaryFrom(new BigDecimal("5000"))
+                .salaryTo(new BigDecimal("9000"))
+                .salaryCurrency(" BRL ")
+                .build();
+
+        // Act & Assert
+        assertEquals(" WHERE COALESCE(salary_max, salary_min) >= :salaryFrom"
+                + " AND COALESCE(salary_min, salary_max) <= :salaryTo"
+                + " AND salary_currency = :salaryCurrency", filter.whereClause());
+    }
+
+    @Test
+    @DisplayName("Should compare the annual salary range through the expressions of the annual salary indexes")
+    void testAnnualSalaryPredicates() {
+        // Arrange
+        JobPostingFilter filter = JobPostingFilter.builder()
+                .annualSalaryFrom(new BigDecimal("60000"))
+                .annualSalaryTo(new BigDecimal("120000"))
+                .build();
+
+        // Act & Assert
+        assertEquals(" WHERE COALESCE(salary_annual_max, salary_annual_min) >= :annualSalaryFrom"
+                + " AND COALESCE(salary_annual_min, salary_annual_max) <= :annualSalaryTo", filter.whereClause());
+    }
+
+    @Test
+    @DisplayName("Should reject inverted or negative ranges")
+    void testValidate() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> JobPostingFilter.builder()
+                .salaryFrom(new BigDecimal("9000")).salaryTo(new BigDecimal("5000")).build().validate());
+        assertThrows(IllegalArgumentException.class, () -> JobPostingFilter.builder()
+                .salaryTo(new BigDecimal("-1")).build().validate());
+        assertThrows(IllegalArgumentException.class, () -> JobPostingFilter.builder()
+                .minApplicants(50).maxApplicants(10).build().validate());
+        assertDoesNotThrow(() -> JobPostingFilter.builder()
+                .minApplicants(10).maxApplicants(10).build().validate());
+    }
+}
@@ -0,0 +1,89 @@
+package com.clusterat.live.repository;
+
+import com.clusterat.live.dto.KeysetPageDTO;
+import com.clusterat.live.model.JobPostingModel;
+import com.clusterat.live.repository.reactive.JobPostingReactiveRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Keyset Page Request Tests")
+class KeysetPageRequestTest {
+
+    private static final String SELECT = "SELECT * FROM live.job_postings";
+
+    private JobPostingModel jobPosting(long id, int minute) {
+        return JobPostingModel.builder()
+                .id(id)
+                .scrapedAt(OffsetDateTime.of(2025, 1, 10, 12, minute, 0, 0, ZoneOffset.UTC))
+                .build();
+    }
+
+    private KeysetPageRequest<JobPostingModel> request(String sort, String order, String after, Integer limit) {
+        return KeysetPageRequest.of(JobPostingReactiveRepository.SORT_FIELDS, sort, order, after, limit);
+    }
+
+    @Test
+    @DisplayName("Should default to ascending id order with the default limit")
+    void testDefaults() {
+        // Act
+        KeysetPageRequest<JobPostingModel> page = request(null, null, null, null);
+
+        // Assert
+        assertEquals(KeysetPageRequest.DEFAULT_LIMIT, page.getLimit());
+        assertEquals(SELECT + " ORDER BY id ASC LIMIT " + (KeysetPageRequest.DEFAULT_LIMIT + 1), page.pageSql(SELECT));
+        assertEquals(Sort.by(Sort.Direction.ASC, "id"), page.toSort());
+    }
+
+    @Test
+    @DisplayName("Should return a cursor that seeks past the last row of the page")
+    void testCursorRoundTrip() {
+        // Arrange
+        KeysetPageRequest<JobPostingModel> first = request("scraped_at", "desc", null, 2);
+        List<JobPostingModel> rows = List.of(jobPosting(9, 30), jobPosting(7, 20), jobPosting(8, 20));
+
+        // Act
+        KeysetPageDTO<Long> page = first.toPage(rows, JobPostingModel::getId, null);
+        KeysetPageRequest<JobPostingModel> next = request("scraped_at", "desc", page.getNextCursor(), 2);
+
+        // Assert
+        assertEquals(List.of(9L, 7L), page.getItems());
+        assertTrue(page.isHasMore());
+        assertNull(page.getTotalCount());
+        assertEquals(SELECT + " WHERE (scraped_at, id) < (:afterValue, :afterId) ORDER BY scraped_at DESC, id DESC LIMIT 3",
+                next.pageSql(SELECT));
+        assertEquals(Sort.by(Sort.Direction.DESC, "scrapedAt").and(Sort.by(Sort.Direction.DESC, "id")), next.toSort());
+    }
+
+    @Test
+    @DisplayName("Should not return a cursor on the last page")
+    void testLastPage() {
+        // Act
+        KeysetPageDTO<Long> page = request(null, null, null, 5).toPage(List.of(jobPosting(1, 0)), JobPostingModel::getId, 1L);
+
+        // Assert
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+        assertEquals(1L, page.getTotalCount());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid sort, order, limit and cursor")
+    void testRejectsInvalidParameters() {
+        String cursor = request(null, null, null, 1)
+                .toPage(List.of(jobPosting(1, 0), jobPosting(2, 0)), JobPostingModel::getId, null)
+                .getNextCursor();
+
+        assertThrows(IllegalArgumentException.class, () -> request("salary", null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> request(null, "sideways", null, null));
+        assertThrows(IllegalArgumentException.class, () -> request(null, null, null, KeysetPageRequest.MAX_LIMIT + 1));
+        assertThrows(IllegalArgumentException.class, () -> request(null, null, "not-a-cursor!", null));
+        assertThrows(IllegalArgumentException.class, () -> request(null, "desc", cursor, null));
+    }
+}
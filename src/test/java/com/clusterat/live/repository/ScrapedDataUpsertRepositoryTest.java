@@ -0,0 +1,111 @@
+package com.clusterat.live.repository;
+
+import com.clusterat.live.model.JobPostingModel;
+import com.clusterat.live.model.RentalPropertyModel;
+import com.clusterat.live.model.UpsertMode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.SqlParameterValue;
+
+import java.sql.Types;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Scraped Data Upsert Repository Tests")
+class ScrapedDataUpsertRepositoryTest {
+
+    private static final String RETURNING = " RETURNING t.id, (t.xmax = 0) AS inserted";
+
+    private static long placeholders(String sql) {
+        return sql.chars().filter(c -> c == '?').count();
+    }
+
+    @Test
+    @DisplayName("Should skip conflicting job postings in insert_only mode")
+    void testJobPostingsInsertOnly() {
+        // Act
+        String sql = ScrapedDataUpsertRepository.JOB_POSTINGS.sql(2, UpsertMode.INSERT_ONLY);
+
+        // Assert
+        int columns = ScrapedDataUpsertRepository.JOB_POSTINGS.columns().size() + 1;
+        assertTrue(sql.startsWith("INSERT INTO live.job_postings AS t (id, job_posting_id, job_title, "));
+        assertTrue(sql.endsWith(" ON CONFLICT (job_posting_id) DO NOTHING" + RETURNING));
+        assertEquals(2L * columns, placeholders(sql));
+        assertFalse(sql.contains("DO UPDATE"));
+    }
+
+    @Test
+    @DisplayName("Should update only newer job postings and never the id or the conflict key")
+    void testJobPostingsUpdateIfNewer() {
+        // Act
+        String sql = ScrapedDataUpsertRepository.JOB_POSTINGS.sql(1, UpsertMode.UPDATE_IF_NEWER);
+
+        // Assert
+        assertTrue(sql.contains(" ON CONFLICT (job_posting_id) DO UPDATE SET job_title = EXCLUDED.job_title, "));
+        assertTrue(sql.endsWith(" WHERE EXCLUDED.scraped_at > COALESCE(t.scraped_at, '-infinity'::timestamptz)" + RETURNING));
+        assertTrue(sql.contains("scraped_at = EXCLUDED.scraped_at"));
+        assertFalse(sql.contains("job_posting_id = EXCLUDED"));
+        assertFalse(sql.contains(" id = EXCLUDED"));
+    }
+
+    @Test
+    @DisplayName("Should use (property_code, source_url) as the rental property key")
+    void testRentalPropertiesKey() {
+        // Act
+        String insertOnly = ScrapedDataUpsertRepository.RENTAL_PROPERTIES.sql(3, UpsertMode.INSERT_ONLY);
+        String updateIfNewer = ScrapedDataUpsertRepository.RENTAL_PROPERTIES.sql(3, UpsertMode.UPDATE_IF_NEWER);
+
+        // Assert
+        int columns = ScrapedDataUpsertRepository.RENTAL_PROPERTIES.columns().size() + 1;
+        assertTrue(insertOnly.startsWith("INSERT INTO live.rental_properties AS t (id, property_code, source_url, "));
+        assertTrue(insertOnly.endsWith(" ON CONFLICT (property_code, source_url) DO NOTHING" + RETURNING));
+        assertEquals(3L * columns, placeholders(insertOnly));
+        assertTrue(updateIfNewer.contains(" ON CONFLICT (property_code, source_url) DO UPDATE SET property_title = EXCLUDED.property_title"));
+        assertFalse(updateIfNewer.contains("property_code = EXCLUDED"));
+        assertFalse(updateIfNewer.contains("source_url = EXCLUDED"));
+        assertTrue(updateIfNewer.endsWith(RETURNING));
+    }
+
+    @Test
+    @DisplayName("Should bind the reserved id first and the columns in declaration order")
+    void testParameters() {
+        // Arrange
+        List<JobPostingModel> rows = List.of(
+                JobPostingModel.builder().jobPostingId("a").jobTitle("Java Developer").build(),
+                JobPostingModel.builder().jobPostingId("b").jobTitle("Python Developer").build());
+        long[] ids = {51, 52, 53, 54};
+
+        // Act
+        Object[] parameters = ScrapedDataUpsertRepository.JOB_POSTINGS.parameters(rows, ids, 2);
+
+        // Assert
+        int columns = ScrapedDataUpsertRepository.JOB_POSTINGS.columns().size() + 1;
+        assertEquals(2 * columns, parameters.length);
+        SqlParameterValue firstId = (SqlParameterValue) parameters[0];
+        assertEquals(Types.BIGINT, firstId.getSqlType());
+        assertEquals(53L, firstId.getValue());
+        assertEquals("a", ((SqlParameterValue) parameters[1]).getValue());
+        assertEquals("Java Developer", ((SqlParameterValue) parameters[2]).getValue());
+        assertEquals(54L, ((SqlParameterValue) parameters[columns]).getValue());
+        assertEquals("b", ((SqlParameterValue) parameters[columns + 1]).getValue());
+    }
+
+    @Test
+    @DisplayName("Should bind rental property rows")
+    void testRentalPropertyParameters() {
+        // Arrange
+        List<RentalPropertyModel> rows = List.of(RentalPropertyModel.builder()
+                .propertyCode("AP-1")
+                .sourceUrl("https://example.com/ap-1")
+                .build());
+
+        // Act
+        Object[] parameters = ScrapedDataUpsertRepository.RENTAL_PROPERTIES.parameters(rows, new long[]{7}, 0);
+
+        // Assert
+        assertEquals(7L, ((SqlParameterValue) parameters[0]).getValue());
+        assertEquals("AP-1", ((SqlParameterValue) parameters[1]).getValue());
+        assertEquals("https://example.com/ap-1", ((SqlParameterValue) parameters[2]).getValue());
+    }
+}
@@ -0,0 +1,61 @@
+package com.clusterat.live.repository.reactive;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Financial Summary Reactive Repository Tests")
+class FinancialSummaryReactiveRepositoryTest {
+
+    private static final OffsetDateTime MARCH = OffsetDateTime.of(2025, 3, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    private static final OffsetDateTime JUNE = OffsetDateTime.of(2025, 6, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    @Test
+    @DisplayName("Should read the monthly summary for unbounded or month-aligned periods")
+    void testMonthAlignedPeriods() {
+        // Act & Assert
+        assertTrue(FinancialSummaryReactiveRepository.usesMonthlySummary(null, null));
+        assertTrue(FinancialSummaryReactiveRepository.usesMonthlySummary(MARCH, null));
+        assertTrue(FinancialSummaryReactiveRepository.usesMonthlySummary(null, JUNE));
+        assertTrue(FinancialSummaryReactiveRepository.usesMonthlySummary(MARCH, JUNE));
+        // The same instant in another offset is still a UTC month start
+        assertTrue(FinancialSummaryReactiveRepository.usesMonthlySummary(
+                MARCH.withOffsetSameInstant(ZoneOffset.ofHours(-3)), JUNE));
+    }
+
+    @Test
+    @DisplayName("Should fall back to the rows when a bound is not a UTC month start")
+    void testUnalignedPeriods() {
+        // Act & Assert
+        assertFalse(FinancialSummaryReactiveRepository.usesMonthlySummary(MARCH.plusDays(1), JUNE));
+        assertFalse(FinancialSummaryReactiveRepository.usesMonthlySummary(MARCH, JUNE.plusSeconds(1)));
+        assertFalse(FinancialSummaryReactiveRepository.usesMonthlySummary(null, JUNE.minusNanos(1)));
+        assertFalse(FinancialSummaryReactiveRepository.usesMonthlySummary(
+                OffsetDateTime.of(2025, 3, 1, 0, 0, 0, 0, ZoneOffset.ofHours(-3)), null));
+    }
+
+    @Test
+    @DisplayName("Should filter the chosen source by the given bounds only")
+    void testFactsSql() {
+        // Act
+        String summary = FinancialSummaryReactiveRepository.facts(MARCH, JUNE);
+        String summaryFrom = FinancialSummaryReactiveRepository.facts(MARCH, null);
+        String unbounded = FinancialSummaryReactiveRepository.facts(null, null);
+        String rows = FinancialSummaryReactiveRepository.facts(MARCH.plusDays(14), JUNE);
+        String rowsTo = FinancialSummaryReactiveRepository.facts(null, JUNE.plusHours(1));
+
+        // Assert
+        assertTrue(summary.contains("FROM live.financial_monthly_summary s"));
+        assertTrue(summary.endsWith("WHERE s.month >= :from AND s.month < :to"));
+        assertTrue(summaryFrom.endsWith("WHERE s.month >= :from"));
+        assertTrue(unbounded.contains("FROM live.financial_monthly_summary s"));
+        assertFalse(unbounded.contains("WHERE"));
+        assertTrue(rows.contains("FROM live.financial_analysis f"));
+        assertTrue(rows.endsWith("WHERE f.transaction_date >= :from AND f.transaction_date < :to"));
+        assertTrue(rowsTo.endsWith("WHERE f.transaction_date < :to"));
+    }
+}
@@ -0,0 +1,70 @@
+package com.clusterat.live.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CSV Record Reader Tests")
+class CsvRecordReaderTest {
+
+    private CsvRecordReader reader(String csv) {
+        return new CsvRecordReader(new StringReader(csv), ',');
+    }
+
+    @Test
+    @DisplayName("Should split plain records and treat unquoted empty fields as null")
+    void testPlainRecords() throws IOException {
+        // Arrange
+        CsvRecordReader reader = reader("amount,description\r\n10.50,\r\n-3,coffee\n");
+
+        // Act & Assert
+        assertEquals(List.of("amount", "description"), reader.next());
+        assertEquals(Arrays.asList("10.50", null), reader.next());
+        assertEquals(List.of("-3", "coffee"), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    @DisplayName("Should handle quoted delimiters, escaped quotes and line breaks inside fields")
+    void testQuotedFields() throws IOException {
+        // Arrange
+        CsvRecordReader reader = reader("\"a,b\",\"say \"\"hi\"\"\",\"\"\n\"multi\nline\",x\n");
+
+        // Act
+        List<String> first = reader.next();
+        List<String> second = reader.next();
+
+        // Assert
+        assertEquals(List.of("a,b", "say \"hi\"", ""), first);
+        assertEquals(List.of("multi\nline", "x"), second);
+        assertEquals(2, reader.getRecordLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    @DisplayName("Should skip blank lines and read a last record without trailing newline")
+    void testBlankLinesAndMissingNewline() throws IOException {
+        // Arrange
+        CsvRecordReader reader = reader("a\n\n\nb");
+
+        // Act & Assert
+        assertEquals(List.of("a"), reader.next());
+        assertEquals(List.of("b"), reader.next());
+        assertEquals(4, reader.getRecordLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    @DisplayName("Should fail on an unclosed quoted field")
+    void testUnclosedQuote() {
+        CsvRecordReader reader = reader("\"never closed\n");
+
+        assertThrows(IOException.class, reader::next);
+    }
+}
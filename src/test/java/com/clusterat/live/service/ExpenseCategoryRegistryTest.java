@@ -0,0 +1,79 @@
+package com.clusterat.live.service;
+
+import com.clusterat.live.dto.ExpenseCategoryDTO;
+import com.clusterat.live.model.ExpenseCategoryModel;
+import com.clusterat.live.repository.ExpenseCategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Expense Category Registry Tests")
+class ExpenseCategoryRegistryTest {
+
+    private ExpenseCategoryRegistry registry;
+
+    @Mock
+    private ExpenseCategoryRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        registry = new ExpenseCategoryRegistry(repository);
+    }
+
+    private ExpenseCategoryModel category(int id, String name, Integer parentId) {
+        return ExpenseCategoryModel.builder()
+                .categoryId(id)
+                .name(name)
+                .parentCategoryId(parentId)
+                .isIncome(false)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should precompute children and ancestors and resolve names case-insensitively")
+    void testHierarchy() {
+        // Arrange
+        when(repository.findAll()).thenReturn(List.of(
+                category(1, "Housing", null),
+                category(2, "Utilities", 1),
+                category(3, "Electricity", 2)));
+
+        // Act
+        registry.invalidate();
+
+        // Assert
+        assertArrayEquals(new int[]{2, 1}, registry.getAncestors(3));
+        assertArrayEquals(new int[0], registry.getAncestors(1));
+        assertEquals(List.of(2), registry.getChildren(1).stream().map(ExpenseCategoryDTO::getCategoryId).toList());
+        assertEquals(3, registry.findByName(" electricity ").orElseThrow().getCategoryId());
+        assertTrue(registry.isSameOrDescendant(3, 1));
+        assertFalse(registry.isSameOrDescendant(1, 3));
+        verify(repository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("Should stop walking ancestors on a parent cycle and reload after invalidate")
+    void testCycleAndInvalidate() {
+        // Arrange
+        when(repository.findAll())
+                .thenReturn(List.of(category(1, "A", 2), category(2, "B", 1)))
+                .thenReturn(List.of(category(1, "A", null)));
+
+        // Act
+        int[] ancestors = registry.getAncestors(1);
+        registry.invalidate();
+
+        // Assert
+        assertArrayEquals(new int[]{2}, ancestors);
+        assertFalse(registry.exists(2));
+        assertEquals(1, registry.getRoots().size());
+    }
+}
@@ -0,0 +1,209 @@
+package com.clusterat.live.service;
+
+import com.clusterat.live.dto.FinancialAnalysisDTO;
+import com.clusterat.live.model.AnalysisType;
+import com.clusterat.live.model.FinancialAnalysisModel;
+import com.clusterat.live.model.TransactionDedupKey;
+import com.clusterat.live.repository.BatchInsertWriter;
+import com.clusterat.live.repository.FinancialAnalysisRepository;
+import com.clusterat.live.repository.reactive.FinancialAnalysisReactiveRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Financial Analysis Service Tests")
+class FinancialAnalysisServiceTest {
+
+    private FinancialAnalysisService service;
+
+    @Mock
+    private FinancialAnalysisRepository financialAnalysisRepository;
+
+    @Mock
+    private FinancialAnalysisReactiveRepository financialAnalysisReactiveRepository;
+
+    @Mock
+    private BatchInsertWriter batchInsertWriter;
+
+    @Mock
+    private ExpenseCategoryRegistry expenseCategoryRegistry;
+
+    @Mock
+    private TransactionCategorizer transactionCategorizer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        service = new FinancialAnalysisService(financialAnalysisRepository, financialAnalysisReactiveRepository,
+                batchInsertWriter, expenseCategoryRegistry, transactionCategorizer, new ObjectMapper());
+        when(financialAnalysisReactiveRepository.findPageByMetadata(any(), any(), any())).thenReturn(Flux.empty());
+    }
+
+    private static FinancialAnalysisDTO transaction(String description, String amount, int day) {
+        return FinancialAnalysisDTO.builder()
+                .sourceTransactionId("bank-1")
+                .description(description)
+                .amount(new BigDecimal(amount))
+                .transactionDate(OffsetDateTime.of(2025, 3, day, 12, 0, 0, 0, ZoneOffset.UTC))
+                .categoryId(1)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should insert only the first of the records repeated in the payload or already stored")
+    @SuppressWarnings("unchecked")
+    void testSaveAnalysisBulkCollapsesDuplicates() {
+        // Arrange
+        FinancialAnalysisDTO rent = transaction("Aluguel", "1500.00", 5);
+        FinancialAnalysisDTO rentAgain = transaction("  ALUGUEL ", "1500", 5);
+        FinancialAnalysisDTO market = transaction("Mercado", "230.10", 6);
+        FinancialAnalysisDTO stored = transaction("Farmacia", "45.00", 7);
+        String storedKey = TransactionDedupKey.of(FinancialAnalysisModel.builder()
+                .sourceTransactionId("bank-1").description("Farmacia").amount(new BigDecimal("45.00"))
+                .transactionDate(stored.getTransactionDate()).build());
+        when(expenseCategoryRegistry.exists(anyInt())).thenReturn(true);
+        when(financialAnalysisRepository.findExistingDedupKeys(anyCollection())).thenReturn(List.of(storedKey));
+        when(batchInsertWriter.insertAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        FinancialAnalysisService.BulkSaveResult result = service.saveAnalysisBulk(
+                List.of(rent, rentAgain, market, stored, market));
+
+        // Assert
+        ArgumentCaptor<List<FinancialAnalysisModel>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(batchInsertWriter).insertAll(inserted.capture());
+        assertEquals(List.of("Aluguel", "Mercado"),
+                inserted.getValue().stream().map(FinancialAnalysisModel::getDescription).toList());
+        assertEquals(2, result.saved().size());
+        assertEquals(3, result.skippedCount());
+        assertEquals(List.of("record 1: repeats record 0", "record 3: already stored", "record 4: repeats record 2"),
+                result.skipped());
+    }
+
+    @Test
+    @DisplayName("Should categorize records without a category and report the ones no rule matches")
+    @SuppressWarnings("unchecked")
+    void testSaveAnalysisBulkCategorizes() throws Exception {
+        // Arrange
+        FinancialAnalysisDTO uber = transaction("Uber *Trip", "32.50", 5);
+        uber.setCategoryId(null);
+        FinancialAnalysisDTO shop = transaction("Compra", "99.90", 6);
+        shop.setCategoryId(null);
+        shop.setMetadata(new ObjectMapper().readTree("{\"merchant\":\"Padaria Real\"}"));
+        FinancialAnalysisDTO unknown = transaction("TED 123", "10.00", 7);
+        unknown.setCategoryId(null);
+        FinancialAnalysisDTO typed = transaction("Aluguel", "1500.00", 8);
+        typed.setAnalysisType("essential");
+        when(expenseCategoryRegistry.exists(anyInt())).thenReturn(true);
+        when(transactionCategorizer.classify(eq("Uber *Trip"), isNull(), any()))
+                .thenReturn(Optional.of(new TransactionCategorizer.Classification(1, 7, AnalysisType.REDUCIBLE)));
+        when(transactionCategorizer.classify(eq("Compra"), eq("Padaria Real"), any()))
+                .thenReturn(Optional.of(new TransactionCategorizer.Classification(2, 3, null)));
+        when(transactionCategorizer.classify(eq("TED 123"), any(), any())).thenReturn(Optional.empty());
+        when(financialAnalysisRepository.findExistingDedupKeys(anyCollection())).thenReturn(List.of());
+        when(batchInsertWriter.insertAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        FinancialAnalysisService.BulkSaveResult result = service.saveAnalysisBulk(List.of(uber, shop, unknown, typed));
+
+        // Assert
+        ArgumentCaptor<List<FinancialAnalysisModel>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(batchInsertWriter).insertAll(inserted.capture());
+        List<FinancialAnalysisModel> rows = inserted.getValue();
+        assertEquals(3, rows.size());
+        assertEquals(7, rows.get(0).getCategoryId());
+        assertEquals(AnalysisType.REDUCIBLE, rows.get(0).getAnalysisType());
+        assertEquals(3, rows.get(1).getCategoryId());
+        assertNull(rows.get(1).getAnalysisType());
+        assertEquals(1, rows.get(2).getCategoryId());
+        assertEquals(AnalysisType.ESSENTIAL, rows.get(2).getAnalysisType());
+        assertEquals(List.of("record 2: no categorization rule matched"), result.skipped());
+        verify(expenseCategoryRegistry, never()).exists(isNull());
+        verify(transactionCategorizer, never()).classify(eq("Aluguel"), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should fold key and value into the contains object")
+    void testMetadataKeyValueFoldedIntoContains() {
+        // Act
+        service.getAnalysisPageByMetadata("{\"bank\":{\"code\":\"001\"}}", "source", "ocr",
+                null, null, null, null).block();
+
+        // Assert
+        verify(financialAnalysisReactiveRepository).findPageByMetadata(any(),
+                eq("{\"bank\":{\"code\":\"001\"},\"source\":\"ocr\"}"), isNull());
+    }
+
+    @Test
+    @DisplayName("Should require only the key to exist when no value is given")
+    void testMetadataKeyOnly() {
+        // Act
+        service.getAnalysisPageByMetadata(null, "source", null, null, null, null, null).block();
+
+        // Assert
+        verify(financialAnalysisReactiveRepository).findPageByMetadata(any(), isNull(), eq("source"));
+    }
+
+    @Test
+    @DisplayName("Should reject a value without a key")
+    void testMetadataValueWithoutKey() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> service.getAnalysisPageByMetadata(
+                null, null, "ocr", null, null, null, null).block());
+        assertThrows(IllegalArgumentException.class, () -> service.getAnalysisPageByMetadata(
+                null, " ", "ocr", null, null, null, null).block());
+        verifyNoInteractions(financialAnalysisReactiveRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject contains that is not a JSON object")
+    void testMetadataContainsNotObject() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> service.getAnalysisPageByMetadata(
+                "[\"ocr\"]", null, null, null, null, null, null).block());
+        assertThrows(IllegalArgumentException.class, () -> service.getAnalysisPageByMetadata(
+                "\"ocr\"", null, null, null, null, null, null).block());
+        assertThrows(IllegalArgumentException.class, () -> service.getAnalysisPageByMetadata(
+                "{not json", null, null, null, null, null, null).block());
+        verifyNoInteractions(financialAnalysisReactiveRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject key and value when contains already constrains the key")
+    void testMetadataKeyConflict() {
+        // Act & Assert
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () ->
+                service.getAnalysisPageByMetadata("{\"source\":\"import\"}", "source", "ocr",
+                        null, null, null, null).block());
+        assertTrue(e.getMessage().contains("source"));
+        verifyNoInteractions(financialAnalysisReactiveRepository);
+    }
+
+    @Test
+    @DisplayName("Should require a metadata filter")
+    void testMetadataFilterRequired() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> service.getAnalysisPageByMetadata(
+                "{}", null, null, null, null, null, null).block());
+    }
+}
@@ -0,0 +1,67 @@
+package com.clusterat.live.service;
+
+import com.clusterat.live.dto.PartitionArchiveResultDTO;
+import com.clusterat.live.repository.FinancialPartitionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Financial Partition Service Tests")
+class FinancialPartitionServiceTest {
+
+    private FinancialPartitionService service;
+
+    @Mock
+    private FinancialPartitionRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        service = new FinancialPartitionService(repository);
+    }
+
+    @Test
+    @DisplayName("Should detach a past month into its archive table")
+    void testArchivePastMonth() {
+        // Arrange
+        YearMonth month = YearMonth.of(2023, 1);
+        when(repository.isAttached(month)).thenReturn(true);
+        when(repository.tableExists("financial_analysis_archive_2023_01")).thenReturn(false);
+        when(repository.detachPartition(month, "financial_analysis_archive_2023_01")).thenReturn(42L);
+
+        // Act
+        PartitionArchiveResultDTO result = service.archivePartition(month);
+
+        // Assert
+        assertEquals("financial_analysis_archive_2023_01", result.getArchiveTable());
+        assertEquals(42L, result.getArchivedRows());
+    }
+
+    @Test
+    @DisplayName("Should refuse the current month, missing partitions and existing archives")
+    void testArchiveGuards() {
+        // Arrange
+        YearMonth past = YearMonth.of(2023, 1);
+        when(repository.isAttached(YearMonth.of(2022, 12))).thenReturn(false);
+        when(repository.isAttached(past)).thenReturn(true);
+        when(repository.tableExists(anyString())).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> service.archivePartition(YearMonth.now(ZoneOffset.UTC)));
+        RuntimeException notFound = assertThrows(RuntimeException.class,
+                () -> service.archivePartition(YearMonth.of(2022, 12)));
+        assertFalse(notFound instanceof IllegalArgumentException);
+        assertThrows(IllegalArgumentException.class, () -> service.archivePartition(past));
+        verify(repository, never()).detachPartition(any(), anyString());
+    }
+}
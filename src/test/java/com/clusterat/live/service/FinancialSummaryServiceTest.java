@@ -0,0 +1,60 @@
+package com.clusterat.live.service;
+
+import com.clusterat.live.dto.MonthlySummaryDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Financial Summary Service Tests")
+class FinancialSummaryServiceTest {
+
+    private MonthlySummaryDTO month(String month, String expense) {
+        BigDecimal value = new BigDecimal(expense);
+        return MonthlySummaryDTO.builder()
+                .month(month)
+                .income(BigDecimal.ZERO)
+                .expense(value)
+                .net(value.negate())
+                .count(1L)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should fill months without transactions and compute trailing averages")
+    void testRollingAveragesWithGaps() {
+        // Arrange
+        List<MonthlySummaryDTO> months = List.of(month("2025-01", "100"), month("2025-03", "300"));
+
+        // Act
+        List<MonthlySummaryDTO> series = FinancialSummaryService.withRollingAverages(months, null, null, 2);
+
+        // Assert
+        assertEquals(List.of("2025-01", "2025-02", "2025-03"), series.stream().map(MonthlySummaryDTO::getMonth).toList());
+        assertEquals(0L, series.get(1).getCount());
+        assertEquals(new BigDecimal("100.00"), series.get(0).getRollingAverageExpense());
+        assertEquals(new BigDecimal("50.00"), series.get(1).getRollingAverageExpense());
+        assertEquals(new BigDecimal("150.00"), series.get(2).getRollingAverageExpense());
+        assertEquals(new BigDecimal("-150.00"), series.get(2).getRollingAverageNet());
+    }
+
+    @Test
+    @DisplayName("Should cover the requested period even when it has no transactions")
+    void testRequestedPeriodBounds() {
+        // Act
+        List<MonthlySummaryDTO> empty = FinancialSummaryService.withRollingAverages(List.of(), null, null, 3);
+        List<MonthlySummaryDTO> series = FinancialSummaryService.withRollingAverages(
+                List.of(month("2025-02", "90")), YearMonth.of(2025, 1), YearMonth.of(2025, 4), 3);
+
+        // Assert
+        assertTrue(empty.isEmpty());
+        assertEquals(4, series.size());
+        assertEquals(new BigDecimal("0.00"), series.get(0).getRollingAverageExpense());
+        assertEquals(new BigDecimal("45.00"), series.get(1).getRollingAverageExpense());
+        assertEquals(new BigDecimal("30.00"), series.get(3).getRollingAverageExpense());
+    }
+}
@@ -0,0 +1,81 @@
+package com.clusterat.live.service;
+
+import com.clusterat.live.dto.SalaryPercentilesDTO;
+import com.clusterat.live.model.JobPostingModel;
+import com.clusterat.live.repository.JobPostingSalaryRepository;
+import com.clusterat.live.repository.reactive.JobPostingReactiveRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Job Posting Salary Service Tests")
+class JobPostingSalaryServiceTest {
+
+    private JobPostingSalaryService service;
+
+    @Mock
+    private JobPostingSalaryRepository jobPostingSalaryRepository;
+
+    @Mock
+    private JobPostingReactiveRepository jobPostingReactiveRepository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        service = new JobPostingSalaryService(jobPostingSalaryRepository, jobPostingReactiveRepository,
+                new SalaryNormalizer("BRL", ""));
+        ReflectionTestUtils.setField(service, "statsEnabled", true);
+    }
+
+    private static JobPostingModel posting(String title, String annualMin, String annualMax) {
+        return JobPostingModel.builder()
+                .jobTitle(title)
+                .salaryAnnualMin(annualMin == null ? null : new BigDecimal(annualMin))
+                .salaryAnnualMax(annualMax == null ? null : new BigDecimal(annualMax))
+                .salaryAnnualCurrency("BRL")
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should add written postings to the built sketches without rescanning")
+    void testRecordAfterRebuild() {
+        // Arrange
+        when(jobPostingReactiveRepository.findAnnualSalaries("BRL"))
+                .thenReturn(Flux.just(posting("Java Developer", "100000", "120000")));
+        service.rebuildStats();
+
+        // Act
+        service.recordAfterCommit(List.of(
+                posting("Java Developer", "140000", null),
+                posting("Python Developer", null, null)));
+        List<SalaryPercentilesDTO> overall = service.getPercentiles("all", null, "50", null, null);
+        List<SalaryPercentilesDTO> byTitle = service.getPercentiles("title", "java developer", "0,100", null, null);
+
+        // Assert
+        assertEquals(2, overall.get(0).getCount());
+        assertEquals(2, byTitle.get(0).getCount());
+        assertEquals(new BigDecimal("110000.00"), byTitle.get(0).getPercentiles().get("p0"));
+        assertEquals(new BigDecimal("140000.00"), byTitle.get(0).getPercentiles().get("p100"));
+        verify(jobPostingReactiveRepository, times(1)).findAnnualSalaries("BRL");
+    }
+
+    @Test
+    @DisplayName("Should ignore written postings until the sketches are first built")
+    void testRecordBeforeRebuild() {
+        // Act
+        service.recordAfterCommit(List.of(posting("Java Developer", "100000", null)));
+
+        // Assert
+        assertThrows(IllegalStateException.class, () -> service.getPercentiles("all", null, null, null, null));
+    }
+}
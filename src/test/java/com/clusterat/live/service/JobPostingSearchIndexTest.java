@@ -0,0 +1,125 @@
+package com.clusterat.live.service;
+
+import com.clusterat.live.dto.JobPostingDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Job Posting Search Index Tests")
+class JobPostingSearchIndexTest {
+
+    private static JobPostingDTO posting(long id, String title, String location, String seniority) {
+        return JobPostingDTO.builder()
+                .id(id)
+                .jobTitle(title)
+                .jobLocation(location)
+                .seniorityLevel(seniority)
+                .employmentType("Full-time")
+                .companyName("Acme")
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should intersect title words and facets ignoring case and accents")
+    void testMatchIntersection() {
+        // Arrange
+        JobPostingSearchIndex.Segment segment = new JobPostingSearchIndex.Segment();
+        segment.put(posting(1L, "Senior Java Developer", "São Paulo, SP", "Mid-Senior level"));
+        segment.put(posting(2L, "Java Developer", "Rio de Janeiro, RJ", "Entry level"));
+        segment.put(posting(3L, "Python Developer", "Sao Paulo, SP", "Mid-Senior level"));
+
+        // Act
+        BitSet javaInSaoPaulo = segment.match(new JobPostingSearchIndex.Query("java DEVELOPER", "sao paulo, sp", null, null, null));
+        BitSet midSenior = segment.match(new JobPostingSearchIndex.Query(null, null, "mid senior level", "full time", "acme"));
+        BitSet unknownWord = segment.match(new JobPostingSearchIndex.Query("java rust", null, null, null, null));
+
+        // Assert
+        assertEquals(1, javaInSaoPaulo.cardinality());
+        assertTrue(javaInSaoPaulo.get(0));
+        assertEquals(2, midSenior.cardinality());
+        assertTrue(unknownWord.isEmpty());
+        assertEquals(3, segment.match(new JobPostingSearchIndex.Query(null, null, null, null, null)).cardinality());
+    }
+
+    @Test
+    @DisplayName("Should drop old terms on reindex and stop matching removed postings")
+    void testUpdateAndRemove() {
+        // Arrange
+        JobPostingSearchIndex.Segment segment = new JobPostingSearchIndex.Segment();
+        segment.put(posting(1L, "Java Developer", "Curitiba", "Entry level"));
+        segment.put(posting(2L, "Java Developer", "Curitiba", "Entry level"));
+
+        // Act
+        segment.put(posting(1L, "Kotlin Developer", "Curitiba", "Entry level"));
+        segment.remove(2L);
+
+        // Assert
+        assertTrue(segment.match(new JobPostingSearchIndex.Query("java", null, null, null, null)).isEmpty());
+        assertEquals(1, segment.match(new JobPostingSearchIndex.Query("kotlin", "curitiba", null, null, null)).cardinality());
+        assertEquals(1, segment.match(new JobPostingSearchIndex.Query(null, null, null, null, null)).cardinality());
+        assertEquals(1, segment.size());
+    }
+
+    @Test
+    @DisplayName("Should keep memory bounded for many rare title words")
+    void testRareTermsMemory() {
+        // Arrange
+        int postings = 20_000;
+        JobPostingSearchIndex.Segment segment = new JobPostingSearchIndex.Segment();
+
+        // Act
+        for (int i = 0; i < postings; i++) {
+            segment.put(posting(i + 1, "Engineer w" + i, "Curitiba", "Entry level"));
+        }
+
+        // Assert
+        // One BitSet per rare word would take ~postings^2/16 bytes (25 MB here); the common terms
+        // (engineer, location, seniority, employment type, company) take one bit per posting each,
+        // up to twice that while their BitSets grow
+        long commonTerms = 5L * 2 * (postings / Byte.SIZE + Long.BYTES);
+        long rareTerms = 2L * Integer.BYTES * postings;
+        assertEquals(postings + 5, segment.termCount());
+        assertTrue(segment.postingListBytes() <= commonTerms + rareTerms, "posting lists: " + segment.postingListBytes());
+        BitSet match = segment.match(new JobPostingSearchIndex.Query("engineer W19999", "curitiba", null, null, null));
+        assertEquals(1, match.cardinality());
+        assertTrue(match.get(postings - 1));
+    }
+
+    @Test
+    @DisplayName("Should switch a posting list to a bitmap once it covers many postings")
+    void testPostingListDensity() {
+        // Arrange
+        JobPostingSearchIndex.PostingList list = new JobPostingSearchIndex.PostingList();
+
+        // Act
+        list.add(40, 1000);
+        list.add(10, 1000);
+        list.add(40, 1000);
+        list.add(25, 1000);
+        list.remove(10);
+
+        // Assert
+        assertFalse(list.isDense());
+        assertEquals(2, list.cardinality());
+        assertTrue(list.contains(25) && list.contains(40) && !list.contains(10));
+
+        // Act
+        for (int ordinal = 100; ordinal < 140; ordinal++) {
+            list.add(ordinal, 1000);
+        }
+        BitSet candidates = new BitSet();
+        candidates.set(25);
+        candidates.set(26);
+        candidates.set(139);
+        list.retainIn(candidates);
+
+        // Assert
+        assertTrue(list.isDense());
+        assertEquals(42, list.cardinality());
+        assertEquals(2, candidates.cardinality());
+        assertTrue(candidates.get(25) && candidates.get(139));
+    }
+}
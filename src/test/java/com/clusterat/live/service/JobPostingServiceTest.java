@@ -0,0 +1,124 @@
+package com.clusterat.live.service;
+
+import com.clusterat.live.dto.JobPostingDTO;
+import com.clusterat.live.dto.UpsertResultDTO;
+import com.clusterat.live.model.JobPostingModel;
+import com.clusterat.live.model.UpsertMode;
+import com.clusterat.live.repository.BatchInsertWriter;
+import com.clusterat.live.repository.JobPostingRepository;
+import com.clusterat.live.repository.ScrapedDataUpsertRepository;
+import com.clusterat.live.repository.reactive.JobPostingReactiveRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Job Posting Service Tests")
+class JobPostingServiceTest {
+
+    private JobPostingService service;
+
+    @Mock
+    private JobPostingRepository jobPostingRepository;
+
+    @Mock
+    private JobPostingReactiveRepository jobPostingReactiveRepository;
+
+    @Mock
+    private BatchInsertWriter batchInsertWriter;
+
+    @Mock
+    private ScrapedDataUpsertRepository scrapedDataUpsertRepository;
+
+    @Mock
+    private JobPostingSearchIndex jobPostingSearchIndex;
+
+    @Mock
+    private JobPostingDeduplicationService jobPostingDeduplicationService;
+
+    @Mock
+    private JobPostingSalaryService jobPostingSalaryService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        service = new JobPostingService(jobPostingRepository, jobPostingReactiveRepository, batchInsertWriter,
+                scrapedDataUpsertRepository, jobPostingSearchIndex, new SalaryNormalizer("BRL", ""),
+                jobPostingDeduplicationService, jobPostingSalaryService);
+    }
+
+    private static JobPostingDTO posting(String jobPostingId, String title, int scrapedDay) {
+        return JobPostingDTO.builder()
+                .jobPostingId(jobPostingId)
+                .jobTitle(title)
+                .scrapedAt(OffsetDateTime.of(2025, 3, scrapedDay, 12, 0, 0, 0, ZoneOffset.UTC))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should insert only the first posting of each id that is not stored yet")
+    @SuppressWarnings("unchecked")
+    void testCreateJobPostingsCollapsesDuplicates() {
+        // Arrange
+        when(jobPostingRepository.findExistingJobPostingIds(anyCollection())).thenReturn(List.of("c"));
+        when(batchInsertWriter.insertAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        List<JobPostingDTO> created = service.createJobPostings(List.of(
+                posting("a", "Java Developer", 1),
+                posting("b", "Python Developer", 1),
+                posting("a", "Java Developer (repost)", 2),
+                posting(null, "No id", 1),
+                posting("c", "Already stored", 1)));
+
+        // Assert
+        ArgumentCaptor<List<JobPostingModel>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(batchInsertWriter).insertAll(inserted.capture());
+        assertEquals(List.of("Java Developer", "Python Developer"),
+                inserted.getValue().stream().map(JobPostingModel::getJobTitle).toList());
+        assertEquals(2, created.size());
+        verify(jobPostingRepository).findExistingJobPostingIds(eq(List.of("a", "b", "c")));
+    }
+
+    @Test
+    @DisplayName("Should upsert the most recently scraped posting of each id and report payload duplicates")
+    @SuppressWarnings("unchecked")
+    void testUpsertJobPostingsKeepsNewest() {
+        // Arrange
+        when(scrapedDataUpsertRepository.upsertJobPostings(anyList(), eq(UpsertMode.UPDATE_IF_NEWER)))
+                .thenReturn(new ScrapedDataUpsertRepository.UpsertCounts(1, 0, List.of(51L)));
+        when(jobPostingSalaryService.isEnabled()).thenReturn(true);
+        JobPostingModel written = JobPostingModel.builder().id(51L).jobPostingId("a").build();
+        when(jobPostingRepository.findAllById(List.of(51L))).thenReturn(List.of(written));
+
+        // Act
+        UpsertResultDTO result = service.upsertJobPostings(List.of(
+                posting("a", "Java Developer", 1),
+                posting("b", "Python Developer", 1),
+                posting("a", "Senior Java Developer", 3),
+                posting("a", "Java Developer (old)", 2)), null);
+
+        // Assert
+        ArgumentCaptor<List<JobPostingModel>> upserted = ArgumentCaptor.forClass(List.class);
+        verify(scrapedDataUpsertRepository).upsertJobPostings(upserted.capture(), eq(UpsertMode.UPDATE_IF_NEWER));
+        assertEquals(List.of("Senior Java Developer", "Python Developer"),
+                upserted.getValue().stream().map(JobPostingModel::getJobTitle).toList());
+        assertEquals(4, result.getReceived());
+        assertEquals(1, result.getInserted());
+        assertEquals(1, result.getUnchanged());
+        assertEquals(2, result.getDuplicatesInPayload());
+        verify(jobPostingSalaryService).recordAfterCommit(List.of(written));
+    }
+}
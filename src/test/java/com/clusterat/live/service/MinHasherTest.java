@@ -0,0 +1,71 @@
+package com.clusterat.live.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("MinHasher Tests")
+class MinHasherTest {
+    private static final String SUMMARY = "We are looking for a Senior Java Developer to join our payments team. "
+            + "You will design and build Spring Boot microservices, work with PostgreSQL and Kafka, "
+            + "review code and mentor other engineers. Requirements: 5+ years of Java experience, "
+            + "solid knowledge of REST APIs, SQL and cloud environments. Remote work with flexible hours.";
+
+    @Test
+    @DisplayName("Should give a reposted description a high similarity and a shared LSH band")
+    void testNearDuplicate() {
+        // Arrange
+        String reposted = SUMMARY.replace("Remote work with flexible hours.", "Hybrid work, 2 days a week in the office.")
+                .replace("5+ years", "6+ years");
+        int[] original = MinHasher.signature("Senior Java Developer", "Acme", "São Paulo", SUMMARY);
+        int[] duplicate = MinHasher.signature("Senior Java Developer", "Acme Inc", "Sao Paulo, SP", reposted);
+
+        // Act
+        double similarity = MinHasher.similarity(original, duplicate);
+        long[] originalBuckets = MinHasher.bandBuckets(original);
+        long[] duplicateBuckets = MinHasher.bandBuckets(duplicate);
+
+        // Assert
+        assertTrue(similarity >= 0.7, "similarity " + similarity);
+        assertTrue(IntStream.range(0, MinHasher.BANDS).anyMatch(band -> originalBuckets[band] == duplicateBuckets[band]));
+    }
+
+    @Test
+    @DisplayName("Should give unrelated descriptions a low similarity")
+    void testUnrelated() {
+        // Arrange
+        int[] original = MinHasher.signature("Senior Java Developer", "Acme", "São Paulo", SUMMARY);
+        int[] other = MinHasher.signature("Nurse", "City Hospital", "Rio de Janeiro",
+                "Hospital seeks a registered nurse for night shifts in the intensive care unit. "
+                        + "Responsibilities include patient monitoring, medication administration and family support.");
+
+        // Act & Assert
+        assertTrue(MinHasher.similarity(original, other) < 0.2);
+        assertNull(MinHasher.signature(null, " ", null, ""));
+    }
+
+    @Test
+    @DisplayName("Should compare titles and companies leniently")
+    void testTitleAndCompany() {
+        // Act & Assert
+        assertEquals(0.5, MinHasher.titleSimilarity("Senior Java Developer", "Java Developer Sr"), 1e-9);
+        assertEquals(0, MinHasher.titleSimilarity("Senior Java Developer", null));
+        assertTrue(MinHasher.sameCompany("ACME", "Acme Inc"));
+        assertTrue(MinHasher.sameCompany(null, "Acme"));
+        assertFalse(MinHasher.sameCompany("Acme", "Acmecorp"));
+    }
+
+    @Test
+    @DisplayName("Should round-trip signatures through bytes")
+    void testBytes() {
+        // Arrange
+        int[] signature = MinHasher.signature("Senior Java Developer", "Acme", "São Paulo", SUMMARY);
+
+        // Act & Assert
+        assertEquals(MinHasher.HASHES * Integer.BYTES, MinHasher.toBytes(signature).length);
+        assertArrayEquals(signature, MinHasher.fromBytes(MinHasher.toBytes(signature)));
+    }
+}
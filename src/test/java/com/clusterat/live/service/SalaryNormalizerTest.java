@@ -0,0 +1,58 @@
+package com.clusterat.live.service;
+
+import com.clusterat.live.model.JobPostingModel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Salary Normalizer Tests")
+class SalaryNormalizerTest {
+
+    private final SalaryNormalizer normalizer = new SalaryNormalizer("brl", "USD=5.00, EUR=6");
+
+    @Test
+    @DisplayName("Should annualize salaries and convert them to the base currency")
+    void testNormalize() {
+        // Arrange
+        JobPostingModel hourly = JobPostingModel.builder()
+                .salaryCurrency("$").salaryMin(new BigDecimal("20")).salaryMax(new BigDecimal("30"))
+                .salaryPaymentPeriod("per hour").build();
+        JobPostingModel monthly = JobPostingModel.builder()
+                .salaryCurrency("BRL").salaryMin(new BigDecimal("8000")).salaryPaymentPeriod("Mensal").build();
+
+        // Act
+        normalizer.normalize(hourly);
+        normalizer.normalize(monthly);
+
+        // Assert
+        assertEquals(new BigDecimal("208000.00"), hourly.getSalaryAnnualMin());
+        assertEquals(new BigDecimal("312000.00"), hourly.getSalaryAnnualMax());
+        assertEquals("BRL", hourly.getSalaryAnnualCurrency());
+        assertEquals(new BigDecimal("96000.00"), monthly.getSalaryAnnualMin());
+        assertNull(monthly.getSalaryAnnualMax());
+    }
+
+    @Test
+    @DisplayName("Should leave annual fields empty for unknown currencies or periods")
+    void testUnsupported() {
+        // Arrange
+        JobPostingModel unknownCurrency = JobPostingModel.builder()
+                .salaryCurrency("JPY").salaryMin(new BigDecimal("5000000")).salaryPaymentPeriod("YEARLY")
+                .salaryAnnualMin(BigDecimal.ONE).salaryAnnualCurrency("BRL").build();
+        JobPostingModel unknownPeriod = JobPostingModel.builder()
+                .salaryCurrency("USD").salaryMin(new BigDecimal("100")).salaryPaymentPeriod("per project").build();
+
+        // Act
+        normalizer.normalize(unknownCurrency);
+        normalizer.normalize(unknownPeriod);
+
+        // Assert
+        assertNull(unknownCurrency.getSalaryAnnualMin());
+        assertNull(unknownCurrency.getSalaryAnnualCurrency());
+        assertNull(unknownPeriod.getSalaryAnnualMin());
+        assertThrows(IllegalArgumentException.class, () -> new SalaryNormalizer("BRL", "USD=abc"));
+    }
+}
@@ -0,0 +1,125 @@
+package com.clusterat.live.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@DisplayName("SearXNG Batch Search Service Tests")
+class SearXNGBatchSearchServiceTest {
+
+    private SearXNGBatchSearchService batchSearchService;
+    private SearXNGService searXNGService;
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        searXNGService = mock(SearXNGService.class);
+        objectMapper = new ObjectMapper();
+        batchSearchService = new SearXNGBatchSearchService(
+                searXNGService,
+                objectMapper,
+                3,
+                2,
+                500,
+                1000
+        );
+    }
+
+    @Test
+    @DisplayName("Should merge results and deduplicate by URL")
+    void testBatchSearchMergesAndDeduplicates() throws Exception {
+        // Arrange
+        when(searXNGService.search(eq("java"), eq(1), isNull(), isNull()))
+                .thenReturn(Mono.just("{\"results\":[{\"url\":\"https://Example.com/a/\",\"score\":1.0},{\"url\":\"https://example.com/b\"}]}"));
+        when(searXNGService.search(eq("spring"), eq(1), isNull(), isNull()))
+                .thenReturn(Mono.just("{\"results\":[{\"url\":\"https://example.com/a\",\"score\":3.0}]}"));
+
+        // Act
+        String result = batchSearchService.batchSearch(List.of("java", "spring", "java"), 1, null, null, null, null).block();
+
+        // Assert
+        JsonNode root = objectMapper.readTree(result);
+        assertEquals(2, root.get("number_of_results").asInt());
+        assertEquals(2, root.get("completed").asInt());
+        assertFalse(root.get("partial").asBoolean());
+        JsonNode first = root.get("results").get(0);
+        assertEquals(2, first.get("matched_queries").size());
+        assertEquals(3.0, first.get("score").asDouble());
+        verify(searXNGService, times(1)).search(eq("java"), anyInt(), isNull(), isNull());
+    }
+
+    @Test
+    @DisplayName("Should report failed queries and return partial results")
+    void testBatchSearchReportsFailures() throws Exception {
+        // Arrange
+        when(searXNGService.search(eq("ok"), eq(1), isNull(), isNull()))
+                .thenReturn(Mono.just("{\"results\":[{\"url\":\"https://example.com\"}]}"));
+        when(searXNGService.search(eq("bad"), eq(1), isNull(), isNull()))
+                .thenReturn(Mono.just("{\"error\":\"Server error\",\"results\":[]}"));
+
+        // Act
+        String result = batchSearchService.batchSearch(List.of("ok", "bad"), 1, null, null, null, null).block();
+
+        // Assert
+        JsonNode root = objectMapper.readTree(result);
+        assertTrue(root.get("partial").asBoolean());
+        assertEquals("Server error", root.get("failed").get("bad").asText());
+        assertEquals(1, root.get("number_of_results").asInt());
+    }
+
+    @Test
+    @DisplayName("Should report queries exceeding the deadline as timed out")
+    void testBatchSearchDeadline() throws Exception {
+        // Arrange
+        when(searXNGService.search(eq("fast"), eq(1), isNull(), isNull()))
+                .thenReturn(Mono.just("{\"results\":[{\"url\":\"https://example.com\"}]}"));
+        when(searXNGService.search(eq("slow"), eq(1), isNull(), isNull()))
+                .thenReturn(Mono.delay(Duration.ofSeconds(2)).thenReturn("{\"results\":[]}"));
+
+        // Act
+        String result = batchSearchService.batchSearch(List.of("fast", "slow"), 1, null, null, null, 200L).block();
+
+        // Assert
+        JsonNode root = objectMapper.readTree(result);
+        assertTrue(root.get("partial").asBoolean());
+        assertEquals("slow", root.get("timed_out").get(0).asText());
+        assertEquals(1, root.get("number_of_results").asInt());
+    }
+
+    @Test
+    @DisplayName("Should return error when no queries are provided")
+    void testBatchSearchWithoutQueries() {
+        // Act
+        String result = batchSearchService.batchSearch(Collections.emptyList(), 1, null, null, null, null).block();
+
+        // Assert
+        assertNotNull(result);
+        assertTrue(result.contains("error"));
+        verify(searXNGService, never()).search(anyString(), anyInt(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should return error when too many queries are provided")
+    void testBatchSearchTooManyQueries() {
+        // Act
+        String result = batchSearchService.batchSearch(List.of("a", "b", "c", "d"), 1, null, null, null, null).block();
+
+        // Assert
+        assertNotNull(result);
+        assertTrue(result.contains("at most 3 queries"));
+    }
+}
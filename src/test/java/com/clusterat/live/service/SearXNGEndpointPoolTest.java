@@ -0,0 +1,120 @@
+package com.clusterat.live.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SearXNG Endpoint Pool Tests")
+class SearXNGEndpointPoolTest {
+
+    private SearXNGEndpointPool createPool(String urls, AtomicBoolean secondInstanceUp) {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    boolean up = !request.url().getHost().equals("searxng-2") || secondInstanceUp.get();
+                    return up
+                            ? Mono.just(ClientResponse.create(HttpStatus.OK).build())
+                            : Mono.error(new RuntimeException("Connection refused"));
+                })
+                .build();
+        return new SearXNGEndpointPool(webClient, urls, 2, 1000);
+    }
+
+    @Test
+    @DisplayName("Should parse and deduplicate configured URLs")
+    void testParsesUrls() {
+        // Act
+        SearXNGEndpointPool pool = createPool("http://searxng-1:8080/, http://searxng-2:8080,http://searxng-1:8080", new AtomicBoolean(true));
+
+        // Assert
+        assertEquals(2, pool.getEndpoints().size());
+        assertEquals("http://searxng-1:8080", pool.getEndpoints().get(0).getUrl());
+    }
+
+    @Test
+    @DisplayName("Should reject an empty configuration")
+    void testRejectsEmptyConfiguration() {
+        assertThrows(IllegalStateException.class, () -> createPool(" , ", new AtomicBoolean(true)));
+    }
+
+    @Test
+    @DisplayName("Should eject an instance after consecutive failures and route around it")
+    void testEjectsFailingInstance() {
+        // Arrange
+        SearXNGEndpointPool pool = createPool("http://searxng-1:8080,http://searxng-2:8080", new AtomicBoolean(true));
+        SearXNGEndpointPool.Endpoint second = pool.getEndpoints().get(1);
+
+        // Act
+        pool.recordFailure(second, new RuntimeException("502"));
+        pool.recordFailure(second, new RuntimeException("502"));
+
+        // Assert
+        assertFalse(second.isHealthy());
+        for (int i = 0; i < 20; i++) {
+            assertEquals("http://searxng-1:8080", pool.select().getUrl());
+        }
+    }
+
+    @Test
+    @DisplayName("Should re-admit an instance when the health probe succeeds")
+    void testReadmitsRecoveredInstance() {
+        // Arrange
+        AtomicBoolean secondInstanceUp = new AtomicBoolean(false);
+        SearXNGEndpointPool pool = createPool("http://searxng-1:8080,http://searxng-2:8080", secondInstanceUp);
+        SearXNGEndpointPool.Endpoint second = pool.getEndpoints().get(1);
+
+        // Act & Assert
+        pool.probeAll().block();
+        pool.probeAll().block();
+        assertFalse(second.isHealthy());
+
+        secondInstanceUp.set(true);
+        assertTrue(pool.probeAll().block());
+        assertTrue(second.isHealthy());
+    }
+
+    @Test
+    @DisplayName("Should prefer the instance with fewer outstanding requests")
+    void testPrefersLeastLoadedInstance() {
+        // Arrange
+        SearXNGEndpointPool pool = createPool("http://searxng-1:8080,http://searxng-2:8080", new AtomicBoolean(true));
+        SearXNGEndpointPool.Endpoint first = pool.getEndpoints().get(0);
+        SearXNGEndpointPool.Endpoint second = pool.getEndpoints().get(1);
+        pool.recordSuccess(first, 100);
+        pool.recordSuccess(second, 100);
+        for (int i = 0; i < 10; i++) {
+            pool.begin(first);
+        }
+
+        // Act
+        int secondSelected = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (pool.select() == second) {
+                secondSelected++;
+            }
+        }
+
+        // Assert - second wins every time both are sampled, so it must dominate
+        assertTrue(secondSelected > 650);
+    }
+
+    @Test
+    @DisplayName("Should fall back to all instances when none is healthy")
+    void testFailsOpenWhenAllInstancesAreDown() {
+        // Arrange
+        SearXNGEndpointPool pool = createPool("http://searxng-1:8080", new AtomicBoolean(true));
+        SearXNGEndpointPool.Endpoint only = pool.getEndpoints().get(0);
+        pool.recordFailure(only, null);
+        pool.recordFailure(only, null);
+
+        // Act & Assert
+        assertFalse(pool.hasHealthyEndpoint());
+        assertSame(only, pool.select());
+    }
+}
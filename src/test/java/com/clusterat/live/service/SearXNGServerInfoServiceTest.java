@@ -0,0 +1,139 @@
+package com.clusterat.live.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SearXNG Server Info Service Tests")
+class SearXNGServerInfoServiceTest {
+
+    private static final String CONFIG = "{\"categories\":[\"general\",\"news\"],\"engines\":["
+            + "{\"name\":\"duckduckgo\",\"shortcut\":\"ddg\",\"categories\":[\"general\"],\"enabled\":true,\"paging\":true},"
+            + "{\"name\":\"reddit\",\"shortcut\":\"re\",\"categories\":[\"social media\"],\"enabled\":true},"
+            + "{\"name\":\"bing news\",\"categories\":[\"news\"],\"enabled\":false}]}";
+
+    private List<ClientRequest> requests;
+
+    @BeforeEach
+    void setUp() {
+        requests = new ArrayList<>();
+    }
+
+    private SearXNGServerInfoService createService(Function<ClientRequest, Mono<ClientResponse>> exchange, long maxAgeMs) {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    requests.add(request);
+                    return exchange.apply(request);
+                })
+                .build();
+        SearXNGEndpointPool endpointPool = new SearXNGEndpointPool(webClient, "http://searxng:8080", 3, 2000);
+        return new SearXNGServerInfoService(webClient, new ObjectMapper(), endpointPool, 2000, maxAgeMs);
+    }
+
+    private static Mono<ClientResponse> configResponse(String etag) {
+        return Mono.just(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header(HttpHeaders.ETAG, etag)
+                .body(CONFIG)
+                .build());
+    }
+
+    @Test
+    @DisplayName("Should serve server info from memory after the first fetch")
+    void testServerInfoIsCached() {
+        // Arrange
+        SearXNGServerInfoService service = createService(request -> configResponse("\"v1\""), 60000);
+
+        // Act
+        String first = service.getServerInfo().block();
+        String second = service.getServerInfo().block();
+
+        // Assert
+        assertEquals(CONFIG, first);
+        assertEquals(CONFIG, second);
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    @DisplayName("Should revalidate with the ETag and keep the cached body on 304")
+    void testConditionalRefresh() {
+        // Arrange
+        SearXNGServerInfoService service = createService(request -> request.headers().getIfNoneMatch().isEmpty()
+                ? configResponse("\"v1\"")
+                : Mono.just(ClientResponse.create(HttpStatus.NOT_MODIFIED).build()), 60000);
+        service.getServerInfo().block();
+
+        // Act
+        service.scheduledRefresh().block();
+
+        // Assert
+        assertEquals(2, requests.size());
+        assertEquals(List.of("\"v1\""), requests.get(1).headers().getIfNoneMatch());
+        assertEquals(CONFIG, service.getServerInfo().block());
+        assertTrue(service.isKnownCategory("news"));
+    }
+
+    @Test
+    @DisplayName("Should index categories and enabled engines")
+    void testCatalogIndex() {
+        // Arrange
+        SearXNGServerInfoService service = createService(request -> configResponse("\"v1\""), 60000);
+
+        // Act
+        service.scheduledRefresh().block();
+
+        // Assert
+        assertTrue(service.isKnownCategory("General"));
+        assertTrue(service.isKnownCategory("social media"));
+        assertFalse(service.isKnownCategory("images"));
+        assertEquals(List.of("duckduckgo"), service.getEnginesForCategory("general"));
+        assertTrue(service.getEnginesForCategory("news").isEmpty());
+        assertEquals(3, service.getEngines().size());
+    }
+
+    @Test
+    @DisplayName("Should accept any category while the catalog is not loaded")
+    void testUnknownCatalogAcceptsCategories() {
+        // Arrange
+        SearXNGServerInfoService service = createService(request -> configResponse("\"v1\""), 60000);
+
+        // Act & Assert
+        assertFalse(service.isCatalogLoaded());
+        assertTrue(service.isKnownCategory("anything"));
+        assertTrue(requests.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should serve stale server info when the refresh fails")
+    void testServesStaleOnFailure() {
+        // Arrange
+        AtomicReference<Boolean> up = new AtomicReference<>(true);
+        SearXNGServerInfoService service = createService(request -> up.get()
+                ? configResponse("\"v1\"")
+                : Mono.error(new RuntimeException("Connection refused")), 0);
+        service.getServerInfo().block();
+        up.set(false);
+
+        // Act
+        String result = service.getServerInfo().block();
+
+        // Assert
+        assertEquals(CONFIG, result);
+        assertEquals(2, requests.size());
+    }
+}
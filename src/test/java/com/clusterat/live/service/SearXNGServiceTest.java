@@ -1,92 +1,118 @@
 package com.clusterat.live.service;
 
+import com.clusterat.live.config.RequestDeadline;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.mockito.Mock;
-import org.mockito.MockitoAnnotations;
-import org.springframework.http.ResponseEntity;
-import org.springframework.web.client.RestClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.when;
 
 @DisplayName("SearXNG Service Tests")
 class SearXNGServiceTest {
 
-    private SearXNGService searXNGService;
-
-    @Mock
-    private RestClient restClient;
-
-    @Mock
-    private RestClient.RequestHeadersUriSpec requestHeadersUriSpec;
-
-    @Mock
-    private RestClient.ResponseSpec responseSpec;
-
     private ObjectMapper objectMapper;
+    private List<ClientRequest> requests;
 
     @BeforeEach
     void setUp() {
-        MockitoAnnotations.openMocks(this);
         objectMapper = new ObjectMapper();
-        searXNGService = new SearXNGService(
-                restClient,
+        requests = Collections.synchronizedList(new ArrayList<>());
+    }
+
+    private SearXNGService createService(Function<ClientRequest, Mono<ClientResponse>> exchange, int timeoutSeconds) {
+        return createService(exchange, timeoutSeconds, createPrefetcher(false), 100);
+    }
+
+    private SearXNGPrefetcher createPrefetcher(boolean enabled) {
+        return new SearXNGPrefetcher(new SimpleMeterRegistry(), enabled, 1, 2, 0.5, 100, 10);
+    }
+
+    private SearXNGService createService(Function<ClientRequest, Mono<ClientResponse>> exchange, int timeoutSeconds,
+                                         SearXNGPrefetcher prefetcher, int maxRequestsPerWindow) {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    requests.add(request);
+                    return exchange.apply(request);
+                })
+                .build();
+        SearXNGEndpointPool endpointPool = new SearXNGEndpointPool(webClient, "http://searxng:8080", 3, 2000);
+        return new SearXNGService(
+                webClient,
                 objectMapper,
-                "http://searxng:8080",
-                10,
+                endpointPool,
+                prefetcher,
+                new SearXNGServerInfoService(webClient, objectMapper, endpointPool, 2000, 900000),
+                timeoutSeconds,
                 3,
+                10,
                 60000,
-                100
+                maxRequestsPerWindow
         );
     }
 
+    private static Mono<ClientResponse> jsonResponse(HttpStatus status, String body) {
+        return Mono.just(ClientResponse.create(status)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build());
+    }
+
     @Test
     @DisplayName("Should perform a simple search successfully")
     void testSimpleSearchSuccess() {
         // Arrange
-        String query = "java spring boot";
         String mockResponse = "{\"results\":[],\"number_of_results\":0}";
-
-        when(restClient.get()).thenReturn((RestClient.RequestHeadersUriSpec) requestHeadersUriSpec);
-        when(requestHeadersUriSpec.uri(anyString())).thenReturn((RestClient.RequestHeadersUriSpec) requestHeadersUriSpec);
-        when(requestHeadersUriSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.toEntity(String.class)).thenReturn(ResponseEntity.ok(mockResponse));
+        SearXNGService searXNGService = createService(request -> jsonResponse(HttpStatus.OK, mockResponse), 10);
 
         // Act
-        String result = searXNGService.search(query);
+        String result = searXNGService.search("java spring boot").block();
 
         // Assert
         assertNotNull(result);
         assertTrue(result.contains("results"));
+        assertFalse(result.contains("error"));
     }
 
     @Test
     @DisplayName("Should return error for empty query")
     void testSearchWithEmptyQuery() {
         // Arrange
-        String query = "";
+        SearXNGService searXNGService = createService(request -> jsonResponse(HttpStatus.OK, "{}"), 10);
 
         // Act
-        String result = searXNGService.search(query);
+        String result = searXNGService.search("").block();
 
         // Assert
         assertNotNull(result);
         assertTrue(result.contains("error"));
         assertTrue(result.contains("empty"));
+        assertTrue(requests.isEmpty());
     }
 
     @Test
     @DisplayName("Should return error for query exceeding max length")
     void testSearchWithQueryExceedingMaxLength() {
         // Arrange
-        String query = "a".repeat(1001);
+        SearXNGService searXNGService = createService(request -> jsonResponse(HttpStatus.OK, "{}"), 10);
 
         // Act
-        String result = searXNGService.search(query);
+        String result = searXNGService.search("a".repeat(1001)).block();
 
         // Assert
         assertNotNull(result);
@@ -94,17 +120,79 @@ class SearXNGServiceTest {
         assertTrue(result.contains("exceeds maximum length"));
     }
 
+    @Test
+    @DisplayName("Should retry transient server errors")
+    void testSearchRetriesServerErrors() {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+        SearXNGService searXNGService = createService(request -> attempts.incrementAndGet() < 3
+                ? jsonResponse(HttpStatus.BAD_GATEWAY, "")
+                : jsonResponse(HttpStatus.OK, "{\"results\":[]}"), 10);
+
+        // Act
+        String result = searXNGService.search("java").block();
+
+        // Assert
+        assertEquals(3, attempts.get());
+        assertFalse(result.contains("error"));
+    }
+
+    @Test
+    @DisplayName("Should not retry client errors")
+    void testSearchDoesNotRetryClientErrors() {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+        SearXNGService searXNGService = createService(request -> {
+            attempts.incrementAndGet();
+            return jsonResponse(HttpStatus.BAD_REQUEST, "");
+        }, 10);
+
+        // Act
+        String result = searXNGService.search("java").block();
+
+        // Assert
+        assertEquals(1, attempts.get());
+        assertTrue(result.contains("Client error"));
+    }
+
+    @Test
+    @DisplayName("Should enforce the configured timeout")
+    void testSearchTimeout() {
+        // Arrange
+        SearXNGService searXNGService = createService(request -> Mono.never(), 1);
+
+        // Act
+        String result = searXNGService.search("java").block(Duration.ofSeconds(10));
+
+        // Assert
+        assertNotNull(result);
+        assertTrue(result.contains("timed out"));
+    }
+
+    @Test
+    @DisplayName("Should propagate the request deadline to SearXNG")
+    void testSearchPropagatesDeadline() {
+        // Arrange
+        SearXNGService searXNGService = createService(request -> jsonResponse(HttpStatus.OK, "{\"results\":[]}"), 10);
+
+        // Act
+        searXNGService.search("java", 1, null, null)
+                .contextWrite(RequestDeadline.within(Duration.ofSeconds(2)))
+                .block();
+
+        // Assert
+        assertEquals(1, requests.size());
+        assertTrue(requests.get(0).url().getQuery().contains("timeout_limit="));
+    }
+
     @Test
     @DisplayName("Should perform health check successfully")
     void testHealthCheckSuccess() {
         // Arrange
-        when(restClient.get()).thenReturn((RestClient.RequestHeadersUriSpec) requestHeadersUriSpec);
-        when(requestHeadersUriSpec.uri(anyString())).thenReturn((RestClient.RequestHeadersUriSpec) requestHeadersUriSpec);
-        when(requestHeadersUriSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.toEntity(String.class)).thenReturn(ResponseEntity.ok("{}"));
+        SearXNGService searXNGService = createService(request -> jsonResponse(HttpStatus.OK, "{}"), 10);
 
         // Act
-        boolean result = searXNGService.healthCheck();
+        Boolean result = searXNGService.healthCheck().block();
 
         // Assert
         assertTrue(result);
@@ -114,12 +202,10 @@ class SearXNGServiceTest {
     @DisplayName("Should return false for health check failure")
     void testHealthCheckFailure() {
         // Arrange
-        when(restClient.get()).thenReturn((RestClient.RequestHeadersUriSpec) requestHeadersUriSpec);
-        when(requestHeadersUriSpec.uri(anyString())).thenReturn((RestClient.RequestHeadersUriSpec) requestHeadersUriSpec);
-        when(requestHeadersUriSpec.retrieve()).thenThrow(new RuntimeException("Connection failed"));
+        SearXNGService searXNGService = createService(request -> Mono.error(new RuntimeException("Connection failed")), 10);
 
         // Act
-        boolean result = searXNGService.healthCheck();
+        Boolean result = searXNGService.healthCheck().block();
 
         // Assert
         assertFalse(result);
@@ -128,31 +214,92 @@ class SearXNGServiceTest {
     @Test
     @DisplayName("Should clear cache successfully")
     void testClearCache() {
+        // Arrange
+        SearXNGService searXNGService = createService(request -> jsonResponse(HttpStatus.OK, "{}"), 10);
+
         // Act & Assert - should not throw exception
-        assertDoesNotThrow(() -> searXNGService.clearCache());
+        assertDoesNotThrow(searXNGService::clearCache);
+    }
+
+    @Test
+    @DisplayName("Should reject a category missing from the server catalog")
+    void testSearchRejectsUnknownCategory() {
+        // Arrange
+        SearXNGService searXNGService = createService(request -> request.url().getPath().equals("/config")
+                ? jsonResponse(HttpStatus.OK, "{\"categories\":[\"general\",\"news\"],\"engines\":[]}")
+                : jsonResponse(HttpStatus.OK, "{\"results\":[]}"), 10);
+        searXNGService.getServerInfo().block();
+        requests.clear();
+
+        // Act
+        String result = searXNGService.search("java", 1, "nonexistent", null).block();
+
+        // Assert
+        assertTrue(result.contains("Unknown category"));
+        assertTrue(result.contains("news"));
+        assertTrue(requests.isEmpty());
     }
 
     @Test
     @DisplayName("Should perform advanced search with parameters")
     void testAdvancedSearchWithParameters() {
         // Arrange
-        String query = "java";
-        Integer page = 2;
-        String category = "social media";
-        String language = "pt-BR";
         String mockResponse = "{\"results\":[],\"number_of_results\":0}";
-
-        when(restClient.get()).thenReturn((RestClient.RequestHeadersUriSpec) requestHeadersUriSpec);
-        when(requestHeadersUriSpec.uri(anyString())).thenReturn((RestClient.RequestHeadersUriSpec) requestHeadersUriSpec);
-        when(requestHeadersUriSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.toEntity(String.class)).thenReturn(ResponseEntity.ok(mockResponse));
+        SearXNGService searXNGService = createService(request -> jsonResponse(HttpStatus.OK, mockResponse), 10);
 
         // Act
-        String result = searXNGService.search(query, page, category, language);
+        String result = searXNGService.search("java", 2, "social media", "pt-BR").block();
 
         // Assert
         assertNotNull(result);
         assertTrue(result.contains("results"));
+        String query = requests.get(0).url().getRawQuery();
+        assertTrue(query.contains("pageno=2"));
+        assertTrue(query.contains("lang=pt-BR"));
     }
-}
 
+    @Test
+    @DisplayName("Should prefetch the next page and serve it from the prefetch cache")
+    void testPrefetchNextPage() throws InterruptedException {
+        // Arrange
+        SearXNGPrefetcher prefetcher = createPrefetcher(true);
+        SearXNGService searXNGService = createService(request -> jsonResponse(HttpStatus.OK,
+                "{\"page\":\"" + request.url().getQuery() + "\",\"results\":[]}"), 10, prefetcher, 100);
+
+        // Act
+        searXNGService.search("java", 1, null, null).block();
+        awaitRequests(2);
+        String secondPage = searXNGService.search("java", 2, null, null).block();
+
+        // Assert
+        assertTrue(secondPage.contains("pageno=2"));
+        assertTrue(requests.get(1).url().getQuery().contains("pageno=2"));
+        assertEquals(1, prefetcher.getHitCount());
+    }
+
+    @Test
+    @DisplayName("Should not prefetch when the rate limit budget is reserved for clients")
+    void testPrefetchRespectsRateLimitBudget() throws InterruptedException {
+        // Arrange
+        SearXNGPrefetcher prefetcher = createPrefetcher(true);
+        SearXNGService searXNGService = createService(request -> jsonResponse(HttpStatus.OK, "{\"results\":[]}"),
+                10, prefetcher, 2);
+
+        // Act
+        searXNGService.search("java", 1, null, null).block();
+        Thread.sleep(200);
+
+        // Assert
+        assertEquals(1, requests.size());
+        assertEquals(1, prefetcher.getSkippedCount());
+    }
+
+    private void awaitRequests(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (requests.size() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        // Give the prefetch time to store the page after the response arrives
+        Thread.sleep(100);
+    }
+}
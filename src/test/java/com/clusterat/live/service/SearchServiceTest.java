@@ -0,0 +1,56 @@
+package com.clusterat.live.service;
+
+import com.clusterat.live.model.SearchSource;
+import com.clusterat.live.repository.reactive.SearchReactiveRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import reactor.core.publisher.Flux;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Search Service Tests")
+class SearchServiceTest {
+
+    private SearchService searchService;
+
+    @Mock
+    private SearchReactiveRepository searchReactiveRepository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        searchService = new SearchService(searchReactiveRepository);
+    }
+
+    @Test
+    @DisplayName("Should search every type by default and only the requested types otherwise")
+    void testParseTypes() {
+        // Act & Assert
+        assertEquals(EnumSet.allOf(SearchSource.class), SearchService.parseTypes(null));
+        assertEquals(EnumSet.of(SearchSource.JOB_POSTING, SearchSource.RENTAL_PROPERTY),
+                SearchService.parseTypes("Job_Posting, rental_property,"));
+        assertThrows(IllegalArgumentException.class, () -> SearchService.parseTypes("users"));
+    }
+
+    @Test
+    @DisplayName("Should reject a blank query or an out of range limit without querying")
+    void testInvalidRequests() {
+        // Arrange
+        when(searchReactiveRepository.search(anyString(), anySet(), anyInt())).thenReturn(Flux.empty());
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> searchService.search("  ", null, null).block());
+        assertThrows(IllegalArgumentException.class,
+                () -> searchService.search("aluguel", null, SearchService.MAX_LIMIT + 1).block());
+        verify(searchReactiveRepository, never()).search(anyString(), anySet(), anyInt());
+    }
+}
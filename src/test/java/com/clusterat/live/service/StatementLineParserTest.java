@@ -0,0 +1,82 @@
+package com.clusterat.live.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Statement Line Parser Tests")
+class StatementLineParserTest {
+
+    @Test
+    @DisplayName("Should take date, description and the first amount, ignoring the running balance")
+    void testBrazilianStatementLine() {
+        // Arrange
+        StatementLineParser parser = new StatementLineParser(LocalDate.of(2024, 6, 1));
+
+        // Act
+        StatementLineParser.StatementLine line = parser.parse("05/01/2025 SUPERMERCADO XYZ 1.234,56 3.000,00");
+
+        // Assert
+        assertNotNull(line);
+        assertEquals(LocalDate.of(2025, 1, 5), line.date());
+        assertEquals(new BigDecimal("1234.56"), line.amount());
+        assertEquals("SUPERMERCADO XYZ", line.description());
+        assertFalse(line.credit());
+    }
+
+    @Test
+    @DisplayName("Should use the year of the last full date and detect credits")
+    void testYearContextAndDirection() {
+        // Arrange
+        StatementLineParser parser = new StatementLineParser(LocalDate.of(2024, 6, 1));
+        parser.parse("31/12/2025 ANUIDADE 10,00");
+
+        // Act
+        StatementLineParser.StatementLine credit = parser.parse("06/01 PIX RECEBIDO 500,00 C");
+        StatementLineParser.StatementLine plus = parser.parse("2025-02-10 TRANSF +1,234.50");
+        StatementLineParser.StatementLine minus = parser.parse("07/01 UBER *TRIP -23,90");
+
+        // Assert
+        assertEquals(LocalDate.of(2025, 1, 6), credit.date());
+        assertTrue(credit.credit());
+        assertTrue(plus.credit());
+        assertEquals(new BigDecimal("1234.50"), plus.amount());
+        assertFalse(minus.credit());
+        assertEquals(new BigDecimal("23.90"), minus.amount());
+    }
+
+    @Test
+    @DisplayName("Should move year-less dates after the reference date to the previous year")
+    void testYearRollover() {
+        // Arrange
+        StatementLineParser parser = new StatementLineParser(LocalDate.of(2026, 1, 10));
+
+        // Act
+        StatementLineParser.StatementLine december = parser.parse("15/12 LOJA ABC 89,90");
+        StatementLineParser.StatementLine sameDay = parser.parse("10/01 PADARIA 12,50");
+        StatementLineParser.StatementLine nextDay = parser.parse("11/01 FARMACIA 30,00");
+
+        // Assert
+        assertEquals(LocalDate.of(2025, 12, 15), december.date());
+        assertEquals(LocalDate.of(2026, 1, 10), sameDay.date());
+        assertEquals(LocalDate.of(2025, 1, 11), nextDay.date());
+    }
+
+    @Test
+    @DisplayName("Should skip headers, balance lines, invalid dates and lines without description")
+    void testNonTransactionLines() {
+        // Arrange
+        StatementLineParser parser = new StatementLineParser(LocalDate.of(2025, 6, 1));
+
+        // Act & Assert
+        assertNull(parser.parse("Extrato de conta corrente"));
+        assertNull(parser.parse("05/01 SALDO ANTERIOR 1.000,00"));
+        assertNull(parser.parse("31/02/2025 COMPRA 1,00"));
+        assertNull(parser.parse("05/01/2025 12,00"));
+        assertNull(parser.parse(""));
+    }
+}
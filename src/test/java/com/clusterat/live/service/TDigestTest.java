@@ -0,0 +1,51 @@
+package com.clusterat.live.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("T-Digest Tests")
+class TDigestTest {
+
+    @Test
+    @DisplayName("Should estimate percentiles of a skewed distribution within 1%")
+    void testQuantileAccuracy() {
+        // Arrange
+        Random random = new Random(42);
+        double[] values = new double[100_000];
+        TDigest digest = new TDigest();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.exp(11 + random.nextGaussian() * 0.5);
+            digest.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        // Act & Assert
+        for (double q : new double[]{0.01, 0.25, 0.5, 0.75, 0.9, 0.99}) {
+            double exact = values[(int) (q * values.length)];
+            assertEquals(exact, digest.quantile(q), exact * 0.01, "quantile " + q);
+        }
+        assertEquals(values[0], digest.quantile(0));
+        assertEquals(values[values.length - 1], digest.quantile(1));
+        assertEquals(values.length, digest.count());
+    }
+
+    @Test
+    @DisplayName("Should handle empty and tiny digests")
+    void testSmallDigests() {
+        // Arrange
+        TDigest digest = new TDigest();
+
+        // Act & Assert
+        assertTrue(Double.isNaN(digest.quantile(0.5)));
+        digest.add(100);
+        assertEquals(100, digest.quantile(0.5));
+        digest.add(200);
+        assertEquals(150, digest.quantile(0.5), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> digest.quantile(1.5));
+    }
+}
@@ -0,0 +1,89 @@
+package com.clusterat.live.service;
+
+import com.clusterat.live.model.AnalysisType;
+import com.clusterat.live.model.CategorizationRuleModel;
+import com.clusterat.live.repository.CategorizationRuleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Transaction Categorizer Tests")
+class TransactionCategorizerTest {
+
+    private TransactionCategorizer categorizer;
+
+    @Mock
+    private CategorizationRuleRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        categorizer = new TransactionCategorizer(repository);
+    }
+
+    private CategorizationRuleModel rule(int id, String pattern, String field, int priority, int categoryId) {
+        return CategorizationRuleModel.builder()
+                .ruleId(id)
+                .name("rule " + id)
+                .pattern(pattern)
+                .matchField(field)
+                .priority(priority)
+                .categoryId(categoryId)
+                .enabled(true)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should pick the highest priority, then the longest pattern, ignoring case and accents")
+    void testWinnerSelection() {
+        // Arrange
+        when(repository.findByEnabledTrue()).thenReturn(List.of(
+                rule(1, "uber", CategorizationRuleModel.MATCH_DESCRIPTION, 0, 10),
+                rule(2, "uber eats", CategorizationRuleModel.MATCH_DESCRIPTION, 0, 20),
+                rule(3, "Farmácia", CategorizationRuleModel.MATCH_DESCRIPTION, 0, 30),
+                rule(4, "drogasil", CategorizationRuleModel.MATCH_DESCRIPTION, 5, 40)));
+        categorizer.reload();
+
+        // Act & Assert
+        assertEquals(10, categorizer.classify("UBER *TRIP", null, null).orElseThrow().categoryId());
+        assertEquals(20, categorizer.classify("Pagamento Uber-Eats SP", null, null).orElseThrow().categoryId());
+        assertEquals(30, categorizer.classify("FARMACIA SAO JOAO", null, null).orElseThrow().categoryId());
+        assertEquals(40, categorizer.classify("farmacia drogasil 123", null, null).orElseThrow().categoryId());
+        assertTrue(categorizer.classify("Supermercado", null, null).isEmpty());
+        assertEquals(4, categorizer.getRuleCount());
+    }
+
+    @Test
+    @DisplayName("Should honor the amount range and match merchant rules only on the merchant")
+    void testAmountRangeAndMerchant() {
+        // Arrange
+        CategorizationRuleModel big = rule(1, "pix", CategorizationRuleModel.MATCH_DESCRIPTION, 1, 50);
+        big.setMinAmount(new BigDecimal("1000"));
+        big.setAnalysisType(AnalysisType.INVESTMENT);
+        when(repository.findByEnabledTrue()).thenReturn(List.of(
+                big,
+                rule(2, "pix", CategorizationRuleModel.MATCH_DESCRIPTION, 0, 60),
+                rule(3, "ifood", CategorizationRuleModel.MATCH_MERCHANT, 0, 70)));
+        categorizer.reload();
+
+        // Act
+        TransactionCategorizer.Classification large = categorizer.classify("PIX recebido", null, new BigDecimal("-2500.00")).orElseThrow();
+        TransactionCategorizer.Classification small = categorizer.classify("PIX recebido", null, new BigDecimal("15.00")).orElseThrow();
+
+        // Assert
+        assertEquals(50, large.categoryId());
+        assertEquals(AnalysisType.INVESTMENT, large.analysisType());
+        assertEquals(60, small.categoryId());
+        assertNull(small.analysisType());
+        assertTrue(categorizer.classify("IFOOD *RESTAURANTE", null, BigDecimal.TEN).isEmpty());
+        assertEquals(70, categorizer.classify("Compra cartao", "iFood", BigDecimal.TEN).orElseThrow().categoryId());
+    }
+}